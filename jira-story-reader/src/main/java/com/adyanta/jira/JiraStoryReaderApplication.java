@@ -1,14 +1,26 @@
 package com.adyanta.jira;
 
+import com.adyanta.jira.cli.BatchCli;
+import com.adyanta.jira.config.ConfigWatcher;
 import com.adyanta.jira.config.JiraConfig;
+import com.adyanta.jira.export.ExportColumn;
+import com.adyanta.jira.export.ExportFormat;
+import com.adyanta.jira.export.ExportOptions;
+import com.adyanta.jira.export.StoryExporter;
 import com.adyanta.jira.model.JiraStory;
+import com.adyanta.jira.server.StoryServer;
 import com.adyanta.jira.service.JiraStoryReaderService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.CountDownLatch;
 
 /**
  * Main application class demonstrating how to use the Jira Story Reader.
@@ -21,19 +33,64 @@ public class JiraStoryReaderApplication {
     public static void main(String[] args) {
         logger.info("Starting Jira Story Reader Application");
         
+        int exitCode = 0;
         try {
             // Initialize configuration and service
             JiraConfig config = new JiraConfig();
-            JiraStoryReaderService service = new JiraStoryReaderService(config);
-            
-            // Run interactive menu
-            runInteractiveMenu(service);
+            try (JiraStoryReaderService service = new JiraStoryReaderService(config)) {
+                if (args.length > 0 && "serve".equals(args[0])) {
+                    // Keep the service, its connection pool and cache warm behind a local HTTP API
+                    runServer(service, config, args);
+                } else if (args.length > 0) {
+                    // Run a single headless command
+                    exitCode = new BatchCli(service).run(args);
+                } else {
+                    // Run interactive menu
+                    runInteractiveMenu(service);
+                }
+            }
             
         } catch (Exception e) {
             logger.error("Application failed to start: {}", e.getMessage(), e);
             System.err.println("Failed to start application: " + e.getMessage());
             System.exit(1);
         }
+        
+        if (exitCode != 0) {
+            System.exit(exitCode);
+        }
+    }
+    
+    private static void runServer(JiraStoryReaderService service, JiraConfig config, String[] args) throws Exception {
+        for (int i = 1; i < args.length - 1; i++) {
+            if ("--port".equals(args[i])) {
+                config.setServerPort(Integer.parseInt(args[i + 1]));
+            } else if ("--bind".equals(args[i])) {
+                config.setServerBind(args[i + 1]);
+            }
+        }
+        
+        CountDownLatch stopped = new CountDownLatch(1);
+        try (StoryServer server = new StoryServer(service, config);
+             ConfigWatcher watcher = startConfigWatcher(service, config)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(stopped::countDown, "story-server-shutdown"));
+            server.start();
+            System.err.println("Serving stories on " + server.getUrl() + " (Ctrl+C to stop)");
+            stopped.await();
+        }
+    }
+    
+    /**
+     * Apply edits to the configuration file to the running service, unless disabled or there is no file
+     */
+    private static ConfigWatcher startConfigWatcher(JiraStoryReaderService service, JiraConfig config) throws IOException {
+        File configFile = JiraConfig.findConfigFile();
+        if (!config.isConfigWatch() || configFile == null) {
+            return null;
+        }
+        ConfigWatcher watcher = new ConfigWatcher(configFile.toPath()).onChange(service::applyConfig);
+        watcher.start();
+        return watcher;
     }
     
     private static void runInteractiveMenu(JiraStoryReaderService service) {
@@ -72,6 +129,9 @@ public class JiraStoryReaderApplication {
                         runExampleScenarios(service);
                         break;
                     case 9:
+                        exportStoriesByJQL(service, scanner);
+                        break;
+                    case 10:
                         System.out.println("Goodbye!");
                         return;
                     default:
@@ -102,7 +162,8 @@ public class JiraStoryReaderApplication {
         System.out.println("6. Fetch Stories by Sprint");
         System.out.println("7. Fetch Stories by Status");
         System.out.println("8. Run Example Scenarios");
-        System.out.println("9. Exit");
+        System.out.println("9. Export Stories by JQL");
+        System.out.println("10. Exit");
         System.out.println("=".repeat(60));
     }
     
@@ -139,9 +200,7 @@ public class JiraStoryReaderApplication {
             List<JiraStory> stories = service.getStoriesByKeys(storyKeys);
             
             System.out.println("\nFound " + stories.size() + " stories:");
-            for (JiraStory story : stories) {
-                service.printStoryDetails(story);
-            }
+            service.printStories(stories);
         } catch (JiraStoryReaderService.JiraApiException e) {
             System.out.println("Error fetching stories: " + e.getMessage());
         }
@@ -161,9 +220,7 @@ public class JiraStoryReaderApplication {
             List<JiraStory> stories = service.searchStories(jql);
             
             System.out.println("\nFound " + stories.size() + " stories:");
-            for (JiraStory story : stories) {
-                service.printStoryDetails(story);
-            }
+            service.printStories(stories);
         } catch (JiraStoryReaderService.JiraApiException e) {
             System.out.println("Error searching stories: " + e.getMessage());
         }
@@ -182,9 +239,7 @@ public class JiraStoryReaderApplication {
             List<JiraStory> stories = service.getStoriesByProject(projectKey);
             
             System.out.println("\nFound " + stories.size() + " stories in project " + projectKey + ":");
-            for (JiraStory story : stories) {
-                service.printStoryDetails(story);
-            }
+            service.printStories(stories);
         } catch (JiraStoryReaderService.JiraApiException e) {
             System.out.println("Error fetching stories: " + e.getMessage());
         }
@@ -203,9 +258,7 @@ public class JiraStoryReaderApplication {
             List<JiraStory> stories = service.getStoriesByAssignee(assignee);
             
             System.out.println("\nFound " + stories.size() + " stories assigned to " + assignee + ":");
-            for (JiraStory story : stories) {
-                service.printStoryDetails(story);
-            }
+            service.printStories(stories);
         } catch (JiraStoryReaderService.JiraApiException e) {
             System.out.println("Error fetching stories: " + e.getMessage());
         }
@@ -224,9 +277,7 @@ public class JiraStoryReaderApplication {
             List<JiraStory> stories = service.getStoriesBySprint(sprintName);
             
             System.out.println("\nFound " + stories.size() + " stories in sprint " + sprintName + ":");
-            for (JiraStory story : stories) {
-                service.printStoryDetails(story);
-            }
+            service.printStories(stories);
         } catch (JiraStoryReaderService.JiraApiException e) {
             System.out.println("Error fetching stories: " + e.getMessage());
         }
@@ -245,14 +296,50 @@ public class JiraStoryReaderApplication {
             List<JiraStory> stories = service.getStoriesByStatus(status);
             
             System.out.println("\nFound " + stories.size() + " stories with status " + status + ":");
-            for (JiraStory story : stories) {
-                service.printStoryDetails(story);
-            }
+            service.printStories(stories);
         } catch (JiraStoryReaderService.JiraApiException e) {
             System.out.println("Error fetching stories: " + e.getMessage());
         }
     }
     
+    private static void exportStoriesByJQL(JiraStoryReaderService service, Scanner scanner) {
+        System.out.print("JQL: ");
+        String jql = scanner.nextLine().trim();
+        
+        if (jql.isEmpty()) {
+            System.out.println("JQL query cannot be empty.");
+            return;
+        }
+        
+        System.out.print("Format (ndjson, csv, md) [csv]: ");
+        String formatName = scanner.nextLine().trim();
+        ExportFormat format = formatName.isEmpty() ? ExportFormat.CSV : ExportFormat.fromName(formatName);
+        
+        System.out.print("Columns (comma-separated, blank for default): ");
+        List<ExportColumn> columns = ExportColumn.parseList(scanner.nextLine().trim());
+        
+        System.out.print("Compress with gzip? (y/N): ");
+        boolean gzip = scanner.nextLine().trim().equalsIgnoreCase("y");
+        
+        String defaultFile = "stories." + format.getFileExtension() + (gzip ? ".gz" : "");
+        System.out.print("Output file [" + defaultFile + "]: ");
+        String fileName = scanner.nextLine().trim();
+        Path outputFile = Paths.get(fileName.isEmpty() ? defaultFile : fileName);
+        
+        ExportOptions options = new ExportOptions(outputFile, format);
+        options.setColumns(columns);
+        options.setGzip(gzip);
+        
+        try (StoryExporter exporter = new StoryExporter(options)) {
+            long exported = exporter.export(service, jql);
+            System.out.println("\nExported " + exported + " stories to " + outputFile.toAbsolutePath());
+        } catch (JiraStoryReaderService.JiraApiException e) {
+            System.out.println("Error exporting stories: " + e.getMessage());
+        } catch (IOException e) {
+            System.out.println("Error writing export file: " + e.getMessage());
+        }
+    }
+    
     private static void runExampleScenarios(JiraStoryReaderService service) {
         System.out.println("\nRunning Example Scenarios...");
         System.out.println("=".repeat(50));
@@ -0,0 +1,155 @@
+package com.adyanta.jira.aggregate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable result of an aggregation: story counts, story point sums and
+ * point percentiles per group, plus totals over all stories.
+ * Groups are ordered by story count, largest first.
+ */
+public final class AggregationResult {
+    
+    private final GroupBy groupBy;
+    private final String[] groups;
+    private final long[] counts;
+    private final double[] pointSums;
+    private final double[][] sortedPoints;
+    private final long totalCount;
+    private final double[] totalSortedPoints;
+    private final double totalPointSum;
+    
+    AggregationResult(GroupBy groupBy, String[] groups, long[] counts, double[] pointSums,
+                      double[][] sortedPoints, long totalCount, double[] totalSortedPoints) {
+        Integer[] order = new Integer[groups.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> counts[a] != counts[b]
+                ? Long.compare(counts[b], counts[a])
+                : groups[a].compareTo(groups[b]));
+        
+        this.groupBy = groupBy;
+        this.groups = new String[groups.length];
+        this.counts = new long[groups.length];
+        this.pointSums = new double[groups.length];
+        this.sortedPoints = new double[groups.length][];
+        for (int i = 0; i < order.length; i++) {
+            this.groups[i] = groups[order[i]];
+            this.counts[i] = counts[order[i]];
+            this.pointSums[i] = pointSums[order[i]];
+            this.sortedPoints[i] = sortedPoints[order[i]];
+        }
+        this.totalCount = totalCount;
+        this.totalSortedPoints = totalSortedPoints;
+        
+        double sum = 0;
+        for (double value : totalSortedPoints) {
+            sum += value;
+        }
+        this.totalPointSum = sum;
+    }
+    
+    public GroupBy getGroupBy() {
+        return groupBy;
+    }
+    
+    public List<String> getGroups() {
+        List<String> names = new ArrayList<>(groups.length);
+        Collections.addAll(names, groups);
+        return names;
+    }
+    
+    public long getCount(String group) {
+        int index = indexOf(group);
+        return index >= 0 ? counts[index] : 0;
+    }
+    
+    public double getStoryPoints(String group) {
+        int index = indexOf(group);
+        return index >= 0 ? pointSums[index] : 0;
+    }
+    
+    /**
+     * Number of stories in the group that have story points
+     */
+    public long getEstimatedCount(String group) {
+        int index = indexOf(group);
+        return index >= 0 ? sortedPoints[index].length : 0;
+    }
+    
+    /**
+     * Story point percentile within a group
+     *
+     * @param percentile a value between 0 and 100
+     */
+    public double getStoryPointsPercentile(String group, double percentile) {
+        int index = indexOf(group);
+        return index >= 0 ? percentile(sortedPoints[index], percentile) : 0;
+    }
+    
+    /**
+     * Number of stories aggregated; multi-valued groupings may count a story in several groups
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+    
+    public double getTotalStoryPoints() {
+        return totalPointSum;
+    }
+    
+    public double getTotalStoryPointsPercentile(double percentile) {
+        return percentile(totalSortedPoints, percentile);
+    }
+    
+    private int indexOf(String group) {
+        for (int i = 0; i < groups.length; i++) {
+            if (groups[i].equals(group)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private static double percentile(double[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+    
+    /**
+     * Format the result as an aligned text table
+     */
+    public String toTable() {
+        StringBuilder table = new StringBuilder();
+        String header = groupBy == GroupBy.NONE ? "group" : groupBy.getOptionName();
+        table.append(String.format("%-30s %8s %10s %8s %8s %8s%n", header, "stories", "points", "p50", "p90", "max"));
+        for (int i = 0; i < groups.length; i++) {
+            appendRow(table, groups[i], counts[i], pointSums[i], sortedPoints[i]);
+        }
+        if (groupBy != GroupBy.NONE) {
+            appendRow(table, "total", totalCount, totalPointSum, totalSortedPoints);
+        }
+        return table.toString();
+    }
+    
+    private static void appendRow(StringBuilder table, String group, long count, double points, double[] sorted) {
+        table.append(String.format("%-30s %8d %10.1f %8.1f %8.1f %8.1f%n", group, count, points,
+                percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 100)));
+    }
+    
+    @Override
+    public String toString() {
+        return "AggregationResult{" +
+                "groupBy=" + groupBy +
+                ", groups=" + groups.length +
+                ", totalCount=" + totalCount +
+                ", totalStoryPoints=" + totalPointSum +
+                '}';
+    }
+}
@@ -0,0 +1,130 @@
+package com.adyanta.jira.aggregate;
+
+import com.adyanta.jira.model.JiraStory;
+import com.adyanta.jira.snapshot.StoryView;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Dimensions stories can be grouped by. Labels and components are
+ * multi-valued, so a story counts towards each of its labels or components.
+ */
+public enum GroupBy {
+    
+    NONE("none") {
+        @Override
+        void forEachGroup(JiraStory.Fields fields, Consumer<String> group) {
+            group.accept("all");
+        }
+        
+        @Override
+        void forEachGroup(StoryView view, Consumer<String> group) {
+            group.accept("all");
+        }
+    },
+    STATUS("status") {
+        @Override
+        void forEachGroup(JiraStory.Fields fields, Consumer<String> group) {
+            group.accept(fields.getStatus() != null ? fields.getStatus().getName() : null);
+        }
+        
+        @Override
+        void forEachGroup(StoryView view, Consumer<String> group) {
+            group.accept(view.getStatusName());
+        }
+    },
+    ASSIGNEE("assignee") {
+        @Override
+        void forEachGroup(JiraStory.Fields fields, Consumer<String> group) {
+            JiraStory.User assignee = fields.getAssignee();
+            group.accept(assignee == null ? null
+                    : assignee.getDisplayName() != null ? assignee.getDisplayName() : assignee.getAccountId());
+        }
+        
+        @Override
+        void forEachGroup(StoryView view, Consumer<String> group) {
+            String name = view.getAssigneeName();
+            group.accept(name != null ? name : view.getAssigneeAccountId());
+        }
+    },
+    LABEL("label") {
+        @Override
+        void forEachGroup(JiraStory.Fields fields, Consumer<String> group) {
+            forEachValue(fields.getLabels(), group);
+        }
+        
+        @Override
+        void forEachGroup(StoryView view, Consumer<String> group) {
+            forEachValue(view.getLabels(), group);
+        }
+    },
+    COMPONENT("component") {
+        @Override
+        void forEachGroup(JiraStory.Fields fields, Consumer<String> group) {
+            List<JiraStory.Component> components = fields.getComponents();
+            if (components == null || components.isEmpty()) {
+                group.accept(null);
+                return;
+            }
+            for (JiraStory.Component component : components) {
+                group.accept(component.getName());
+            }
+        }
+        
+        @Override
+        void forEachGroup(StoryView view, Consumer<String> group) {
+            forEachValue(view.getComponentNames(), group);
+        }
+    };
+    
+    /**
+     * Group name used for stories without a value
+     */
+    public static final String NO_VALUE = "(none)";
+    
+    private final String optionName;
+    
+    GroupBy(String optionName) {
+        this.optionName = optionName;
+    }
+    
+    public String getOptionName() {
+        return optionName;
+    }
+    
+    /**
+     * Pass each group the story belongs to, or null when the field is empty
+     */
+    abstract void forEachGroup(JiraStory.Fields fields, Consumer<String> group);
+    
+    /**
+     * Pass each group a snapshot story belongs to, decoding only the grouped field
+     */
+    abstract void forEachGroup(StoryView view, Consumer<String> group);
+    
+    private static void forEachValue(List<String> values, Consumer<String> group) {
+        if (values == null || values.isEmpty()) {
+            group.accept(null);
+            return;
+        }
+        for (String value : values) {
+            group.accept(value);
+        }
+    }
+    
+    public static GroupBy fromName(String name) {
+        if (name == null) {
+            return NONE;
+        }
+        String normalized = name.trim().toLowerCase();
+        for (GroupBy groupBy : values()) {
+            // Accept plurals such as labels and components
+            if (groupBy.optionName.equals(normalized) || (groupBy.optionName + "s").equals(normalized)) {
+                return groupBy;
+            }
+        }
+        throw new IllegalArgumentException("Unknown group-by field: " + name
+                + " (expected none, status, assignee, label or component)");
+    }
+}
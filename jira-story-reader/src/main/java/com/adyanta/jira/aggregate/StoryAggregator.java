@@ -0,0 +1,212 @@
+package com.adyanta.jira.aggregate;
+
+import com.adyanta.jira.model.JiraStory;
+import com.adyanta.jira.service.JiraStoryReaderService;
+import com.adyanta.jira.service.StoryCache;
+import com.adyanta.jira.snapshot.StoryView;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Accumulates story counts and story points per group.
+ * Only primitive counters and point values are retained, never the stories
+ * themselves, so it can consume the streaming search path directly.
+ * Instances are not thread-safe; parallel aggregation uses one instance
+ * per fork/join task and merges them.
+ */
+public class StoryAggregator implements JiraStoryReaderService.StoryConsumer {
+    
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int PARALLEL_THRESHOLD = 2048;
+    
+    private final GroupBy groupBy;
+    private final Map<String, Integer> groupIndex = new HashMap<>();
+    private String[] names = new String[INITIAL_CAPACITY];
+    private long[] counts = new long[INITIAL_CAPACITY];
+    private double[] pointSums = new double[INITIAL_CAPACITY];
+    private PointValues[] points = new PointValues[INITIAL_CAPACITY];
+    private final PointValues totalPoints = new PointValues();
+    private long totalCount;
+    
+    public StoryAggregator(GroupBy groupBy) {
+        this.groupBy = groupBy;
+    }
+    
+    /**
+     * Aggregate a JQL search on the streaming path, one page at a time
+     */
+    public static AggregationResult aggregate(JiraStoryReaderService service, String jql, GroupBy groupBy)
+            throws JiraStoryReaderService.JiraApiException {
+        StoryAggregator aggregator = new StoryAggregator(groupBy);
+        service.streamStories(jql, aggregator);
+        return aggregator.result();
+    }
+    
+    /**
+     * Aggregate stories already in memory, splitting large collections
+     * across the common fork/join pool
+     */
+    public static AggregationResult aggregate(Collection<JiraStory> stories, GroupBy groupBy) {
+        // The split indexes into the list, which a linked list would answer by walking it each time
+        List<JiraStory> snapshot = stories instanceof List && stories instanceof RandomAccess
+                ? (List<JiraStory>) stories : new ArrayList<>(stories);
+        return ForkJoinPool.commonPool().invoke(new AggregateTask(snapshot, 0, snapshot.size(), groupBy)).result();
+    }
+    
+    /**
+     * Aggregate the stories currently held in a cache
+     */
+    public static AggregationResult aggregate(StoryCache cache, GroupBy groupBy) {
+        return aggregate(cache.snapshot(), groupBy);
+    }
+    
+    @Override
+    public void accept(JiraStory story) {
+        JiraStory.Fields fields = story.getFields();
+        if (fields == null) {
+            return;
+        }
+        Double storyPoints = fields.getStoryPoints();
+        countStory(storyPoints);
+        groupBy.forEachGroup(fields, name -> countGroup(name, storyPoints));
+    }
+    
+    /**
+     * Count a story from a snapshot, decoding only its story points and the grouped field
+     */
+    public void accept(StoryView view) {
+        Double storyPoints = view.getStoryPoints();
+        countStory(storyPoints);
+        groupBy.forEachGroup(view, name -> countGroup(name, storyPoints));
+    }
+    
+    private void countStory(Double storyPoints) {
+        totalCount++;
+        if (storyPoints != null) {
+            totalPoints.add(storyPoints);
+        }
+    }
+    
+    private void countGroup(String name, Double storyPoints) {
+        int index = indexOf(name != null ? name : GroupBy.NO_VALUE);
+        counts[index]++;
+        if (storyPoints != null) {
+            pointSums[index] += storyPoints;
+            points[index].add(storyPoints);
+        }
+    }
+    
+    private int indexOf(String name) {
+        Integer index = groupIndex.get(name);
+        if (index != null) {
+            return index;
+        }
+        int next = groupIndex.size();
+        if (next == names.length) {
+            int capacity = names.length * 2;
+            names = Arrays.copyOf(names, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+            pointSums = Arrays.copyOf(pointSums, capacity);
+            points = Arrays.copyOf(points, capacity);
+        }
+        names[next] = name;
+        points[next] = new PointValues();
+        groupIndex.put(name, next);
+        return next;
+    }
+    
+    /**
+     * Fold another aggregator's counts into this one
+     */
+    public StoryAggregator merge(StoryAggregator other) {
+        for (int i = 0; i < other.groupIndex.size(); i++) {
+            int index = indexOf(other.names[i]);
+            counts[index] += other.counts[i];
+            pointSums[index] += other.pointSums[i];
+            points[index].addAll(other.points[i]);
+        }
+        totalCount += other.totalCount;
+        totalPoints.addAll(other.totalPoints);
+        return this;
+    }
+    
+    public AggregationResult result() {
+        int size = groupIndex.size();
+        double[][] sortedPoints = new double[size][];
+        for (int i = 0; i < size; i++) {
+            sortedPoints[i] = points[i].sorted();
+        }
+        return new AggregationResult(groupBy, Arrays.copyOf(names, size), Arrays.copyOf(counts, size),
+                Arrays.copyOf(pointSums, size), sortedPoints, totalCount, totalPoints.sorted());
+    }
+    
+    /**
+     * Growable array of story point values
+     */
+    private static final class PointValues {
+        private double[] values = new double[8];
+        private int size;
+        
+        private void add(double value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+        
+        private void addAll(PointValues other) {
+            if (size + other.size > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, size + other.size));
+            }
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+        }
+        
+        private double[] sorted() {
+            double[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+    
+    /**
+     * Splits a story list in halves until slices are small enough to aggregate directly
+     */
+    private static final class AggregateTask extends RecursiveTask<StoryAggregator> {
+        private final List<JiraStory> stories;
+        private final int from;
+        private final int to;
+        private final GroupBy groupBy;
+        
+        private AggregateTask(List<JiraStory> stories, int from, int to, GroupBy groupBy) {
+            this.stories = stories;
+            this.from = from;
+            this.to = to;
+            this.groupBy = groupBy;
+        }
+        
+        @Override
+        protected StoryAggregator compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                StoryAggregator aggregator = new StoryAggregator(groupBy);
+                for (int i = from; i < to; i++) {
+                    aggregator.accept(stories.get(i));
+                }
+                return aggregator;
+            }
+            int middle = (from + to) >>> 1;
+            AggregateTask left = new AggregateTask(stories, from, middle, groupBy);
+            left.fork();
+            StoryAggregator right = new AggregateTask(stories, middle, to, groupBy).compute();
+            return left.join().merge(right);
+        }
+    }
+}
@@ -0,0 +1,471 @@
+package com.adyanta.jira.cli;
+
+import com.adyanta.jira.aggregate.AggregationResult;
+import com.adyanta.jira.aggregate.GroupBy;
+import com.adyanta.jira.aggregate.StoryAggregator;
+import com.adyanta.jira.criteria.ParsedCriteria;
+import com.adyanta.jira.export.ExportColumn;
+import com.adyanta.jira.export.ExportFormat;
+import com.adyanta.jira.export.ExportOptions;
+import com.adyanta.jira.export.StoryExporter;
+import com.adyanta.jira.job.BulkJob;
+import com.adyanta.jira.model.JiraStory;
+import com.adyanta.jira.render.RenderMode;
+import com.adyanta.jira.render.StoryRenderer;
+import com.adyanta.jira.service.JiraStoryReaderService;
+import com.adyanta.jira.service.RequestMetrics;
+import com.adyanta.jira.service.RequestPriority;
+import com.adyanta.jira.service.RequestScope;
+import com.adyanta.jira.snapshot.SnapshotBuildResult;
+import com.adyanta.jira.snapshot.SnapshotBuilder;
+import com.adyanta.jira.snapshot.SnapshotWriter;
+import com.adyanta.jira.snapshot.StorySnapshot;
+import com.adyanta.jira.snapshot.StoryView;
+import com.adyanta.jira.trace.Span;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Non-interactive command line front end for scripted and CI use.
+ * Results go to stdout, the throughput and latency summary goes to stderr.
+ */
+public class BatchCli {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BatchCli.class);
+    
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_FAILURE = 1;
+    public static final int EXIT_USAGE = 2;
+    
+    private static final String SYNC_INDEX_FILE = ".sync-index.properties";
+    
+    private final JiraStoryReaderService service;
+    private final InputStream in;
+    private final PrintStream out;
+    private final PrintStream err;
+    
+    public BatchCli(JiraStoryReaderService service) {
+        this(service, System.in, System.out, System.err);
+    }
+    
+    public BatchCli(JiraStoryReaderService service, InputStream in, PrintStream out, PrintStream err) {
+        this.service = service;
+        this.in = in;
+        this.out = out;
+        this.err = err;
+    }
+    
+    /**
+     * Run a single command and return the process exit code
+     */
+    public int run(String[] args) {
+        CliArguments arguments;
+        RequestPriority priority;
+        try {
+            arguments = CliArguments.parse(args);
+            priority = parsePriority(arguments.get("priority", "bulk"));
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            printUsage();
+            return EXIT_USAGE;
+        }
+        
+        if (arguments.has("help") || "help".equals(arguments.getCommand())) {
+            printUsage();
+            return EXIT_OK;
+        }
+        
+        long startNanos = System.nanoTime();
+        long processed;
+        // Batch work yields to interactive lookups when the service is shared
+        RequestScope scope = RequestScope.open(priority);
+        // One trace per command, so a slow bulk run can be broken down by stage
+        Span commandSpan = service.getTracer().startSpan(arguments.getCommand());
+        try {
+            switch (arguments.getCommand()) {
+                case "fetch":
+                    processed = fetch(arguments);
+                    break;
+                case "search":
+                    processed = search(arguments);
+                    break;
+                case "export":
+                    processed = export(arguments);
+                    break;
+                case "sync":
+                    processed = sync(arguments);
+                    break;
+                case "aggregate":
+                    processed = aggregate(arguments);
+                    break;
+                case "snapshot":
+                    processed = snapshot(arguments);
+                    break;
+                case "criteria":
+                    processed = criteria(arguments);
+                    break;
+                default:
+                    err.println("Unknown command: " + arguments.getCommand());
+                    printUsage();
+                    return EXIT_USAGE;
+            }
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            return EXIT_USAGE;
+        } catch (JiraStoryReaderService.JiraApiException | IOException | UncheckedIOException e) {
+            commandSpan.setError(e.getMessage());
+            err.println("Error: " + e.getMessage());
+            logger.error("Command {} failed: {}", arguments.getCommand(), e.getMessage(), e);
+            return EXIT_FAILURE;
+        } finally {
+            commandSpan.end();
+            scope.close();
+        }
+        
+        printSummary(arguments.getCommand(), processed, System.nanoTime() - startNanos);
+        return EXIT_OK;
+    }
+    
+    private static RequestPriority parsePriority(String name) {
+        for (RequestPriority priority : RequestPriority.values()) {
+            if (priority.name().equalsIgnoreCase(name)) {
+                return priority;
+            }
+        }
+        throw new IllegalArgumentException("Unknown priority: " + name);
+    }
+    
+    private long fetch(CliArguments arguments) throws JiraStoryReaderService.JiraApiException, IOException {
+        List<String> keys = readKeys(arguments);
+        List<JiraStory> stories = service.getStoriesByKeys(keys);
+        try (Span span = service.getTracer().startSpan("render")) {
+            renderer(arguments).printAll(stories);
+        }
+        return stories.size();
+    }
+    
+    private long search(CliArguments arguments) throws JiraStoryReaderService.JiraApiException {
+        StoryRenderer renderer = renderer(arguments);
+        long found = service.streamStories(arguments.require("jql"), renderer::append);
+        renderer.flush();
+        return found;
+    }
+    
+    private long export(CliArguments arguments) throws JiraStoryReaderService.JiraApiException, IOException {
+        Path output = Paths.get(arguments.require("output"));
+        ExportOptions options = new ExportOptions(output, ExportFormat.fromName(arguments.get("format", "ndjson")));
+        options.setColumns(ExportColumn.parseList(arguments.get("columns")));
+        options.setGzip(arguments.has("gzip"));
+        if (arguments.has("hash-index")) {
+            options.setHashIndexFile(Paths.get(arguments.get("hash-index")));
+        }
+        if (arguments.has("checkpoint")) {
+            return exportResumable(arguments, options, Paths.get(arguments.get("checkpoint")));
+        }
+        
+        try (StoryExporter exporter = new StoryExporter(options)) {
+            if (arguments.has("jql")) {
+                return exporter.export(service, arguments.get("jql"));
+            }
+            for (JiraStory story : service.getStoriesByKeys(readKeys(arguments))) {
+                exporter.write(story);
+            }
+            return exporter.getStoriesWritten();
+        }
+    }
+    
+    /**
+     * Export with a checkpoint after every chunk, continuing a previous run of the same export
+     */
+    private long exportResumable(CliArguments arguments, ExportOptions options, Path checkpointFile)
+            throws JiraStoryReaderService.JiraApiException, IOException {
+        if (options.isGzip() || options.getHashIndexFile() != null) {
+            throw new IllegalArgumentException("--checkpoint cannot be combined with --gzip or --hash-index");
+        }
+        String jql = arguments.get("jql");
+        List<String> keys = jql == null ? readKeys(arguments) : null;
+        try (BulkJob job = BulkJob.open(service, checkpointFile, "export " + jobSource(jql, keys) + " to " + options.getOutputFile())) {
+            options.setResumeOffset(job.getOutputBytes());
+            long exported;
+            try (StoryExporter exporter = new StoryExporter(options)) {
+                exported = jql != null
+                        ? job.runSearch(jql, exporter::write, exporter::checkpoint)
+                        : job.runKeys(keys, exporter::write, exporter::checkpoint);
+            }
+            job.complete();
+            if (job.isResumed()) {
+                err.printf("Resumed export: %d stories written now, %d written before%n", exported, job.getSkipped());
+            }
+            return exported;
+        }
+    }
+    
+    /**
+     * Identifies the stories of a checkpointed job, so a checkpoint is not applied to another job
+     */
+    private static String jobSource(String jql, List<String> keys) {
+        return jql != null ? "jql=" + jql : "keys=" + keys.size() + "/" + Integer.toHexString(keys.hashCode());
+    }
+    
+    private long sync(CliArguments arguments) throws JiraStoryReaderService.JiraApiException, IOException {
+        Path outputDir = Paths.get(arguments.require("output-dir"));
+        Files.createDirectories(outputDir);
+        
+        Path indexFile = outputDir.resolve(SYNC_INDEX_FILE);
+        Properties index = new Properties();
+        if (Files.exists(indexFile)) {
+            try (Reader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+                index.load(reader);
+            }
+        }
+        
+        ObjectWriter writer = service.getObjectMapper().writer();
+        long[] written = new long[1];
+        JiraStoryReaderService.StoryConsumer syncStory = story -> {
+            // Compare content hashes rather than 'updated', which also moves for watcher and rank changes
+            String contentHash = story.getContentHash();
+            Path storyFile = outputDir.resolve(story.getKey() + ".json");
+            if (contentHash.equals(index.getProperty(story.getKey())) && Files.exists(storyFile)) {
+                return;
+            }
+            writer.writeValue(storyFile.toFile(), story);
+            index.setProperty(story.getKey(), contentHash);
+            written[0]++;
+        };
+        
+        BulkJob.OutputSync saveIndex = () -> {
+            try (Writer indexWriter = Files.newBufferedWriter(indexFile, StandardCharsets.UTF_8)) {
+                index.store(indexWriter, "Content hash of the last synced copy per story");
+            }
+            return -1;
+        };
+        
+        long processed;
+        if (arguments.has("checkpoint")) {
+            // Story files are written in place, so a resumed sync only needs to skip finished chunks
+            String jql = arguments.get("jql");
+            List<String> keys = jql == null ? readKeys(arguments) : null;
+            try (BulkJob job = BulkJob.open(service, Paths.get(arguments.get("checkpoint")),
+                    "sync " + jobSource(jql, keys) + " to " + outputDir)) {
+                // Every checkpoint saves the index, so the last one leaves it complete
+                processed = jql != null ? job.runSearch(jql, syncStory, saveIndex) : job.runKeys(keys, syncStory, saveIndex);
+                job.complete();
+            }
+        } else if (arguments.has("jql")) {
+            processed = service.streamStories(arguments.get("jql"), syncStory);
+        } else {
+            List<JiraStory> stories = service.getStoriesByKeys(readKeys(arguments));
+            for (JiraStory story : stories) {
+                syncStory.accept(story);
+            }
+            processed = stories.size();
+        }
+        
+        saveIndex.sync();
+        err.printf("Synced %d stories, %d unchanged%n", written[0], processed - written[0]);
+        return processed;
+    }
+    
+    private long aggregate(CliArguments arguments) throws JiraStoryReaderService.JiraApiException, IOException {
+        GroupBy groupBy = GroupBy.fromName(arguments.get("group-by", "status"));
+        AggregationResult result;
+        if (arguments.has("snapshot")) {
+            StorySnapshot snapshot = StorySnapshot.open(Paths.get(arguments.get("snapshot")));
+            StoryAggregator aggregator = new StoryAggregator(groupBy);
+            for (StoryView view : snapshot) {
+                aggregator.accept(view);
+            }
+            result = aggregator.result();
+        } else {
+            result = StoryAggregator.aggregate(service, arguments.require("jql"), groupBy);
+        }
+        out.print(result.toTable());
+        out.flush();
+        return result.getTotalCount();
+    }
+    
+    private long snapshot(CliArguments arguments) throws JiraStoryReaderService.JiraApiException, IOException {
+        Path output = Paths.get(arguments.require("output"));
+        if (arguments.has("projects") || arguments.has("sprints") || arguments.has("boards") || arguments.has("filters")) {
+            return portfolioSnapshot(arguments, output);
+        }
+        try (SnapshotWriter writer = new SnapshotWriter(output)) {
+            if (arguments.has("jql")) {
+                service.streamStories(arguments.get("jql"), writer);
+            } else {
+                for (JiraStory story : service.getStoriesByKeys(readKeys(arguments))) {
+                    writer.accept(story);
+                }
+            }
+            return writer.getStoriesWritten();
+        }
+    }
+    
+    /**
+     * Snapshot of several projects, sprints, boards and filters, searched concurrently
+     */
+    private long portfolioSnapshot(CliArguments arguments, Path output)
+            throws JiraStoryReaderService.JiraApiException, IOException {
+        SnapshotBuilder builder = new SnapshotBuilder(service);
+        builder.addProjects(splitList(arguments.get("projects", "")));
+        for (String sprint : splitList(arguments.get("sprints", ""))) {
+            builder.addSprint(sprint);
+        }
+        for (String board : splitList(arguments.get("boards", ""))) {
+            builder.addBoard(parseId("board", board));
+        }
+        for (String filter : splitList(arguments.get("filters", ""))) {
+            builder.addFilter(parseId("filter", filter));
+        }
+        if (arguments.has("jql")) {
+            builder.addJql(arguments.get("jql"));
+        }
+        String issueType = arguments.get("issue-type", "Story");
+        builder.setIssueType("all".equalsIgnoreCase(issueType) ? null : issueType);
+        
+        SnapshotBuildResult result = builder.build(output);
+        for (SnapshotBuildResult.QueryStats query : result.getQueries()) {
+            err.println(query);
+        }
+        err.printf("Snapshot: %d distinct stories from %d queries (%d fetched)%n",
+                result.getStoriesWritten(), result.getQueries().size(), result.getStoriesFetched());
+        return result.getStoriesWritten();
+    }
+    
+    private static List<String> splitList(String value) {
+        List<String> items = new ArrayList<>();
+        for (String item : value.split(",")) {
+            if (!item.trim().isEmpty()) {
+                items.add(item.trim());
+            }
+        }
+        return items;
+    }
+    
+    private static long parseId(String kind, String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + kind + " id: " + value);
+        }
+    }
+    
+    /**
+     * Print parsed acceptance criteria as one JSON object per story
+     */
+    private long criteria(CliArguments arguments) throws JiraStoryReaderService.JiraApiException, IOException {
+        List<JiraStory> stories = arguments.has("jql")
+                ? service.searchStories(arguments.get("jql"))
+                : service.getStoriesByKeys(readKeys(arguments));
+        Map<String, ParsedCriteria> parsed = service.getParsedAcceptanceCriteria(stories);
+        
+        ObjectWriter writer = service.getObjectMapper().writer();
+        try (Span span = service.getTracer().startSpan("render")) {
+            for (Map.Entry<String, ParsedCriteria> entry : parsed.entrySet()) {
+                Map<String, Object> line = new LinkedHashMap<>();
+                line.put("key", entry.getKey());
+                line.put("items", entry.getValue().getItems());
+                line.put("scenarios", entry.getValue().getScenarios());
+                out.println(writer.writeValueAsString(line));
+            }
+        }
+        out.flush();
+        return parsed.size();
+    }
+    
+    /**
+     * Collect story keys from positional arguments and from --keys-file (a path, or - for stdin)
+     */
+    private List<String> readKeys(CliArguments arguments) throws IOException {
+        List<String> keys = new ArrayList<>();
+        for (String value : arguments.getPositional()) {
+            addKeys(value, keys);
+        }
+        
+        String keysFile = arguments.get("keys-file");
+        if (keysFile != null) {
+            BufferedReader reader = "-".equals(keysFile)
+                    ? new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))
+                    : Files.newBufferedReader(Paths.get(keysFile), StandardCharsets.UTF_8);
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int comment = line.indexOf('#');
+                    addKeys(comment >= 0 ? line.substring(0, comment) : line, keys);
+                }
+            } finally {
+                if (!"-".equals(keysFile)) {
+                    reader.close();
+                }
+            }
+        }
+        
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("No story keys given; pass keys as arguments or use --keys-file");
+        }
+        return keys;
+    }
+    
+    private static void addKeys(String value, List<String> keys) {
+        for (String key : value.split("[,\\s]+")) {
+            if (!key.isEmpty()) {
+                keys.add(key.toUpperCase());
+            }
+        }
+    }
+    
+    private StoryRenderer renderer(CliArguments arguments) {
+        RenderMode mode = RenderMode.fromName(arguments.get("format", "compact"));
+        return StoryRenderer.forStream(out, mode);
+    }
+    
+    private void printSummary(String command, long processed, long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        RequestMetrics metrics = service.getMetrics();
+        err.printf("%s: %d stories in %.2fs (%.1f stories/s)%n", command, processed, seconds,
+                seconds > 0 ? processed / seconds : 0.0);
+        err.printf("requests=%d failures=%d latency avg=%.1fms p50=%.1fms p95=%.1fms p99=%.1fms%n",
+                metrics.getRequestCount(), metrics.getFailureCount(), metrics.getAverageLatencyMillis(),
+                metrics.getLatencyPercentileMillis(50), metrics.getLatencyPercentileMillis(95),
+                metrics.getLatencyPercentileMillis(99));
+    }
+    
+    private void printUsage() {
+        err.println("Usage: jira-story-reader <command> [options]");
+        err.println();
+        err.println("Commands:");
+        err.println("  fetch  KEY... [--keys-file FILE|-] [--format plain|compact|json]");
+        err.println("  search --jql QUERY [--format plain|compact|json]");
+        err.println("  export (--jql QUERY | KEY... | --keys-file FILE|-) --output FILE");
+        err.println("         [--format ndjson|csv|md] [--columns key,summary,...] [--gzip] [--hash-index FILE]");
+        err.println("         [--checkpoint FILE]");
+        err.println("  sync   (--jql QUERY | KEY... | --keys-file FILE|-) --output-dir DIR [--checkpoint FILE]");
+        err.println("  aggregate (--jql QUERY | --snapshot FILE) [--group-by none|status|assignee|label|component]");
+        err.println("  snapshot (--jql QUERY | KEY... | --keys-file FILE|-) --output FILE");
+        err.println("  snapshot [--projects A,B] [--sprints S1,S2] [--boards ID,...] [--filters ID,...] [--jql QUERY]");
+        err.println("           [--issue-type Story|all] --output FILE");
+        err.println("  criteria (--jql QUERY | KEY... | --keys-file FILE|-)");
+        err.println();
+        err.println("All commands accept --priority interactive|background|bulk (default bulk).");
+        err.println("Without a command the interactive menu is started.");
+    }
+}
@@ -0,0 +1,89 @@
+package com.adyanta.jira.cli;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parsed command line: a subcommand followed by --options and positional values.
+ */
+public class CliArguments {
+    
+    private static final Set<String> FLAGS = new HashSet<>(Arrays.asList("gzip", "help"));
+    
+    private final String command;
+    private final Map<String, String> options = new HashMap<>();
+    private final List<String> positional = new ArrayList<>();
+    
+    private CliArguments(String command) {
+        this.command = command;
+    }
+    
+    /**
+     * Parse arguments of the form: command [--name value | --flag | value]...
+     */
+    public static CliArguments parse(String[] args) {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("No command given");
+        }
+        
+        CliArguments parsed = new CliArguments(args[0].toLowerCase());
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.startsWith("--")) {
+                String name = arg.substring(2);
+                int eq = name.indexOf('=');
+                if (eq > 0) {
+                    parsed.options.put(name.substring(0, eq), name.substring(eq + 1));
+                } else if (FLAGS.contains(name)) {
+                    parsed.options.put(name, "true");
+                } else if (i + 1 < args.length) {
+                    parsed.options.put(name, args[++i]);
+                } else {
+                    throw new IllegalArgumentException("Missing value for option --" + name);
+                }
+            } else {
+                parsed.positional.add(arg);
+            }
+        }
+        return parsed;
+    }
+    
+    public String getCommand() {
+        return command;
+    }
+    
+    public String get(String name) {
+        return options.get(name);
+    }
+    
+    public String get(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+    
+    public String require(String name) {
+        String value = options.get(name);
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalArgumentException("Option --" + name + " is required for " + command);
+        }
+        return value;
+    }
+    
+    public boolean has(String name) {
+        return options.containsKey(name);
+    }
+    
+    public int getInt(String name, int defaultValue) {
+        String value = options.get(name);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+    
+    public List<String> getPositional() {
+        return Collections.unmodifiableList(positional);
+    }
+}
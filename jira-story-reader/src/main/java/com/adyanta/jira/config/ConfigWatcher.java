@@ -0,0 +1,131 @@
+package com.adyanta.jira.config;
+
+import org.apache.commons.configuration2.ex.ConfigurationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Watches the configuration file and hands every successfully loaded and
+ * validated version of it to the registered listeners. Invalid edits are
+ * logged and ignored, so the running configuration stays in effect.
+ */
+public class ConfigWatcher implements AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ConfigWatcher.class);
+    
+    /**
+     * Editors often write a file in several steps; wait for them to settle
+     */
+    private static final long SETTLE_MILLIS = 200;
+    
+    private final Path file;
+    private final WatchService watchService;
+    private final List<Consumer<JiraConfig>> listeners = new CopyOnWriteArrayList<>();
+    private final Thread thread;
+    private volatile boolean running = true;
+    
+    public ConfigWatcher(Path file) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.watchService = FileSystems.getDefault().newWatchService();
+        // Watch the directory, since editors frequently replace the file instead of modifying it
+        this.file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        this.thread = new Thread(this::watch, "jira-config-watcher");
+        this.thread.setDaemon(true);
+    }
+    
+    /**
+     * Register a listener for reloaded configurations
+     */
+    public ConfigWatcher onChange(Consumer<JiraConfig> listener) {
+        listeners.add(listener);
+        return this;
+    }
+    
+    public void start() {
+        thread.start();
+        logger.info("Watching {} for configuration changes", file);
+    }
+    
+    private void watch() {
+        while (running) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            
+            boolean changed = false;
+            for (WatchEvent<?> event : key.pollEvents()) {
+                Object context = event.context();
+                if (context instanceof Path && file.getFileName().equals(context)) {
+                    changed = true;
+                }
+            }
+            key.reset();
+            
+            if (changed) {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(SETTLE_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                // Collapse the burst of events a single save produces
+                WatchKey pending;
+                while ((pending = watchService.poll()) != null) {
+                    pending.pollEvents();
+                    pending.reset();
+                }
+                reload();
+            }
+        }
+    }
+    
+    /**
+     * Load the file and notify listeners, keeping the current configuration on errors
+     */
+    void reload() {
+        JiraConfig config;
+        try {
+            config = JiraConfig.fromFile(file);
+            config.validate();
+        } catch (ConfigurationException | IllegalArgumentException e) {
+            logger.warn("Ignoring invalid configuration change in {}: {}", file, e.getMessage());
+            return;
+        }
+        
+        logger.info("Configuration file {} changed, applying", file);
+        for (Consumer<JiraConfig> listener : listeners) {
+            try {
+                listener.accept(config);
+            } catch (RuntimeException e) {
+                logger.error("Failed to apply configuration change: {}", e.getMessage(), e);
+            }
+        }
+    }
+    
+    @Override
+    public void close() {
+        running = false;
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close configuration watcher: {}", e.getMessage());
+        }
+        thread.interrupt();
+    }
+}
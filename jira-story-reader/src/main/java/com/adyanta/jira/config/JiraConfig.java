@@ -0,0 +1,1030 @@
+package com.adyanta.jira.config;
+
+import com.adyanta.jira.render.RenderMode;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.apache.commons.configuration2.builder.fluent.Configurations;
+import org.apache.commons.configuration2.ex.ConfigurationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Configuration class for Jira API connection settings.
+ * Loads configuration from properties file or environment variables.
+ */
+public class JiraConfig {
+    
+    private static final Logger logger = LoggerFactory.getLogger(JiraConfig.class);
+    
+    private static final String CONFIG_FILE = "jira-config.properties";
+    private static final String DEFAULT_CONFIG_FILE = "src/main/resources/jira-config.properties";
+    private static final String SITES_KEY = "jira.sites";
+    
+    /**
+     * Profile name used when no sites are configured
+     */
+    public static final String DEFAULT_PROFILE = "default";
+    
+    private String jiraUrl;
+    private String username;
+    private String password;
+    private String apiToken;
+    private int connectionTimeout;
+    private int readTimeout;
+    private int maxRetries;
+    private boolean useApiToken;
+    private boolean jsonBlackbird;
+    private int searchPageSize = 100;
+    private RenderMode renderMode = RenderMode.PLAIN;
+    private int fetchConcurrency = 4;
+    private int fetchBatchSize = 50;
+    private int cacheMaxEntries = 1000;
+    private int cacheTtlSeconds = 300;
+    private String serverBind = "127.0.0.1";
+    private int serverPort = 8085;
+    private int serverThreads = 8;
+    private String webhookSecret;
+    private int changelogPageSize = 100;
+    private String changelogStoreFile;
+    private double rateLimitPerSecond;
+    private int httpMaxConnections = 20;
+    private int httpMaxConnectionsPerRoute = 10;
+    private boolean configWatch = true;
+    private boolean circuitEnabled = true;
+    private int circuitFailureRateThreshold = 50;
+    private int circuitSlowCallRateThreshold = 80;
+    private int circuitSlowCallMillis = 10000;
+    private int circuitWindowSize = 50;
+    private int circuitMinimumCalls = 10;
+    private int circuitOpenMillis = 30000;
+    private int bulkheadSearch = 8;
+    private int bulkheadFetch = 8;
+    private int bulkheadChangelog = 4;
+    private int bulkheadMaxWaitMillis = 1000;
+    private String fallbackDir;
+    private int cacheStaleSeconds = 60;
+    private int cacheRefreshAheadHits = 3;
+    private int cacheRefreshDelayMillis = 200;
+    private int searchCacheMaxEntries = 100;
+    private String traceFile;
+    private int logThroughputSeconds = 60;
+    private boolean cacheTextOffHeap = false;
+    private int cacheTextOffHeapMinBytes = 512;
+    private int schedulerWeightInteractive = 8;
+    private int schedulerWeightBackground = 2;
+    private int schedulerWeightBulk = 1;
+    private int schedulerReservedInteractive = 1;
+    private boolean adaptivePaging = true;
+    private int adaptiveMaxPageSize = 1000;
+    private int adaptiveMaxConcurrency = 4;
+    private int adaptiveTargetPageMillis = 3000;
+    private int adaptiveMaxPageBytes = 8388608;
+    private int throttleRetries = 3;
+    private int httpBufferPoolBytes = 16777216;
+    
+    public JiraConfig() {
+        loadConfiguration();
+    }
+    
+    private JiraConfig(Configuration config) {
+        loadFromConfig(config);
+    }
+    
+    public JiraConfig(String jiraUrl, String username, String password) {
+        this.jiraUrl = jiraUrl;
+        this.username = username;
+        this.password = password;
+        this.useApiToken = false;
+        this.connectionTimeout = 30000;
+        this.readTimeout = 60000;
+        this.maxRetries = 3;
+    }
+    
+    public JiraConfig(String jiraUrl, String username, String apiToken, boolean useApiToken) {
+        this.jiraUrl = jiraUrl;
+        this.username = username;
+        this.apiToken = apiToken;
+        this.useApiToken = useApiToken;
+        this.connectionTimeout = 30000;
+        this.readTimeout = 60000;
+        this.maxRetries = 3;
+    }
+    
+    private void loadConfiguration() {
+        try {
+            Configuration config = readConfigurationFile();
+            
+            if (config != null) {
+                loadFromConfig(config);
+            } else {
+                loadFromEnvironment();
+                logger.info("No configuration file found, using environment variables");
+            }
+            
+        } catch (ConfigurationException e) {
+            logger.warn("Failed to load configuration file, falling back to environment variables: {}", e.getMessage());
+            loadFromEnvironment();
+        }
+    }
+    
+    private static Configuration readConfigurationFile() throws ConfigurationException {
+        File configFile = findConfigFile();
+        if (configFile == null) {
+            return null;
+        }
+        
+        Configuration config = new Configurations().properties(configFile);
+        logger.info("Loaded configuration from: {}", configFile.getAbsolutePath());
+        return config;
+    }
+    
+    /**
+     * The configuration file that would be loaded, or null when there is none
+     */
+    public static File findConfigFile() {
+        // Try to load from current directory first
+        File configFile = new File(CONFIG_FILE);
+        if (configFile.exists()) {
+            return configFile;
+        }
+        // Try default location
+        configFile = new File(DEFAULT_CONFIG_FILE);
+        return configFile.exists() ? configFile : null;
+    }
+    
+    /**
+     * Load configuration from a specific properties file
+     */
+    public static JiraConfig fromFile(Path file) throws ConfigurationException {
+        return new JiraConfig(new Configurations().properties(file.toFile()));
+    }
+    
+    /**
+     * Load named site profiles for federated access.
+     * Sites are listed in {@code jira.sites}; each site's settings are given as
+     * {@code jira.sites.<name>.<setting>} (for example {@code jira.sites.emea.url})
+     * and fall back to the top-level {@code jira.<setting>} values.
+     * Without {@code jira.sites} a single profile named "default" is returned.
+     */
+    public static Map<String, JiraConfig> loadProfiles() {
+        try {
+            Configuration config = readConfigurationFile();
+            if (config != null && config.containsKey(SITES_KEY)) {
+                return loadProfiles(config);
+            }
+        } catch (ConfigurationException e) {
+            logger.warn("Failed to load configuration file for site profiles: {}", e.getMessage());
+        }
+        Map<String, JiraConfig> profiles = new LinkedHashMap<>();
+        profiles.put(DEFAULT_PROFILE, new JiraConfig());
+        return profiles;
+    }
+    
+    /**
+     * Load named site profiles from an already read configuration
+     */
+    public static Map<String, JiraConfig> loadProfiles(Configuration config) {
+        Map<String, JiraConfig> profiles = new LinkedHashMap<>();
+        for (String site : config.getStringArray(SITES_KEY)) {
+            for (String name : site.split(",")) {
+                name = name.trim();
+                if (name.isEmpty()) {
+                    continue;
+                }
+                
+                // Overlay the site's settings on top of the shared ones
+                String prefix = SITES_KEY + "." + name + ".";
+                BaseConfiguration siteConfig = new BaseConfiguration();
+                config.getKeys().forEachRemaining(key -> {
+                    if (!key.startsWith(SITES_KEY)) {
+                        siteConfig.setProperty(key, config.getProperty(key));
+                    }
+                });
+                config.getKeys(SITES_KEY + "." + name).forEachRemaining(key -> {
+                    if (key.startsWith(prefix)) {
+                        siteConfig.setProperty("jira." + key.substring(prefix.length()), config.getProperty(key));
+                    }
+                });
+                
+                profiles.put(name, new JiraConfig(siteConfig));
+            }
+        }
+        return profiles;
+    }
+    
+    private void loadFromConfig(Configuration config) {
+        this.jiraUrl = config.getString("jira.url", getEnvVar("JIRA_URL"));
+        this.username = config.getString("jira.username", getEnvVar("JIRA_USERNAME"));
+        this.password = config.getString("jira.password", getEnvVar("JIRA_PASSWORD"));
+        this.apiToken = config.getString("jira.api.token", getEnvVar("JIRA_API_TOKEN"));
+        this.useApiToken = config.getBoolean("jira.use.api.token", false);
+        this.connectionTimeout = config.getInt("jira.connection.timeout", 30000);
+        this.readTimeout = config.getInt("jira.read.timeout", 60000);
+        this.maxRetries = config.getInt("jira.max.retries", 3);
+        this.jsonBlackbird = config.getBoolean("jira.json.blackbird", false);
+        this.searchPageSize = config.getInt("jira.search.page.size", 100);
+        this.renderMode = RenderMode.fromName(config.getString("jira.render.mode", "plain"));
+        this.fetchConcurrency = config.getInt("jira.fetch.concurrency", 4);
+        this.fetchBatchSize = config.getInt("jira.fetch.batch.size", 50);
+        this.cacheMaxEntries = config.getInt("jira.cache.max.entries", 1000);
+        this.cacheTtlSeconds = config.getInt("jira.cache.ttl.seconds", 300);
+        this.serverBind = config.getString("jira.server.bind", getEnvVar("JIRA_SERVER_BIND", "127.0.0.1"));
+        this.serverPort = config.getInt("jira.server.port", 8085);
+        this.serverThreads = config.getInt("jira.server.threads", 8);
+        this.webhookSecret = config.getString("jira.webhook.secret", getEnvVar("JIRA_WEBHOOK_SECRET"));
+        this.changelogPageSize = config.getInt("jira.changelog.page.size", 100);
+        this.changelogStoreFile = config.getString("jira.changelog.store.file", getEnvVar("JIRA_CHANGELOG_STORE_FILE"));
+        this.rateLimitPerSecond = config.getDouble("jira.rate.limit.per.second", 0);
+        this.httpMaxConnections = config.getInt("jira.http.max.connections", 20);
+        this.httpMaxConnectionsPerRoute = config.getInt("jira.http.max.connections.per.route", 10);
+        this.configWatch = config.getBoolean("jira.config.watch", true);
+        this.circuitEnabled = config.getBoolean("jira.circuit.enabled", true);
+        this.circuitFailureRateThreshold = config.getInt("jira.circuit.failure.rate.threshold", 50);
+        this.circuitSlowCallRateThreshold = config.getInt("jira.circuit.slow.call.rate.threshold", 80);
+        this.circuitSlowCallMillis = config.getInt("jira.circuit.slow.call.millis", 10000);
+        this.circuitWindowSize = config.getInt("jira.circuit.window.size", 50);
+        this.circuitMinimumCalls = config.getInt("jira.circuit.minimum.calls", 10);
+        this.circuitOpenMillis = config.getInt("jira.circuit.open.millis", 30000);
+        this.bulkheadSearch = config.getInt("jira.bulkhead.search", 8);
+        this.bulkheadFetch = config.getInt("jira.bulkhead.fetch", 8);
+        this.bulkheadChangelog = config.getInt("jira.bulkhead.changelog", 4);
+        this.bulkheadMaxWaitMillis = config.getInt("jira.bulkhead.max.wait.millis", 1000);
+        this.fallbackDir = config.getString("jira.fallback.dir", getEnvVar("JIRA_FALLBACK_DIR"));
+        this.cacheStaleSeconds = config.getInt("jira.cache.stale.seconds", 60);
+        this.cacheRefreshAheadHits = config.getInt("jira.cache.refresh.ahead.hits", 3);
+        this.cacheRefreshDelayMillis = config.getInt("jira.cache.refresh.delay.millis", 200);
+        this.searchCacheMaxEntries = config.getInt("jira.search.cache.max.entries", 100);
+        this.traceFile = config.getString("jira.trace.file", getEnvVar("JIRA_TRACE_FILE"));
+        this.logThroughputSeconds = config.getInt("jira.log.throughput.seconds", 60);
+        this.cacheTextOffHeap = config.getBoolean("jira.cache.text.offheap", false);
+        this.cacheTextOffHeapMinBytes = config.getInt("jira.cache.text.offheap.min.bytes", 512);
+        this.schedulerWeightInteractive = config.getInt("jira.scheduler.weight.interactive", 8);
+        this.schedulerWeightBackground = config.getInt("jira.scheduler.weight.background", 2);
+        this.schedulerWeightBulk = config.getInt("jira.scheduler.weight.bulk", 1);
+        this.schedulerReservedInteractive = config.getInt("jira.scheduler.reserved.interactive", 1);
+        this.adaptivePaging = config.getBoolean("jira.adaptive.paging", true);
+        this.adaptiveMaxPageSize = config.getInt("jira.adaptive.max.page.size", 1000);
+        this.adaptiveMaxConcurrency = config.getInt("jira.adaptive.max.concurrency", 4);
+        this.adaptiveTargetPageMillis = config.getInt("jira.adaptive.target.page.millis", 3000);
+        this.adaptiveMaxPageBytes = config.getInt("jira.adaptive.max.page.bytes", 8388608);
+        this.throttleRetries = config.getInt("jira.throttle.retries", 3);
+        this.httpBufferPoolBytes = config.getInt("jira.http.buffer.pool.bytes", 16777216);
+    }
+    
+    private void loadFromEnvironment() {
+        this.jiraUrl = getEnvVar("JIRA_URL");
+        this.username = getEnvVar("JIRA_USERNAME");
+        this.password = getEnvVar("JIRA_PASSWORD");
+        this.apiToken = getEnvVar("JIRA_API_TOKEN");
+        this.useApiToken = Boolean.parseBoolean(getEnvVar("JIRA_USE_API_TOKEN", "false"));
+        this.connectionTimeout = Integer.parseInt(getEnvVar("JIRA_CONNECTION_TIMEOUT", "30000"));
+        this.readTimeout = Integer.parseInt(getEnvVar("JIRA_READ_TIMEOUT", "60000"));
+        this.maxRetries = Integer.parseInt(getEnvVar("JIRA_MAX_RETRIES", "3"));
+        this.jsonBlackbird = Boolean.parseBoolean(getEnvVar("JIRA_JSON_BLACKBIRD", "false"));
+        this.searchPageSize = Integer.parseInt(getEnvVar("JIRA_SEARCH_PAGE_SIZE", "100"));
+        this.renderMode = RenderMode.fromName(getEnvVar("JIRA_RENDER_MODE", "plain"));
+        this.fetchConcurrency = Integer.parseInt(getEnvVar("JIRA_FETCH_CONCURRENCY", "4"));
+        this.fetchBatchSize = Integer.parseInt(getEnvVar("JIRA_FETCH_BATCH_SIZE", "50"));
+        this.cacheMaxEntries = Integer.parseInt(getEnvVar("JIRA_CACHE_MAX_ENTRIES", "1000"));
+        this.cacheTtlSeconds = Integer.parseInt(getEnvVar("JIRA_CACHE_TTL_SECONDS", "300"));
+        this.serverBind = getEnvVar("JIRA_SERVER_BIND", "127.0.0.1");
+        this.serverPort = Integer.parseInt(getEnvVar("JIRA_SERVER_PORT", "8085"));
+        this.serverThreads = Integer.parseInt(getEnvVar("JIRA_SERVER_THREADS", "8"));
+        this.webhookSecret = getEnvVar("JIRA_WEBHOOK_SECRET");
+        this.changelogPageSize = Integer.parseInt(getEnvVar("JIRA_CHANGELOG_PAGE_SIZE", "100"));
+        this.changelogStoreFile = getEnvVar("JIRA_CHANGELOG_STORE_FILE");
+        this.rateLimitPerSecond = Double.parseDouble(getEnvVar("JIRA_RATE_LIMIT_PER_SECOND", "0"));
+        this.httpMaxConnections = Integer.parseInt(getEnvVar("JIRA_HTTP_MAX_CONNECTIONS", "20"));
+        this.httpMaxConnectionsPerRoute = Integer.parseInt(getEnvVar("JIRA_HTTP_MAX_CONNECTIONS_PER_ROUTE", "10"));
+        this.configWatch = Boolean.parseBoolean(getEnvVar("JIRA_CONFIG_WATCH", "true"));
+        this.circuitEnabled = Boolean.parseBoolean(getEnvVar("JIRA_CIRCUIT_ENABLED", "true"));
+        this.circuitFailureRateThreshold = Integer.parseInt(getEnvVar("JIRA_CIRCUIT_FAILURE_RATE_THRESHOLD", "50"));
+        this.circuitSlowCallRateThreshold = Integer.parseInt(getEnvVar("JIRA_CIRCUIT_SLOW_CALL_RATE_THRESHOLD", "80"));
+        this.circuitSlowCallMillis = Integer.parseInt(getEnvVar("JIRA_CIRCUIT_SLOW_CALL_MILLIS", "10000"));
+        this.circuitWindowSize = Integer.parseInt(getEnvVar("JIRA_CIRCUIT_WINDOW_SIZE", "50"));
+        this.circuitMinimumCalls = Integer.parseInt(getEnvVar("JIRA_CIRCUIT_MINIMUM_CALLS", "10"));
+        this.circuitOpenMillis = Integer.parseInt(getEnvVar("JIRA_CIRCUIT_OPEN_MILLIS", "30000"));
+        this.bulkheadSearch = Integer.parseInt(getEnvVar("JIRA_BULKHEAD_SEARCH", "8"));
+        this.bulkheadFetch = Integer.parseInt(getEnvVar("JIRA_BULKHEAD_FETCH", "8"));
+        this.bulkheadChangelog = Integer.parseInt(getEnvVar("JIRA_BULKHEAD_CHANGELOG", "4"));
+        this.bulkheadMaxWaitMillis = Integer.parseInt(getEnvVar("JIRA_BULKHEAD_MAX_WAIT_MILLIS", "1000"));
+        this.fallbackDir = getEnvVar("JIRA_FALLBACK_DIR");
+        this.cacheStaleSeconds = Integer.parseInt(getEnvVar("JIRA_CACHE_STALE_SECONDS", "60"));
+        this.cacheRefreshAheadHits = Integer.parseInt(getEnvVar("JIRA_CACHE_REFRESH_AHEAD_HITS", "3"));
+        this.cacheRefreshDelayMillis = Integer.parseInt(getEnvVar("JIRA_CACHE_REFRESH_DELAY_MILLIS", "200"));
+        this.searchCacheMaxEntries = Integer.parseInt(getEnvVar("JIRA_SEARCH_CACHE_MAX_ENTRIES", "100"));
+        this.traceFile = getEnvVar("JIRA_TRACE_FILE");
+        this.logThroughputSeconds = Integer.parseInt(getEnvVar("JIRA_LOG_THROUGHPUT_SECONDS", "60"));
+        this.cacheTextOffHeap = Boolean.parseBoolean(getEnvVar("JIRA_CACHE_TEXT_OFFHEAP", "false"));
+        this.cacheTextOffHeapMinBytes = Integer.parseInt(getEnvVar("JIRA_CACHE_TEXT_OFFHEAP_MIN_BYTES", "512"));
+        this.schedulerWeightInteractive = Integer.parseInt(getEnvVar("JIRA_SCHEDULER_WEIGHT_INTERACTIVE", "8"));
+        this.schedulerWeightBackground = Integer.parseInt(getEnvVar("JIRA_SCHEDULER_WEIGHT_BACKGROUND", "2"));
+        this.schedulerWeightBulk = Integer.parseInt(getEnvVar("JIRA_SCHEDULER_WEIGHT_BULK", "1"));
+        this.schedulerReservedInteractive = Integer.parseInt(getEnvVar("JIRA_SCHEDULER_RESERVED_INTERACTIVE", "1"));
+        this.adaptivePaging = Boolean.parseBoolean(getEnvVar("JIRA_ADAPTIVE_PAGING", "true"));
+        this.adaptiveMaxPageSize = Integer.parseInt(getEnvVar("JIRA_ADAPTIVE_MAX_PAGE_SIZE", "1000"));
+        this.adaptiveMaxConcurrency = Integer.parseInt(getEnvVar("JIRA_ADAPTIVE_MAX_CONCURRENCY", "4"));
+        this.adaptiveTargetPageMillis = Integer.parseInt(getEnvVar("JIRA_ADAPTIVE_TARGET_PAGE_MILLIS", "3000"));
+        this.adaptiveMaxPageBytes = Integer.parseInt(getEnvVar("JIRA_ADAPTIVE_MAX_PAGE_BYTES", "8388608"));
+        this.throttleRetries = Integer.parseInt(getEnvVar("JIRA_THROTTLE_RETRIES", "3"));
+        this.httpBufferPoolBytes = Integer.parseInt(getEnvVar("JIRA_HTTP_BUFFER_POOL_BYTES", "16777216"));
+    }
+    
+    private String getEnvVar(String key) {
+        return getEnvVar(key, null);
+    }
+    
+    private String getEnvVar(String key, String defaultValue) {
+        String value = System.getenv(key);
+        return value != null ? value : defaultValue;
+    }
+    
+    public void validate() {
+        if (jiraUrl == null || jiraUrl.trim().isEmpty()) {
+            throw new IllegalArgumentException("Jira URL is required");
+        }
+        
+        if (username == null || username.trim().isEmpty()) {
+            throw new IllegalArgumentException("Username is required");
+        }
+        
+        if (useApiToken) {
+            if (apiToken == null || apiToken.trim().isEmpty()) {
+                throw new IllegalArgumentException("API Token is required when using API token authentication");
+            }
+        } else {
+            if (password == null || password.trim().isEmpty()) {
+                throw new IllegalArgumentException("Password is required when using password authentication");
+            }
+        }
+        
+        if (connectionTimeout <= 0) {
+            throw new IllegalArgumentException("Connection timeout must be positive");
+        }
+        
+        if (readTimeout <= 0) {
+            throw new IllegalArgumentException("Read timeout must be positive");
+        }
+        
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("Max retries cannot be negative");
+        }
+        
+        if (searchPageSize <= 0) {
+            throw new IllegalArgumentException("Search page size must be positive");
+        }
+        
+        if (fetchConcurrency <= 0) {
+            throw new IllegalArgumentException("Fetch concurrency must be positive");
+        }
+        
+        if (fetchBatchSize <= 0) {
+            throw new IllegalArgumentException("Fetch batch size must be positive");
+        }
+        
+        if (cacheMaxEntries < 0) {
+            throw new IllegalArgumentException("Cache size cannot be negative");
+        }
+        
+        if (cacheTtlSeconds < 0) {
+            throw new IllegalArgumentException("Cache TTL cannot be negative");
+        }
+        
+        if (changelogPageSize <= 0) {
+            throw new IllegalArgumentException("Changelog page size must be positive");
+        }
+        
+        if (rateLimitPerSecond < 0) {
+            throw new IllegalArgumentException("Rate limit cannot be negative");
+        }
+        
+        if (httpMaxConnections <= 0) {
+            throw new IllegalArgumentException("Maximum connections must be positive");
+        }
+        
+        if (httpMaxConnectionsPerRoute <= 0) {
+            throw new IllegalArgumentException("Maximum connections per route must be positive");
+        }
+        
+        if (circuitFailureRateThreshold <= 0 || circuitFailureRateThreshold > 100) {
+            throw new IllegalArgumentException("Circuit failure rate threshold must be between 1 and 100");
+        }
+        
+        if (circuitSlowCallRateThreshold <= 0 || circuitSlowCallRateThreshold > 100) {
+            throw new IllegalArgumentException("Circuit slow call rate threshold must be between 1 and 100");
+        }
+        
+        if (circuitSlowCallMillis <= 0) {
+            throw new IllegalArgumentException("Circuit slow call duration must be positive");
+        }
+        
+        if (circuitWindowSize <= 0) {
+            throw new IllegalArgumentException("Circuit window size must be positive");
+        }
+        
+        if (circuitMinimumCalls <= 0) {
+            throw new IllegalArgumentException("Circuit minimum calls must be positive");
+        }
+        
+        if (circuitOpenMillis <= 0) {
+            throw new IllegalArgumentException("Circuit open duration must be positive");
+        }
+        
+        if (bulkheadSearch <= 0) {
+            throw new IllegalArgumentException("Search bulkhead size must be positive");
+        }
+        
+        if (bulkheadFetch <= 0) {
+            throw new IllegalArgumentException("Fetch bulkhead size must be positive");
+        }
+        
+        if (bulkheadChangelog <= 0) {
+            throw new IllegalArgumentException("Changelog bulkhead size must be positive");
+        }
+        
+        if (bulkheadMaxWaitMillis < 0) {
+            throw new IllegalArgumentException("Bulkhead wait cannot be negative");
+        }
+        
+        if (cacheStaleSeconds < 0) {
+            throw new IllegalArgumentException("Cache stale window must not be negative");
+        }
+        
+        if (cacheRefreshAheadHits < 0) {
+            throw new IllegalArgumentException("Cache refresh-ahead hit count must not be negative");
+        }
+        
+        if (cacheRefreshDelayMillis < 0) {
+            throw new IllegalArgumentException("Cache refresh delay must not be negative");
+        }
+        
+        if (searchCacheMaxEntries < 0) {
+            throw new IllegalArgumentException("Search cache size must not be negative");
+        }
+        
+        if (logThroughputSeconds < 0) {
+            throw new IllegalArgumentException("Throughput log interval must not be negative");
+        }
+        
+        if (cacheTextOffHeapMinBytes < 0) {
+            throw new IllegalArgumentException("Off-heap text minimum size cannot be negative");
+        }
+        
+        if (schedulerWeightInteractive <= 0 || schedulerWeightBackground <= 0 || schedulerWeightBulk <= 0) {
+            throw new IllegalArgumentException("Scheduler weights must be positive");
+        }
+        
+        if (schedulerReservedInteractive < 0 || schedulerReservedInteractive >= httpMaxConnectionsPerRoute) {
+            throw new IllegalArgumentException("Reserved interactive slots must be at least 0 and below the connections per route");
+        }
+        
+        if (adaptiveMaxPageSize <= 0) {
+            throw new IllegalArgumentException("Adaptive maximum page size must be positive");
+        }
+        
+        if (adaptiveMaxConcurrency <= 0) {
+            throw new IllegalArgumentException("Adaptive maximum concurrency must be positive");
+        }
+        
+        if (adaptiveTargetPageMillis <= 0) {
+            throw new IllegalArgumentException("Adaptive target page time must be positive");
+        }
+        
+        if (adaptiveMaxPageBytes <= 0) {
+            throw new IllegalArgumentException("Adaptive maximum page bytes must be positive");
+        }
+        
+        if (throttleRetries < 0) {
+            throw new IllegalArgumentException("Throttle retries cannot be negative");
+        }
+        
+        if (httpBufferPoolBytes < 0) {
+            throw new IllegalArgumentException("HTTP buffer pool bytes cannot be negative");
+        }
+    }
+    
+    // Getters and Setters
+    public String getJiraUrl() {
+        return jiraUrl;
+    }
+    
+    public void setJiraUrl(String jiraUrl) {
+        this.jiraUrl = jiraUrl;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public void setUsername(String username) {
+        this.username = username;
+    }
+    
+    public String getPassword() {
+        return password;
+    }
+    
+    public void setPassword(String password) {
+        this.password = password;
+    }
+    
+    public String getApiToken() {
+        return apiToken;
+    }
+    
+    public void setApiToken(String apiToken) {
+        this.apiToken = apiToken;
+    }
+    
+    public boolean isUseApiToken() {
+        return useApiToken;
+    }
+    
+    public void setUseApiToken(boolean useApiToken) {
+        this.useApiToken = useApiToken;
+    }
+    
+    public int getConnectionTimeout() {
+        return connectionTimeout;
+    }
+    
+    public void setConnectionTimeout(int connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+    }
+    
+    public int getReadTimeout() {
+        return readTimeout;
+    }
+    
+    public void setReadTimeout(int readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+    
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+    
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+    
+    public boolean isJsonBlackbird() {
+        return jsonBlackbird;
+    }
+    
+    public void setJsonBlackbird(boolean jsonBlackbird) {
+        this.jsonBlackbird = jsonBlackbird;
+    }
+    
+    public int getSearchPageSize() {
+        return searchPageSize;
+    }
+    
+    public void setSearchPageSize(int searchPageSize) {
+        this.searchPageSize = searchPageSize;
+    }
+    
+    public RenderMode getRenderMode() {
+        return renderMode;
+    }
+    
+    public void setRenderMode(RenderMode renderMode) {
+        this.renderMode = renderMode;
+    }
+    
+    public int getFetchConcurrency() {
+        return fetchConcurrency;
+    }
+    
+    public void setFetchConcurrency(int fetchConcurrency) {
+        this.fetchConcurrency = fetchConcurrency;
+    }
+    
+    public int getFetchBatchSize() {
+        return fetchBatchSize;
+    }
+    
+    public void setFetchBatchSize(int fetchBatchSize) {
+        this.fetchBatchSize = fetchBatchSize;
+    }
+    
+    public int getCacheMaxEntries() {
+        return cacheMaxEntries;
+    }
+    
+    public void setCacheMaxEntries(int cacheMaxEntries) {
+        this.cacheMaxEntries = cacheMaxEntries;
+    }
+    
+    public int getCacheTtlSeconds() {
+        return cacheTtlSeconds;
+    }
+    
+    public void setCacheTtlSeconds(int cacheTtlSeconds) {
+        this.cacheTtlSeconds = cacheTtlSeconds;
+    }
+    
+    public String getServerBind() {
+        return serverBind;
+    }
+    
+    public void setServerBind(String serverBind) {
+        this.serverBind = serverBind;
+    }
+    
+    public int getServerPort() {
+        return serverPort;
+    }
+    
+    public void setServerPort(int serverPort) {
+        this.serverPort = serverPort;
+    }
+    
+    public int getServerThreads() {
+        return serverThreads;
+    }
+    
+    public void setServerThreads(int serverThreads) {
+        this.serverThreads = serverThreads;
+    }
+    
+    public String getWebhookSecret() {
+        return webhookSecret;
+    }
+    
+    public void setWebhookSecret(String webhookSecret) {
+        this.webhookSecret = webhookSecret;
+    }
+    
+    public int getChangelogPageSize() {
+        return changelogPageSize;
+    }
+    
+    public void setChangelogPageSize(int changelogPageSize) {
+        this.changelogPageSize = changelogPageSize;
+    }
+    
+    public String getChangelogStoreFile() {
+        return changelogStoreFile;
+    }
+    
+    public void setChangelogStoreFile(String changelogStoreFile) {
+        this.changelogStoreFile = changelogStoreFile;
+    }
+    
+    public double getRateLimitPerSecond() {
+        return rateLimitPerSecond;
+    }
+    
+    public void setRateLimitPerSecond(double rateLimitPerSecond) {
+        this.rateLimitPerSecond = rateLimitPerSecond;
+    }
+    
+    public int getHttpMaxConnections() {
+        return httpMaxConnections;
+    }
+    
+    public void setHttpMaxConnections(int httpMaxConnections) {
+        this.httpMaxConnections = httpMaxConnections;
+    }
+    
+    public int getHttpMaxConnectionsPerRoute() {
+        return httpMaxConnectionsPerRoute;
+    }
+    
+    public void setHttpMaxConnectionsPerRoute(int httpMaxConnectionsPerRoute) {
+        this.httpMaxConnectionsPerRoute = httpMaxConnectionsPerRoute;
+    }
+    
+    public boolean isConfigWatch() {
+        return configWatch;
+    }
+    
+    public void setConfigWatch(boolean configWatch) {
+        this.configWatch = configWatch;
+    }
+    
+    public boolean isCircuitEnabled() {
+        return circuitEnabled;
+    }
+    
+    public void setCircuitEnabled(boolean circuitEnabled) {
+        this.circuitEnabled = circuitEnabled;
+    }
+    
+    public int getCircuitFailureRateThreshold() {
+        return circuitFailureRateThreshold;
+    }
+    
+    public void setCircuitFailureRateThreshold(int circuitFailureRateThreshold) {
+        this.circuitFailureRateThreshold = circuitFailureRateThreshold;
+    }
+    
+    public int getCircuitSlowCallRateThreshold() {
+        return circuitSlowCallRateThreshold;
+    }
+    
+    public void setCircuitSlowCallRateThreshold(int circuitSlowCallRateThreshold) {
+        this.circuitSlowCallRateThreshold = circuitSlowCallRateThreshold;
+    }
+    
+    public int getCircuitSlowCallMillis() {
+        return circuitSlowCallMillis;
+    }
+    
+    public void setCircuitSlowCallMillis(int circuitSlowCallMillis) {
+        this.circuitSlowCallMillis = circuitSlowCallMillis;
+    }
+    
+    public int getCircuitWindowSize() {
+        return circuitWindowSize;
+    }
+    
+    public void setCircuitWindowSize(int circuitWindowSize) {
+        this.circuitWindowSize = circuitWindowSize;
+    }
+    
+    public int getCircuitMinimumCalls() {
+        return circuitMinimumCalls;
+    }
+    
+    public void setCircuitMinimumCalls(int circuitMinimumCalls) {
+        this.circuitMinimumCalls = circuitMinimumCalls;
+    }
+    
+    public int getCircuitOpenMillis() {
+        return circuitOpenMillis;
+    }
+    
+    public void setCircuitOpenMillis(int circuitOpenMillis) {
+        this.circuitOpenMillis = circuitOpenMillis;
+    }
+    
+    public int getBulkheadSearch() {
+        return bulkheadSearch;
+    }
+    
+    public void setBulkheadSearch(int bulkheadSearch) {
+        this.bulkheadSearch = bulkheadSearch;
+    }
+    
+    public int getBulkheadFetch() {
+        return bulkheadFetch;
+    }
+    
+    public void setBulkheadFetch(int bulkheadFetch) {
+        this.bulkheadFetch = bulkheadFetch;
+    }
+    
+    public int getBulkheadChangelog() {
+        return bulkheadChangelog;
+    }
+    
+    public void setBulkheadChangelog(int bulkheadChangelog) {
+        this.bulkheadChangelog = bulkheadChangelog;
+    }
+    
+    public int getBulkheadMaxWaitMillis() {
+        return bulkheadMaxWaitMillis;
+    }
+    
+    public void setBulkheadMaxWaitMillis(int bulkheadMaxWaitMillis) {
+        this.bulkheadMaxWaitMillis = bulkheadMaxWaitMillis;
+    }
+    
+    public String getFallbackDir() {
+        return fallbackDir;
+    }
+    
+    public void setFallbackDir(String fallbackDir) {
+        this.fallbackDir = fallbackDir;
+    }
+    
+    public int getCacheStaleSeconds() {
+        return cacheStaleSeconds;
+    }
+    
+    public void setCacheStaleSeconds(int cacheStaleSeconds) {
+        this.cacheStaleSeconds = cacheStaleSeconds;
+    }
+    
+    public int getCacheRefreshAheadHits() {
+        return cacheRefreshAheadHits;
+    }
+    
+    public void setCacheRefreshAheadHits(int cacheRefreshAheadHits) {
+        this.cacheRefreshAheadHits = cacheRefreshAheadHits;
+    }
+    
+    public int getCacheRefreshDelayMillis() {
+        return cacheRefreshDelayMillis;
+    }
+    
+    public void setCacheRefreshDelayMillis(int cacheRefreshDelayMillis) {
+        this.cacheRefreshDelayMillis = cacheRefreshDelayMillis;
+    }
+    
+    public int getSearchCacheMaxEntries() {
+        return searchCacheMaxEntries;
+    }
+    
+    public void setSearchCacheMaxEntries(int searchCacheMaxEntries) {
+        this.searchCacheMaxEntries = searchCacheMaxEntries;
+    }
+    
+    public String getTraceFile() {
+        return traceFile;
+    }
+    
+    public void setTraceFile(String traceFile) {
+        this.traceFile = traceFile;
+    }
+    
+    public int getLogThroughputSeconds() {
+        return logThroughputSeconds;
+    }
+    
+    public void setLogThroughputSeconds(int logThroughputSeconds) {
+        this.logThroughputSeconds = logThroughputSeconds;
+    }
+    
+    public boolean isCacheTextOffHeap() {
+        return cacheTextOffHeap;
+    }
+    
+    public void setCacheTextOffHeap(boolean cacheTextOffHeap) {
+        this.cacheTextOffHeap = cacheTextOffHeap;
+    }
+    
+    public int getCacheTextOffHeapMinBytes() {
+        return cacheTextOffHeapMinBytes;
+    }
+    
+    public void setCacheTextOffHeapMinBytes(int cacheTextOffHeapMinBytes) {
+        this.cacheTextOffHeapMinBytes = cacheTextOffHeapMinBytes;
+    }
+    
+    public int getSchedulerWeightInteractive() {
+        return schedulerWeightInteractive;
+    }
+    
+    public void setSchedulerWeightInteractive(int schedulerWeightInteractive) {
+        this.schedulerWeightInteractive = schedulerWeightInteractive;
+    }
+    
+    public int getSchedulerWeightBackground() {
+        return schedulerWeightBackground;
+    }
+    
+    public void setSchedulerWeightBackground(int schedulerWeightBackground) {
+        this.schedulerWeightBackground = schedulerWeightBackground;
+    }
+    
+    public int getSchedulerWeightBulk() {
+        return schedulerWeightBulk;
+    }
+    
+    public void setSchedulerWeightBulk(int schedulerWeightBulk) {
+        this.schedulerWeightBulk = schedulerWeightBulk;
+    }
+    
+    public int getSchedulerReservedInteractive() {
+        return schedulerReservedInteractive;
+    }
+    
+    public void setSchedulerReservedInteractive(int schedulerReservedInteractive) {
+        this.schedulerReservedInteractive = schedulerReservedInteractive;
+    }
+    
+    public boolean isAdaptivePaging() {
+        return adaptivePaging;
+    }
+    
+    public void setAdaptivePaging(boolean adaptivePaging) {
+        this.adaptivePaging = adaptivePaging;
+    }
+    
+    public int getAdaptiveMaxPageSize() {
+        return adaptiveMaxPageSize;
+    }
+    
+    public void setAdaptiveMaxPageSize(int adaptiveMaxPageSize) {
+        this.adaptiveMaxPageSize = adaptiveMaxPageSize;
+    }
+    
+    public int getAdaptiveMaxConcurrency() {
+        return adaptiveMaxConcurrency;
+    }
+    
+    public void setAdaptiveMaxConcurrency(int adaptiveMaxConcurrency) {
+        this.adaptiveMaxConcurrency = adaptiveMaxConcurrency;
+    }
+    
+    public int getAdaptiveTargetPageMillis() {
+        return adaptiveTargetPageMillis;
+    }
+    
+    public void setAdaptiveTargetPageMillis(int adaptiveTargetPageMillis) {
+        this.adaptiveTargetPageMillis = adaptiveTargetPageMillis;
+    }
+    
+    public int getAdaptiveMaxPageBytes() {
+        return adaptiveMaxPageBytes;
+    }
+    
+    public void setAdaptiveMaxPageBytes(int adaptiveMaxPageBytes) {
+        this.adaptiveMaxPageBytes = adaptiveMaxPageBytes;
+    }
+    
+    public int getThrottleRetries() {
+        return throttleRetries;
+    }
+    
+    public void setThrottleRetries(int throttleRetries) {
+        this.throttleRetries = throttleRetries;
+    }
+    
+    public int getHttpBufferPoolBytes() {
+        return httpBufferPoolBytes;
+    }
+    
+    public void setHttpBufferPoolBytes(int httpBufferPoolBytes) {
+        this.httpBufferPoolBytes = httpBufferPoolBytes;
+    }
+    
+    /**
+     * Get the authentication credentials based on the configured authentication method
+     */
+    public String getAuthCredentials() {
+        if (useApiToken) {
+            return username + ":" + apiToken;
+        } else {
+            return username + ":" + password;
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return "JiraConfig{" +
+                "jiraUrl='" + jiraUrl + '\'' +
+                ", username='" + username + '\'' +
+                ", useApiToken=" + useApiToken +
+                ", connectionTimeout=" + connectionTimeout +
+                ", readTimeout=" + readTimeout +
+                ", maxRetries=" + maxRetries +
+                ", jsonBlackbird=" + jsonBlackbird +
+                ", searchPageSize=" + searchPageSize +
+                ", renderMode=" + renderMode +
+                ", fetchConcurrency=" + fetchConcurrency +
+                ", fetchBatchSize=" + fetchBatchSize +
+                ", cacheMaxEntries=" + cacheMaxEntries +
+                ", cacheTtlSeconds=" + cacheTtlSeconds +
+                ", serverBind='" + serverBind + '\'' +
+                ", serverPort=" + serverPort +
+                ", serverThreads=" + serverThreads +
+                ", changelogPageSize=" + changelogPageSize +
+                ", changelogStoreFile=" + changelogStoreFile +
+                ", rateLimitPerSecond=" + rateLimitPerSecond +
+                ", httpMaxConnections=" + httpMaxConnections +
+                ", httpMaxConnectionsPerRoute=" + httpMaxConnectionsPerRoute +
+                ", configWatch=" + configWatch +
+                ", circuitEnabled=" + circuitEnabled +
+                ", circuitFailureRateThreshold=" + circuitFailureRateThreshold +
+                ", circuitSlowCallRateThreshold=" + circuitSlowCallRateThreshold +
+                ", circuitSlowCallMillis=" + circuitSlowCallMillis +
+                ", circuitWindowSize=" + circuitWindowSize +
+                ", circuitMinimumCalls=" + circuitMinimumCalls +
+                ", circuitOpenMillis=" + circuitOpenMillis +
+                ", bulkheadSearch=" + bulkheadSearch +
+                ", bulkheadFetch=" + bulkheadFetch +
+                ", bulkheadChangelog=" + bulkheadChangelog +
+                ", bulkheadMaxWaitMillis=" + bulkheadMaxWaitMillis +
+                ", fallbackDir=" + fallbackDir +
+                ", traceFile=" + traceFile +
+                ", cacheStaleSeconds=" + cacheStaleSeconds +
+                ", cacheRefreshAheadHits=" + cacheRefreshAheadHits +
+                ", cacheRefreshDelayMillis=" + cacheRefreshDelayMillis +
+                ", searchCacheMaxEntries=" + searchCacheMaxEntries +
+                ", logThroughputSeconds=" + logThroughputSeconds +
+                ", cacheTextOffHeap=" + cacheTextOffHeap +
+                ", cacheTextOffHeapMinBytes=" + cacheTextOffHeapMinBytes +
+                ", schedulerWeightInteractive=" + schedulerWeightInteractive +
+                ", schedulerWeightBackground=" + schedulerWeightBackground +
+                ", schedulerWeightBulk=" + schedulerWeightBulk +
+                ", schedulerReservedInteractive=" + schedulerReservedInteractive +
+                ", adaptivePaging=" + adaptivePaging +
+                ", adaptiveMaxPageSize=" + adaptiveMaxPageSize +
+                ", adaptiveMaxConcurrency=" + adaptiveMaxConcurrency +
+                ", adaptiveTargetPageMillis=" + adaptiveTargetPageMillis +
+                ", adaptiveMaxPageBytes=" + adaptiveMaxPageBytes +
+                ", throttleRetries=" + throttleRetries +
+                ", httpBufferPoolBytes=" + httpBufferPoolBytes +
+                '}';
+    }
+}
@@ -0,0 +1,274 @@
+package com.adyanta.jira.criteria;
+
+import com.adyanta.jira.model.JiraStory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns acceptance criteria text into structured items. Understands Jira wiki and
+ * Markdown bullet and numbered lists, checkboxes ({@code [ ]}, {@code [x]}, {@code (/)},
+ * {@code (x)}) and Gherkin Given/When/Then/And/But steps, which may be bold or inside
+ * list items. Results are memoized per story key and 'updated' timestamp, so unchanged
+ * stories are only parsed once however often they are asked for.
+ */
+public class AcceptanceCriteriaParser {
+    
+    private static final int PARALLEL_THRESHOLD = 256;
+    
+    private static final Pattern HEADING = Pattern.compile("^h[1-6]\\.\\s+(.*)$");
+    private static final Pattern SCENARIO = Pattern.compile(
+            "^[*_]{0,2}scenario(?:\\s+outline)?\\s*:[*_]{0,2}\\s*(.*)$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern WIKI_LIST = Pattern.compile("^([*#]+|-)\\s+(.*)$");
+    private static final Pattern NUMBERED_LIST = Pattern.compile("^\\d+[.)]\\s+(.*)$");
+    private static final Pattern CHECKBOX = Pattern.compile("^(?:\\[([ xX])\\]|\\((/|x)\\))\\s*(.*)$");
+    private static final Pattern STEP = Pattern.compile(
+            "^[*_]{0,2}(given|when|then|and|but)\\b[*_]{0,2}:?\\s*(.*)$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern MACRO = Pattern.compile("^\\{(?:code|noformat|quote|panel)[^}]*\\}$");
+    
+    private final Map<String, Memo> memo = new ConcurrentHashMap<>();
+    
+    /**
+     * Parse acceptance criteria text without memoization
+     */
+    public static ParsedCriteria parse(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            return ParsedCriteria.EMPTY;
+        }
+        
+        List<Criterion> items = new ArrayList<>();
+        List<Scenario> scenarios = new ArrayList<>();
+        ScenarioBuilder scenario = new ScenarioBuilder(scenarios);
+        
+        for (String rawLine : text.split("\\r?\\n")) {
+            int indent = indentation(rawLine);
+            String line = rawLine.trim();
+            if (line.isEmpty() || MACRO.matcher(line).matches()) {
+                continue;
+            }
+            
+            Matcher matcher = HEADING.matcher(line);
+            if (matcher.matches()) {
+                items.add(new Criterion(Criterion.Type.HEADING, matcher.group(1).trim(), 0, null, null));
+                continue;
+            }
+            matcher = SCENARIO.matcher(line);
+            if (matcher.matches()) {
+                String name = matcher.group(1).trim();
+                scenario.start(name.isEmpty() ? null : name);
+                items.add(new Criterion(Criterion.Type.HEADING, line.replaceAll("[*_]", "").trim(), 0, null, null));
+                continue;
+            }
+            
+            boolean listItem = false;
+            int depth = indent / 2;
+            matcher = WIKI_LIST.matcher(line);
+            if (matcher.matches()) {
+                listItem = true;
+                depth = Math.max(depth, matcher.group(1).length() - 1);
+                line = matcher.group(2).trim();
+            } else {
+                matcher = NUMBERED_LIST.matcher(line);
+                if (matcher.matches()) {
+                    listItem = true;
+                    line = matcher.group(1).trim();
+                }
+            }
+            if (!listItem) {
+                depth = 0;
+            }
+            
+            matcher = CHECKBOX.matcher(line);
+            if (matcher.matches()) {
+                boolean checked = matcher.group(1) != null
+                        ? !" ".equals(matcher.group(1))
+                        : "/".equals(matcher.group(2));
+                items.add(new Criterion(Criterion.Type.CHECKBOX, matcher.group(3).trim(), depth, checked, null));
+                continue;
+            }
+            
+            matcher = STEP.matcher(line);
+            if (matcher.matches()) {
+                Criterion.Keyword keyword = scenario.resolve(matcher.group(1).toLowerCase());
+                if (keyword != null) {
+                    Criterion step = new Criterion(Criterion.Type.STEP, matcher.group(2).trim(), depth, null, keyword);
+                    scenario.add(step);
+                    items.add(step);
+                    continue;
+                }
+            }
+            
+            items.add(new Criterion(listItem ? Criterion.Type.BULLET : Criterion.Type.TEXT, line, depth, null, null));
+        }
+        scenario.finish();
+        return new ParsedCriteria(items, scenarios);
+    }
+    
+    /**
+     * Parse a story's acceptance criteria, reusing the earlier result while its 'updated' timestamp is unchanged
+     */
+    public ParsedCriteria parse(JiraStory story) {
+        if (story == null || story.getFields() == null) {
+            return ParsedCriteria.EMPTY;
+        }
+        String key = story.getKey();
+        String updated = story.getFields().getUpdated();
+        if (key == null || updated == null) {
+            return parse(story.getFields().getFirstAvailableAcceptanceCriteria());
+        }
+        
+        Memo cached = memo.get(key);
+        if (cached != null && cached.updated.equals(updated)) {
+            return cached.parsed;
+        }
+        ParsedCriteria parsed = parse(story.getFields().getFirstAvailableAcceptanceCriteria());
+        memo.put(key, new Memo(updated, parsed));
+        return parsed;
+    }
+    
+    /**
+     * Parse many stories, splitting large collections across the common fork/join pool
+     *
+     * @return parsed criteria by story key, in the order of the stories
+     */
+    public Map<String, ParsedCriteria> parseAll(Collection<JiraStory> stories) {
+        List<JiraStory> list = new ArrayList<>(stories);
+        ParsedCriteria[] results = new ParsedCriteria[list.size()];
+        ForkJoinPool.commonPool().invoke(new ParseTask(list, results, 0, list.size()));
+        
+        Map<String, ParsedCriteria> byKey = new LinkedHashMap<>();
+        for (int i = 0; i < results.length; i++) {
+            if (list.get(i) != null && list.get(i).getKey() != null) {
+                byKey.put(list.get(i).getKey(), results[i]);
+            }
+        }
+        return byKey;
+    }
+    
+    /**
+     * Number of stories with a memoized result
+     */
+    public int getMemoizedCount() {
+        return memo.size();
+    }
+    
+    public void invalidate(String key) {
+        memo.remove(key);
+    }
+    
+    public void clear() {
+        memo.clear();
+    }
+    
+    private static int indentation(String line) {
+        int indent = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == ' ') {
+                indent++;
+            } else if (c == '\t') {
+                indent += 4;
+            } else {
+                break;
+            }
+        }
+        return indent;
+    }
+    
+    private static final class Memo {
+        private final String updated;
+        private final ParsedCriteria parsed;
+        
+        private Memo(String updated, ParsedCriteria parsed) {
+            this.updated = updated;
+            this.parsed = parsed;
+        }
+    }
+    
+    /**
+     * Groups steps into scenarios and resolves And/But to the keyword before them
+     */
+    private static final class ScenarioBuilder {
+        private final List<Scenario> scenarios;
+        private List<Criterion> steps = new ArrayList<>();
+        private String name;
+        private Criterion.Keyword lastKeyword;
+        
+        private ScenarioBuilder(List<Scenario> scenarios) {
+            this.scenarios = scenarios;
+        }
+        
+        void start(String scenarioName) {
+            finish();
+            name = scenarioName;
+        }
+        
+        /**
+         * Keyword for a step word, or null for And/But with no step before it
+         */
+        Criterion.Keyword resolve(String word) {
+            switch (word) {
+                case "given":
+                    if (lastKeyword == Criterion.Keyword.WHEN || lastKeyword == Criterion.Keyword.THEN) {
+                        // A new Given after the outcome starts the next scenario
+                        start(null);
+                    }
+                    return Criterion.Keyword.GIVEN;
+                case "when":
+                    return Criterion.Keyword.WHEN;
+                case "then":
+                    return Criterion.Keyword.THEN;
+                default:
+                    return lastKeyword;
+            }
+        }
+        
+        void add(Criterion step) {
+            steps.add(step);
+            lastKeyword = step.getKeyword();
+        }
+        
+        void finish() {
+            if (!steps.isEmpty()) {
+                scenarios.add(new Scenario(name, steps));
+            }
+            steps = new ArrayList<>();
+            name = null;
+            lastKeyword = null;
+        }
+    }
+    
+    private final class ParseTask extends RecursiveAction {
+        private final List<JiraStory> stories;
+        private final ParsedCriteria[] results;
+        private final int from;
+        private final int to;
+        
+        private ParseTask(List<JiraStory> stories, ParsedCriteria[] results, int from, int to) {
+            this.stories = stories;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    results[i] = parse(stories.get(i));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ParseTask(stories, results, from, middle), new ParseTask(stories, results, middle, to));
+        }
+    }
+}
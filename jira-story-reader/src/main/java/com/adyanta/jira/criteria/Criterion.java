@@ -0,0 +1,83 @@
+package com.adyanta.jira.criteria;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One item of parsed acceptance criteria: a heading, bullet, checkbox,
+ * Given/When/Then step or plain line of text.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public final class Criterion {
+    
+    public enum Type {
+        HEADING,
+        BULLET,
+        CHECKBOX,
+        STEP,
+        TEXT
+    }
+    
+    /**
+     * Gherkin step keywords; And and But steps take the keyword of the step before them
+     */
+    public enum Keyword {
+        GIVEN,
+        WHEN,
+        THEN
+    }
+    
+    private final Type type;
+    private final String text;
+    private final int depth;
+    private final Boolean checked;
+    private final Keyword keyword;
+    
+    public Criterion(Type type, String text, int depth, Boolean checked, Keyword keyword) {
+        this.type = type;
+        this.text = text;
+        this.depth = depth;
+        this.checked = checked;
+        this.keyword = keyword;
+    }
+    
+    public Type getType() {
+        return type;
+    }
+    
+    public String getText() {
+        return text;
+    }
+    
+    /**
+     * Nesting level of list items, 0 for top-level items and other lines
+     */
+    public int getDepth() {
+        return depth;
+    }
+    
+    /**
+     * Whether a checkbox is ticked, null for other items
+     */
+    public Boolean getChecked() {
+        return checked;
+    }
+    
+    /**
+     * Keyword of a step, null for other items
+     */
+    public Keyword getKeyword() {
+        return keyword;
+    }
+    
+    @Override
+    public String toString() {
+        switch (type) {
+            case STEP:
+                return keyword + " " + text;
+            case CHECKBOX:
+                return (Boolean.TRUE.equals(checked) ? "[x] " : "[ ] ") + text;
+            default:
+                return type + " " + text;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.adyanta.jira.criteria;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Acceptance criteria split into items, with the Gherkin steps also grouped into scenarios.
+ * Instances are immutable and can be shared between callers.
+ */
+public final class ParsedCriteria {
+    
+    public static final ParsedCriteria EMPTY = new ParsedCriteria(Collections.emptyList(), Collections.emptyList());
+    
+    private final List<Criterion> items;
+    private final List<Scenario> scenarios;
+    
+    public ParsedCriteria(List<Criterion> items, List<Scenario> scenarios) {
+        this.items = Collections.unmodifiableList(items);
+        this.scenarios = Collections.unmodifiableList(scenarios);
+    }
+    
+    /**
+     * All items in the order they appear in the text
+     */
+    public List<Criterion> getItems() {
+        return items;
+    }
+    
+    public List<Scenario> getScenarios() {
+        return scenarios;
+    }
+    
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+    
+    @Override
+    public String toString() {
+        return "ParsedCriteria{items=" + items.size() + ", scenarios=" + scenarios.size() + '}';
+    }
+}
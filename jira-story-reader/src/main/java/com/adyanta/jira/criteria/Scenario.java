@@ -0,0 +1,35 @@
+package com.adyanta.jira.criteria;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A run of Given/When/Then steps. Scenarios start at a "Scenario:" line, or at a
+ * Given step that follows a When or Then step.
+ */
+public final class Scenario {
+    
+    private final String name;
+    private final List<Criterion> steps;
+    
+    public Scenario(String name, List<Criterion> steps) {
+        this.name = name;
+        this.steps = Collections.unmodifiableList(steps);
+    }
+    
+    /**
+     * Name from the "Scenario:" line, or null for an unnamed scenario
+     */
+    public String getName() {
+        return name;
+    }
+    
+    public List<Criterion> getSteps() {
+        return steps;
+    }
+    
+    @Override
+    public String toString() {
+        return "Scenario{" + name + ", steps=" + steps + '}';
+    }
+}
@@ -0,0 +1,111 @@
+package com.adyanta.jira.export;
+
+import com.adyanta.jira.model.JiraStory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Columns that can be selected for an export.
+ * Each column knows its header name and how to extract its value from a story.
+ */
+public enum ExportColumn {
+    
+    KEY("key", false, JiraStory::getKey),
+    SUMMARY("summary", false, fields(JiraStory.Fields::getSummary)),
+    STATUS("status", false, fields(f -> f.getStatus() != null ? f.getStatus().getName() : null)),
+    PRIORITY("priority", false, fields(f -> f.getPriority() != null ? f.getPriority().getName() : null)),
+    ISSUE_TYPE("issueType", false, fields(f -> f.getIssueType() != null ? f.getIssueType().getName() : null)),
+    ASSIGNEE("assignee", false, fields(f -> f.getAssignee() != null ? f.getAssignee().getDisplayName() : null)),
+    REPORTER("reporter", false, fields(f -> f.getReporter() != null ? f.getReporter().getDisplayName() : null)),
+    STORY_POINTS("storyPoints", true, fields(f -> f.getStoryPoints() != null ? f.getStoryPoints().toString() : null)),
+    CREATED("created", false, fields(JiraStory.Fields::getCreated)),
+    UPDATED("updated", false, fields(JiraStory.Fields::getUpdated)),
+    EPIC_LINK("epicLink", false, fields(JiraStory.Fields::getEpicLink)),
+    SPRINT("sprint", false, fields(f -> join(f.getSprint()))),
+    LABELS("labels", false, fields(f -> join(f.getLabels()))),
+    COMPONENTS("components", false, fields(f -> joinNames(f.getComponents(), JiraStory.Component::getName))),
+    FIX_VERSIONS("fixVersions", false, fields(f -> joinNames(f.getFixVersions(), JiraStory.Version::getName))),
+    DESCRIPTION("description", false, fields(JiraStory.Fields::getDescription)),
+    ACCEPTANCE_CRITERIA("acceptanceCriteria", false, fields(JiraStory.Fields::getFirstAvailableAcceptanceCriteria)),
+    CONTENT_HASH("contentHash", false, JiraStory::getContentHash);
+    
+    /**
+     * Columns exported when no explicit selection is made
+     */
+    public static final List<ExportColumn> DEFAULT_COLUMNS = Collections.unmodifiableList(Arrays.asList(
+            KEY, SUMMARY, STATUS, ASSIGNEE, STORY_POINTS, ACCEPTANCE_CRITERIA));
+    
+    private final String header;
+    private final boolean numeric;
+    private final Function<JiraStory, String> extractor;
+    
+    ExportColumn(String header, boolean numeric, Function<JiraStory, String> extractor) {
+        this.header = header;
+        this.numeric = numeric;
+        this.extractor = extractor;
+    }
+    
+    public String getHeader() {
+        return header;
+    }
+    
+    public boolean isNumeric() {
+        return numeric;
+    }
+    
+    /**
+     * Extract this column's value from a story, or null when it is not set
+     */
+    public String extract(JiraStory story) {
+        return extractor.apply(story);
+    }
+    
+    /**
+     * Parse a comma-separated column list such as "key,summary,storyPoints"
+     */
+    public static List<ExportColumn> parseList(String columns) {
+        if (columns == null || columns.trim().isEmpty()) {
+            return DEFAULT_COLUMNS;
+        }
+        List<ExportColumn> selected = new ArrayList<>();
+        for (String name : columns.split(",")) {
+            selected.add(fromName(name.trim()));
+        }
+        return selected;
+    }
+    
+    public static ExportColumn fromName(String name) {
+        for (ExportColumn column : values()) {
+            if (column.header.equalsIgnoreCase(name) || column.name().equalsIgnoreCase(name)) {
+                return column;
+            }
+        }
+        throw new IllegalArgumentException("Unknown export column: " + name);
+    }
+    
+    private static Function<JiraStory, String> fields(Function<JiraStory.Fields, String> extractor) {
+        return story -> story.getFields() != null ? extractor.apply(story.getFields()) : null;
+    }
+    
+    private static String join(List<String> values) {
+        return values == null || values.isEmpty() ? null : String.join(", ", values);
+    }
+    
+    private static <T> String joinNames(List<T> values, Function<T, String> name) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        StringBuilder joined = new StringBuilder();
+        for (T value : values) {
+            if (joined.length() > 0) {
+                joined.append(", ");
+            }
+            joined.append(name.apply(value));
+        }
+        return joined.toString();
+    }
+}
@@ -0,0 +1,39 @@
+package com.adyanta.jira.export;
+
+/**
+ * Output formats supported by the story exporter.
+ */
+public enum ExportFormat {
+    
+    NDJSON("ndjson"),
+    CSV("csv"),
+    MARKDOWN("md");
+    
+    private final String fileExtension;
+    
+    ExportFormat(String fileExtension) {
+        this.fileExtension = fileExtension;
+    }
+    
+    public String getFileExtension() {
+        return fileExtension;
+    }
+    
+    /**
+     * Resolve a format from a user-supplied name or file extension
+     */
+    public static ExportFormat fromName(String name) {
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name) || format.fileExtension.equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        if ("json".equalsIgnoreCase(name) || "jsonl".equalsIgnoreCase(name)) {
+            return NDJSON;
+        }
+        if ("markdown".equalsIgnoreCase(name)) {
+            return MARKDOWN;
+        }
+        throw new IllegalArgumentException("Unknown export format: " + name);
+    }
+}
@@ -0,0 +1,99 @@
+package com.adyanta.jira.export;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for a single export run.
+ */
+public class ExportOptions {
+    
+    private final Path outputFile;
+    private final ExportFormat format;
+    private List<ExportColumn> columns = ExportColumn.DEFAULT_COLUMNS;
+    private boolean gzip;
+    private int bufferSize = 64 * 1024;
+    private Path hashIndexFile;
+    private long resumeOffset = -1;
+    
+    public ExportOptions(Path outputFile, ExportFormat format) {
+        this.outputFile = outputFile;
+        this.format = format;
+    }
+    
+    public Path getOutputFile() {
+        return outputFile;
+    }
+    
+    public ExportFormat getFormat() {
+        return format;
+    }
+    
+    public List<ExportColumn> getColumns() {
+        return columns;
+    }
+    
+    public void setColumns(List<ExportColumn> columns) {
+        if (columns == null || columns.isEmpty()) {
+            throw new IllegalArgumentException("At least one export column is required");
+        }
+        this.columns = new ArrayList<>(columns);
+    }
+    
+    public boolean isGzip() {
+        return gzip;
+    }
+    
+    public void setGzip(boolean gzip) {
+        this.gzip = gzip;
+    }
+    
+    public int getBufferSize() {
+        return bufferSize;
+    }
+    
+    public void setBufferSize(int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+        this.bufferSize = bufferSize;
+    }
+    
+    public Path getHashIndexFile() {
+        return hashIndexFile;
+    }
+    
+    /**
+     * Export only stories whose content hash differs from the one recorded in this file
+     * by the previous run, and record the new hashes; null exports every story
+     */
+    public void setHashIndexFile(Path hashIndexFile) {
+        this.hashIndexFile = hashIndexFile;
+    }
+    
+    public long getResumeOffset() {
+        return resumeOffset;
+    }
+    
+    /**
+     * Continue an interrupted export: keep the first resumeOffset bytes of the output file,
+     * as returned by {@link StoryExporter#checkpoint()}, and append after them.
+     * -1 (the default) starts a new file. Not supported for gzipped output.
+     */
+    public void setResumeOffset(long resumeOffset) {
+        this.resumeOffset = resumeOffset;
+    }
+    
+    @Override
+    public String toString() {
+        return "ExportOptions{" +
+                "outputFile=" + outputFile +
+                ", format=" + format +
+                ", columns=" + columns +
+                ", gzip=" + gzip +
+                (hashIndexFile != null ? ", hashIndexFile=" + hashIndexFile : "") +
+                (resumeOffset >= 0 ? ", resumeOffset=" + resumeOffset : "") +
+                '}';
+    }
+}
@@ -0,0 +1,290 @@
+package com.adyanta.jira.export;
+
+import com.adyanta.jira.model.JiraStory;
+import com.adyanta.jira.service.JiraStoryReaderService;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Properties;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams stories to an NDJSON, CSV or Markdown file.
+ * Each story is written as soon as it is received, so memory use stays flat
+ * regardless of how many stories are exported.
+ */
+public class StoryExporter implements AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(StoryExporter.class);
+    
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    
+    private final ExportOptions options;
+    private final List<ExportColumn> columns;
+    private final FileChannel channel;
+    private final Writer writer;
+    private final JsonGenerator jsonGenerator;
+    private final Properties hashIndex;
+    private long storiesWritten;
+    private long storiesUnchanged;
+    
+    public StoryExporter(ExportOptions options) throws IOException {
+        this.options = options;
+        this.columns = options.getColumns();
+        this.hashIndex = loadHashIndex(options.getHashIndexFile());
+        
+        long resumeOffset = options.getResumeOffset();
+        if (resumeOffset >= 0) {
+            if (options.isGzip()) {
+                throw new IllegalArgumentException("Gzipped exports cannot be resumed");
+            }
+            this.channel = FileChannel.open(options.getOutputFile(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        } else {
+            this.channel = FileChannel.open(options.getOutputFile(),
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        }
+        try {
+            if (resumeOffset >= 0) {
+                // Anything after the offset was written after the last checkpoint and is written again
+                channel.truncate(resumeOffset);
+                channel.position(Math.min(resumeOffset, channel.size()));
+            }
+            OutputStream out = Channels.newOutputStream(channel);
+            if (options.isGzip()) {
+                out = new GZIPOutputStream(out, options.getBufferSize());
+            }
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), options.getBufferSize());
+            
+            if (options.getFormat() == ExportFormat.NDJSON) {
+                this.jsonGenerator = JSON_FACTORY.createGenerator(writer);
+                this.jsonGenerator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                this.jsonGenerator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+                this.jsonGenerator.setRootValueSeparator(null);
+            } else {
+                this.jsonGenerator = null;
+                if (channel.position() == 0) {
+                    writeHeader();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // The caller never gets an exporter to close, so the file handle is released here
+            try {
+                channel.close();
+            } catch (IOException closeFailure) {
+                e.addSuppressed(closeFailure);
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Run a JQL search and stream every matching story into the export file
+     *
+     * @return the number of stories exported
+     */
+    public long export(JiraStoryReaderService service, String jql) throws JiraStoryReaderService.JiraApiException {
+        logger.info("Exporting stories for JQL '{}' with {}", jql, options);
+        long exported = service.streamStories(jql, this::write);
+        logger.info("Exported {} stories to {} ({} unchanged skipped)", storiesWritten, options.getOutputFile(), storiesUnchanged);
+        return exported;
+    }
+    
+    /**
+     * Write a single story as one record
+     */
+    public void write(JiraStory story) throws IOException {
+        if (hashIndex != null) {
+            String contentHash = story.getContentHash();
+            if (contentHash.equals(hashIndex.put(story.getKey(), contentHash))) {
+                storiesUnchanged++;
+                return;
+            }
+        }
+        switch (options.getFormat()) {
+            case NDJSON:
+                writeJsonLine(story);
+                break;
+            case CSV:
+                writeCsvRow(story);
+                break;
+            case MARKDOWN:
+                writeMarkdownRow(story);
+                break;
+            default:
+                throw new IllegalStateException("Unsupported format: " + options.getFormat());
+        }
+        storiesWritten++;
+    }
+    
+    public long getStoriesWritten() {
+        return storiesWritten;
+    }
+    
+    /**
+     * Push everything written so far to the file
+     *
+     * @return the size of the output up to the last story written, for {@link ExportOptions#setResumeOffset(long)}
+     */
+    public long checkpoint() throws IOException {
+        if (options.isGzip()) {
+            throw new IllegalStateException("Gzipped exports cannot be resumed");
+        }
+        writer.flush();
+        return channel.position();
+    }
+    
+    /**
+     * Stories skipped because their content hash matched the hash index
+     */
+    public long getStoriesUnchanged() {
+        return storiesUnchanged;
+    }
+    
+    private static Properties loadHashIndex(Path file) throws IOException {
+        if (file == null) {
+            return null;
+        }
+        Properties index = new Properties();
+        if (Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                index.load(reader);
+            }
+        }
+        return index;
+    }
+    
+    private void writeHeader() throws IOException {
+        if (options.getFormat() == ExportFormat.CSV) {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeCsvValue(columns.get(i).getHeader());
+            }
+            writer.write("\r\n");
+        } else {
+            writer.write('|');
+            for (ExportColumn column : columns) {
+                writer.write(' ');
+                writer.write(column.getHeader());
+                writer.write(" |");
+            }
+            writer.write('\n');
+            writer.write('|');
+            for (int i = 0; i < columns.size(); i++) {
+                writer.write(" --- |");
+            }
+            writer.write('\n');
+        }
+    }
+    
+    private void writeJsonLine(JiraStory story) throws IOException {
+        jsonGenerator.writeStartObject();
+        for (ExportColumn column : columns) {
+            String value = column.extract(story);
+            jsonGenerator.writeFieldName(column.getHeader());
+            if (value == null) {
+                jsonGenerator.writeNull();
+            } else if (column.isNumeric()) {
+                jsonGenerator.writeNumber(value);
+            } else {
+                jsonGenerator.writeString(value);
+            }
+        }
+        jsonGenerator.writeEndObject();
+        jsonGenerator.flush();
+        writer.write('\n');
+    }
+    
+    private void writeCsvRow(JiraStory story) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String value = columns.get(i).extract(story);
+            if (value != null) {
+                writeCsvValue(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+    
+    private void writeCsvValue(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+    
+    private void writeMarkdownRow(JiraStory story) throws IOException {
+        writer.write('|');
+        for (ExportColumn column : columns) {
+            writer.write(' ');
+            String value = column.extract(story);
+            if (value != null) {
+                writeMarkdownValue(value);
+            }
+            writer.write(" |");
+        }
+        writer.write('\n');
+    }
+    
+    private void writeMarkdownValue(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '|') {
+                writer.write("\\|");
+            } else if (c == '\n') {
+                writer.write("<br>");
+            } else if (c != '\r') {
+                writer.write(c);
+            }
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        try {
+            if (jsonGenerator != null) {
+                jsonGenerator.close();
+            }
+        } finally {
+            writer.close();
+        }
+        if (hashIndex != null) {
+            // Written after the export file so a failed export is retried in full
+            try (Writer indexWriter = Files.newBufferedWriter(options.getHashIndexFile(), StandardCharsets.UTF_8)) {
+                hashIndex.store(indexWriter, "Content hash of the last exported copy per story");
+            }
+        }
+    }
+}
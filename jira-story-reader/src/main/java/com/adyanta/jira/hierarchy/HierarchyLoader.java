@@ -0,0 +1,174 @@
+package com.adyanta.jira.hierarchy;
+
+import com.adyanta.jira.config.JiraConfig;
+import com.adyanta.jira.model.JiraStory;
+import com.adyanta.jira.service.JiraStoryReaderService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Loads an epic or sprint together with its parents, children and linked
+ * issues, one breadth-first level at a time. Each level is fetched with
+ * batched JQL queries ({@code parent in (...)} for children, {@code key in (...)}
+ * for parents and links) that run concurrently on the service's fetch pool.
+ */
+public class HierarchyLoader {
+    
+    private static final Logger logger = LoggerFactory.getLogger(HierarchyLoader.class);
+    
+    private final JiraStoryReaderService service;
+    private final int batchSize;
+    private int maxDepth = 5;
+    private int maxIssues = 10_000;
+    private boolean followLinks = true;
+    
+    public HierarchyLoader(JiraStoryReaderService service, JiraConfig config) {
+        this(service, config.getFetchBatchSize());
+    }
+    
+    public HierarchyLoader(JiraStoryReaderService service, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.service = service;
+        this.batchSize = batchSize;
+    }
+    
+    /**
+     * Number of levels to expand beyond the starting issues
+     */
+    public HierarchyLoader setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+        return this;
+    }
+    
+    /**
+     * Upper bound on the number of issues in the graph
+     */
+    public HierarchyLoader setMaxIssues(int maxIssues) {
+        this.maxIssues = maxIssues;
+        return this;
+    }
+    
+    /**
+     * Whether issue links are followed in addition to parent/child relations
+     */
+    public HierarchyLoader setFollowLinks(boolean followLinks) {
+        this.followLinks = followLinks;
+        return this;
+    }
+    
+    /**
+     * Load the hierarchy around an epic
+     */
+    public StoryGraph loadFromEpic(String epicKey) throws JiraStoryReaderService.JiraApiException {
+        return load(Collections.singletonList(service.getStoryByKey(epicKey)));
+    }
+    
+    /**
+     * Load the hierarchy around all issues in a sprint, given by name or numeric ID
+     */
+    public StoryGraph loadFromSprint(String sprint) throws JiraStoryReaderService.JiraApiException {
+        String jql = sprint.matches("\\d+")
+                ? "sprint = " + sprint
+                : "sprint = \"" + sprint.replace("\"", "\\\"") + "\"";
+        List<JiraStory> roots = new ArrayList<>();
+        service.streamStories(jql, roots::add);
+        return load(roots);
+    }
+    
+    /**
+     * Expand breadth-first from the given issues
+     */
+    public StoryGraph load(Collection<JiraStory> roots) throws JiraStoryReaderService.JiraApiException {
+        Map<String, JiraStory> visited = new LinkedHashMap<>();
+        Map<String, Integer> depths = new HashMap<>();
+        List<JiraStory> frontier = visit(roots, 0, visited, depths);
+        
+        for (int depth = 1; depth <= maxDepth && !frontier.isEmpty() && visited.size() < maxIssues; depth++) {
+            List<String> queries = new ArrayList<>();
+            
+            List<String> frontierKeys = new ArrayList<>();
+            for (JiraStory story : frontier) {
+                frontierKeys.add(story.getKey());
+            }
+            addBatchedQueries("parent in (%s)", frontierKeys, queries);
+            
+            Set<String> referenced = new LinkedHashSet<>();
+            for (JiraStory story : frontier) {
+                collectReferences(story, referenced);
+            }
+            referenced.removeAll(visited.keySet());
+            // References may name issues that are deleted or hidden from this user; the search leaves those out
+            addBatchedQueries("key in (%s)", new ArrayList<>(referenced), queries);
+            
+            List<JiraStory> found = new ArrayList<>();
+            for (List<JiraStory> stories : service.searchStoriesInParallel(queries).values()) {
+                found.addAll(stories);
+            }
+            frontier = visit(found, depth, visited, depths);
+            
+            logger.debug("Hierarchy level {}: {} queries, {} new issues, {} total",
+                    depth, queries.size(), frontier.size(), visited.size());
+        }
+        
+        StoryGraph graph = new StoryGraph(visited, depths);
+        logger.info("Loaded hierarchy of {} issues", graph.size());
+        return graph;
+    }
+    
+    /**
+     * Add unseen stories to the graph and return them as the next frontier
+     */
+    private List<JiraStory> visit(Collection<JiraStory> stories, int depth,
+                                  Map<String, JiraStory> visited, Map<String, Integer> depths) {
+        List<JiraStory> added = new ArrayList<>();
+        for (JiraStory story : stories) {
+            if (story == null || story.getKey() == null || visited.containsKey(story.getKey())) {
+                continue;
+            }
+            if (visited.size() >= maxIssues) {
+                logger.warn("Hierarchy truncated at {} issues", maxIssues);
+                break;
+            }
+            visited.put(story.getKey(), story);
+            depths.put(story.getKey(), depth);
+            added.add(story);
+        }
+        return added;
+    }
+    
+    private void collectReferences(JiraStory story, Set<String> referenced) {
+        JiraStory.Fields fields = story.getFields();
+        if (fields == null) {
+            return;
+        }
+        if (fields.getParentKey() != null) {
+            referenced.add(fields.getParentKey());
+        }
+        if (followLinks && fields.getIssueLinks() != null) {
+            for (JiraStory.IssueLink link : fields.getIssueLinks()) {
+                if (link.getLinkedKey() != null) {
+                    referenced.add(link.getLinkedKey());
+                }
+            }
+        }
+    }
+    
+    private void addBatchedQueries(String template, List<String> keys, List<String> queries) {
+        for (int i = 0; i < keys.size(); i += batchSize) {
+            List<String> batch = keys.subList(i, Math.min(i + batchSize, keys.size()));
+            queries.add(String.format(template, String.join(", ", batch)));
+        }
+    }
+}
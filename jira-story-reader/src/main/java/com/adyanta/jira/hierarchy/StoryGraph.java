@@ -0,0 +1,153 @@
+package com.adyanta.jira.hierarchy;
+
+import com.adyanta.jira.model.JiraStory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory graph of issues connected by parent/child relations and issue links.
+ * Edges are only kept when both ends were loaded, and every key maps to
+ * adjacency lists of neighbouring keys.
+ */
+public class StoryGraph {
+    
+    private final Map<String, JiraStory> stories;
+    private final Map<String, Integer> depths;
+    private final Map<String, String> parents = new HashMap<>();
+    private final Map<String, List<String>> children = new HashMap<>();
+    private final Map<String, List<String>> links = new HashMap<>();
+    
+    StoryGraph(Map<String, JiraStory> stories, Map<String, Integer> depths) {
+        this.stories = Collections.unmodifiableMap(new LinkedHashMap<>(stories));
+        this.depths = Collections.unmodifiableMap(new HashMap<>(depths));
+        connect();
+    }
+    
+    private void connect() {
+        for (JiraStory story : stories.values()) {
+            JiraStory.Fields fields = story.getFields();
+            if (fields == null) {
+                continue;
+            }
+            
+            String parentKey = fields.getParentKey();
+            if (parentKey != null && stories.containsKey(parentKey) && !parentKey.equals(story.getKey())) {
+                parents.put(story.getKey(), parentKey);
+                children.computeIfAbsent(parentKey, key -> new ArrayList<>()).add(story.getKey());
+            }
+            
+            if (fields.getIssueLinks() != null) {
+                for (JiraStory.IssueLink link : fields.getIssueLinks()) {
+                    String linkedKey = link.getLinkedKey();
+                    if (linkedKey != null && stories.containsKey(linkedKey) && !linkedKey.equals(story.getKey())) {
+                        addLink(story.getKey(), linkedKey);
+                        addLink(linkedKey, story.getKey());
+                    }
+                }
+            }
+        }
+    }
+    
+    private void addLink(String from, String to) {
+        List<String> linked = links.computeIfAbsent(from, key -> new ArrayList<>());
+        if (!linked.contains(to)) {
+            linked.add(to);
+        }
+    }
+    
+    public int size() {
+        return stories.size();
+    }
+    
+    public boolean contains(String key) {
+        return stories.containsKey(key);
+    }
+    
+    public JiraStory getStory(String key) {
+        return stories.get(key);
+    }
+    
+    /**
+     * All keys in the order they were discovered
+     */
+    public Set<String> getKeys() {
+        return stories.keySet();
+    }
+    
+    /**
+     * Breadth-first distance from the starting issues, or -1 for unknown keys
+     */
+    public int getDepth(String key) {
+        Integer depth = depths.get(key);
+        return depth != null ? depth : -1;
+    }
+    
+    public String getParent(String key) {
+        return parents.get(key);
+    }
+    
+    public List<String> getChildren(String key) {
+        return unmodifiable(children.get(key));
+    }
+    
+    /**
+     * Issues linked to the given one in either direction
+     */
+    public List<String> getLinked(String key) {
+        return unmodifiable(links.get(key));
+    }
+    
+    /**
+     * Issues whose parent is not part of the graph
+     */
+    public List<String> getRoots() {
+        List<String> roots = new ArrayList<>();
+        for (String key : stories.keySet()) {
+            if (!parents.containsKey(key)) {
+                roots.add(key);
+            }
+        }
+        return roots;
+    }
+    
+    /**
+     * Children, grandchildren and so on of an issue, breadth-first
+     */
+    public List<String> getDescendants(String key) {
+        Set<String> descendants = new LinkedHashSet<>();
+        Deque<String> queue = new ArrayDeque<>(getChildren(key));
+        while (!queue.isEmpty()) {
+            String next = queue.poll();
+            if (descendants.add(next)) {
+                queue.addAll(getChildren(next));
+            }
+        }
+        return new ArrayList<>(descendants);
+    }
+    
+    private static List<String> unmodifiable(List<String> keys) {
+        return keys != null ? Collections.unmodifiableList(keys) : Collections.emptyList();
+    }
+    
+    @Override
+    public String toString() {
+        int linkCount = 0;
+        for (List<String> linked : links.values()) {
+            linkCount += linked.size();
+        }
+        return "StoryGraph{" +
+                "stories=" + stories.size() +
+                ", parentEdges=" + parents.size() +
+                ", links=" + linkCount / 2 +
+                '}';
+    }
+}
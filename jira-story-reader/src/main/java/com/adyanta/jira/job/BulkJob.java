@@ -0,0 +1,166 @@
+package com.adyanta.jira.job;
+
+import com.adyanta.jira.model.JiraStory;
+import com.adyanta.jira.service.JiraStoryReaderService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * A large search or key list whose progress is checkpointed after every chunk,
+ * so a run that fails partway through continues where it stopped instead of
+ * starting over. Output is kept consistent with the checkpoint: the output is
+ * synced before each chunk is recorded, file outputs are cut back to the recorded
+ * size on resume, and stories already recorded are not passed on again.
+ *
+ * <pre>
+ * try (BulkJob job = BulkJob.open(service, checkpointFile, "export " + jql)) {
+ *     options.setResumeOffset(job.getOutputBytes());
+ *     try (StoryExporter exporter = new StoryExporter(options)) {
+ *         job.runSearch(jql, exporter::write, exporter::checkpoint);
+ *     }
+ *     job.complete();
+ * }
+ * </pre>
+ */
+public class BulkJob implements AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BulkJob.class);
+    
+    /**
+     * Makes the output hold everything passed to the consumer so far
+     */
+    @FunctionalInterface
+    public interface OutputSync {
+        /**
+         * @return the size of the output, or -1 when it is not a single file
+         */
+        long sync() throws IOException;
+    }
+    
+    private final JiraStoryReaderService service;
+    private final JobCheckpoint checkpoint;
+    private long written;
+    private long skipped;
+    
+    private BulkJob(JiraStoryReaderService service, JobCheckpoint checkpoint) {
+        this.service = service;
+        this.checkpoint = checkpoint;
+    }
+    
+    /**
+     * Start a job, or continue it when the checkpoint file exists
+     *
+     * @param description identifies the job; a checkpoint written for another description is refused
+     */
+    public static BulkJob open(JiraStoryReaderService service, Path checkpointFile, String description) throws IOException {
+        JobCheckpoint checkpoint = JobCheckpoint.open(checkpointFile, description);
+        if (checkpoint.isResumed()) {
+            logger.info("Resuming '{}' from {}: {} chunks, {} stories done, search position {}", description,
+                    checkpointFile, checkpoint.getChunks(), checkpoint.getCompletedKeys().size(), checkpoint.getStartAt());
+        }
+        return new BulkJob(service, checkpoint);
+    }
+    
+    public boolean isResumed() {
+        return checkpoint.isResumed();
+    }
+    
+    /**
+     * Output size recorded by the last checkpoint, or -1 to start a new output
+     */
+    public long getOutputBytes() {
+        return checkpoint.getOutputBytes();
+    }
+    
+    /**
+     * Stream a search to the consumer, recording a checkpoint after every page-sized chunk.
+     * A resumed search restarts one chunk before the recorded position, in case stories
+     * moved up in the result, and skips the stories already written.
+     *
+     * @return the number of stories passed to the consumer in this run
+     */
+    public long runSearch(String jql, JiraStoryReaderService.StoryConsumer consumer, OutputSync output)
+            throws JiraStoryReaderService.JiraApiException, IOException {
+        int chunkSize = service.getConfig().getSearchPageSize();
+        int resumeAt = Math.max(0, checkpoint.getStartAt() - chunkSize);
+        List<String> chunkKeys = new ArrayList<>();
+        int[] position = {resumeAt};
+        int[] recordedAt = {resumeAt};
+        
+        service.streamStories(jql, resumeAt, story -> {
+            position[0]++;
+            if (checkpoint.isCompleted(story.getKey())) {
+                skipped++;
+            } else {
+                consumer.accept(story);
+                chunkKeys.add(story.getKey());
+                written++;
+            }
+            if (position[0] - recordedAt[0] >= chunkSize) {
+                checkpoint.record(position[0], output.sync(), chunkKeys);
+                chunkKeys.clear();
+                recordedAt[0] = position[0];
+            }
+        });
+        if (position[0] > recordedAt[0]) {
+            checkpoint.record(position[0], output.sync(), chunkKeys);
+        }
+        return written;
+    }
+    
+    /**
+     * Fetch a key list in chunks, recording a checkpoint after each; keys recorded
+     * by an earlier run are not fetched again
+     *
+     * @return the number of stories passed to the consumer in this run
+     */
+    public long runKeys(List<String> keys, JiraStoryReaderService.StoryConsumer consumer, OutputSync output)
+            throws JiraStoryReaderService.JiraApiException, IOException {
+        List<String> remaining = new ArrayList<>();
+        for (String key : new LinkedHashSet<>(keys)) {
+            if (checkpoint.isCompleted(key)) {
+                skipped++;
+            } else {
+                remaining.add(key);
+            }
+        }
+        
+        // Large enough to keep every fetch thread busy with a batch
+        int chunkSize = service.getConfig().getFetchBatchSize() * service.getConfig().getFetchConcurrency();
+        for (int i = 0; i < remaining.size(); i += chunkSize) {
+            List<String> chunk = remaining.subList(i, Math.min(i + chunkSize, remaining.size()));
+            for (JiraStory story : service.getStoriesByKeys(chunk)) {
+                consumer.accept(story);
+                written++;
+            }
+            // Keys Jira did not return count as done too
+            checkpoint.record(0, output.sync(), chunk);
+        }
+        return written;
+    }
+    
+    /**
+     * Stories skipped in this run because an earlier run already wrote them
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+    
+    /**
+     * Mark the job as finished by removing its checkpoint. Call after the output is closed.
+     */
+    public void complete() throws IOException {
+        checkpoint.delete();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        checkpoint.close();
+    }
+}
@@ -0,0 +1,171 @@
+package com.adyanta.jira.job;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Progress of a bulk job, kept in an append-only file of JSON lines: the job
+ * description first, then one line per completed chunk with the search position
+ * reached, the size of the output at that point and the keys written in the chunk.
+ * Appending keeps each checkpoint as cheap as the chunk it records; a line cut
+ * short by a crash is dropped when the file is opened again.
+ */
+public final class JobCheckpoint implements AutoCloseable {
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    
+    private final Path file;
+    private final FileChannel channel;
+    private final Set<String> completedKeys = new HashSet<>();
+    private final boolean resumed;
+    private int startAt;
+    private long outputBytes = -1;
+    private int chunks;
+    
+    private JobCheckpoint(Path file, String job) throws IOException {
+        this.file = file;
+        long validBytes = Files.exists(file) ? load(job) : 0;
+        this.resumed = validBytes > 0;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.truncate(validBytes);
+        channel.position(validBytes);
+        if (!resumed) {
+            ObjectNode header = MAPPER.createObjectNode();
+            header.put("job", job);
+            append(header);
+        }
+    }
+    
+    /**
+     * Open the checkpoint of a job, continuing from its last completed chunk when the file exists
+     *
+     * @throws IllegalArgumentException when the file holds the checkpoint of a different job
+     */
+    public static JobCheckpoint open(Path file, String job) throws IOException {
+        return new JobCheckpoint(file, job);
+    }
+    
+    /**
+     * Read the recorded chunks and return the length of the file up to the last complete line
+     */
+    private long load(String job) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        int lineStart = 0;
+        boolean first = true;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] != '\n') {
+                continue;
+            }
+            JsonNode line;
+            try {
+                line = MAPPER.readTree(new String(bytes, lineStart, i - lineStart, StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                break;
+            }
+            if (first) {
+                if (!job.equals(line.path("job").asText())) {
+                    throw new IllegalArgumentException("Checkpoint " + file + " belongs to a different job: "
+                            + line.path("job").asText());
+                }
+                first = false;
+            } else {
+                startAt = line.path("startAt").asInt();
+                outputBytes = line.path("outputBytes").asLong(-1);
+                for (JsonNode key : line.path("keys")) {
+                    completedKeys.add(key.asText());
+                }
+                chunks++;
+            }
+            lineStart = i + 1;
+        }
+        return first ? 0 : lineStart;
+    }
+    
+    /**
+     * Record a completed chunk. The output must already hold everything the chunk wrote.
+     *
+     * @param startAt     position in the search result after the chunk; 0 for key lists
+     * @param outputBytes size of the output after the chunk, or -1 when the output is not a single file
+     * @param keys        keys written in the chunk
+     */
+    public void record(int startAt, long outputBytes, Collection<String> keys) throws IOException {
+        ObjectNode line = MAPPER.createObjectNode();
+        line.put("startAt", startAt);
+        line.put("outputBytes", outputBytes);
+        ArrayNode keyArray = line.putArray("keys");
+        keys.forEach(keyArray::add);
+        append(line);
+        this.startAt = startAt;
+        this.outputBytes = outputBytes;
+        completedKeys.addAll(keys);
+        chunks++;
+    }
+    
+    private void append(ObjectNode line) throws IOException {
+        byte[] bytes = (MAPPER.writeValueAsString(line) + "\n").getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+    
+    /**
+     * Whether the job was started before and is being continued
+     */
+    public boolean isResumed() {
+        return resumed;
+    }
+    
+    /**
+     * Position in the search result reached by the last completed chunk
+     */
+    public int getStartAt() {
+        return startAt;
+    }
+    
+    /**
+     * Size of the output after the last completed chunk, or -1 when nothing was recorded
+     */
+    public long getOutputBytes() {
+        return outputBytes;
+    }
+    
+    public boolean isCompleted(String key) {
+        return completedKeys.contains(key);
+    }
+    
+    public Set<String> getCompletedKeys() {
+        return Collections.unmodifiableSet(completedKeys);
+    }
+    
+    public int getChunks() {
+        return chunks;
+    }
+    
+    /**
+     * Remove the checkpoint once the job has finished
+     */
+    public void delete() throws IOException {
+        close();
+        Files.deleteIfExists(file);
+    }
+    
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
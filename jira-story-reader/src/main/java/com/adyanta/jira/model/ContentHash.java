@@ -0,0 +1,90 @@
+package com.adyanta.jira.model;
+
+/**
+ * Stable 64-bit hash of the parts of a story that matter to readers: summary,
+ * description, acceptance criteria, status and story points. Text is normalized
+ * while it is hashed (surrounding whitespace dropped, runs of whitespace and line
+ * breaks treated as one space), so reformatting does not count as a change, and
+ * fields such as watchers, rank or the 'updated' timestamp are not included.
+ * The hash is computed character by character without building normalized copies.
+ */
+public final class ContentHash {
+    
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    
+    private static final int NULL_MARKER = 0xffff;
+    private static final int FIELD_SEPARATOR = 0;
+    
+    private ContentHash() {
+    }
+    
+    /**
+     * Hash of a story as 16 hex digits
+     */
+    public static String of(JiraStory story) {
+        JiraStory.Fields fields = story.getFields();
+        long hash = FNV_OFFSET_BASIS;
+        if (fields == null) {
+            return toHex(mixChar(hash, NULL_MARKER));
+        }
+        hash = mixText(hash, fields.getSummary());
+        hash = mixText(hash, fields.getDescription());
+        hash = mixText(hash, fields.getFirstAvailableAcceptanceCriteria());
+        JiraStory.Status status = fields.getStatus();
+        hash = mixText(hash, status == null ? null : status.getId() != null ? status.getId() : status.getName());
+        Double points = fields.getStoryPoints();
+        if (points == null) {
+            hash = mixChar(hash, NULL_MARKER);
+        } else {
+            // 5 and 5.0 are the same estimate; -0.0 and 0.0 too
+            long bits = Double.doubleToLongBits(points + 0.0);
+            for (int shift = 0; shift < 64; shift += 16) {
+                hash = mixChar(hash, (int) (bits >>> shift) & 0xffff);
+            }
+        }
+        return toHex(hash);
+    }
+    
+    private static long mixText(long hash, String text) {
+        if (text == null) {
+            return mixChar(mixChar(hash, NULL_MARKER), FIELD_SEPARATOR);
+        }
+        boolean pendingSpace = false;
+        boolean started = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c) || c == '\u00a0') {
+                pendingSpace = started;
+                continue;
+            }
+            if (pendingSpace) {
+                hash = mixChar(hash, ' ');
+                pendingSpace = false;
+            }
+            hash = mixChar(hash, c);
+            started = true;
+        }
+        return mixChar(hash, FIELD_SEPARATOR);
+    }
+    
+    private static long mixChar(long hash, int c) {
+        hash ^= c & 0xff;
+        hash *= FNV_PRIME;
+        hash ^= (c >>> 8) & 0xff;
+        hash *= FNV_PRIME;
+        return hash;
+    }
+    
+    private static String toHex(long hash) {
+        String hex = Long.toHexString(hash);
+        if (hex.length() == 16) {
+            return hex;
+        }
+        StringBuilder padded = new StringBuilder(16);
+        for (int i = hex.length(); i < 16; i++) {
+            padded.append('0');
+        }
+        return padded.append(hex).toString();
+    }
+}
@@ -0,0 +1,461 @@
+package com.adyanta.jira.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable variant of {@link JiraStory}.
+ * Instances are built once through creator constructors and can be shared
+ * across threads and caches without defensive copies.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class ImmutableJiraStory {
+    
+    @JsonProperty("id")
+    private final String id;
+    
+    @JsonProperty("key")
+    private final String key;
+    
+    @JsonProperty("self")
+    private final String self;
+    
+    @JsonProperty("fields")
+    private final Fields fields;
+    
+    @JsonCreator
+    public ImmutableJiraStory(@JsonProperty("id") String id,
+                              @JsonProperty("key") String key,
+                              @JsonProperty("self") String self,
+                              @JsonProperty("fields") Fields fields) {
+        this.id = id;
+        this.key = key;
+        this.self = self;
+        this.fields = fields;
+    }
+    
+    /**
+     * Create an immutable copy of a mutable story
+     */
+    public static ImmutableJiraStory from(JiraStory story) {
+        if (story == null) {
+            return null;
+        }
+        return new ImmutableJiraStory(story.getId(), story.getKey(), story.getSelf(), Fields.from(story.getFields()));
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public String getKey() {
+        return key;
+    }
+    
+    public String getSelf() {
+        return self;
+    }
+    
+    public Fields getFields() {
+        return fields;
+    }
+    
+    @Override
+    public String toString() {
+        return "ImmutableJiraStory{" +
+                "id='" + id + '\'' +
+                ", key='" + key + '\'' +
+                ", fields=" + fields +
+                '}';
+    }
+    
+    private static <T> List<T> immutableList(List<T> values) {
+        if (values == null || values.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(new ArrayList<>(values));
+    }
+    
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static final class Fields {
+        
+        @JsonProperty("summary")
+        private final String summary;
+        
+        @JsonProperty("description")
+        private final String description;
+        
+        @JsonProperty("issuetype")
+        private final IssueType issueType;
+        
+        @JsonProperty("status")
+        private final Status status;
+        
+        @JsonProperty("priority")
+        private final Priority priority;
+        
+        @JsonProperty("assignee")
+        private final User assignee;
+        
+        @JsonProperty("reporter")
+        private final User reporter;
+        
+        @JsonProperty("created")
+        private final String created;
+        
+        @JsonProperty("updated")
+        private final String updated;
+        
+        @JsonProperty("customfield_10014")
+        private final String acceptanceCriteria;
+        
+        @JsonProperty("customfield_10020")
+        private final String epicLink;
+        
+        @JsonProperty("customfield_10021")
+        private final Double storyPoints;
+        
+        @JsonProperty("customfield_10022")
+        private final List<String> sprint;
+        
+        @JsonProperty("labels")
+        private final List<String> labels;
+        
+        @JsonProperty("components")
+        private final List<Component> components;
+        
+        @JsonProperty("fixVersions")
+        private final List<Version> fixVersions;
+        
+        @JsonCreator
+        public Fields(@JsonProperty("summary") String summary,
+                      @JsonProperty("description") String description,
+                      @JsonProperty("issuetype") IssueType issueType,
+                      @JsonProperty("status") Status status,
+                      @JsonProperty("priority") Priority priority,
+                      @JsonProperty("assignee") User assignee,
+                      @JsonProperty("reporter") User reporter,
+                      @JsonProperty("created") String created,
+                      @JsonProperty("updated") String updated,
+                      @JsonProperty("customfield_10014") String acceptanceCriteria,
+                      @JsonProperty("customfield_10015") String acceptanceCriteriaAlt,
+                      @JsonProperty("customfield_10016") String acceptanceCriteriaAlt2,
+                      @JsonProperty("customfield_10017") String customField1,
+                      @JsonProperty("customfield_10018") String customField2,
+                      @JsonProperty("customfield_10020") String epicLink,
+                      @JsonProperty("customfield_10021") Double storyPoints,
+                      @JsonProperty("customfield_10022") List<String> sprint,
+                      @JsonProperty("labels") List<String> labels,
+                      @JsonProperty("components") List<Component> components,
+                      @JsonProperty("fixVersions") List<Version> fixVersions) {
+            this.summary = summary;
+            this.description = description;
+            this.issueType = issueType;
+            this.status = status;
+            this.priority = priority;
+            this.assignee = assignee;
+            this.reporter = reporter;
+            this.created = created;
+            this.updated = updated;
+            // Resolve the acceptance criteria field once instead of keeping all five candidates
+            this.acceptanceCriteria = firstNonBlank(acceptanceCriteria, acceptanceCriteriaAlt,
+                    acceptanceCriteriaAlt2, customField1, customField2);
+            this.epicLink = epicLink;
+            this.storyPoints = storyPoints;
+            this.sprint = immutableList(sprint);
+            this.labels = immutableList(labels);
+            this.components = immutableList(components);
+            this.fixVersions = immutableList(fixVersions);
+        }
+        
+        static Fields from(JiraStory.Fields fields) {
+            if (fields == null) {
+                return null;
+            }
+            List<Component> components = null;
+            if (fields.getComponents() != null) {
+                components = new ArrayList<>(fields.getComponents().size());
+                for (JiraStory.Component component : fields.getComponents()) {
+                    components.add(Component.from(component));
+                }
+            }
+            List<Version> fixVersions = null;
+            if (fields.getFixVersions() != null) {
+                fixVersions = new ArrayList<>(fields.getFixVersions().size());
+                for (JiraStory.Version version : fields.getFixVersions()) {
+                    fixVersions.add(Version.from(version));
+                }
+            }
+            return new Fields(fields.getSummary(), fields.getDescription(),
+                    IssueType.from(fields.getIssueType()), Status.from(fields.getStatus()),
+                    Priority.from(fields.getPriority()), User.from(fields.getAssignee()),
+                    User.from(fields.getReporter()), fields.getCreated(), fields.getUpdated(),
+                    fields.getAcceptanceCriteria(), fields.getAcceptanceCriteriaAlt(),
+                    fields.getAcceptanceCriteriaAlt2(), fields.getCustomField1(), fields.getCustomField2(),
+                    fields.getEpicLink(), fields.getStoryPoints(), fields.getSprint(), fields.getLabels(),
+                    components, fixVersions);
+        }
+        
+        private static String firstNonBlank(String... candidates) {
+            for (String candidate : candidates) {
+                if (candidate != null && !candidate.trim().isEmpty()) {
+                    return candidate;
+                }
+            }
+            return null;
+        }
+        
+        public String getSummary() {
+            return summary;
+        }
+        
+        public String getDescription() {
+            return description;
+        }
+        
+        public IssueType getIssueType() {
+            return issueType;
+        }
+        
+        public Status getStatus() {
+            return status;
+        }
+        
+        public Priority getPriority() {
+            return priority;
+        }
+        
+        public User getAssignee() {
+            return assignee;
+        }
+        
+        public User getReporter() {
+            return reporter;
+        }
+        
+        public String getCreated() {
+            return created;
+        }
+        
+        public String getUpdated() {
+            return updated;
+        }
+        
+        /**
+         * Get the first available acceptance criteria from any custom field
+         */
+        public String getAcceptanceCriteria() {
+            return acceptanceCriteria;
+        }
+        
+        public String getEpicLink() {
+            return epicLink;
+        }
+        
+        public Double getStoryPoints() {
+            return storyPoints;
+        }
+        
+        public List<String> getSprint() {
+            return sprint;
+        }
+        
+        public List<String> getLabels() {
+            return labels;
+        }
+        
+        public List<Component> getComponents() {
+            return components;
+        }
+        
+        public List<Version> getFixVersions() {
+            return fixVersions;
+        }
+        
+        @Override
+        public String toString() {
+            return "Fields{" +
+                    "summary='" + summary + '\'' +
+                    ", status=" + (status != null ? status.getName() : null) +
+                    ", storyPoints=" + storyPoints +
+                    '}';
+        }
+    }
+    
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static final class IssueType {
+        @JsonProperty("id")
+        private final String id;
+        
+        @JsonProperty("name")
+        private final String name;
+        
+        @JsonCreator
+        public IssueType(@JsonProperty("id") String id, @JsonProperty("name") String name) {
+            this.id = id;
+            this.name = name;
+        }
+        
+        static IssueType from(JiraStory.IssueType issueType) {
+            return issueType != null ? new IssueType(issueType.getId(), issueType.getName()) : null;
+        }
+        
+        public String getId() {
+            return id;
+        }
+        
+        public String getName() {
+            return name;
+        }
+    }
+    
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static final class Status {
+        @JsonProperty("id")
+        private final String id;
+        
+        @JsonProperty("name")
+        private final String name;
+        
+        @JsonCreator
+        public Status(@JsonProperty("id") String id, @JsonProperty("name") String name) {
+            this.id = id;
+            this.name = name;
+        }
+        
+        static Status from(JiraStory.Status status) {
+            return status != null ? new Status(status.getId(), status.getName()) : null;
+        }
+        
+        public String getId() {
+            return id;
+        }
+        
+        public String getName() {
+            return name;
+        }
+    }
+    
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static final class Priority {
+        @JsonProperty("id")
+        private final String id;
+        
+        @JsonProperty("name")
+        private final String name;
+        
+        @JsonCreator
+        public Priority(@JsonProperty("id") String id, @JsonProperty("name") String name) {
+            this.id = id;
+            this.name = name;
+        }
+        
+        static Priority from(JiraStory.Priority priority) {
+            return priority != null ? new Priority(priority.getId(), priority.getName()) : null;
+        }
+        
+        public String getId() {
+            return id;
+        }
+        
+        public String getName() {
+            return name;
+        }
+    }
+    
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static final class User {
+        @JsonProperty("accountId")
+        private final String accountId;
+        
+        @JsonProperty("displayName")
+        private final String displayName;
+        
+        @JsonProperty("emailAddress")
+        private final String emailAddress;
+        
+        @JsonCreator
+        public User(@JsonProperty("accountId") String accountId,
+                    @JsonProperty("displayName") String displayName,
+                    @JsonProperty("emailAddress") String emailAddress) {
+            this.accountId = accountId;
+            this.displayName = displayName;
+            this.emailAddress = emailAddress;
+        }
+        
+        static User from(JiraStory.User user) {
+            return user != null ? new User(user.getAccountId(), user.getDisplayName(), user.getEmailAddress()) : null;
+        }
+        
+        public String getAccountId() {
+            return accountId;
+        }
+        
+        public String getDisplayName() {
+            return displayName;
+        }
+        
+        public String getEmailAddress() {
+            return emailAddress;
+        }
+    }
+    
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static final class Component {
+        @JsonProperty("id")
+        private final String id;
+        
+        @JsonProperty("name")
+        private final String name;
+        
+        @JsonCreator
+        public Component(@JsonProperty("id") String id, @JsonProperty("name") String name) {
+            this.id = id;
+            this.name = name;
+        }
+        
+        static Component from(JiraStory.Component component) {
+            return component != null ? new Component(component.getId(), component.getName()) : null;
+        }
+        
+        public String getId() {
+            return id;
+        }
+        
+        public String getName() {
+            return name;
+        }
+    }
+    
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static final class Version {
+        @JsonProperty("id")
+        private final String id;
+        
+        @JsonProperty("name")
+        private final String name;
+        
+        @JsonCreator
+        public Version(@JsonProperty("id") String id, @JsonProperty("name") String name) {
+            this.id = id;
+            this.name = name;
+        }
+        
+        static Version from(JiraStory.Version version) {
+            return version != null ? new Version(version.getId(), version.getName()) : null;
+        }
+        
+        public String getId() {
+            return id;
+        }
+        
+        public String getName() {
+            return name;
+        }
+    }
+}
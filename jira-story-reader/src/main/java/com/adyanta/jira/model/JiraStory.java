@@ -1,10 +1,13 @@
 package com.adyanta.jira.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Represents a Jira Story with all relevant information including
@@ -25,6 +28,10 @@ public class JiraStory {
     @JsonProperty("fields")
     private Fields fields;
     
+    // Not part of Jira's response; written with persisted copies so they can be compared later
+    @JsonProperty("contentHash")
+    private String contentHash;
+    
     // Getters and Setters
     public String getId() {
         return id;
@@ -58,6 +65,34 @@ public class JiraStory {
         this.fields = fields;
     }
     
+    /**
+     * Stable hash of the summary, description, acceptance criteria, status and story points,
+     * computed on first use; see {@link ContentHash}
+     */
+    public String getContentHash() {
+        if (contentHash == null) {
+            contentHash = ContentHash.of(this);
+        }
+        return contentHash;
+    }
+    
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+    
+    /**
+     * Copy of this story with its own fields object; nested values are shared
+     */
+    public JiraStory copy() {
+        JiraStory copy = new JiraStory();
+        copy.id = id;
+        copy.key = key;
+        copy.self = self;
+        copy.fields = fields != null ? fields.copy() : null;
+        copy.contentHash = contentHash;
+        return copy;
+    }
+    
     @Override
     public String toString() {
         return "JiraStory{" +
@@ -137,6 +172,21 @@ public class JiraStory {
         @JsonProperty("fixVersions")
         private List<Version> fixVersions;
         
+        // Parent issue (epic of a story, story of a sub-task)
+        @JsonProperty("parent")
+        private IssueRef parent;
+        
+        // Links to other issues
+        @JsonProperty("issuelinks")
+        private List<IssueLink> issueLinks;
+        
+        // Description and acceptance criteria moved to a side store by storeText
+        @JsonIgnore
+        private Supplier<String> storedDescription;
+        
+        @JsonIgnore
+        private Supplier<String> storedAcceptanceCriteria;
+        
         // Getters and Setters
         public String getSummary() {
             return summary;
@@ -146,12 +196,18 @@ public class JiraStory {
             this.summary = summary;
         }
         
+        // Annotated so text moved to the side store is still written out
+        @JsonProperty("description")
         public String getDescription() {
+            if (description == null && storedDescription != null) {
+                return storedDescription.get();
+            }
             return description;
         }
         
         public void setDescription(String description) {
             this.description = description;
+            this.storedDescription = null;
         }
         
         public IssueType getIssueType() {
@@ -210,12 +266,17 @@ public class JiraStory {
             this.updated = updated;
         }
         
+        @JsonProperty("customfield_10014")
         public String getAcceptanceCriteria() {
+            if (acceptanceCriteria == null && storedAcceptanceCriteria != null) {
+                return storedAcceptanceCriteria.get();
+            }
             return acceptanceCriteria;
         }
         
         public void setAcceptanceCriteria(String acceptanceCriteria) {
             this.acceptanceCriteria = acceptanceCriteria;
+            this.storedAcceptanceCriteria = null;
         }
         
         public String getAcceptanceCriteriaAlt() {
@@ -298,10 +359,94 @@ public class JiraStory {
             this.fixVersions = fixVersions;
         }
         
+        public IssueRef getParent() {
+            return parent;
+        }
+        
+        public void setParent(IssueRef parent) {
+            this.parent = parent;
+        }
+        
+        public List<IssueLink> getIssueLinks() {
+            return issueLinks;
+        }
+        
+        public void setIssueLinks(List<IssueLink> issueLinks) {
+            this.issueLinks = issueLinks;
+        }
+        
+        /**
+         * Key of the parent issue, falling back to the epic link
+         */
+        public String getParentKey() {
+            if (parent != null && parent.getKey() != null) {
+                return parent.getKey();
+            }
+            return epicLink;
+        }
+        
+        Fields copy() {
+            Fields copy = new Fields();
+            copy.summary = summary;
+            copy.description = description;
+            copy.issueType = issueType;
+            copy.status = status;
+            copy.priority = priority;
+            copy.assignee = assignee;
+            copy.reporter = reporter;
+            copy.created = created;
+            copy.updated = updated;
+            copy.acceptanceCriteria = acceptanceCriteria;
+            copy.acceptanceCriteriaAlt = acceptanceCriteriaAlt;
+            copy.acceptanceCriteriaAlt2 = acceptanceCriteriaAlt2;
+            copy.customField1 = customField1;
+            copy.customField2 = customField2;
+            copy.epicLink = epicLink;
+            copy.storyPoints = storyPoints;
+            copy.sprint = sprint;
+            copy.labels = labels;
+            copy.components = components;
+            copy.fixVersions = fixVersions;
+            copy.parent = parent;
+            copy.issueLinks = issueLinks;
+            copy.storedDescription = storedDescription;
+            copy.storedAcceptanceCriteria = storedAcceptanceCriteria;
+            return copy;
+        }
+        
+        /**
+         * Move the description and acceptance criteria into a side store, keeping handles that
+         * decode them when read. The store returns null for text it does not take.
+         * The first available acceptance criteria replaces all candidate fields.
+         * Call this before the story is shared with other threads.
+         */
+        public void storeText(Function<String, Supplier<String>> store) {
+            if (description != null) {
+                Supplier<String> stored = store.apply(description);
+                if (stored != null) {
+                    storedDescription = stored;
+                    description = null;
+                }
+            }
+            String criteria = storedAcceptanceCriteria == null ? getFirstAvailableAcceptanceCriteria() : null;
+            if (criteria != null) {
+                Supplier<String> stored = store.apply(criteria);
+                if (stored != null) {
+                    storedAcceptanceCriteria = stored;
+                    acceptanceCriteria = null;
+                    acceptanceCriteriaAlt = null;
+                    acceptanceCriteriaAlt2 = null;
+                    customField1 = null;
+                    customField2 = null;
+                }
+            }
+        }
+        
         /**
          * Get the first available acceptance criteria from any custom field
          */
         public String getFirstAvailableAcceptanceCriteria() {
+            String acceptanceCriteria = getAcceptanceCriteria();
             if (acceptanceCriteria != null && !acceptanceCriteria.trim().isEmpty()) {
                 return acceptanceCriteria;
             }
@@ -514,4 +659,125 @@ public class JiraStory {
             this.description = description;
         }
     }
+    
+    /**
+     * Reference to another issue, as embedded in parent and link fields
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class IssueRef {
+        @JsonProperty("id")
+        private String id;
+        
+        @JsonProperty("key")
+        private String key;
+        
+        public String getId() {
+            return id;
+        }
+        
+        public void setId(String id) {
+            this.id = id;
+        }
+        
+        public String getKey() {
+            return key;
+        }
+        
+        public void setKey(String key) {
+            this.key = key;
+        }
+    }
+    
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class IssueLink {
+        @JsonProperty("id")
+        private String id;
+        
+        @JsonProperty("type")
+        private LinkType type;
+        
+        @JsonProperty("inwardIssue")
+        private IssueRef inwardIssue;
+        
+        @JsonProperty("outwardIssue")
+        private IssueRef outwardIssue;
+        
+        public String getId() {
+            return id;
+        }
+        
+        public void setId(String id) {
+            this.id = id;
+        }
+        
+        public LinkType getType() {
+            return type;
+        }
+        
+        public void setType(LinkType type) {
+            this.type = type;
+        }
+        
+        public IssueRef getInwardIssue() {
+            return inwardIssue;
+        }
+        
+        public void setInwardIssue(IssueRef inwardIssue) {
+            this.inwardIssue = inwardIssue;
+        }
+        
+        public IssueRef getOutwardIssue() {
+            return outwardIssue;
+        }
+        
+        public void setOutwardIssue(IssueRef outwardIssue) {
+            this.outwardIssue = outwardIssue;
+        }
+        
+        /**
+         * Key of the issue on the other end of the link
+         */
+        public String getLinkedKey() {
+            if (outwardIssue != null) {
+                return outwardIssue.getKey();
+            }
+            return inwardIssue != null ? inwardIssue.getKey() : null;
+        }
+    }
+    
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class LinkType {
+        @JsonProperty("name")
+        private String name;
+        
+        @JsonProperty("inward")
+        private String inward;
+        
+        @JsonProperty("outward")
+        private String outward;
+        
+        public String getName() {
+            return name;
+        }
+        
+        public void setName(String name) {
+            this.name = name;
+        }
+        
+        public String getInward() {
+            return inward;
+        }
+        
+        public void setInward(String inward) {
+            this.inward = inward;
+        }
+        
+        public String getOutward() {
+            return outward;
+        }
+        
+        public void setOutward(String outward) {
+            this.outward = outward;
+        }
+    }
 }
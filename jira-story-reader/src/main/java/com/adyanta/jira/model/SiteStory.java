@@ -0,0 +1,55 @@
+package com.adyanta.jira.model;
+
+/**
+ * A story together with the name of the Jira site it came from.
+ * Site-qualified keys have the form {@code site:KEY}, for example {@code emea:PROJ-123}.
+ */
+public final class SiteStory {
+    
+    public static final char SEPARATOR = ':';
+    
+    private final String site;
+    private final JiraStory story;
+    
+    public SiteStory(String site, JiraStory story) {
+        this.site = site;
+        this.story = story;
+    }
+    
+    public String getSite() {
+        return site;
+    }
+    
+    public JiraStory getStory() {
+        return story;
+    }
+    
+    public String getQualifiedKey() {
+        return qualify(site, story.getKey());
+    }
+    
+    public static String qualify(String site, String key) {
+        return site + SEPARATOR + key;
+    }
+    
+    /**
+     * Site part of a qualified key, or null for an unqualified key
+     */
+    public static String siteOf(String qualifiedKey) {
+        int separator = qualifiedKey.indexOf(SEPARATOR);
+        return separator > 0 ? qualifiedKey.substring(0, separator) : null;
+    }
+    
+    /**
+     * Issue key part of a qualified or unqualified key
+     */
+    public static String keyOf(String qualifiedKey) {
+        int separator = qualifiedKey.indexOf(SEPARATOR);
+        return separator >= 0 ? qualifiedKey.substring(separator + 1) : qualifiedKey;
+    }
+    
+    @Override
+    public String toString() {
+        return "SiteStory{" + getQualifiedKey() + '}';
+    }
+}
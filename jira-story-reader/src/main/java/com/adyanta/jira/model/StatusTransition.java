@@ -0,0 +1,78 @@
+package com.adyanta.jira.model;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A single status change taken from an issue's changelog.
+ * Only the changelog entry ID, the timestamp and the from/to status IDs
+ * are kept; status names can be resolved separately when needed.
+ */
+public final class StatusTransition {
+    
+    private final long entryId;
+    private final long timestampMillis;
+    private final String fromStatusId;
+    private final String toStatusId;
+    
+    public StatusTransition(long entryId, long timestampMillis, String fromStatusId, String toStatusId) {
+        this.entryId = entryId;
+        this.timestampMillis = timestampMillis;
+        // Status IDs repeat across every issue in a workflow, so share the instances
+        this.fromStatusId = fromStatusId != null ? fromStatusId.intern() : null;
+        this.toStatusId = toStatusId != null ? toStatusId.intern() : null;
+    }
+    
+    /**
+     * ID of the changelog entry this transition was recorded in
+     */
+    public long getEntryId() {
+        return entryId;
+    }
+    
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+    
+    public Instant getTimestamp() {
+        return Instant.ofEpochMilli(timestampMillis);
+    }
+    
+    public String getFromStatusId() {
+        return fromStatusId;
+    }
+    
+    public String getToStatusId() {
+        return toStatusId;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof StatusTransition)) {
+            return false;
+        }
+        StatusTransition that = (StatusTransition) o;
+        return entryId == that.entryId
+                && timestampMillis == that.timestampMillis
+                && Objects.equals(fromStatusId, that.fromStatusId)
+                && Objects.equals(toStatusId, that.toStatusId);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(entryId, timestampMillis, fromStatusId, toStatusId);
+    }
+    
+    @Override
+    public String toString() {
+        return "StatusTransition{" +
+                "entryId=" + entryId +
+                ", timestamp=" + getTimestamp() +
+                ", from='" + fromStatusId + '\'' +
+                ", to='" + toStatusId + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,25 @@
+package com.adyanta.jira.render;
+
+/**
+ * Output modes supported by the story renderer.
+ */
+public enum RenderMode {
+    
+    /** Multi-line, human-readable story details */
+    PLAIN,
+    
+    /** One line per story */
+    COMPACT,
+    
+    /** One JSON object per line */
+    JSON;
+    
+    public static RenderMode fromName(String name) {
+        for (RenderMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(name)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown render mode: " + name);
+    }
+}
@@ -0,0 +1,275 @@
+package com.adyanta.jira.render;
+
+import com.adyanta.jira.model.JiraStory;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Formats stories into a reusable buffer and writes them out in batches.
+ * Rendering a whole result set costs a handful of writes instead of
+ * one synchronized println per line. Instances are not thread-safe.
+ */
+public class StoryRenderer {
+    
+    private static final String SEPARATOR = "=".repeat(80);
+    private static final String SECTION_SEPARATOR = "-".repeat(40);
+    private static final int DEFAULT_FLUSH_THRESHOLD = 32 * 1024;
+    
+    private final Writer out;
+    private final RenderMode mode;
+    private final int flushThreshold;
+    private final StringBuilder buffer;
+    
+    public StoryRenderer(Writer out, RenderMode mode) {
+        this(out, mode, DEFAULT_FLUSH_THRESHOLD);
+    }
+    
+    public StoryRenderer(Writer out, RenderMode mode, int flushThreshold) {
+        this.out = out;
+        this.mode = mode;
+        this.flushThreshold = flushThreshold;
+        this.buffer = new StringBuilder(flushThreshold + 4096);
+    }
+    
+    /**
+     * Create a renderer writing to a print stream such as System.out
+     */
+    public static StoryRenderer forStream(PrintStream stream, RenderMode mode) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(stream, Charset.defaultCharset()), DEFAULT_FLUSH_THRESHOLD);
+        return new StoryRenderer(writer, mode);
+    }
+    
+    public RenderMode getMode() {
+        return mode;
+    }
+    
+    /**
+     * Render a single story and flush it
+     */
+    public void print(JiraStory story) {
+        append(story);
+        flush();
+    }
+    
+    /**
+     * Render a batch of stories, flushing whenever the buffer fills up
+     */
+    public void printAll(Collection<JiraStory> stories) {
+        for (JiraStory story : stories) {
+            append(story);
+        }
+        flush();
+    }
+    
+    /**
+     * Append a story to the buffer; it is written once the flush threshold is reached
+     */
+    public void append(JiraStory story) {
+        switch (mode) {
+            case COMPACT:
+                appendCompact(story);
+                break;
+            case JSON:
+                appendJson(story);
+                break;
+            default:
+                appendPlain(story);
+        }
+        if (buffer.length() >= flushThreshold) {
+            drain();
+        }
+    }
+    
+    /**
+     * Write everything buffered so far and flush the underlying writer
+     */
+    public void flush() {
+        drain();
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to flush story output", e);
+        }
+    }
+    
+    private void drain() {
+        if (buffer.length() == 0) {
+            return;
+        }
+        try {
+            out.append(buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write story output", e);
+        } finally {
+            buffer.setLength(0);
+        }
+    }
+    
+    private void appendPlain(JiraStory story) {
+        StringBuilder sb = buffer;
+        if (story == null) {
+            sb.append("Story is null\n");
+            return;
+        }
+        
+        sb.append(SEPARATOR).append('\n');
+        sb.append("STORY: ").append(story.getKey()).append('\n');
+        sb.append(SEPARATOR).append('\n');
+        
+        JiraStory.Fields fields = story.getFields();
+        if (fields != null) {
+            sb.append("Summary: ").append(orDefault(fields.getSummary(), "N/A")).append('\n');
+            sb.append("Status: ").append(fields.getStatus() != null ? fields.getStatus().getName() : "N/A").append('\n');
+            sb.append("Priority: ").append(fields.getPriority() != null ? fields.getPriority().getName() : "N/A").append('\n');
+            sb.append("Assignee: ").append(fields.getAssignee() != null ? fields.getAssignee().getDisplayName() : "Unassigned").append('\n');
+            sb.append("Reporter: ").append(fields.getReporter() != null ? fields.getReporter().getDisplayName() : "N/A").append('\n');
+            sb.append("Story Points: ");
+            if (fields.getStoryPoints() != null) {
+                sb.append(fields.getStoryPoints().doubleValue());
+            } else {
+                sb.append("N/A");
+            }
+            sb.append('\n');
+            
+            sb.append("\nDescription:\n").append(SECTION_SEPARATOR).append('\n');
+            sb.append(orDefault(trimToNull(fields.getDescription()), "No description available")).append('\n');
+            
+            sb.append("\nAcceptance Criteria:\n").append(SECTION_SEPARATOR).append('\n');
+            sb.append(orDefault(trimToNull(fields.getFirstAvailableAcceptanceCriteria()), "No acceptance criteria available")).append('\n');
+            
+            if (fields.getLabels() != null && !fields.getLabels().isEmpty()) {
+                sb.append("\nLabels: ");
+                appendJoined(fields.getLabels());
+                sb.append('\n');
+            }
+            
+            if (fields.getComponents() != null && !fields.getComponents().isEmpty()) {
+                sb.append("Components: ");
+                appendComponentNames(fields.getComponents());
+                sb.append('\n');
+            }
+        }
+        sb.append(SEPARATOR).append('\n');
+    }
+    
+    private void appendCompact(JiraStory story) {
+        StringBuilder sb = buffer;
+        if (story == null) {
+            sb.append("(null story)\n");
+            return;
+        }
+        
+        sb.append(story.getKey());
+        JiraStory.Fields fields = story.getFields();
+        if (fields != null) {
+            sb.append(" [").append(fields.getStatus() != null ? fields.getStatus().getName() : "N/A").append(']');
+            if (fields.getStoryPoints() != null) {
+                sb.append(" (").append(fields.getStoryPoints().doubleValue()).append(" pts)");
+            }
+            sb.append(' ').append(orDefault(fields.getSummary(), ""));
+            sb.append(" - ").append(fields.getAssignee() != null ? fields.getAssignee().getDisplayName() : "Unassigned");
+        }
+        sb.append('\n');
+    }
+    
+    private void appendJson(JiraStory story) {
+        StringBuilder sb = buffer;
+        if (story == null) {
+            sb.append("null\n");
+            return;
+        }
+        
+        JiraStory.Fields fields = story.getFields();
+        sb.append('{');
+        appendJsonField("key", story.getKey(), true);
+        if (fields != null) {
+            appendJsonField("summary", fields.getSummary(), false);
+            appendJsonField("status", fields.getStatus() != null ? fields.getStatus().getName() : null, false);
+            appendJsonField("priority", fields.getPriority() != null ? fields.getPriority().getName() : null, false);
+            appendJsonField("assignee", fields.getAssignee() != null ? fields.getAssignee().getDisplayName() : null, false);
+            appendJsonField("reporter", fields.getReporter() != null ? fields.getReporter().getDisplayName() : null, false);
+            sb.append(",\"storyPoints\":");
+            if (fields.getStoryPoints() != null) {
+                sb.append(fields.getStoryPoints().doubleValue());
+            } else {
+                sb.append("null");
+            }
+            appendJsonField("description", trimToNull(fields.getDescription()), false);
+            appendJsonField("acceptanceCriteria", trimToNull(fields.getFirstAvailableAcceptanceCriteria()), false);
+            sb.append(",\"labels\":");
+            appendJsonArray(fields.getLabels());
+        }
+        sb.append("}\n");
+    }
+    
+    private void appendJsonField(String name, String value, boolean first) {
+        StringBuilder sb = buffer;
+        if (!first) {
+            sb.append(',');
+        }
+        sb.append('"').append(name).append("\":");
+        appendJsonString(value);
+    }
+    
+    private void appendJsonString(String value) {
+        if (value == null) {
+            buffer.append("null");
+            return;
+        }
+        buffer.append('"');
+        JsonStringEncoder.getInstance().quoteAsString(value, buffer);
+        buffer.append('"');
+    }
+    
+    private void appendJsonArray(List<String> values) {
+        buffer.append('[');
+        if (values != null) {
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    buffer.append(',');
+                }
+                appendJsonString(values.get(i));
+            }
+        }
+        buffer.append(']');
+    }
+    
+    private void appendJoined(List<String> values) {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                buffer.append(", ");
+            }
+            buffer.append(values.get(i));
+        }
+    }
+    
+    private void appendComponentNames(List<JiraStory.Component> components) {
+        for (int i = 0; i < components.size(); i++) {
+            if (i > 0) {
+                buffer.append(", ");
+            }
+            buffer.append(components.get(i).getName());
+        }
+    }
+    
+    private static String orDefault(String value, String defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+    
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
@@ -0,0 +1,325 @@
+package com.adyanta.jira.server;
+
+import com.adyanta.jira.config.JiraConfig;
+import com.adyanta.jira.model.JiraStory;
+import com.adyanta.jira.service.JiraStoryReaderService;
+import com.adyanta.jira.service.RequestMetrics;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Long-running local HTTP server that keeps one warm service, connection pool
+ * and story cache, and serves stories as JSON to local tools.
+ *
+ * Endpoints:
+ * GET /stories/{key}   a single story
+ * GET /search?jql=...  all stories matching a JQL query, streamed
+ * GET /health          cache and request statistics
+ * POST /webhooks/jira  Jira issue webhooks applied to the cache
+ *
+ * The server listens on 127.0.0.1 unless another bind address is configured, so Jira
+ * can deliver webhooks. Such a server does not start without a webhook secret.
+ */
+public class StoryServer implements AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(StoryServer.class);
+    
+    private static final Pattern STORY_KEY = Pattern.compile("[A-Za-z][A-Za-z0-9_]*-\\d+");
+    private static final int MAX_WEBHOOK_BYTES = 1024 * 1024;
+    private static final String LOOPBACK = "127.0.0.1";
+    
+    private final JiraStoryReaderService service;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter storyWriter;
+    private final WebhookHandler webhookHandler;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    
+    public StoryServer(JiraStoryReaderService service, JiraConfig config) throws IOException {
+        this(service, config.getServerBind(), config.getServerPort(), config.getServerThreads(),
+                config.getWebhookSecret());
+    }
+    
+    public StoryServer(JiraStoryReaderService service, int port, int threads) throws IOException {
+        this(service, port, threads, null);
+    }
+    
+    public StoryServer(JiraStoryReaderService service, int port, int threads, String webhookSecret) throws IOException {
+        this(service, LOOPBACK, port, threads, webhookSecret);
+    }
+    
+    /**
+     * @param bindAddress address to listen on; anything but a loopback address requires a webhook secret,
+     *                    since unsigned webhooks would let anyone who can reach the port rewrite the cache
+     */
+    public StoryServer(JiraStoryReaderService service, String bindAddress, int port, int threads,
+                       String webhookSecret) throws IOException {
+        InetAddress address = InetAddress.getByName(bindAddress != null && !bindAddress.isEmpty() ? bindAddress : LOOPBACK);
+        if (!address.isLoopbackAddress() && (webhookSecret == null || webhookSecret.isEmpty())) {
+            throw new IllegalArgumentException("jira.webhook.secret is required when the server binds to "
+                    + bindAddress + "; webhooks from other hosts are only accepted when signed");
+        }
+        this.service = service;
+        this.webhookHandler = new WebhookHandler(service, webhookSecret);
+        this.objectMapper = service.getObjectMapper();
+        // Streamed search results are flushed by the generator's buffer, not after every story
+        this.storyWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.server = HttpServer.create(new InetSocketAddress(address, port), 0);
+        this.executor = Executors.newFixedThreadPool(threads);
+        
+        server.setExecutor(executor);
+        server.createContext("/stories/", this::handleStory);
+        server.createContext("/search", this::handleSearch);
+        server.createContext("/health", this::handleHealth);
+        server.createContext("/webhooks/jira", this::handleWebhook);
+    }
+    
+    public void start() {
+        server.start();
+        logger.info("Story server listening on {}", getUrl());
+    }
+    
+    /**
+     * Base URL of the server, with the address it is bound to
+     */
+    public String getUrl() {
+        InetAddress address = server.getAddress().getAddress();
+        String host = address.getHostAddress();
+        return "http://" + (address instanceof Inet6Address ? "[" + host + "]" : host) + ":" + getPort();
+    }
+    
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+    
+    private void handleStory(HttpExchange exchange) throws IOException {
+        try {
+            if (!requireGet(exchange)) {
+                return;
+            }
+            String key = exchange.getRequestURI().getPath().substring("/stories/".length());
+            if (!STORY_KEY.matcher(key).matches()) {
+                sendError(exchange, 400, "Invalid story key: " + key);
+                return;
+            }
+            
+            JiraStory story = service.getStoryByKey(key.toUpperCase());
+            byte[] body = storyWriter.writeValueAsBytes(story);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (JiraStoryReaderService.JiraApiException e) {
+            sendApiError(exchange, e);
+        } finally {
+            exchange.close();
+        }
+    }
+    
+    private void handleSearch(HttpExchange exchange) throws IOException {
+        try {
+            if (!requireGet(exchange)) {
+                return;
+            }
+            String jql = queryParameters(exchange).get("jql");
+            if (jql == null || jql.trim().isEmpty()) {
+                sendError(exchange, 400, "Query parameter 'jql' is required");
+                return;
+            }
+            
+            // Headers are sent lazily so that failures on the first page still produce an error status
+            SearchResponseWriter writer = new SearchResponseWriter(exchange);
+            try {
+                service.streamStories(jql, writer::write);
+                writer.finish();
+            } catch (JiraStoryReaderService.JiraApiException e) {
+                if (!writer.started) {
+                    sendApiError(exchange, e);
+                } else {
+                    logger.warn("Search failed after response was started: {}", e.getMessage());
+                }
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+    
+    private void handleHealth(HttpExchange exchange) throws IOException {
+        try {
+            RequestMetrics metrics = service.getMetrics();
+            Map<String, Object> health = new LinkedHashMap<>();
+            health.put("status", "UP");
+            health.put("circuit", service.getCircuitBreaker().getState().name());
+            health.put("cachedStories", service.getStoryCache().size());
+            health.put("requests", metrics.getRequestCount());
+            health.put("failures", metrics.getFailureCount());
+            health.put("p50LatencyMillis", metrics.getLatencyPercentileMillis(50));
+            health.put("p99LatencyMillis", metrics.getLatencyPercentileMillis(99));
+            sendJson(exchange, 200, health);
+        } finally {
+            exchange.close();
+        }
+    }
+    
+    private void handleWebhook(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                sendError(exchange, 405, "Method not allowed");
+                return;
+            }
+            
+            byte[] payload = exchange.getRequestBody().readNBytes(MAX_WEBHOOK_BYTES + 1);
+            if (payload.length > MAX_WEBHOOK_BYTES) {
+                sendError(exchange, 413, "Webhook payload too large");
+                return;
+            }
+            if (!webhookHandler.verifySignature(payload, exchange.getRequestHeaders().getFirst("X-Hub-Signature"))) {
+                sendError(exchange, 401, "Invalid webhook signature");
+                return;
+            }
+            
+            WebhookHandler.Outcome outcome;
+            try {
+                outcome = webhookHandler.handle(payload);
+            } catch (JsonProcessingException e) {
+                sendError(exchange, 400, "Invalid webhook payload: " + e.getOriginalMessage());
+                return;
+            }
+            
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("outcome", outcome.name());
+            sendJson(exchange, 200, result);
+        } catch (JiraStoryReaderService.JiraApiException e) {
+            sendApiError(exchange, e);
+        } finally {
+            exchange.close();
+        }
+    }
+    
+    private boolean requireGet(HttpExchange exchange) throws IOException {
+        if ("GET".equals(exchange.getRequestMethod())) {
+            return true;
+        }
+        exchange.getResponseHeaders().set("Allow", "GET");
+        sendError(exchange, 405, "Method not allowed");
+        return false;
+    }
+    
+    private void sendApiError(HttpExchange exchange, JiraStoryReaderService.JiraApiException e) throws IOException {
+        int status;
+        if (e instanceof JiraStoryReaderService.JiraUnavailableException) {
+            status = 503;
+        } else {
+            status = e.getMessage() != null && e.getMessage().startsWith("Resource not found") ? 404 : 502;
+        }
+        sendError(exchange, status, e.getMessage());
+    }
+    
+    private void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("status", status);
+        error.put("error", message);
+        sendJson(exchange, status, error);
+    }
+    
+    private void sendJson(HttpExchange exchange, int status, Object value) throws IOException {
+        byte[] body = objectMapper.writeValueAsBytes(value);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+    
+    static Map<String, String> queryParameters(HttpExchange exchange) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                parameters.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+    
+    /**
+     * Streams search results as {"issues":[...],"total":n} with chunked encoding
+     */
+    private class SearchResponseWriter {
+        private final HttpExchange exchange;
+        private JsonGenerator generator;
+        private boolean started;
+        private int count;
+        
+        private SearchResponseWriter(HttpExchange exchange) {
+            this.exchange = exchange;
+        }
+        
+        private void start() throws IOException {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, 0);
+            generator = objectMapper.getFactory().createGenerator(exchange.getResponseBody());
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("issues");
+            started = true;
+        }
+        
+        private void write(JiraStory story) throws IOException {
+            if (!started) {
+                start();
+            }
+            storyWriter.writeValue(generator, story);
+            count++;
+        }
+        
+        private void finish() throws IOException {
+            if (!started) {
+                start();
+            }
+            generator.writeEndArray();
+            generator.writeNumberField("total", count);
+            generator.writeEndObject();
+            generator.close();
+        }
+    }
+    
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Story server stopped");
+    }
+}
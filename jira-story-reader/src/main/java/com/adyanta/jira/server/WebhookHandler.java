@@ -0,0 +1,181 @@
+package com.adyanta.jira.server;
+
+import com.adyanta.jira.model.JiraStory;
+import com.adyanta.jira.service.ChangelogPage;
+import com.adyanta.jira.service.JiraStoryReaderService;
+import com.adyanta.jira.service.SearchCache;
+import com.adyanta.jira.service.StoryCache;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Applies Jira issue webhooks to the story cache.
+ * Created and updated events carrying the issue's fields are stored directly;
+ * events without enough fields trigger a targeted re-fetch, and deletions
+ * evict the story. Jira does not deliver webhooks in order, so an event whose
+ * 'updated' time is not after that of the cached copy is dropped.
+ * Cached search results that held a deleted story are evicted; any other change
+ * clears them all, since it may move the story into or out of any query.
+ */
+public class WebhookHandler {
+    
+    private static final Logger logger = LoggerFactory.getLogger(WebhookHandler.class);
+    
+    public static final String ISSUE_CREATED = "jira:issue_created";
+    public static final String ISSUE_UPDATED = "jira:issue_updated";
+    public static final String ISSUE_DELETED = "jira:issue_deleted";
+    
+    /**
+     * What a webhook event did to the cache
+     */
+    public enum Outcome {
+        STORED,
+        REFETCHED,
+        EVICTED,
+        OUTDATED,
+        IGNORED
+    }
+    
+    private final JiraStoryReaderService service;
+    private final StoryCache cache;
+    private final SearchCache searchCache;
+    private final ObjectMapper objectMapper;
+    private final String secret;
+    
+    public WebhookHandler(JiraStoryReaderService service, String secret) {
+        this.service = service;
+        this.cache = service.getStoryCache();
+        this.searchCache = service.getSearchCache();
+        this.objectMapper = service.getObjectMapper();
+        this.secret = secret != null && !secret.isEmpty() ? secret : null;
+    }
+    
+    /**
+     * Check the X-Hub-Signature header Jira sends for webhooks registered with a secret.
+     * Always succeeds when no secret is configured.
+     */
+    public boolean verifySignature(byte[] payload, String signatureHeader) {
+        if (secret == null) {
+            return true;
+        }
+        if (signatureHeader == null || !signatureHeader.startsWith("sha256=")) {
+            return false;
+        }
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] expected = mac.doFinal(payload);
+            byte[] actual = hexToBytes(signatureHeader.substring("sha256=".length()));
+            return actual != null && MessageDigest.isEqual(expected, actual);
+        } catch (GeneralSecurityException e) {
+            logger.error("Failed to verify webhook signature: {}", e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Apply a webhook payload to the cache
+     */
+    public Outcome handle(byte[] payload) throws IOException, JiraStoryReaderService.JiraApiException {
+        JsonNode event = objectMapper.readTree(payload);
+        String eventType = event.path("webhookEvent").asText(null);
+        JsonNode issue = event.path("issue");
+        String key = issue.path("key").asText(null);
+        
+        if (key == null || eventType == null) {
+            logger.debug("Ignoring webhook without issue key or event type");
+            return Outcome.IGNORED;
+        }
+        
+        switch (eventType) {
+            case ISSUE_DELETED:
+                cache.invalidate(key);
+                searchCache.evictStory(key);
+                logger.debug("Evicted deleted story {}", key);
+                return Outcome.EVICTED;
+            case ISSUE_CREATED:
+            case ISSUE_UPDATED:
+                if (hasRequiredFields(issue)) {
+                    JiraStory story = objectMapper.treeToValue(issue, JiraStory.class);
+                    if (!storeIfNewer(story)) {
+                        logger.debug("Dropped {} for {}: cached copy is as recent", eventType, key);
+                        return Outcome.OUTDATED;
+                    }
+                    logger.debug("Stored story {} from {}", key, eventType);
+                    return Outcome.STORED;
+                }
+                service.refreshStory(key);
+                searchCache.clear();
+                logger.debug("Re-fetched story {} after {} without full fields", key, eventType);
+                return Outcome.REFETCHED;
+            default:
+                logger.debug("Ignoring webhook event {}", eventType);
+                return Outcome.IGNORED;
+        }
+    }
+    
+    /**
+     * Cache a pushed story unless the cached copy was updated at the same time or later.
+     * Serialized so two events for one story cannot both pass the check and land out of order.
+     */
+    private synchronized boolean storeIfNewer(JiraStory story) {
+        JiraStory cached = cache.getStale(story.getKey());
+        if (cached != null && cached.getFields() != null) {
+            long cachedUpdated = updatedMillis(cached);
+            long pushedUpdated = updatedMillis(story);
+            if (cachedUpdated > 0 && pushedUpdated > 0 && pushedUpdated <= cachedUpdated) {
+                return false;
+            }
+        }
+        service.applyPushedStory(story);
+        searchCache.clear();
+        return true;
+    }
+    
+    /**
+     * The story's 'updated' time, or 0 when it is missing or unreadable
+     */
+    private static long updatedMillis(JiraStory story) {
+        try {
+            return ChangelogPage.parseTimestamp(story.getFields().getUpdated());
+        } catch (DateTimeParseException e) {
+            logger.debug("Unreadable updated time on {}: {}", story.getKey(), e.getMessage());
+            return 0;
+        }
+    }
+    
+    /**
+     * Payloads trimmed by webhook field filters or the Jira version may lack fields the cache needs
+     */
+    private static boolean hasRequiredFields(JsonNode issue) {
+        JsonNode fields = issue.path("fields");
+        return fields.isObject() && fields.hasNonNull("summary") && fields.hasNonNull("status")
+                && fields.hasNonNull("updated");
+    }
+    
+    private static byte[] hexToBytes(String hex) {
+        if (hex.length() % 2 != 0) {
+            return null;
+        }
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int high = Character.digit(hex.charAt(i * 2), 16);
+            int low = Character.digit(hex.charAt(i * 2 + 1), 16);
+            if (high < 0 || low < 0) {
+                return null;
+            }
+            bytes[i] = (byte) ((high << 4) | low);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,79 @@
+package com.adyanta.jira.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits how many requests of one kind may be in flight at once, so a slow
+ * kind of traffic cannot take every pooled connection and thread.
+ * The limit can be changed while requests are running.
+ */
+public class Bulkhead {
+    
+    private final String name;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private int maxConcurrent;
+    private int inFlight;
+    
+    public Bulkhead(String name, int maxConcurrent) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+    }
+    
+    /**
+     * Wait up to the given time for a free slot
+     *
+     * @return false when no slot became free in time
+     */
+    public boolean tryAcquire(long timeoutMillis) throws InterruptedException {
+        long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        lock.lockInterruptibly();
+        try {
+            while (inFlight >= maxConcurrent) {
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                remainingNanos = released.awaitNanos(remainingNanos);
+            }
+            inFlight++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public void setMaxConcurrent(int maxConcurrent) {
+        lock.lock();
+        try {
+            this.maxConcurrent = maxConcurrent;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.adyanta.jira.service;
+
+/**
+ * A value read from a cache, and whether it should be refreshed in the background
+ * because it has expired or is popular and about to expire
+ */
+public final class CachedValue<T> {
+    
+    /**
+     * Share of the TTL after which frequently read entries are refreshed ahead of expiry
+     */
+    private static final int REFRESH_AHEAD_PERCENT = 80;
+    
+    private final T value;
+    private final boolean refreshNeeded;
+    
+    CachedValue(T value, boolean refreshNeeded) {
+        this.value = value;
+        this.refreshNeeded = refreshNeeded;
+    }
+    
+    public T getValue() {
+        return value;
+    }
+    
+    public boolean isRefreshNeeded() {
+        return refreshNeeded;
+    }
+    
+    /**
+     * Whether an entry of the given age may still be served, possibly while it is refreshed
+     */
+    static boolean isServable(long ageNanos, long ttlNanos, long staleNanos) {
+        return ageNanos <= ttlNanos + staleNanos;
+    }
+    
+    /**
+     * Whether an entry should be refreshed: it has expired, or it has been read at least
+     * refreshAheadHits times and most of its TTL has passed
+     */
+    static boolean isRefreshDue(long ageNanos, long ttlNanos, int hits, int refreshAheadHits) {
+        if (ageNanos > ttlNanos) {
+            return true;
+        }
+        return refreshAheadHits > 0 && hits >= refreshAheadHits && ageNanos * 100 > ttlNanos * REFRESH_AHEAD_PERCENT;
+    }
+}
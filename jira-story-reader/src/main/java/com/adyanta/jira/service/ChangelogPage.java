@@ -0,0 +1,131 @@
+package com.adyanta.jira.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of an issue changelog as returned by /rest/api/3/issue/{key}/changelog.
+ * Only the parts needed to extract status transitions are bound.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ChangelogPage {
+    
+    private static final DateTimeFormatter JIRA_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
+    
+    @JsonProperty("startAt")
+    private int startAt;
+    
+    @JsonProperty("total")
+    private int total = -1;
+    
+    @JsonProperty("isLast")
+    private boolean last;
+    
+    @JsonProperty("values")
+    private List<Entry> values;
+    
+    public int getStartAt() {
+        return startAt;
+    }
+    
+    public int getTotal() {
+        return total;
+    }
+    
+    public boolean isLast() {
+        return last;
+    }
+    
+    public List<Entry> getValues() {
+        return values != null ? values : Collections.emptyList();
+    }
+    
+    /**
+     * Parse a Jira timestamp such as 2024-01-05T12:30:00.000+0000 into epoch milliseconds
+     */
+    public static long parseTimestamp(String value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return OffsetDateTime.parse(value, JIRA_TIMESTAMP).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return OffsetDateTime.parse(value).toInstant().toEpochMilli();
+        }
+    }
+    
+    /**
+     * A changelog entry: one edit, possibly changing several fields
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Entry {
+        @JsonProperty("id")
+        private String id;
+        
+        @JsonProperty("created")
+        private String created;
+        
+        @JsonProperty("items")
+        private List<Item> items;
+        
+        public String getId() {
+            return id;
+        }
+        
+        public long getNumericId() {
+            try {
+                return id != null ? Long.parseLong(id) : 0;
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        
+        public String getCreated() {
+            return created;
+        }
+        
+        public List<Item> getItems() {
+            return items != null ? items : Collections.emptyList();
+        }
+    }
+    
+    /**
+     * A single field change within a changelog entry
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Item {
+        @JsonProperty("field")
+        private String field;
+        
+        @JsonProperty("fieldId")
+        private String fieldId;
+        
+        @JsonProperty("from")
+        private String from;
+        
+        @JsonProperty("to")
+        private String to;
+        
+        public boolean isStatusChange() {
+            return "status".equals(fieldId) || (fieldId == null && "status".equalsIgnoreCase(field));
+        }
+        
+        public String getField() {
+            return field;
+        }
+        
+        public String getFrom() {
+            return from;
+        }
+        
+        public String getTo() {
+            return to;
+        }
+    }
+}
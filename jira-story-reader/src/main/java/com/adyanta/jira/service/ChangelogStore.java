@@ -0,0 +1,204 @@
+package com.adyanta.jira.service;
+
+import com.adyanta.jira.model.StatusTransition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Locally stored status history per issue.
+ * Tracks how many changelog entries have been read for each issue so that
+ * later fetches only request entries added since, and can be saved to and
+ * loaded from a compact binary file.
+ */
+public class ChangelogStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ChangelogStore.class);
+    
+    private static final int MAGIC = 0x4a434c47; // "JCLG"
+    private static final int VERSION = 1;
+    
+    private final Map<String, IssueHistory> histories = new ConcurrentHashMap<>();
+    
+    /**
+     * Get the history for an issue, creating an empty one if none is stored
+     */
+    public IssueHistory getOrCreate(String key) {
+        return histories.computeIfAbsent(key, IssueHistory::new);
+    }
+    
+    /**
+     * Stored status transitions for an issue, oldest first
+     */
+    public List<StatusTransition> getTransitions(String key) {
+        IssueHistory history = histories.get(key);
+        return history != null ? history.getTransitions() : Collections.emptyList();
+    }
+    
+    public boolean contains(String key) {
+        return histories.containsKey(key);
+    }
+    
+    public void remove(String key) {
+        histories.remove(key);
+    }
+    
+    public int size() {
+        return histories.size();
+    }
+    
+    /**
+     * Load a store previously written by {@link #save(Path)}
+     */
+    public static ChangelogStore load(Path file) throws IOException {
+        ChangelogStore store = new ChangelogStore();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a changelog store: " + file);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported changelog store version " + version + ": " + file);
+            }
+            
+            int issueCount = in.readInt();
+            for (int i = 0; i < issueCount; i++) {
+                IssueHistory history = new IssueHistory(in.readUTF());
+                history.entriesSeen = in.readInt();
+                history.lastEntryId = in.readLong();
+                int transitionCount = in.readInt();
+                for (int t = 0; t < transitionCount; t++) {
+                    long entryId = in.readLong();
+                    long timestamp = in.readLong();
+                    history.transitions.add(new StatusTransition(entryId, timestamp,
+                            emptyToNull(in.readUTF()), emptyToNull(in.readUTF())));
+                }
+                store.histories.put(history.key, history);
+            }
+        }
+        return store;
+    }
+    
+    /**
+     * Write all histories to a file, replacing it atomically
+     */
+    public void save(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                List<IssueHistory> snapshot = new ArrayList<>(histories.values());
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(snapshot.size());
+                for (IssueHistory history : snapshot) {
+                    synchronized (history) {
+                        out.writeUTF(history.key);
+                        out.writeInt(history.entriesSeen);
+                        out.writeLong(history.lastEntryId);
+                        out.writeInt(history.transitions.size());
+                        for (StatusTransition transition : history.transitions) {
+                            out.writeLong(transition.getEntryId());
+                            out.writeLong(transition.getTimestampMillis());
+                            out.writeUTF(nullToEmpty(transition.getFromStatusId()));
+                            out.writeUTF(nullToEmpty(transition.getToStatusId()));
+                        }
+                    }
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+    
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+    
+    /**
+     * Status history of one issue and how far its changelog has been read
+     */
+    public static final class IssueHistory {
+        private final String key;
+        private final List<StatusTransition> transitions = new ArrayList<>();
+        private int entriesSeen;
+        private long lastEntryId;
+        
+        private IssueHistory(String key) {
+            this.key = key;
+        }
+        
+        public String getKey() {
+            return key;
+        }
+        
+        /**
+         * Number of changelog entries already read, used as startAt for the next fetch
+         */
+        public synchronized int getEntriesSeen() {
+            return entriesSeen;
+        }
+        
+        public synchronized long getLastEntryId() {
+            return lastEntryId;
+        }
+        
+        public synchronized List<StatusTransition> getTransitions() {
+            return Collections.unmodifiableList(new ArrayList<>(transitions));
+        }
+        
+        /**
+         * Record a changelog entry, keeping only its status changes.
+         *
+         * @return the number of transitions added
+         */
+        synchronized int append(ChangelogPage.Entry entry) {
+            entriesSeen++;
+            long entryId = entry.getNumericId();
+            if (entryId != 0 && entryId <= lastEntryId) {
+                return 0;
+            }
+            lastEntryId = Math.max(lastEntryId, entryId);
+            
+            long timestamp;
+            try {
+                timestamp = ChangelogPage.parseTimestamp(entry.getCreated());
+            } catch (DateTimeParseException e) {
+                // One unreadable entry should not cost the rest of the history
+                logger.warn("Skipping changelog entry {} of {}: unreadable timestamp '{}'", entry.getId(), key, entry.getCreated());
+                return 0;
+            }
+            
+            int added = 0;
+            for (ChangelogPage.Item item : entry.getItems()) {
+                if (item.isStatusChange()) {
+                    transitions.add(new StatusTransition(entryId, timestamp, item.getFrom(), item.getTo()));
+                    added++;
+                }
+            }
+            return added;
+        }
+    }
+}
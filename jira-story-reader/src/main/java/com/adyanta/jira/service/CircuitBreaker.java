@@ -0,0 +1,168 @@
+package com.adyanta.jira.service;
+
+import com.adyanta.jira.config.JiraConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stops sending requests to Jira while it is failing or responding slowly.
+ * The outcome of the most recent calls is kept in a fixed-size window; once
+ * the failure rate or the slow-call rate crosses its threshold the circuit
+ * opens and calls are rejected immediately. After the open period a few
+ * trial calls are let through: if they all succeed the circuit closes again,
+ * otherwise it re-opens.
+ */
+public class CircuitBreaker {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+    
+    private static final int HALF_OPEN_CALLS = 3;
+    
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+    
+    private boolean enabled;
+    private int failureRateThreshold;
+    private int slowCallRateThreshold;
+    private long slowCallNanos;
+    private int minimumCalls;
+    private long openNanos;
+    
+    private State state = State.CLOSED;
+    private boolean[] failedCalls;
+    private boolean[] slowCalls;
+    private int recorded;
+    private int next;
+    private int failures;
+    private int slow;
+    private long openedAtNanos;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+    
+    public CircuitBreaker(JiraConfig config) {
+        configure(config);
+    }
+    
+    /**
+     * Apply thresholds from a configuration; changing the window size resets the recorded calls
+     */
+    public synchronized void configure(JiraConfig config) {
+        this.enabled = config.isCircuitEnabled();
+        this.failureRateThreshold = config.getCircuitFailureRateThreshold();
+        this.slowCallRateThreshold = config.getCircuitSlowCallRateThreshold();
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(config.getCircuitSlowCallMillis());
+        this.minimumCalls = config.getCircuitMinimumCalls();
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(config.getCircuitOpenMillis());
+        if (failedCalls == null || failedCalls.length != config.getCircuitWindowSize()) {
+            failedCalls = new boolean[config.getCircuitWindowSize()];
+            slowCalls = new boolean[config.getCircuitWindowSize()];
+            resetWindow();
+        }
+        if (!enabled) {
+            state = State.CLOSED;
+        }
+    }
+    
+    /**
+     * Ask whether a call may be made now
+     */
+    public synchronized boolean tryAcquire() {
+        if (!enabled) {
+            return true;
+        }
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAtNanos < openNanos) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+            halfOpenPermits = 0;
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits >= HALF_OPEN_CALLS) {
+                return false;
+            }
+            halfOpenPermits++;
+        }
+        return true;
+    }
+    
+    /**
+     * Record the outcome of a permitted call
+     *
+     * @param failed whether the call failed in a way that points at Jira being unhealthy
+     */
+    public synchronized void onResult(long durationNanos, boolean failed) {
+        if (!enabled) {
+            return;
+        }
+        boolean slowCall = durationNanos >= slowCallNanos;
+        
+        if (state == State.HALF_OPEN) {
+            if (failed || slowCall) {
+                open();
+            } else if (++halfOpenSuccesses >= HALF_OPEN_CALLS) {
+                resetWindow();
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            // A call admitted before the circuit opened
+            return;
+        }
+        
+        if (recorded == failedCalls.length) {
+            failures -= failedCalls[next] ? 1 : 0;
+            slow -= slowCalls[next] ? 1 : 0;
+        } else {
+            recorded++;
+        }
+        failedCalls[next] = failed;
+        slowCalls[next] = slowCall;
+        failures += failed ? 1 : 0;
+        slow += slowCall ? 1 : 0;
+        next = (next + 1) % failedCalls.length;
+        
+        if (recorded >= minimumCalls
+                && (failures * 100 >= failureRateThreshold * recorded || slow * 100 >= slowCallRateThreshold * recorded)) {
+            open();
+        }
+    }
+    
+    private void open() {
+        openedAtNanos = System.nanoTime();
+        transitionTo(State.OPEN);
+        resetWindow();
+    }
+    
+    private void transitionTo(State newState) {
+        if (state != newState) {
+            logger.warn("Jira circuit breaker {} -> {}", state, newState);
+            state = newState;
+        }
+    }
+    
+    private void resetWindow() {
+        recorded = 0;
+        next = 0;
+        failures = 0;
+        slow = 0;
+    }
+    
+    public synchronized State getState() {
+        return state;
+    }
+    
+    /**
+     * Failure rate in percent over the current window
+     */
+    public synchronized double getFailureRate() {
+        return recorded == 0 ? 0 : failures * 100.0 / recorded;
+    }
+}
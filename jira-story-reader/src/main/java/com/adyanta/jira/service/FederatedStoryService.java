@@ -0,0 +1,200 @@
+package com.adyanta.jira.service;
+
+import com.adyanta.jira.config.JiraConfig;
+import com.adyanta.jira.model.JiraStory;
+import com.adyanta.jira.model.SiteStory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Queries several Jira sites at once. Each named site gets its own
+ * {@link JiraStoryReaderService}, and with it its own connection pool, rate
+ * limiter, cache and metrics. Searches and key lookups are sent to all
+ * relevant sites in parallel and the results are merged with site-qualified keys.
+ */
+public class FederatedStoryService implements AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(FederatedStoryService.class);
+    
+    private final Map<String, JiraStoryReaderService> sites = new LinkedHashMap<>();
+    private final ExecutorService fanOutExecutor;
+    
+    public FederatedStoryService(Map<String, JiraConfig> profiles) {
+        if (profiles.isEmpty()) {
+            throw new IllegalArgumentException("At least one site profile is required");
+        }
+        try {
+            for (Map.Entry<String, JiraConfig> profile : profiles.entrySet()) {
+                String name = profile.getKey();
+                if (name == null || name.isEmpty() || name.indexOf(SiteStory.SEPARATOR) >= 0) {
+                    throw new IllegalArgumentException("Invalid site name: " + name);
+                }
+                sites.put(name, new JiraStoryReaderService(profile.getValue()));
+            }
+        } catch (RuntimeException e) {
+            sites.values().forEach(JiraStoryReaderService::close);
+            throw e;
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        this.fanOutExecutor = Executors.newFixedThreadPool(sites.size(), runnable -> {
+            Thread thread = new Thread(runnable, "jira-federation-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    public Set<String> getSiteNames() {
+        return Collections.unmodifiableSet(sites.keySet());
+    }
+    
+    /**
+     * The service for a single site
+     */
+    public JiraStoryReaderService getSite(String name) {
+        JiraStoryReaderService site = sites.get(name);
+        if (site == null) {
+            throw new IllegalArgumentException("Unknown site: " + name);
+        }
+        return site;
+    }
+    
+    /**
+     * Fetch a story by its site-qualified key, such as emea:PROJ-123
+     */
+    public SiteStory getStoryByKey(String qualifiedKey) throws JiraStoryReaderService.JiraApiException {
+        String site = SiteStory.siteOf(qualifiedKey);
+        if (site == null) {
+            throw new IllegalArgumentException("Story key must be qualified with a site: " + qualifiedKey);
+        }
+        return new SiteStory(site, getSite(site).getStoryByKey(SiteStory.keyOf(qualifiedKey)));
+    }
+    
+    /**
+     * Run a JQL search on every site in parallel, paging through each completely
+     */
+    public FederatedResult searchStories(String jql) {
+        Map<String, SiteCall> calls = new LinkedHashMap<>();
+        for (String site : sites.keySet()) {
+            calls.put(site, service -> {
+                List<JiraStory> stories = new ArrayList<>();
+                service.streamStories(jql, stories::add);
+                return stories;
+            });
+        }
+        return fanOut(calls);
+    }
+    
+    /**
+     * Fetch stories by key. Site-qualified keys are only requested from their site;
+     * unqualified keys are requested from every site, and a site that does not have
+     * one of them simply leaves it out rather than failing the lookup.
+     */
+    public FederatedResult getStoriesByKeys(List<String> keys) {
+        Map<String, List<String>> keysBySite = new LinkedHashMap<>();
+        for (String site : sites.keySet()) {
+            keysBySite.put(site, new ArrayList<>());
+        }
+        for (String key : keys) {
+            String site = SiteStory.siteOf(key);
+            if (site == null) {
+                keysBySite.values().forEach(siteKeys -> siteKeys.add(key));
+            } else if (keysBySite.containsKey(site)) {
+                keysBySite.get(site).add(SiteStory.keyOf(key));
+            } else {
+                throw new IllegalArgumentException("Unknown site in key: " + key);
+            }
+        }
+        
+        Map<String, SiteCall> calls = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> siteKeys : keysBySite.entrySet()) {
+            if (!siteKeys.getValue().isEmpty()) {
+                calls.put(siteKeys.getKey(), service -> service.getStoriesByKeys(siteKeys.getValue()));
+            }
+        }
+        return fanOut(calls);
+    }
+    
+    private FederatedResult fanOut(Map<String, SiteCall> calls) {
+        Map<String, Future<List<JiraStory>>> pending = new LinkedHashMap<>();
+        for (Map.Entry<String, SiteCall> call : calls.entrySet()) {
+            JiraStoryReaderService service = sites.get(call.getKey());
+            pending.put(call.getKey(), fanOutExecutor.submit(() -> call.getValue().call(service)));
+        }
+        
+        List<SiteStory> stories = new ArrayList<>();
+        Map<String, String> failures = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, Future<List<JiraStory>>> site : pending.entrySet()) {
+                try {
+                    for (JiraStory story : site.getValue().get()) {
+                        stories.add(new SiteStory(site.getKey(), story));
+                    }
+                } catch (ExecutionException e) {
+                    logger.warn("Site {} failed: {}", site.getKey(), e.getCause().getMessage());
+                    failures.put(site.getKey(), e.getCause().getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failures.put("*", "Interrupted while waiting for sites");
+        } finally {
+            for (Future<List<JiraStory>> future : pending.values()) {
+                future.cancel(true);
+            }
+        }
+        return new FederatedResult(stories, failures);
+    }
+    
+    @Override
+    public void close() {
+        fanOutExecutor.shutdownNow();
+        for (JiraStoryReaderService site : sites.values()) {
+            site.close();
+        }
+    }
+    
+    /**
+     * A request made against one site
+     */
+    @FunctionalInterface
+    private interface SiteCall {
+        List<JiraStory> call(JiraStoryReaderService service) throws JiraStoryReaderService.JiraApiException;
+    }
+    
+    /**
+     * Stories merged from all sites, plus the error message of every site that failed
+     */
+    public static final class FederatedResult {
+        private final List<SiteStory> stories;
+        private final Map<String, String> failures;
+        
+        private FederatedResult(List<SiteStory> stories, Map<String, String> failures) {
+            this.stories = Collections.unmodifiableList(stories);
+            this.failures = Collections.unmodifiableMap(failures);
+        }
+        
+        public List<SiteStory> getStories() {
+            return stories;
+        }
+        
+        public Map<String, String> getFailures() {
+            return failures;
+        }
+        
+        public boolean isComplete() {
+            return failures.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.adyanta.jira.service;
+
+import com.adyanta.jira.model.ImmutableJiraStory;
+import com.adyanta.jira.model.JiraStory;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.StreamReadFeature;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * Holds the shared Jackson configuration used to read Jira responses.
+ * The mapper is configured once and exposes pre-built readers so the
+ * deserializer lookup is not repeated for every response.
+ */
+public class JiraJson {
+    
+    private final ObjectMapper objectMapper;
+    private final ObjectReader storyReader;
+    private final ObjectReader searchResultReader;
+    private final ObjectReader immutableStoryReader;
+    private final ObjectReader changelogPageReader;
+    
+    public JiraJson(boolean useBlackbird) {
+        this.objectMapper = createObjectMapper(useBlackbird);
+        this.storyReader = objectMapper.readerFor(JiraStory.class);
+        this.searchResultReader = objectMapper.readerFor(JiraStoryReaderService.SearchResult.class);
+        this.immutableStoryReader = objectMapper.readerFor(ImmutableJiraStory.class);
+        this.changelogPageReader = objectMapper.readerFor(ChangelogPage.class);
+    }
+    
+    private static ObjectMapper createObjectMapper(boolean useBlackbird) {
+        JsonFactory jsonFactory = JsonFactory.builder()
+                .enable(StreamReadFeature.USE_FAST_DOUBLE_PARSER)
+                .enable(StreamReadFeature.USE_FAST_BIG_NUMBER_PARSER)
+                .build();
+        
+        JsonMapper.Builder builder = JsonMapper.builder(jsonFactory)
+                // Jira returns far more fields than the model maps
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .disable(DeserializationFeature.FAIL_ON_IGNORED_PROPERTIES)
+                .disable(DeserializationFeature.ADJUST_DATES_TO_CONTEXT_TIME_ZONE)
+                .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+                // Only annotated fields and creators are bound, no getter/setter introspection
+                .disable(MapperFeature.AUTO_DETECT_GETTERS)
+                .disable(MapperFeature.AUTO_DETECT_IS_GETTERS)
+                .disable(MapperFeature.AUTO_DETECT_SETTERS)
+                .disable(MapperFeature.ALLOW_FINAL_FIELDS_AS_MUTATORS)
+                .disable(MapperFeature.INFER_PROPERTY_MUTATORS)
+                .disable(MapperFeature.DEFAULT_VIEW_INCLUSION);
+        
+        if (useBlackbird) {
+            builder.addModule(new BlackbirdModule());
+        }
+        
+        return builder.build();
+    }
+    
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+    
+    public ObjectReader getStoryReader() {
+        return storyReader;
+    }
+    
+    public ObjectReader getSearchResultReader() {
+        return searchResultReader;
+    }
+    
+    public ObjectReader getImmutableStoryReader() {
+        return immutableStoryReader;
+    }
+    
+    public ObjectReader getChangelogPageReader() {
+        return changelogPageReader;
+    }
+}
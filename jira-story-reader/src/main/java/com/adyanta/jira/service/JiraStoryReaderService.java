@@ -0,0 +1,1571 @@
+package com.adyanta.jira.service;
+
+import com.adyanta.jira.config.JiraConfig;
+import com.adyanta.jira.criteria.AcceptanceCriteriaParser;
+import com.adyanta.jira.criteria.ParsedCriteria;
+import com.adyanta.jira.model.ImmutableJiraStory;
+import com.adyanta.jira.model.JiraStory;
+import com.adyanta.jira.model.StatusTransition;
+import com.adyanta.jira.render.RenderMode;
+import com.adyanta.jira.render.StoryRenderer;
+import com.adyanta.jira.trace.Span;
+import com.adyanta.jira.trace.TracingConnectionManager;
+import com.adyanta.jira.trace.Tracer;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.apache.http.ConnectionClosedException;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.auth.AuthScope;
+import org.apache.http.auth.UsernamePasswordCredentials;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.CredentialsProvider;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.TruncatedChunkException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Service class for reading Jira stories using the REST API.
+ * Provides methods to fetch story details including acceptance criteria and descriptions.
+ */
+public class JiraStoryReaderService implements AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(JiraStoryReaderService.class);
+    
+    private static final Pattern FALLBACK_KEY = Pattern.compile("[A-Za-z0-9_-]+");
+    private static final String NOT_FOUND_MESSAGE = "Resource not found.";
+    
+    private volatile JiraConfig config;
+    private volatile Tracer tracer;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private volatile RequestConfig requestConfig;
+    private final CloseableHttpClient httpClient;
+    private final JiraJson json;
+    private final ResponseBufferPool bufferPool;
+    private final StoryRenderer consoleRenderer;
+    private final ThreadPoolExecutor fetchExecutor;
+    private final RequestMetrics metrics = new RequestMetrics();
+    private final StoryCache storyCache;
+    private final SearchCache searchCache;
+    private final StoryRefresher refresher;
+    private final ChangelogStore changelogStore;
+    private volatile RateLimiter rateLimiter;
+    private final CircuitBreaker circuitBreaker;
+    private final LogSampler unavailableLog = new LogSampler(10, TimeUnit.SECONDS);
+    private ThroughputReporter throughputReporter;
+    private final Map<RequestType, Bulkhead> bulkheads = new EnumMap<>(RequestType.class);
+    private final RequestScheduler scheduler;
+    private final PagingController paging;
+    private final AcceptanceCriteriaParser criteriaParser = new AcceptanceCriteriaParser();
+    private final List<Consumer<JiraStory>> changeListeners = new CopyOnWriteArrayList<>();
+    
+    public JiraStoryReaderService(JiraConfig config) {
+        this.config = config;
+        this.config.validate();
+        this.tracer = Tracer.forFile(config.getTraceFile());
+        this.connectionManager = new TracingConnectionManager(() -> tracer, 30, TimeUnit.SECONDS);
+        this.connectionManager.setMaxTotal(config.getHttpMaxConnections());
+        this.connectionManager.setDefaultMaxPerRoute(config.getHttpMaxConnectionsPerRoute());
+        this.requestConfig = createRequestConfig(config);
+        this.httpClient = createHttpClient();
+        this.json = new JiraJson(config.isJsonBlackbird());
+        this.bufferPool = new ResponseBufferPool(config.getHttpBufferPoolBytes());
+        this.consoleRenderer = StoryRenderer.forStream(System.out, config.getRenderMode());
+        this.fetchExecutor = new ThreadPoolExecutor(config.getFetchConcurrency(), config.getFetchConcurrency(),
+                0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), new FetchThreadFactory());
+        this.storyCache = new StoryCache(config.getCacheMaxEntries(), config.getCacheTtlSeconds());
+        this.storyCache.setRefreshPolicy(config.getCacheStaleSeconds(), config.getCacheRefreshAheadHits());
+        this.storyCache.setTextStore(createTextStore(config));
+        this.searchCache = new SearchCache(config.getSearchCacheMaxEntries(), config.getCacheTtlSeconds());
+        this.searchCache.setRefreshPolicy(config.getCacheStaleSeconds(), config.getCacheRefreshAheadHits());
+        this.refresher = new StoryRefresher(this);
+        this.throughputReporter = startThroughputReporter(config);
+        this.changelogStore = loadChangelogStore();
+        this.rateLimiter = config.getRateLimitPerSecond() > 0 ? new RateLimiter(config.getRateLimitPerSecond()) : null;
+        this.circuitBreaker = new CircuitBreaker(config);
+        this.bulkheads.put(RequestType.SEARCH, new Bulkhead("search", config.getBulkheadSearch()));
+        this.bulkheads.put(RequestType.FETCH, new Bulkhead("fetch", config.getBulkheadFetch()));
+        this.bulkheads.put(RequestType.CHANGELOG, new Bulkhead("changelog", config.getBulkheadChangelog()));
+        this.scheduler = new RequestScheduler(config.getHttpMaxConnectionsPerRoute(), config.getSchedulerReservedInteractive(),
+                config.getSchedulerWeightInteractive(), config.getSchedulerWeightBackground(), config.getSchedulerWeightBulk());
+        this.paging = new PagingController(config.isAdaptivePaging(), config.getSearchPageSize(), config.getAdaptiveMaxPageSize(),
+                config.getAdaptiveMaxConcurrency(), config.getAdaptiveTargetPageMillis(), config.getAdaptiveMaxPageBytes());
+    }
+    
+    private ThroughputReporter startThroughputReporter(JiraConfig config) {
+        if (config.getLogThroughputSeconds() <= 0) {
+            return null;
+        }
+        ThroughputReporter reporter = new ThroughputReporter(metrics, storyCache);
+        reporter.start(config.getLogThroughputSeconds());
+        return reporter;
+    }
+    
+    private static TextStore createTextStore(JiraConfig config) {
+        return config.isCacheTextOffHeap() ? new TextStore(config.getCacheTextOffHeapMinBytes()) : null;
+    }
+    
+    private ChangelogStore loadChangelogStore() {
+        Path storeFile = getChangelogStoreFile();
+        if (storeFile != null && Files.exists(storeFile)) {
+            try {
+                ChangelogStore store = ChangelogStore.load(storeFile);
+                logger.info("Loaded changelog history for {} issues from {}", store.size(), storeFile);
+                return store;
+            } catch (IOException e) {
+                logger.warn("Failed to load changelog store {}, starting empty: {}", storeFile, e.getMessage());
+            }
+        }
+        return new ChangelogStore();
+    }
+    
+    private Path getChangelogStoreFile() {
+        String storeFile = config.getChangelogStoreFile();
+        return storeFile != null && !storeFile.trim().isEmpty() ? Paths.get(storeFile.trim()) : null;
+    }
+    
+    private CloseableHttpClient createHttpClient() {
+        // The pool and request settings are held outside the client so they can be changed live
+        HttpClientBuilder builder = HttpClientBuilder.create()
+                .setConnectionManager(connectionManager)
+                .setRequestExecutor(TracingConnectionManager.requestExecutor(() -> tracer))
+                .setDefaultRequestConfig(requestConfig);
+        
+        // Set up authentication
+        if (config.isUseApiToken()) {
+            // For API token authentication, we'll use Basic Auth with username:token
+            CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
+            credentialsProvider.setCredentials(
+                    AuthScope.ANY,
+                    new UsernamePasswordCredentials(config.getUsername(), config.getApiToken())
+            );
+            builder.setDefaultCredentialsProvider(credentialsProvider);
+        } else {
+            // For password authentication
+            CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
+            credentialsProvider.setCredentials(
+                    AuthScope.ANY,
+                    new UsernamePasswordCredentials(config.getUsername(), config.getPassword())
+            );
+            builder.setDefaultCredentialsProvider(credentialsProvider);
+        }
+        
+        return builder.build();
+    }
+    
+    private static RequestConfig createRequestConfig(JiraConfig config) {
+        return RequestConfig.custom()
+                .setConnectTimeout(config.getConnectionTimeout())
+                .setConnectionRequestTimeout(config.getConnectionTimeout())
+                .setSocketTimeout(config.getReadTimeout())
+                .build();
+    }
+    
+    /**
+     * Apply a changed configuration to the running service.
+     * Pool sizes, timeouts, rate limit, cache size and TTL, fetch concurrency,
+     * batch and page sizes, and credentials take effect for subsequent requests;
+     * requests already in flight complete with the settings they started with.
+     */
+    public synchronized void applyConfig(JiraConfig newConfig) {
+        newConfig.validate();
+        JiraConfig oldConfig = this.config;
+        
+        connectionManager.setMaxTotal(newConfig.getHttpMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(newConfig.getHttpMaxConnectionsPerRoute());
+        this.requestConfig = createRequestConfig(newConfig);
+        
+        int concurrency = newConfig.getFetchConcurrency();
+        if (concurrency > fetchExecutor.getMaximumPoolSize()) {
+            fetchExecutor.setMaximumPoolSize(concurrency);
+            fetchExecutor.setCorePoolSize(concurrency);
+        } else {
+            fetchExecutor.setCorePoolSize(concurrency);
+            fetchExecutor.setMaximumPoolSize(concurrency);
+        }
+        
+        storyCache.resize(newConfig.getCacheMaxEntries(), newConfig.getCacheTtlSeconds());
+        storyCache.setRefreshPolicy(newConfig.getCacheStaleSeconds(), newConfig.getCacheRefreshAheadHits());
+        if (newConfig.isCacheTextOffHeap() != oldConfig.isCacheTextOffHeap()
+                || newConfig.getCacheTextOffHeapMinBytes() != oldConfig.getCacheTextOffHeapMinBytes()) {
+            storyCache.setTextStore(createTextStore(newConfig));
+        }
+        searchCache.resize(newConfig.getSearchCacheMaxEntries(), newConfig.getCacheTtlSeconds());
+        searchCache.setRefreshPolicy(newConfig.getCacheStaleSeconds(), newConfig.getCacheRefreshAheadHits());
+        circuitBreaker.configure(newConfig);
+        bulkheads.get(RequestType.SEARCH).setMaxConcurrent(newConfig.getBulkheadSearch());
+        bulkheads.get(RequestType.FETCH).setMaxConcurrent(newConfig.getBulkheadFetch());
+        bulkheads.get(RequestType.CHANGELOG).setMaxConcurrent(newConfig.getBulkheadChangelog());
+        scheduler.configure(newConfig.getHttpMaxConnectionsPerRoute(), newConfig.getSchedulerReservedInteractive(),
+                newConfig.getSchedulerWeightInteractive(), newConfig.getSchedulerWeightBackground(),
+                newConfig.getSchedulerWeightBulk());
+        paging.configure(newConfig.isAdaptivePaging(), newConfig.getSearchPageSize(), newConfig.getAdaptiveMaxPageSize(),
+                newConfig.getAdaptiveMaxConcurrency(), newConfig.getAdaptiveTargetPageMillis(), newConfig.getAdaptiveMaxPageBytes());
+        
+        if (newConfig.getRateLimitPerSecond() != oldConfig.getRateLimitPerSecond()) {
+            this.rateLimiter = newConfig.getRateLimitPerSecond() > 0
+                    ? new RateLimiter(newConfig.getRateLimitPerSecond()) : null;
+        }
+        
+        if (newConfig.getLogThroughputSeconds() != oldConfig.getLogThroughputSeconds()) {
+            if (throughputReporter != null) {
+                throughputReporter.close();
+            }
+            throughputReporter = startThroughputReporter(newConfig);
+        }
+        
+        if (!Objects.equals(newConfig.getTraceFile(), oldConfig.getTraceFile())) {
+            Tracer oldTracer = this.tracer;
+            this.tracer = Tracer.forFile(newConfig.getTraceFile());
+            oldTracer.close();
+        }
+        
+        if (!String.valueOf(newConfig.getJiraUrl()).equals(oldConfig.getJiraUrl())) {
+            // Cached stories belong to the old site
+            storyCache.clear();
+            searchCache.clear();
+            criteriaParser.clear();
+        }
+        
+        this.config = newConfig;
+        logger.info("Applied configuration: {}", newConfig);
+    }
+    
+    /**
+     * Fetch a single Jira story by its key (e.g., "PROJ-123").
+     * A cached copy within the stale window is returned immediately and,
+     * when it is expired or about to expire, refreshed in the background.
+     */
+    public JiraStory getStoryByKey(String storyKey) throws JiraApiException {
+        try (Span span = tracer.startSpan("getStoryByKey")) {
+            span.setAttribute("jira.issue.key", storyKey);
+            CachedValue<JiraStory> cached = storyCache.lookup(storyKey);
+            if (cached != null) {
+                logger.debug("Cache hit for story: {}", storyKey);
+                if (cached.isRefreshNeeded()) {
+                    refresher.refreshStory(storyKey);
+                }
+                return cached.getValue();
+            }
+            
+            return fetchStory(storyKey);
+        }
+    }
+    
+    /**
+     * Read a story from Jira and cache it. While Jira is unavailable the last known copy
+     * is served instead; a story Jira no longer has is dropped from the cache.
+     */
+    private JiraStory fetchStory(String storyKey) throws JiraApiException {
+        logger.debug("Fetching story: {}", storyKey);
+        
+        String url = String.format("%s/rest/api/3/issue/%s", config.getJiraUrl(), storyKey);
+        
+        try {
+            JiraStory story = readJson(url, RequestType.FETCH, json.getStoryReader());
+            metrics.recordStories(1);
+            cacheStory(story);
+            
+            if (logger.isDebugEnabled()) {
+                logger.debug("Fetched story: {} - {}", story.getKey(),
+                        story.getFields() != null ? story.getFields().getSummary() : "No summary");
+            }
+            
+            return story;
+            
+        } catch (JiraUnavailableException e) {
+            JiraStory fallback = findFallbackStory(storyKey);
+            if (fallback == null) {
+                throw e;
+            }
+            if (unavailableLog.shouldLog()) {
+                logger.warn("Jira unavailable ({}), serving last known copy of {} ({} similar messages suppressed)",
+                        e.getMessage(), storyKey, unavailableLog.takeSuppressed());
+            }
+            return fallback;
+        } catch (JiraApiException e) {
+            if (e.getMessage() != null && e.getMessage().startsWith(NOT_FOUND_MESSAGE)) {
+                storyCache.invalidate(storyKey);
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Last known copy of a story while Jira is unavailable: an expired cache entry,
+     * or KEY.json in the fallback directory (the layout written by the sync command)
+     */
+    private JiraStory findFallbackStory(String storyKey) {
+        JiraStory stale = storyCache.getStale(storyKey);
+        if (stale != null) {
+            return stale;
+        }
+        String fallbackDir = config.getFallbackDir();
+        if (fallbackDir == null || fallbackDir.isEmpty() || !FALLBACK_KEY.matcher(storyKey).matches()) {
+            return null;
+        }
+        Path file = Paths.get(fallbackDir, storyKey + ".json");
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            return json.getStoryReader().readValue(in);
+        } catch (IOException e) {
+            logger.warn("Failed to read fallback copy of {}: {}", storyKey, e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Re-fetch a story from Jira, replacing any cached copy. The cached copy is kept when the
+     * fetch fails, so it can still be served while Jira is unavailable.
+     */
+    public JiraStory refreshStory(String storyKey) throws JiraApiException {
+        try (Span span = tracer.startSpan("refreshStory")) {
+            span.setAttribute("jira.issue.key", storyKey);
+            return fetchStory(storyKey);
+        }
+    }
+    
+    /**
+     * Fetch multiple Jira stories by their keys
+     */
+    public List<JiraStory> getStoriesByKeys(List<String> storyKeys) throws JiraApiException {
+        try (Span span = tracer.startSpan("getStoriesByKeys")) {
+            span.setAttribute("jira.issue.count", storyKeys.size());
+            logger.debug("Fetching {} stories", storyKeys.size());
+            
+            if (storyKeys.isEmpty()) {
+                return new ArrayList<>();
+            }
+            
+            int batchSize = config.getFetchBatchSize();
+            if (storyKeys.size() <= batchSize) {
+                return fetchBatch(storyKeys);
+            }
+            
+            // Split large key lists into batches and fetch them concurrently
+            List<Future<List<JiraStory>>> batches = new ArrayList<>();
+            for (int i = 0; i < storyKeys.size(); i += batchSize) {
+                List<String> batchKeys = storyKeys.subList(i, Math.min(i + batchSize, storyKeys.size()));
+                batches.add(fetchExecutor.submit(tracer.wrap("batch", RequestScope.wrap(() -> fetchBatch(batchKeys)))));
+            }
+            
+            List<JiraStory> stories = new ArrayList<>(storyKeys.size());
+            try {
+                for (Future<List<JiraStory>> batch : batches) {
+                    stories.addAll(awaitBatch(batch));
+                }
+            } finally {
+                for (Future<List<JiraStory>> batch : batches) {
+                    batch.cancel(true);
+                }
+            }
+            return stories;
+        }
+    }
+    
+    /**
+     * Fetch one batch of keys, falling back to the last known copies while Jira is unavailable
+     */
+    private List<JiraStory> fetchBatch(List<String> storyKeys) throws JiraApiException {
+        try {
+            return fetchSearch(keyInJql(storyKeys));
+        } catch (JiraUnavailableException e) {
+            List<JiraStory> stories = new ArrayList<>(storyKeys.size());
+            for (String key : storyKeys) {
+                JiraStory fallback = findFallbackStory(key);
+                if (fallback != null) {
+                    stories.add(fallback);
+                }
+            }
+            if (stories.isEmpty()) {
+                throw e;
+            }
+            if (unavailableLog.shouldLog()) {
+                logger.warn("Jira unavailable ({}), serving last known copies of {} of {} stories ({} similar messages suppressed)",
+                        e.getMessage(), stories.size(), storyKeys.size(), unavailableLog.takeSuppressed());
+            }
+            return stories;
+        }
+    }
+    
+    /**
+     * Run several JQL searches concurrently on the fetch pool, paging through
+     * each one completely.
+     *
+     * @return the stories found per query, in the order the queries were given
+     */
+    public Map<String, List<JiraStory>> searchStoriesInParallel(Collection<String> jqlQueries) throws JiraApiException {
+        try (Span span = tracer.startSpan("searchStoriesInParallel")) {
+            span.setAttribute("jira.query.count", jqlQueries.size());
+            Map<String, List<JiraStory>> results = new LinkedHashMap<>();
+            Map<String, Future<Long>> searches = new LinkedHashMap<>();
+            try {
+                for (String jql : new LinkedHashSet<>(jqlQueries)) {
+                    List<JiraStory> stories = new ArrayList<>();
+                    results.put(jql, stories);
+                    searches.put(jql, submitSearch(jql, stories::add));
+                }
+                for (Future<Long> search : searches.values()) {
+                    awaitBatch(search);
+                }
+            } finally {
+                for (Future<Long> search : searches.values()) {
+                    search.cancel(true);
+                }
+            }
+            return results;
+        }
+    }
+    
+    /**
+     * Start streaming a JQL search on the fetch pool. The stories are cached and passed
+     * to the consumer on the pool thread running the search; searches submitted together
+     * run concurrently, within the connection, bulkhead and rate limits shared by all requests.
+     *
+     * @return the number of stories passed to the consumer once the search has finished
+     */
+    public Future<Long> submitSearch(String jql, StoryConsumer consumer) {
+        return fetchExecutor.submit(tracer.wrap("search", RequestScope.wrap(() -> streamStories(jql, story -> {
+            cacheStory(story);
+            consumer.accept(story);
+        }))));
+    }
+    
+    private static String keyInJql(Collection<String> storyKeys) {
+        // Build JQL query for multiple keys
+        return String.format("key in (%s)", String.join(", ", storyKeys));
+    }
+    
+    private static <T> T awaitBatch(Future<T> batch) throws JiraApiException {
+        try {
+            return batch.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JiraApiException("Interrupted while fetching stories", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof JiraApiException) {
+                throw (JiraApiException) e.getCause();
+            }
+            throw new JiraApiException("Failed to fetch stories: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+    
+    /**
+     * Search for stories using JQL (Jira Query Language).
+     * Repeated queries are answered from the search cache, with the same
+     * background refresh as single stories.
+     */
+    public List<JiraStory> searchStories(String jql) throws JiraApiException {
+        try (Span span = tracer.startSpan("searchStories")) {
+            span.setAttribute("jira.jql", jql);
+            CachedValue<List<JiraStory>> cached = searchCache.lookup(jql);
+            if (cached != null) {
+                logger.debug("Cache hit for search: {}", jql);
+                if (cached.isRefreshNeeded()) {
+                    refresher.refreshSearch(jql);
+                }
+                return new ArrayList<>(cached.getValue());
+            }
+            List<JiraStory> stories = fetchSearch(jql);
+            searchCache.put(jql, stories);
+            return stories;
+        }
+    }
+    
+    /**
+     * Re-read stories for the background refresher. Keys Jira no longer returns
+     * are evicted so the next read reports the error.
+     */
+    void reloadStories(List<String> storyKeys) throws JiraApiException {
+        Set<String> missing = new HashSet<>(storyKeys);
+        for (JiraStory story : fetchSearch(keyInJql(storyKeys))) {
+            missing.remove(story.getKey());
+        }
+        for (String key : missing) {
+            storyCache.invalidate(key);
+        }
+        logger.debug("Refreshed {} stories in the background", storyKeys.size() - missing.size());
+    }
+    
+    /**
+     * Re-run a search for the background refresher
+     */
+    void reloadSearch(String jql) throws JiraApiException {
+        searchCache.put(jql, fetchSearch(jql));
+    }
+    
+    /**
+     * Run a search against Jira, bypassing the search cache
+     */
+    private List<JiraStory> fetchSearch(String jql) throws JiraApiException {
+        logger.debug("Searching stories with JQL: {}", jql);
+        
+        List<JiraStory> stories = new ArrayList<>();
+        readAllPages(jql, 0, stories::add);
+        for (JiraStory story : stories) {
+            cacheStory(story);
+        }
+        
+        logger.debug("Found {} stories", stories.size());
+        return stories;
+    }
+    
+    /**
+     * Stream all stories matching a JQL query to a consumer, one page at a time.
+     * Issues are parsed from the response stream and handed over individually,
+     * so memory use does not grow with the size of the result set beyond the
+     * pages being fetched concurrently.
+     *
+     * @return the number of stories passed to the consumer
+     */
+    public long streamStories(String jql, StoryConsumer consumer) throws JiraApiException {
+        return streamStories(jql, 0, consumer);
+    }
+    
+    /**
+     * Stream the stories matching a JQL query from the given position in the result on,
+     * for continuing a search that was interrupted
+     *
+     * @return the number of stories passed to the consumer
+     */
+    public long streamStories(String jql, int startAt, StoryConsumer consumer) throws JiraApiException {
+        try (Span span = tracer.startSpan("streamStories")) {
+            span.setAttribute("jira.jql", jql);
+            logger.debug("Streaming stories with JQL: {} from {}", jql, startAt);
+            long delivered = readAllPages(jql, startAt, consumer);
+            logger.debug("Streamed {} stories", delivered);
+            return delivered;
+        }
+    }
+    
+    /**
+     * Page through a search with the page size and concurrency chosen by the paging controller.
+     * The first page is streamed to the consumer as it is parsed and tells how many issues
+     * follow; the remaining pages are fetched concurrently on the fetch pool and passed on
+     * in order from the calling thread, so the consumer needs no synchronization.
+     * Searches already running on the fetch pool fetch their pages one after another,
+     * since waiting there for pages queued behind other tasks could exhaust the pool.
+     */
+    private long readAllPages(String jql, int startAt, StoryConsumer consumer) throws JiraApiException {
+        return readAllPages(jql, startAt, json.getStoryReader(), consumer::accept);
+    }
+    
+    /**
+     * Page through a search, binding each issue with the given reader
+     */
+    private <T> long readAllPages(String jql, int startAt, ObjectReader issueReader, IssueConsumer<T> consumer)
+            throws JiraApiException {
+        String encodedJql = java.net.URLEncoder.encode(jql, StandardCharsets.UTF_8);
+        int firstSize = paging.getPageSize();
+        PageStats first = fetchPage(encodedJql, startAt, firstSize, issueReader, consumer);
+        long delivered = first.issueCount;
+        int total = first.total;
+        if (isLastPage(first, startAt, firstSize, total)) {
+            return delivered;
+        }
+        
+        boolean concurrent = !(Thread.currentThread() instanceof FetchThread);
+        // Pages in flight by startAt; the lowest one is always delivered next
+        TreeMap<Integer, PendingPage<T>> pending = new TreeMap<>();
+        int nextStart = startAt + first.issueCount;
+        try {
+            while (true) {
+                int concurrency = concurrent ? paging.getConcurrency() : 1;
+                while (pending.size() < concurrency && (total >= 0 ? nextStart < total : pending.isEmpty())) {
+                    int size = paging.getPageSize();
+                    pending.put(nextStart, submitPage(encodedJql, nextStart, size, issueReader, concurrent));
+                    nextStart += size;
+                }
+                Map.Entry<Integer, PendingPage<T>> next = pending.pollFirstEntry();
+                if (next == null) {
+                    break;
+                }
+                int pageStart = next.getKey();
+                PendingPage<T> request = next.getValue();
+                BufferedPage<T> page = awaitBatch(request.future);
+                for (T issue : page.issues) {
+                    try {
+                        consumer.accept(issue);
+                    } catch (IOException e) {
+                        throw new JiraApiException("Failed to process response: " + e.getMessage(), e);
+                    }
+                }
+                delivered += page.issues.size();
+                if (page.stats.total >= 0) {
+                    total = page.stats.total;
+                }
+                
+                int returned = page.stats.issueCount;
+                if (returned == 0 || (total < 0 && returned < request.size)) {
+                    // The result set shrank while paging, or Jira reports no total and this was the last page
+                    break;
+                }
+                if (returned < request.size && (total < 0 || pageStart + returned < total)) {
+                    // Jira returned fewer than asked for, usually because it caps maxResults; fetch the rest
+                    pending.put(pageStart + returned,
+                            submitPage(encodedJql, pageStart + returned, request.size - returned, issueReader, concurrent));
+                }
+            }
+        } finally {
+            for (PendingPage<T> page : pending.values()) {
+                page.future.cancel(true);
+            }
+        }
+        return delivered;
+    }
+    
+    private static boolean isLastPage(PageStats page, int startAt, int requested, int total) {
+        return page.issueCount == 0
+                || (total >= 0 ? startAt + page.issueCount >= total : page.issueCount < requested);
+    }
+    
+    private <T> PendingPage<T> submitPage(String encodedJql, int startAt, int size, ObjectReader issueReader,
+                                          boolean concurrent) throws JiraApiException {
+        if (!concurrent) {
+            return new PendingPage<>(size, CompletableFuture.completedFuture(bufferPage(encodedJql, startAt, size, issueReader)));
+        }
+        Future<BufferedPage<T>> future = fetchExecutor.submit(tracer.wrap("page",
+                RequestScope.wrap(() -> bufferPage(encodedJql, startAt, size, issueReader))));
+        return new PendingPage<>(size, future);
+    }
+    
+    private <T> BufferedPage<T> bufferPage(String encodedJql, int startAt, int size, ObjectReader issueReader)
+            throws JiraApiException {
+        List<T> issues = new ArrayList<>(size);
+        PageStats stats = this.<T>fetchPage(encodedJql, startAt, size, issueReader, issues::add);
+        return new BufferedPage<>(stats, issues);
+    }
+    
+    /**
+     * Fetch one search page, reporting its timing and size to the paging controller.
+     * A 429 response is retried after the delay Jira asks for, or an exponential backoff.
+     */
+    private <T> PageStats fetchPage(String encodedJql, int startAt, int size, ObjectReader issueReader,
+                                    IssueConsumer<T> consumer) throws JiraApiException {
+        // validateQuery=warn: a key in (...) naming a deleted or hidden issue returns the rest instead of a 400
+        String url = String.format("%s/rest/api/3/search?jql=%s&validateQuery=warn&startAt=%d&maxResults=%d",
+                config.getJiraUrl(), encodedJql, startAt, size);
+        for (int attempt = 0; ; attempt++) {
+            PageReader<T> reader = new PageReader<>(issueReader, consumer);
+            try {
+                PageStats page = executeHttpRequest(url, RequestType.SEARCH, reader);
+                paging.onPage(size, page.issueCount, page.maxResults, page.bytes, System.nanoTime() - reader.sentNanos);
+                metrics.recordStories(page.issueCount);
+                logger.debug("Read page of {} stories at {} ({} total)", page.issueCount, startAt, page.total);
+                return page;
+            } catch (JiraThrottledException e) {
+                paging.onThrottled();
+                if (attempt >= config.getThrottleRetries() || reader.delivered) {
+                    throw e;
+                }
+                long delayMillis = e.getRetryAfterMillis() >= 0 ? e.getRetryAfterMillis() : 1000L << attempt;
+                logger.debug("Search page throttled by Jira, retrying in {} ms", delayMillis);
+                try {
+                    TimeUnit.MILLISECONDS.sleep(delayMillis);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new JiraApiException("Interrupted while waiting to retry a throttled request", ie);
+                }
+            } catch (JiraUnavailableException e) {
+                paging.onFailure();
+                throw e;
+            }
+        }
+    }
+    
+    /**
+     * Reads a search page from the response stream, counting the bytes and the time
+     * from sending the request
+     */
+    private final class PageReader<T> implements EntityHandler<PageStats> {
+        private final ObjectReader issueReader;
+        private final IssueConsumer<T> consumer;
+        private long sentNanos = System.nanoTime();
+        // Once a story was handed on, retrying the page would hand it on twice
+        private boolean delivered;
+        
+        PageReader(ObjectReader issueReader, IssueConsumer<T> consumer) {
+            this.issueReader = issueReader;
+            this.consumer = consumer;
+        }
+        
+        @Override
+        public void requestSent(long nanos) {
+            sentNanos = nanos;
+        }
+        
+        @Override
+        public PageStats handle(HttpEntity entity) throws IOException {
+            return readSearchPage(entity, issueReader, (T issue) -> {
+                delivered = true;
+                consumer.accept(issue);
+            });
+        }
+    }
+    
+    private <T> PageStats readSearchPage(HttpEntity entity, ObjectReader issueReader, IssueConsumer<T> consumer)
+            throws IOException {
+        PageStats page = new PageStats();
+        
+        // Reading and parsing are interleaved here, so they share one span
+        try (Span span = tracer.startSpan("body.read+parse");
+             CountingInputStream content = new CountingInputStream(entity.getContent());
+             JsonParser parser = json.getObjectMapper().getFactory().createParser(content)) {
+            
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Unexpected search response, expected a JSON object");
+            }
+            
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken valueToken = parser.nextToken();
+                
+                if ("total".equals(fieldName)) {
+                    page.total = parser.getIntValue();
+                } else if ("maxResults".equals(fieldName)) {
+                    page.maxResults = parser.getIntValue();
+                } else if ("issues".equals(fieldName) && valueToken == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        T issue = issueReader.readValue(parser);
+                        consumer.accept(issue);
+                        page.issueCount++;
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            page.bytes = content.getCount();
+            span.setAttribute("jira.issue.count", page.issueCount);
+        }
+        
+        return page;
+    }
+    
+    /**
+     * Get the status transitions of a story, oldest first.
+     * Only changelog entries added since the last fetch are requested from Jira.
+     */
+    public List<StatusTransition> getStatusTransitions(String storyKey) throws JiraApiException {
+        try (Span span = tracer.startSpan("getStatusTransitions")) {
+            span.setAttribute("jira.issue.key", storyKey);
+            fetchChangelog(storyKey);
+            return changelogStore.getTransitions(storyKey);
+        }
+    }
+    
+    /**
+     * Get the status transitions of many stories, fetching their changelogs
+     * concurrently on the fetch pool.
+     *
+     * @return transitions per story key, in the order the keys were given
+     */
+    public Map<String, List<StatusTransition>> getStatusTransitions(Collection<String> storyKeys) throws JiraApiException {
+        try (Span span = tracer.startSpan("getStatusTransitions")) {
+            span.setAttribute("jira.issue.count", storyKeys.size());
+            logger.debug("Fetching changelogs for {} stories", storyKeys.size());
+            
+            Map<String, Future<Integer>> fetches = new LinkedHashMap<>();
+            for (String storyKey : new LinkedHashSet<>(storyKeys)) {
+                fetches.put(storyKey, fetchExecutor.submit(tracer.wrap("changelog", RequestScope.wrap(() -> fetchChangelog(storyKey)))));
+            }
+            
+            Map<String, List<StatusTransition>> transitions = new LinkedHashMap<>();
+            try {
+                for (Map.Entry<String, Future<Integer>> fetch : fetches.entrySet()) {
+                    awaitBatch(fetch.getValue());
+                    transitions.put(fetch.getKey(), changelogStore.getTransitions(fetch.getKey()));
+                }
+            } finally {
+                for (Future<Integer> fetch : fetches.values()) {
+                    fetch.cancel(true);
+                }
+            }
+            return transitions;
+        }
+    }
+    
+    /**
+     * Page through the changelog of a story, starting after the entries already stored
+     *
+     * @return the number of new status transitions
+     */
+    private int fetchChangelog(String storyKey) throws JiraApiException {
+        ChangelogStore.IssueHistory history = changelogStore.getOrCreate(storyKey);
+        int pageSize = config.getChangelogPageSize();
+        int added = 0;
+        
+        // One fetch per issue at a time, so concurrent callers do not record the same entries twice
+        synchronized (history) {
+            int startAt = history.getEntriesSeen();
+            while (true) {
+                String url = String.format("%s/rest/api/3/issue/%s/changelog?startAt=%d&maxResults=%d",
+                        config.getJiraUrl(), storyKey, startAt, pageSize);
+                
+                ChangelogPage page = executeHttpRequest(url, RequestType.CHANGELOG, entity -> {
+                    try (InputStream content = entity.getContent()) {
+                        return json.getChangelogPageReader().readValue(content);
+                    }
+                });
+                for (ChangelogPage.Entry entry : page.getValues()) {
+                    added += history.append(entry);
+                }
+                startAt += page.getValues().size();
+                
+                if (page.getValues().isEmpty() || page.isLast() || (page.getTotal() >= 0 && startAt >= page.getTotal())) {
+                    break;
+                }
+            }
+        }
+        
+        logger.debug("Fetched {} new status transitions for {}", added, storyKey);
+        return added;
+    }
+    
+    /**
+     * Status histories fetched so far
+     */
+    public ChangelogStore getChangelogStore() {
+        return changelogStore;
+    }
+    
+    /**
+     * Write the changelog store to the configured file, if any
+     */
+    public void saveChangelogStore() throws IOException {
+        Path storeFile = getChangelogStoreFile();
+        if (storeFile != null) {
+            changelogStore.save(storeFile);
+        }
+    }
+    
+    /**
+     * Fetch a single Jira story by its key as an immutable, thread-safe instance
+     */
+    public ImmutableJiraStory getImmutableStoryByKey(String storyKey) throws JiraApiException {
+        logger.debug("Fetching immutable story: {}", storyKey);
+        
+        String url = String.format("%s/rest/api/3/issue/%s", config.getJiraUrl(), storyKey);
+        
+        return readJson(url, RequestType.FETCH, json.getImmutableStoryReader());
+    }
+    
+    /**
+     * Search for stories using JQL, returning immutable, thread-safe instances
+     */
+    public List<ImmutableJiraStory> searchImmutableStories(String jql) throws JiraApiException {
+        logger.debug("Searching immutable stories with JQL: {}", jql);
+        
+        List<ImmutableJiraStory> stories = new ArrayList<>();
+        // Bound straight to the immutable model, without a mutable copy in between
+        this.<ImmutableJiraStory>readAllPages(jql, 0, json.getImmutableStoryReader(), stories::add);
+        
+        logger.debug("Found {} stories", stories.size());
+        return Collections.unmodifiableList(stories);
+    }
+    
+    /**
+     * Shared Jackson mapper configured for Jira payloads
+     */
+    public ObjectMapper getObjectMapper() {
+        return json.getObjectMapper();
+    }
+    
+    /**
+     * Get all stories from a specific project
+     */
+    public List<JiraStory> getStoriesByProject(String projectKey) throws JiraApiException {
+        String jql = String.format("project = %s AND issuetype = Story", projectKey);
+        return searchStories(jql);
+    }
+    
+    /**
+     * Get stories assigned to a specific user
+     */
+    public List<JiraStory> getStoriesByAssignee(String assignee) throws JiraApiException {
+        String jql = String.format("assignee = %s AND issuetype = Story", assignee);
+        return searchStories(jql);
+    }
+    
+    /**
+     * Get stories in a specific sprint
+     */
+    public List<JiraStory> getStoriesBySprint(String sprintName) throws JiraApiException {
+        String jql = String.format("Sprint = \"%s\" AND issuetype = Story", sprintName);
+        return searchStories(jql);
+    }
+    
+    /**
+     * Id of the saved filter that selects the issues of an agile board
+     */
+    public long getBoardFilterId(long boardId) throws JiraApiException {
+        String url = String.format("%s/rest/agile/1.0/board/%d/configuration", config.getJiraUrl(), boardId);
+        JsonNode configuration = readJson(url, RequestType.SEARCH, json.getObjectMapper().readerFor(JsonNode.class));
+        JsonNode filterId = configuration.path("filter").path("id");
+        if (filterId.isMissingNode()) {
+            throw new JiraApiException("Board " + boardId + " has no filter");
+        }
+        return filterId.asLong();
+    }
+    
+    /**
+     * Get stories with specific status
+     */
+    public List<JiraStory> getStoriesByStatus(String status) throws JiraApiException {
+        String jql = String.format("status = \"%s\" AND issuetype = Story", status);
+        return searchStories(jql);
+    }
+    
+    /**
+     * Extract acceptance criteria from a story
+     */
+    public String getAcceptanceCriteria(JiraStory story) {
+        if (story == null || story.getFields() == null) {
+            return null;
+        }
+        
+        JiraStory.Fields fields = story.getFields();
+        String acceptanceCriteria;
+        try (Span span = tracer.startSpan("extract")) {
+            span.setAttribute("field", "acceptanceCriteria");
+            acceptanceCriteria = fields.getFirstAvailableAcceptanceCriteria();
+        }
+        
+        if (acceptanceCriteria == null || acceptanceCriteria.trim().isEmpty()) {
+            logger.debug("No acceptance criteria found for story: {}", story.getKey());
+            return null;
+        }
+        
+        return acceptanceCriteria.trim();
+    }
+    
+    /**
+     * Extract description from a story
+     */
+    public String getDescription(JiraStory story) {
+        if (story == null || story.getFields() == null) {
+            return null;
+        }
+        
+        String description;
+        try (Span span = tracer.startSpan("extract")) {
+            span.setAttribute("field", "description");
+            description = story.getFields().getDescription();
+        }
+        
+        if (description == null || description.trim().isEmpty()) {
+            logger.debug("No description found for story: {}", story.getKey());
+            return null;
+        }
+        
+        return description.trim();
+    }
+    
+    /**
+     * Get story acceptance criteria as bullets, checkboxes and Given/When/Then steps.
+     * Results are reused until the story's 'updated' timestamp changes.
+     */
+    public ParsedCriteria getParsedAcceptanceCriteria(JiraStory story) {
+        try (Span span = tracer.startSpan("extract")) {
+            span.setAttribute("field", "parsedAcceptanceCriteria");
+            return criteriaParser.parse(story);
+        }
+    }
+    
+    /**
+     * Parse the acceptance criteria of many stories in parallel
+     *
+     * @return parsed criteria by story key, in the order of the stories
+     */
+    public Map<String, ParsedCriteria> getParsedAcceptanceCriteria(Collection<JiraStory> stories) {
+        try (Span span = tracer.startSpan("extract")) {
+            span.setAttribute("field", "parsedAcceptanceCriteria");
+            span.setAttribute("stories", stories.size());
+            return criteriaParser.parseAll(stories);
+        }
+    }
+    
+    /**
+     * Get story summary
+     */
+    public String getSummary(JiraStory story) {
+        if (story == null || story.getFields() == null) {
+            return null;
+        }
+        
+        return story.getFields().getSummary();
+    }
+    
+    /**
+     * Print story details in a formatted way
+     */
+    public synchronized void printStoryDetails(JiraStory story) {
+        try (Span span = tracer.startSpan("render")) {
+            consoleRenderer.print(story);
+        }
+    }
+    
+    /**
+     * Print a batch of stories using the configured render mode
+     */
+    public synchronized void printStories(Collection<JiraStory> stories) {
+        printStories(stories, consoleRenderer.getMode());
+    }
+    
+    /**
+     * Print a batch of stories using a specific render mode
+     */
+    public synchronized void printStories(Collection<JiraStory> stories, RenderMode mode) {
+        try (Span span = tracer.startSpan("render")) {
+            span.setAttribute("jira.issue.count", stories.size());
+            if (mode == consoleRenderer.getMode()) {
+                consoleRenderer.printAll(stories);
+            } else {
+                StoryRenderer.forStream(System.out, mode).printAll(stories);
+            }
+        }
+    }
+    
+    /**
+     * Fetch a JSON document and bind it with the given reader. The body is read into a
+     * pooled array and Jackson decodes the bytes directly, so no String copy of the
+     * response is made; the array goes back to the pool once the value is bound.
+     */
+    private <T> T readJson(String url, RequestType type, ObjectReader reader) throws JiraApiException {
+        return executeHttpRequest(url, type, entity -> {
+            ResponseBufferPool.Body body;
+            try (Span span = tracer.startSpan("body.read")) {
+                body = bufferPool.read(entity.getContent(), entity.getContentLength());
+                span.setAttribute("http.response.bytes", body.length());
+            }
+            try (ResponseBufferPool.Body bytes = body; Span span = tracer.startSpan("parse")) {
+                return reader.readValue(bytes.bytes(), 0, bytes.length());
+            }
+        });
+    }
+    
+    private <T> T executeHttpRequest(String url, RequestType type, EntityHandler<T> handler) throws JiraApiException {
+        Bulkhead bulkhead = bulkheads.get(type);
+        try (Span span = tracer.startSpan("queue")) {
+            span.setAttribute("queue", bulkhead.getName());
+            span.setAttribute("priority", RequestScope.currentPriority().name());
+            // The priority queue comes first: requests waiting there do not hold a bulkhead slot
+            scheduler.acquire();
+            boolean admitted = false;
+            try {
+                admitted = bulkhead.tryAcquire(config.getBulkheadMaxWaitMillis());
+            } finally {
+                if (!admitted) {
+                    scheduler.release();
+                }
+            }
+            if (!admitted) {
+                span.setError("rejected");
+                throw new JiraUnavailableException("Too many concurrent " + bulkhead.getName() + " requests, rejected");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JiraApiException("Interrupted while waiting for a " + bulkhead.getName() + " slot", e);
+        } catch (CancellationException e) {
+            throw new JiraApiException("Request cancelled", e);
+        }
+        
+        try {
+            if (!circuitBreaker.tryAcquire()) {
+                throw new JiraUnavailableException("Jira is unavailable, requests are suspended by the circuit breaker");
+            }
+            return executePermittedRequest(url, handler);
+        } finally {
+            bulkhead.release();
+            scheduler.release();
+        }
+    }
+    
+    private <T> T executePermittedRequest(String url, EntityHandler<T> handler) throws JiraApiException {
+        HttpGet request = new HttpGet(url);
+        request.setConfig(requestConfig);
+        
+        // Add headers
+        request.setHeader("Accept", "application/json");
+        request.setHeader("Content-Type", "application/json");
+        
+        // Add Basic Auth header
+        JiraConfig current = config;
+        String auth = current.getUsername() + ":" + (current.isUseApiToken() ? current.getApiToken() : current.getPassword());
+        String encodedAuth = Base64.getEncoder().encodeToString(auth.getBytes(StandardCharsets.UTF_8));
+        request.setHeader("Authorization", "Basic " + encodedAuth);
+        
+        RateLimiter limiter = rateLimiter;
+        if (limiter != null) {
+            try (Span span = tracer.startSpan("rate_limit")) {
+                limiter.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                // Counts as a neutral outcome so a half-open permit is not lost
+                circuitBreaker.onResult(0, false);
+                throw new JiraApiException("Interrupted while waiting for the rate limit", e);
+            }
+        }
+        
+        long startNanos = System.nanoTime();
+        handler.requestSent(startNanos);
+        boolean success = false;
+        boolean unhealthy = false;
+        Span span = tracer.startSpan("HTTP GET", Span.Kind.CLIENT);
+        span.setAttribute("http.method", "GET");
+        span.setAttribute("http.url", url);
+        try {
+            HttpResponse response = httpClient.execute(request);
+            int statusCode = response.getStatusLine().getStatusCode();
+            span.setAttribute("http.status_code", statusCode);
+            
+            if (statusCode == 200) {
+                HttpEntity entity = response.getEntity();
+                try {
+                    T result = handler.handle(entity);
+                    success = true;
+                    return result;
+                } catch (IOException e) {
+                    unhealthy = isTransportFailure(e);
+                    throw new JiraApiException("Failed to process response: " + e.getMessage(), e);
+                }
+            } else if (statusCode == 401) {
+                throw new JiraApiException("Authentication failed. Please check your credentials.");
+            } else if (statusCode == 403) {
+                throw new JiraApiException("Access forbidden. Please check your permissions.");
+            } else if (statusCode == 404) {
+                throw new JiraApiException(NOT_FOUND_MESSAGE + " Please check the story key or URL.");
+            } else if (statusCode == 429) {
+                unhealthy = true;
+                throw new JiraThrottledException("HTTP error: 429 - " + response.getStatusLine().getReasonPhrase(),
+                        retryAfterMillis(response));
+            } else if (statusCode >= 500) {
+                unhealthy = true;
+                throw new JiraUnavailableException("HTTP error: " + statusCode + " - " + response.getStatusLine().getReasonPhrase());
+            } else {
+                throw new JiraApiException("HTTP error: " + statusCode + " - " + response.getStatusLine().getReasonPhrase());
+            }
+            
+        } catch (IOException e) {
+            unhealthy = true;
+            span.setError(e.getMessage());
+            throw new JiraUnavailableException("Failed to make HTTP request: " + e.getMessage(), e);
+        } catch (JiraApiException e) {
+            span.setError(e.getMessage());
+            throw e;
+        } finally {
+            request.releaseConnection();
+            span.end();
+            long elapsedNanos = System.nanoTime() - startNanos;
+            metrics.recordRequest(elapsedNanos, success);
+            circuitBreaker.onResult(elapsedNanos, unhealthy);
+        }
+    }
+    
+    /**
+     * Delay requested by a Retry-After header given in seconds, or -1
+     */
+    private static long retryAfterMillis(HttpResponse response) {
+        Header header = response.getFirstHeader("Retry-After");
+        if (header != null) {
+            try {
+                return TimeUnit.SECONDS.toMillis(Long.parseLong(header.getValue().trim()));
+            } catch (NumberFormatException e) {
+                // An HTTP date; fall back to the backoff
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Whether an error while reading a response body means the connection to Jira failed,
+     * rather than the caller's consumer failing
+     */
+    private static boolean isTransportFailure(IOException e) {
+        return e instanceof InterruptedIOException
+                || e instanceof SocketException
+                || e instanceof ConnectionClosedException
+                || e instanceof TruncatedChunkException;
+    }
+    
+    /**
+     * Reads the body of a successful response
+     */
+    @FunctionalInterface
+    private interface EntityHandler<T> {
+        T handle(HttpEntity entity) throws IOException;
+        
+        /**
+         * Called just before the request is sent
+         */
+        default void requestSent(long nanos) {
+        }
+    }
+    
+    /**
+     * Register a listener for stories whose content changed since their cached copy.
+     * Changes are detected by content hash, so edits Jira reports through 'updated'
+     * that leave summary, description, acceptance criteria, status and points alone
+     * (watchers, rank, ...) are not passed on. Listeners run on the fetching thread.
+     */
+    public void onStoryChanged(Consumer<JiraStory> listener) {
+        changeListeners.add(listener);
+    }
+    
+    /**
+     * Cache a story Jira pushed to us, such as one carried by a webhook, with the same
+     * change detection as a fetched story
+     */
+    public void applyPushedStory(JiraStory story) {
+        cacheStory(story);
+    }
+    
+    private void cacheStory(JiraStory story) {
+        if (storyCache.put(story)) {
+            for (Consumer<JiraStory> listener : changeListeners) {
+                try {
+                    listener.accept(story);
+                } catch (RuntimeException e) {
+                    logger.warn("Story change listener failed for {}: {}", story.getKey(), e.getMessage(), e);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Stories cached by key lookups and searches
+     */
+    public StoryCache getStoryCache() {
+        return storyCache;
+    }
+    
+    /**
+     * Cache of recent JQL search results
+     */
+    public SearchCache getSearchCache() {
+        return searchCache;
+    }
+    
+    /**
+     * The configuration currently in effect
+     */
+    public JiraConfig getConfig() {
+        return config;
+    }
+    
+    /**
+     * Counters and latencies for requests made by this service
+     */
+    public RequestMetrics getMetrics() {
+        return metrics;
+    }
+    
+    /**
+     * Tracer recording timing spans for service calls; disabled unless jira.trace.file is set
+     */
+    public Tracer getTracer() {
+        return tracer;
+    }
+    
+    /**
+     * Pool of the arrays response bodies are read into
+     */
+    public ResponseBufferPool getBufferPool() {
+        return bufferPool;
+    }
+    
+    /**
+     * Controller adapting search page size and concurrency to this site
+     */
+    public PagingController getPagingController() {
+        return paging;
+    }
+    
+    /**
+     * Scheduler sharing connections between interactive, background and bulk requests
+     */
+    public RequestScheduler getScheduler() {
+        return scheduler;
+    }
+    
+    /**
+     * Circuit breaker guarding requests to Jira
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+    
+    /**
+     * Release the fetch threads and the pooled HTTP connections,
+     * saving the changelog store when a file is configured
+     */
+    @Override
+    public void close() {
+        refresher.close();
+        synchronized (this) {
+            if (throughputReporter != null) {
+                throughputReporter.close();
+            }
+        }
+        fetchExecutor.shutdownNow();
+        try {
+            saveChangelogStore();
+        } catch (IOException e) {
+            logger.warn("Failed to save changelog store: {}", e.getMessage());
+        }
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close HTTP client: {}", e.getMessage());
+        }
+        tracer.close();
+    }
+    
+    /**
+     * Names the concurrent fetch threads and keeps them from blocking JVM exit
+     */
+    private static class FetchThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+        
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new FetchThread(runnable, "jira-fetch-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+    
+    /**
+     * Marks the threads of the fetch pool
+     */
+    private static class FetchThread extends Thread {
+        FetchThread(Runnable runnable, String name) {
+            super(runnable, name);
+        }
+    }
+    
+    /**
+     * Receives stories from the streaming search path
+     */
+    @FunctionalInterface
+    public interface StoryConsumer {
+        void accept(JiraStory story) throws IOException;
+    }
+    
+    /**
+     * Receives the issues of a search page as bound by the page's reader
+     */
+    @FunctionalInterface
+    private interface IssueConsumer<T> {
+        void accept(T issue) throws IOException;
+    }
+    
+    /**
+     * Counters collected while reading one search page
+     */
+    private static class PageStats {
+        private int issueCount;
+        private int total = -1;
+        private int maxResults;
+        private long bytes;
+    }
+    
+    /**
+     * A page fetched on the fetch pool, held until the pages before it are delivered
+     */
+    private static class BufferedPage<T> {
+        private final PageStats stats;
+        private final List<T> issues;
+        
+        BufferedPage(PageStats stats, List<T> issues) {
+            this.stats = stats;
+            this.issues = issues;
+        }
+    }
+    
+    private static class PendingPage<T> {
+        private final int size;
+        private final Future<BufferedPage<T>> future;
+        
+        PendingPage(int size, Future<BufferedPage<T>> future) {
+            this.size = size;
+            this.future = future;
+        }
+    }
+    
+    /**
+     * Counts the bytes read from a response body
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+        
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+        
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+        
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+        
+        long getCount() {
+            return count;
+        }
+    }
+    
+    /**
+     * Inner class for search results
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class SearchResult {
+        @JsonProperty("startAt")
+        private int startAt;
+        
+        @JsonProperty("maxResults")
+        private int maxResults;
+        
+        @JsonProperty("total")
+        private int total;
+        
+        @JsonProperty("issues")
+        private List<JiraStory> issues;
+        
+        public int getStartAt() {
+            return startAt;
+        }
+        
+        public void setStartAt(int startAt) {
+            this.startAt = startAt;
+        }
+        
+        public int getMaxResults() {
+            return maxResults;
+        }
+        
+        public void setMaxResults(int maxResults) {
+            this.maxResults = maxResults;
+        }
+        
+        public int getTotal() {
+            return total;
+        }
+        
+        public void setTotal(int total) {
+            this.total = total;
+        }
+        
+        public List<JiraStory> getIssues() {
+            return issues;
+        }
+        
+        public void setIssues(List<JiraStory> issues) {
+            this.issues = issues;
+        }
+    }
+    
+    /**
+     * Custom exception for Jira API errors
+     */
+    public static class JiraApiException extends Exception {
+        public JiraApiException(String message) {
+            super(message);
+        }
+        
+        public JiraApiException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+    
+    /**
+     * Jira could not be reached or is overloaded: a transport error, a 5xx or 429
+     * response, an open circuit breaker or a full bulkhead
+     */
+    public static class JiraUnavailableException extends JiraApiException {
+        public JiraUnavailableException(String message) {
+            super(message);
+        }
+        
+        public JiraUnavailableException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+    
+    /**
+     * Jira answered 429 Too Many Requests
+     */
+    public static class JiraThrottledException extends JiraUnavailableException {
+        private final long retryAfterMillis;
+        
+        public JiraThrottledException(String message, long retryAfterMillis) {
+            super(message);
+            this.retryAfterMillis = retryAfterMillis;
+        }
+        
+        /**
+         * Delay Jira asked for before the next request, or -1 when it did not say
+         */
+        public long getRetryAfterMillis() {
+            return retryAfterMillis;
+        }
+    }
+}
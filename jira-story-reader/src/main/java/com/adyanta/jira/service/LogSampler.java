@@ -0,0 +1,42 @@
+package com.adyanta.jira.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets at most one log line through per interval for messages that can repeat
+ * on every call, such as warnings logged while Jira is unavailable.
+ * The number of suppressed lines is reported with the next one let through.
+ */
+public class LogSampler {
+    
+    private final long intervalNanos;
+    private final AtomicLong nextAllowedNanos;
+    private final AtomicLong suppressed = new AtomicLong();
+    
+    public LogSampler(long interval, TimeUnit unit) {
+        this.intervalNanos = unit.toNanos(interval);
+        this.nextAllowedNanos = new AtomicLong(System.nanoTime());
+    }
+    
+    /**
+     * Whether a line should be logged now. Callers that get true should include
+     * {@link #takeSuppressed()} in the line.
+     */
+    public boolean shouldLog() {
+        long now = System.nanoTime();
+        long next = nextAllowedNanos.get();
+        if (now - next >= 0 && nextAllowedNanos.compareAndSet(next, now + intervalNanos)) {
+            return true;
+        }
+        suppressed.incrementAndGet();
+        return false;
+    }
+    
+    /**
+     * Number of lines suppressed since the last call, resetting the count
+     */
+    public long takeSuppressed() {
+        return suppressed.getAndSet(0);
+    }
+}
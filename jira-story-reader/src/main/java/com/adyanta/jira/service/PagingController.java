@@ -0,0 +1,165 @@
+package com.adyanta.jira.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chooses the search page size and how many pages are fetched at once from the
+ * responses seen so far, additive-increase/multiplicative-decrease style:
+ * <ul>
+ *   <li>a page answered within the target time grows the page size by a step, and a
+ *       full round of such pages (one per concurrent fetch) adds one concurrent fetch</li>
+ *   <li>a slow page shrinks the page size by a quarter</li>
+ *   <li>a 429 response halves the concurrency; a failed page halves both</li>
+ * </ul>
+ * The page size never exceeds the maxResults Jira actually honoured, nor the size at
+ * which a page would go over the byte limit given the average size of an issue seen.
+ * One controller is kept per Jira site, so each site settles at its own values.
+ */
+public class PagingController {
+    
+    private static final int MIN_PAGE_SIZE = 10;
+    // Weight of the newest observation in the average issue size
+    private static final double SIZE_SMOOTHING = 0.2;
+    
+    private boolean enabled;
+    private int initialPageSize;
+    private int maxPageSize;
+    private int maxConcurrency;
+    private long targetPageNanos;
+    private long maxPageBytes;
+    
+    private double pageSize;
+    private double concurrency = 1;
+    private int serverMaxResults = Integer.MAX_VALUE;
+    private double bytesPerIssue;
+    private int fastPagesInRound;
+    
+    private long pages;
+    private long issues;
+    private long slowPages;
+    private long throttled;
+    private long failures;
+    private long pageNanos;
+    
+    public PagingController(boolean enabled, int initialPageSize, int maxPageSize, int maxConcurrency,
+                            long targetPageMillis, long maxPageBytes) {
+        configure(enabled, initialPageSize, maxPageSize, maxConcurrency, targetPageMillis, maxPageBytes);
+        this.pageSize = this.initialPageSize;
+    }
+    
+    /**
+     * Change the limits; what was learned about the site is kept within the new limits
+     */
+    public synchronized void configure(boolean enabled, int initialPageSize, int maxPageSize, int maxConcurrency,
+                                       long targetPageMillis, long maxPageBytes) {
+        this.enabled = enabled;
+        this.maxPageSize = Math.max(maxPageSize, initialPageSize);
+        this.initialPageSize = initialPageSize;
+        this.maxConcurrency = maxConcurrency;
+        this.targetPageNanos = TimeUnit.MILLISECONDS.toNanos(targetPageMillis);
+        this.maxPageBytes = maxPageBytes;
+        this.pageSize = clampPageSize(pageSize);
+        this.concurrency = Math.min(Math.max(1, concurrency), maxConcurrency);
+    }
+    
+    /**
+     * Number of issues to ask for in the next page
+     */
+    public synchronized int getPageSize() {
+        return enabled ? (int) pageSize : initialPageSize;
+    }
+    
+    /**
+     * Number of pages to fetch at the same time
+     */
+    public synchronized int getConcurrency() {
+        return enabled ? (int) concurrency : 1;
+    }
+    
+    /**
+     * Record a page that was read successfully
+     *
+     * @param requested        maxResults sent with the request
+     * @param returned         issues in the page
+     * @param maxResults       maxResults reported back by Jira, which caps it per site; 0 when absent
+     * @param bytes            size of the response body
+     * @param elapsedNanos     time from sending the request to the end of the body
+     */
+    public synchronized void onPage(int requested, int returned, int maxResults, long bytes, long elapsedNanos) {
+        pages++;
+        issues += returned;
+        pageNanos += elapsedNanos;
+        if (maxResults > 0 && maxResults < requested) {
+            serverMaxResults = maxResults;
+        }
+        if (returned > 0 && bytes > 0) {
+            double size = (double) bytes / returned;
+            bytesPerIssue = bytesPerIssue == 0 ? size : bytesPerIssue + SIZE_SMOOTHING * (size - bytesPerIssue);
+        }
+        
+        if (elapsedNanos > targetPageNanos) {
+            slowPages++;
+            fastPagesInRound = 0;
+            pageSize = clampPageSize(pageSize * 0.75);
+            return;
+        }
+        // Short last pages say nothing about how large a page could be
+        if (returned >= requested) {
+            pageSize = clampPageSize(pageSize + Math.max(1, initialPageSize / 4));
+        } else {
+            pageSize = clampPageSize(pageSize);
+        }
+        if (++fastPagesInRound >= (int) concurrency) {
+            fastPagesInRound = 0;
+            concurrency = Math.min(concurrency + 1, maxConcurrency);
+        }
+    }
+    
+    /**
+     * Record a 429 response: fewer requests at once
+     */
+    public synchronized void onThrottled() {
+        throttled++;
+        fastPagesInRound = 0;
+        concurrency = Math.max(1, Math.floor(concurrency / 2));
+    }
+    
+    /**
+     * Record a page that failed with a timeout, transport error or 5xx response
+     */
+    public synchronized void onFailure() {
+        failures++;
+        fastPagesInRound = 0;
+        concurrency = Math.max(1, Math.floor(concurrency / 2));
+        pageSize = clampPageSize(pageSize / 2);
+    }
+    
+    private double clampPageSize(double size) {
+        double limit = Math.min(maxPageSize, serverMaxResults);
+        if (bytesPerIssue > 0) {
+            limit = Math.min(limit, maxPageBytes / bytesPerIssue);
+        }
+        return Math.max(Math.min(MIN_PAGE_SIZE, initialPageSize), Math.min(size, limit));
+    }
+    
+    public synchronized long getPagesFetched() {
+        return pages;
+    }
+    
+    public synchronized long getThrottledCount() {
+        return throttled;
+    }
+    
+    /**
+     * Issues per second of page time, over all pages so far
+     */
+    public synchronized double getIssuesPerSecond() {
+        return pageNanos == 0 ? 0 : issues * 1e9 / pageNanos;
+    }
+    
+    @Override
+    public synchronized String toString() {
+        return String.format("PagingController{pageSize=%d, concurrency=%d, pages=%d, slow=%d, throttled=%d, failed=%d, %.0f bytes/issue}",
+                (int) pageSize, (int) concurrency, pages, slowPages, throttled, failures, bytesPerIssue);
+    }
+}
@@ -0,0 +1,54 @@
+package com.adyanta.jira.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket limiting how many requests are sent to a Jira site per second.
+ * Up to one second's worth of permits can be used in a burst; beyond that
+ * callers are delayed so the average rate stays at the configured limit.
+ */
+public class RateLimiter {
+    
+    private final double permitsPerSecond;
+    private final double capacity;
+    private final double nanosPerPermit;
+    private double tokens;
+    private long lastRefillNanos;
+    
+    public RateLimiter(double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Permits per second must be positive");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.capacity = Math.max(1.0, permitsPerSecond);
+        this.nanosPerPermit = 1_000_000_000.0 / permitsPerSecond;
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+    
+    /**
+     * Take a permit, waiting until one is available
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+    
+    /**
+     * Take a permit and return how long the caller has to wait before using it.
+     * The bucket may go into debt so that concurrent callers queue up in order.
+     */
+    synchronized long reserve() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) / nanosPerPermit);
+        lastRefillNanos = now;
+        tokens -= 1;
+        return tokens >= 0 ? 0 : (long) (-tokens * nanosPerPermit);
+    }
+    
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+}
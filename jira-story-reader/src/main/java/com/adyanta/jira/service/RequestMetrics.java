@@ -0,0 +1,85 @@
+package com.adyanta.jira.service;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects request counts and latencies for calls made to Jira.
+ * Latencies are kept in a fixed-size ring so a long-running process
+ * reports recent percentiles without unbounded growth.
+ */
+public class RequestMetrics {
+    
+    private static final int RESERVOIR_SIZE = 8192;
+    
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder stories = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final long[] latencies = new long[RESERVOIR_SIZE];
+    private long recorded;
+    
+    /**
+     * Record a completed request
+     */
+    public void recordRequest(long latencyNanos, boolean success) {
+        requests.increment();
+        if (!success) {
+            failures.increment();
+        }
+        totalLatencyNanos.add(latencyNanos);
+        synchronized (latencies) {
+            latencies[(int) (recorded++ % RESERVOIR_SIZE)] = latencyNanos;
+        }
+    }
+    
+    /**
+     * Record stories returned to callers
+     */
+    public void recordStories(int count) {
+        stories.add(count);
+    }
+    
+    public long getRequestCount() {
+        return requests.sum();
+    }
+    
+    public long getFailureCount() {
+        return failures.sum();
+    }
+    
+    public long getStoryCount() {
+        return stories.sum();
+    }
+    
+    public double getAverageLatencyMillis() {
+        long count = requests.sum();
+        return count == 0 ? 0 : totalLatencyNanos.sum() / 1_000_000.0 / count;
+    }
+    
+    /**
+     * Latency percentile in milliseconds over the most recent requests
+     *
+     * @param percentile a value between 0 and 100
+     */
+    public double getLatencyPercentileMillis(double percentile) {
+        long[] snapshot;
+        synchronized (latencies) {
+            int size = (int) Math.min(recorded, RESERVOIR_SIZE);
+            snapshot = Arrays.copyOf(latencies, size);
+        }
+        if (snapshot.length == 0) {
+            return 0;
+        }
+        Arrays.sort(snapshot);
+        int index = (int) Math.ceil(percentile / 100.0 * snapshot.length) - 1;
+        return snapshot[Math.max(0, Math.min(index, snapshot.length - 1))] / 1_000_000.0;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("requests=%d, failures=%d, stories=%d, avg=%.1fms, p50=%.1fms, p95=%.1fms, p99=%.1fms",
+                getRequestCount(), getFailureCount(), getStoryCount(), getAverageLatencyMillis(),
+                getLatencyPercentileMillis(50), getLatencyPercentileMillis(95), getLatencyPercentileMillis(99));
+    }
+}
@@ -0,0 +1,13 @@
+package com.adyanta.jira.service;
+
+/**
+ * Classes of Jira traffic sharing the connection budget, highest priority first
+ */
+public enum RequestPriority {
+    /** A person or client is waiting on the answer: menu lookups, daemon requests */
+    INTERACTIVE,
+    /** Cache refreshes nobody is waiting on */
+    BACKGROUND,
+    /** Exports, syncs and other large batch runs */
+    BULK
+}
@@ -0,0 +1,237 @@
+package com.adyanta.jira.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Shares the connections to a Jira site between the priority classes of
+ * {@link RequestPriority}. When requests are queued, free slots go to the classes
+ * in proportion to their weights (start-time fair queueing), so bulk work keeps
+ * making progress without making interactive lookups wait behind it, and a number
+ * of slots can be held back for interactive requests only. Rate limit permits are
+ * taken while a slot is held, so they are shared in the same proportions.
+ * Queued requests can be cancelled through their {@link RequestScope}.
+ */
+public class RequestScheduler {
+    
+    private static final RequestPriority[] PRIORITIES = RequestPriority.values();
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<ArrayDeque<Waiter>> queues = new ArrayList<>(PRIORITIES.length);
+    private final double[] weights = new double[PRIORITIES.length];
+    // Virtual start time of the next request of each class
+    private final double[] nextStart = new double[PRIORITIES.length];
+    private final long[] granted = new long[PRIORITIES.length];
+    private final long[] waitNanos = new long[PRIORITIES.length];
+    private double virtualTime;
+    private int maxConcurrent;
+    private int reservedInteractive;
+    private int inFlight;
+    
+    public RequestScheduler(int maxConcurrent, int reservedInteractive,
+                            int interactiveWeight, int backgroundWeight, int bulkWeight) {
+        for (int i = 0; i < PRIORITIES.length; i++) {
+            queues.add(new ArrayDeque<>());
+        }
+        configure(maxConcurrent, reservedInteractive, interactiveWeight, backgroundWeight, bulkWeight);
+    }
+    
+    /**
+     * Change the limits while requests are running; queued requests are re-dispatched
+     */
+    public void configure(int maxConcurrent, int reservedInteractive,
+                          int interactiveWeight, int backgroundWeight, int bulkWeight) {
+        if (maxConcurrent <= 0 || reservedInteractive < 0 || reservedInteractive >= maxConcurrent) {
+            throw new IllegalArgumentException("Invalid scheduler limits: " + maxConcurrent + " slots, "
+                    + reservedInteractive + " reserved");
+        }
+        lock.lock();
+        try {
+            this.maxConcurrent = maxConcurrent;
+            this.reservedInteractive = reservedInteractive;
+            weights[RequestPriority.INTERACTIVE.ordinal()] = interactiveWeight;
+            weights[RequestPriority.BACKGROUND.ordinal()] = backgroundWeight;
+            weights[RequestPriority.BULK.ordinal()] = bulkWeight;
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Wait for a slot for a request of the calling thread's scope
+     *
+     * @throws CancellationException when the scope is or gets cancelled
+     */
+    public void acquire() throws InterruptedException {
+        RequestScope scope = RequestScope.current();
+        RequestPriority priority = scope != null ? scope.getPriority() : RequestPriority.INTERACTIVE;
+        if (scope != null) {
+            scope.register(this);
+        }
+        
+        lock.lockInterruptibly();
+        try {
+            // Checked under the lock so a concurrent cancel() either sees this request queued or is seen here
+            if (scope != null && scope.isCancelled()) {
+                throw new CancellationException("Request cancelled");
+            }
+            int index = priority.ordinal();
+            if (queues.get(index).isEmpty()) {
+                // A class that was idle starts at the current virtual time instead of spending saved-up credit
+                nextStart[index] = Math.max(nextStart[index], virtualTime);
+            }
+            Waiter waiter = new Waiter(scope, lock.newCondition());
+            queues.get(index).add(waiter);
+            dispatch();
+            
+            while (!waiter.granted) {
+                if (waiter.cancelled) {
+                    throw new CancellationException("Request cancelled");
+                }
+                try {
+                    waiter.signal.await();
+                } catch (InterruptedException e) {
+                    if (waiter.granted) {
+                        inFlight--;
+                        dispatch();
+                    } else {
+                        queues.get(index).remove(waiter);
+                    }
+                    throw e;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Remove the queued requests of a scope; their callers get a CancellationException
+     */
+    void cancelQueued(RequestScope scope) {
+        lock.lock();
+        try {
+            for (ArrayDeque<Waiter> queue : queues) {
+                Iterator<Waiter> it = queue.iterator();
+                while (it.hasNext()) {
+                    Waiter waiter = it.next();
+                    if (waiter.scope == scope) {
+                        it.remove();
+                        waiter.cancelled = true;
+                        waiter.signal.signal();
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Hand free slots to queued requests, the class with the lowest virtual start time first.
+     * Must be called with the lock held.
+     */
+    private void dispatch() {
+        while (inFlight < maxConcurrent) {
+            int next = -1;
+            for (int i = 0; i < queues.size(); i++) {
+                if (queues.get(i).isEmpty()) {
+                    continue;
+                }
+                if (i != RequestPriority.INTERACTIVE.ordinal() && inFlight >= maxConcurrent - reservedInteractive) {
+                    continue;
+                }
+                if (next < 0 || nextStart[i] < nextStart[next]) {
+                    next = i;
+                }
+            }
+            if (next < 0) {
+                return;
+            }
+            Waiter waiter = queues.get(next).poll();
+            waiter.granted = true;
+            inFlight++;
+            virtualTime = nextStart[next];
+            nextStart[next] += 1.0 / weights[next];
+            granted[next]++;
+            waitNanos[next] += System.nanoTime() - waiter.queuedNanos;
+            waiter.signal.signal();
+        }
+    }
+    
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Requests of a class currently waiting for a slot
+     */
+    public int getQueued(RequestPriority priority) {
+        lock.lock();
+        try {
+            return queues.get(priority.ordinal()).size();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Requests of a class that were given a slot so far
+     */
+    public long getGranted(RequestPriority priority) {
+        lock.lock();
+        try {
+            return granted[priority.ordinal()];
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Mean time requests of a class waited for a slot, in milliseconds
+     */
+    public double getAverageWaitMillis(RequestPriority priority) {
+        lock.lock();
+        try {
+            int index = priority.ordinal();
+            return granted[index] == 0 ? 0 : (double) waitNanos[index] / granted[index] / TimeUnit.MILLISECONDS.toNanos(1);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private static final class Waiter {
+        final RequestScope scope;
+        final Condition signal;
+        final long queuedNanos = System.nanoTime();
+        boolean granted;
+        boolean cancelled;
+        
+        Waiter(RequestScope scope, Condition signal) {
+            this.scope = scope;
+            this.signal = signal;
+        }
+    }
+}
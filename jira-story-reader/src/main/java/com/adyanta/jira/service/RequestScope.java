@@ -0,0 +1,115 @@
+package com.adyanta.jira.service;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Priority of the Jira requests made by a piece of work, and a handle to cancel them.
+ * A scope applies to the thread that opened it until it is closed; tasks the service
+ * hands to its fetch pool carry the scope of the thread that submitted them.
+ * Requests made outside any scope are {@link RequestPriority#INTERACTIVE}.
+ *
+ * <pre>
+ * try (RequestScope scope = RequestScope.open(RequestPriority.BULK)) {
+ *     service.streamStories(jql, exporter::write);
+ * }
+ * </pre>
+ */
+public final class RequestScope implements AutoCloseable {
+    
+    private static final ThreadLocal<RequestScope> CURRENT = new ThreadLocal<>();
+    
+    private final RequestPriority priority;
+    private final RequestScope previous;
+    private final Set<RequestScheduler> schedulers = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+    
+    private RequestScope(RequestPriority priority, RequestScope previous) {
+        this.priority = priority;
+        this.previous = previous;
+    }
+    
+    /**
+     * Run the calling thread's requests at the given priority until the scope is closed
+     */
+    public static RequestScope open(RequestPriority priority) {
+        RequestScope scope = new RequestScope(priority, CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+    
+    /**
+     * The scope of the calling thread, or null outside any scope
+     */
+    public static RequestScope current() {
+        return CURRENT.get();
+    }
+    
+    /**
+     * Priority of requests made by the calling thread
+     */
+    public static RequestPriority currentPriority() {
+        RequestScope scope = CURRENT.get();
+        return scope != null ? scope.priority : RequestPriority.INTERACTIVE;
+    }
+    
+    /**
+     * Carry the calling thread's scope over to a task run on another thread
+     */
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        RequestScope captured = CURRENT.get();
+        if (captured == null) {
+            return task;
+        }
+        return () -> {
+            RequestScope outer = CURRENT.get();
+            CURRENT.set(captured);
+            try {
+                return task.call();
+            } finally {
+                CURRENT.set(outer);
+            }
+        };
+    }
+    
+    public RequestPriority getPriority() {
+        return priority;
+    }
+    
+    /**
+     * Drop requests of this scope that are still queued and refuse new ones.
+     * Requests already sent to Jira complete normally. Can be called from any thread.
+     */
+    public void cancel() {
+        cancelled = true;
+        for (RequestScheduler scheduler : schedulers) {
+            scheduler.cancelQueued(this);
+        }
+    }
+    
+    public boolean isCancelled() {
+        return cancelled;
+    }
+    
+    /**
+     * Remember a scheduler this scope has queued requests in, so cancel() reaches them
+     */
+    void register(RequestScheduler scheduler) {
+        schedulers.add(scheduler);
+    }
+    
+    /**
+     * Restore the scope that was current when this one was opened
+     */
+    @Override
+    public void close() {
+        if (CURRENT.get() == this) {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.adyanta.jira.service;
+
+/**
+ * Kinds of Jira traffic, each isolated in its own bulkhead
+ */
+public enum RequestType {
+    SEARCH,
+    FETCH,
+    CHANGELOG
+}
@@ -0,0 +1,196 @@
+package com.adyanta.jira.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reusable byte arrays for reading response bodies, so a busy service does not
+ * allocate a new body buffer and String for every request. Arrays come in size
+ * classes that fit typical Jira payloads: single issues are mostly below 16 KB,
+ * issues with long descriptions or many comments below 64 KB, and small search
+ * pages below 256 KB or 1 MB. Each class keeps a quarter of the pool's byte budget.
+ * Bodies larger than the largest class get an array of their own that is not kept.
+ */
+public class ResponseBufferPool {
+    
+    static final int[] SIZE_CLASSES = {16 * 1024, 64 * 1024, 256 * 1024, 1024 * 1024};
+    
+    private final List<BlockingQueue<byte[]>> free = new ArrayList<>(SIZE_CLASSES.length);
+    private final AtomicLong reused = new AtomicLong();
+    private final AtomicLong allocated = new AtomicLong();
+    
+    /**
+     * @param maxPooledBytes upper bound on the memory held by idle arrays; 0 disables pooling
+     */
+    public ResponseBufferPool(long maxPooledBytes) {
+        for (int i = 0; i < SIZE_CLASSES.length; i++) {
+            long count = maxPooledBytes / SIZE_CLASSES.length / SIZE_CLASSES[i];
+            free.add(count > 0 ? new ArrayBlockingQueue<>((int) Math.min(count, Integer.MAX_VALUE)) : null);
+        }
+    }
+    
+    /**
+     * Read a stream to its end into a pooled array. The body must be closed, and its
+     * bytes no longer used, once the caller is done with them.
+     *
+     * @param expectedLength the Content-Length if known, otherwise a negative value
+     */
+    public Body read(InputStream in, long expectedLength) throws IOException {
+        byte[] buffer = acquire(expectedLength > 0 ? (int) Math.min(expectedLength, Integer.MAX_VALUE - 8) : 0);
+        int length = 0;
+        try {
+            while (true) {
+                if (length == buffer.length) {
+                    // A full array often holds the whole body; look for the end before growing
+                    int next = in.read();
+                    if (next < 0) {
+                        return new Body(buffer, length);
+                    }
+                    byte[] larger = acquire(grownSize(buffer.length));
+                    System.arraycopy(buffer, 0, larger, 0, length);
+                    release(buffer);
+                    buffer = larger;
+                    buffer[length++] = (byte) next;
+                }
+                int read = in.read(buffer, length, buffer.length - length);
+                if (read < 0) {
+                    return new Body(buffer, length);
+                }
+                length += read;
+            }
+        } catch (IOException | RuntimeException e) {
+            release(buffer);
+            throw e;
+        }
+    }
+    
+    /**
+     * An array of at least the given size, from the pool when one of its class is idle
+     */
+    byte[] acquire(int minSize) {
+        int sizeClass = sizeClass(minSize);
+        if (sizeClass < 0) {
+            allocated.incrementAndGet();
+            return new byte[minSize];
+        }
+        BlockingQueue<byte[]> pooled = free.get(sizeClass);
+        byte[] buffer = pooled != null ? pooled.poll() : null;
+        if (buffer != null) {
+            reused.incrementAndGet();
+            return buffer;
+        }
+        allocated.incrementAndGet();
+        return new byte[SIZE_CLASSES[sizeClass]];
+    }
+    
+    /**
+     * Hand an array back; arrays of no size class, or beyond the class budget, are dropped
+     */
+    void release(byte[] buffer) {
+        for (int i = 0; i < SIZE_CLASSES.length; i++) {
+            if (buffer.length == SIZE_CLASSES[i]) {
+                BlockingQueue<byte[]> pooled = free.get(i);
+                if (pooled != null) {
+                    pooled.offer(buffer);
+                }
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Next size for a full array: the next size class, then doubling, so bodies of
+     * unknown length are not copied too often
+     */
+    private static int grownSize(int size) {
+        int largest = SIZE_CLASSES[SIZE_CLASSES.length - 1];
+        if (size < largest) {
+            return size + 1;
+        }
+        if (size >= (Integer.MAX_VALUE - 8) / 2) {
+            throw new OutOfMemoryError("Response body too large");
+        }
+        return size * 2;
+    }
+    
+    private static int sizeClass(int size) {
+        for (int i = 0; i < SIZE_CLASSES.length; i++) {
+            if (size <= SIZE_CLASSES[i]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Number of arrays handed out from the pool instead of allocated
+     */
+    public long getReused() {
+        return reused.get();
+    }
+    
+    /**
+     * Number of arrays allocated because no idle array of the right size was available
+     */
+    public long getAllocated() {
+        return allocated.get();
+    }
+    
+    /**
+     * Bytes currently held by idle arrays
+     */
+    public long getPooledBytes() {
+        long bytes = 0;
+        for (int i = 0; i < SIZE_CLASSES.length; i++) {
+            BlockingQueue<byte[]> pooled = free.get(i);
+            if (pooled != null) {
+                bytes += (long) pooled.size() * SIZE_CLASSES[i];
+            }
+        }
+        return bytes;
+    }
+    
+    @Override
+    public String toString() {
+        return "ResponseBufferPool{reused=" + reused + ", allocated=" + allocated
+                + ", pooledBytes=" + getPooledBytes() + '}';
+    }
+    
+    /**
+     * A response body held in a pooled array; valid bytes are {@code [0, length)}
+     */
+    public final class Body implements AutoCloseable {
+        
+        private byte[] bytes;
+        private final int length;
+        
+        private Body(byte[] bytes, int length) {
+            this.bytes = bytes;
+            this.length = length;
+        }
+        
+        public byte[] bytes() {
+            if (bytes == null) {
+                throw new IllegalStateException("Body has been released");
+            }
+            return bytes;
+        }
+        
+        public int length() {
+            return length;
+        }
+        
+        @Override
+        public void close() {
+            if (bytes != null) {
+                release(bytes);
+                bytes = null;
+            }
+        }
+    }
+}
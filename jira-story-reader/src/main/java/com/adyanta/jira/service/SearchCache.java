@@ -0,0 +1,132 @@
+package com.adyanta.jira.service;
+
+import com.adyanta.jira.model.JiraStory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded cache of JQL search results keyed by the query text, with the same
+ * TTL, stale window and refresh-ahead rules as the story cache.
+ */
+public class SearchCache {
+    
+    private final Map<String, Entry> entries;
+    private volatile int maxEntries;
+    private volatile long ttlNanos;
+    private volatile long staleNanos;
+    private volatile int refreshAheadHits;
+    
+    public SearchCache(int maxEntries, long ttlSeconds) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > SearchCache.this.maxEntries;
+            }
+        };
+    }
+    
+    /**
+     * Change the size limit and TTL of a live cache
+     */
+    public void resize(int maxEntries, long ttlSeconds) {
+        synchronized (entries) {
+            this.maxEntries = maxEntries;
+            this.ttlNanos = ttlSeconds * 1_000_000_000L;
+            Iterator<String> eldest = entries.keySet().iterator();
+            while (entries.size() > maxEntries && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+    
+    /**
+     * @see StoryCache#setRefreshPolicy(long, int)
+     */
+    public void setRefreshPolicy(long staleSeconds, int refreshAheadHits) {
+        this.staleNanos = staleSeconds * 1_000_000_000L;
+        this.refreshAheadHits = refreshAheadHits;
+    }
+    
+    public boolean isEnabled() {
+        return maxEntries > 0;
+    }
+    
+    /**
+     * Get the cached result of a query that is fresh or within the stale window, or null
+     */
+    public CachedValue<List<JiraStory>> lookup(String jql) {
+        if (!isEnabled()) {
+            return null;
+        }
+        synchronized (entries) {
+            Entry entry = entries.get(jql);
+            if (entry == null) {
+                return null;
+            }
+            long ageNanos = System.nanoTime() - entry.storedAtNanos;
+            if (!CachedValue.isServable(ageNanos, ttlNanos, staleNanos)) {
+                return null;
+            }
+            entry.hits++;
+            return new CachedValue<>(entry.stories, CachedValue.isRefreshDue(ageNanos, ttlNanos, entry.hits, refreshAheadHits));
+        }
+    }
+    
+    public void put(String jql, List<JiraStory> stories) {
+        if (!isEnabled()) {
+            return;
+        }
+        Entry entry = new Entry(Collections.unmodifiableList(new ArrayList<>(stories)), System.nanoTime());
+        synchronized (entries) {
+            entries.put(jql, entry);
+        }
+    }
+    
+    /**
+     * Drop every cached result that contains the story
+     */
+    public void evictStory(String storyKey) {
+        synchronized (entries) {
+            Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                for (JiraStory story : it.next().stories) {
+                    if (storyKey.equals(story.getKey())) {
+                        it.remove();
+                        break;
+                    }
+                }
+            }
+        }
+    }
+    
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+    
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+    
+    private static final class Entry {
+        private final List<JiraStory> stories;
+        private final long storedAtNanos;
+        private int hits;
+        
+        private Entry(List<JiraStory> stories, long storedAtNanos) {
+            this.stories = stories;
+            this.storedAtNanos = storedAtNanos;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.adyanta.jira.service;
+
+import com.adyanta.jira.model.JiraStory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded, time-limited cache of stories keyed by issue key.
+ * Least recently used entries are evicted once the cache is full.
+ * Entries may be served for a while after they expire, and frequently read
+ * entries shortly before, while the caller refreshes them in the background.
+ */
+public class StoryCache {
+    
+    private final Map<String, Entry> entries;
+    private volatile int maxEntries;
+    private volatile long ttlNanos;
+    private volatile long staleNanos;
+    private volatile int refreshAheadHits;
+    private volatile TextStore textStore;
+    
+    public StoryCache(int maxEntries, long ttlSeconds) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > StoryCache.this.maxEntries;
+            }
+        };
+    }
+    
+    /**
+     * Change the size limit and TTL of a live cache.
+     * Shrinking evicts the least recently used entries right away.
+     */
+    public void resize(int maxEntries, long ttlSeconds) {
+        synchronized (entries) {
+            this.maxEntries = maxEntries;
+            this.ttlNanos = ttlSeconds * 1_000_000_000L;
+            Iterator<String> eldest = entries.keySet().iterator();
+            while (entries.size() > maxEntries && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+    
+    /**
+     * Let lookups serve entries up to staleSeconds past their TTL, and ask for entries read
+     * at least refreshAheadHits times to be refreshed before they expire (0 disables either)
+     */
+    public void setRefreshPolicy(long staleSeconds, int refreshAheadHits) {
+        this.staleNanos = staleSeconds * 1_000_000_000L;
+        this.refreshAheadHits = refreshAheadHits;
+    }
+    
+    /**
+     * Move descriptions and acceptance criteria of stories put from now on into a side store,
+     * or keep them on the heap when the store is null
+     */
+    public void setTextStore(TextStore textStore) {
+        this.textStore = textStore;
+    }
+    
+    public TextStore getTextStore() {
+        return textStore;
+    }
+    
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+    
+    public boolean isEnabled() {
+        return maxEntries > 0;
+    }
+    
+    /**
+     * Get a cached story, or null when it is missing or expired
+     */
+    public JiraStory get(String key) {
+        if (!isEnabled()) {
+            return null;
+        }
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (System.nanoTime() - entry.storedAtNanos > ttlNanos) {
+                // Expired entries stay until evicted, as a fallback while Jira is unavailable
+                return null;
+            }
+            return entry.story;
+        }
+    }
+    
+    /**
+     * Get a cached story that is fresh or within the stale window, or null when there is none.
+     * The result tells whether the story should be refreshed in the background.
+     */
+    public CachedValue<JiraStory> lookup(String key) {
+        if (!isEnabled()) {
+            return null;
+        }
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            long ageNanos = System.nanoTime() - entry.storedAtNanos;
+            if (!CachedValue.isServable(ageNanos, ttlNanos, staleNanos)) {
+                return null;
+            }
+            entry.hits++;
+            return new CachedValue<>(entry.story, CachedValue.isRefreshDue(ageNanos, ttlNanos, entry.hits, refreshAheadHits));
+        }
+    }
+    
+    /**
+     * Get a cached story even if it has expired, or null when it is missing
+     */
+    public JiraStory getStale(String key) {
+        if (!isEnabled()) {
+            return null;
+        }
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            return entry != null ? entry.story : null;
+        }
+    }
+    
+    /**
+     * Cache a story
+     *
+     * @return true when it replaced a cached copy whose content hash differs
+     */
+    public boolean put(JiraStory story) {
+        if (!isEnabled() || story == null || story.getKey() == null) {
+            return false;
+        }
+        // Hash before the text moves to the side store, so hashing does not decode it again
+        String contentHash = story.getContentHash();
+        TextStore store = textStore;
+        if (store != null && story.getFields() != null) {
+            // The caller keeps its story as it was; only the cached copy gives up its text
+            story = story.copy();
+            story.getFields().storeText(store::store);
+        }
+        Entry previous;
+        synchronized (entries) {
+            previous = entries.put(story.getKey(), new Entry(story, System.nanoTime()));
+        }
+        return previous != null && previous.story != story && !contentHash.equals(previous.story.getContentHash());
+    }
+    
+    public void invalidate(String key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+    
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+    
+    /**
+     * Copy of all unexpired stories
+     */
+    public List<JiraStory> snapshot() {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            List<JiraStory> stories = new ArrayList<>(entries.size());
+            for (Entry entry : entries.values()) {
+                if (now - entry.storedAtNanos <= ttlNanos) {
+                    stories.add(entry.story);
+                }
+            }
+            return stories;
+        }
+    }
+    
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+    
+    private static final class Entry {
+        private final JiraStory story;
+        private final long storedAtNanos;
+        private int hits;
+        
+        private Entry(JiraStory story, long storedAtNanos) {
+            this.story = story;
+            this.storedAtNanos = storedAtNanos;
+        }
+    }
+}
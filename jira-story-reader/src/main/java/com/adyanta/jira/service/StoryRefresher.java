@@ -0,0 +1,126 @@
+package com.adyanta.jira.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Refreshes cached stories and search results in the background.
+ * Requests are collected for a short delay so that stories needing a refresh
+ * at about the same time are re-read with a single key in (...) query.
+ */
+class StoryRefresher implements AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(StoryRefresher.class);
+    
+    private final JiraStoryReaderService service;
+    private final ScheduledExecutorService scheduler;
+    private final Set<String> pendingKeys = ConcurrentHashMap.newKeySet();
+    private final Set<String> pendingSearches = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    // Refreshes keep failing while Jira is down; one warning per period is enough
+    private final LogSampler failureLog = new LogSampler(30, TimeUnit.SECONDS);
+    
+    StoryRefresher(JiraStoryReaderService service) {
+        this.service = service;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jira-cache-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Queue a story to be re-read; repeated requests before the next refresh are merged
+     */
+    void refreshStory(String storyKey) {
+        if (pendingKeys.add(storyKey)) {
+            scheduleFlush();
+        }
+    }
+    
+    /**
+     * Queue a JQL search to be re-run
+     */
+    void refreshSearch(String jql) {
+        if (pendingSearches.add(jql)) {
+            scheduleFlush();
+        }
+    }
+    
+    private void scheduleFlush() {
+        if (!flushScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            scheduler.schedule(this::flush, service.getConfig().getCacheRefreshDelayMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            flushScheduled.set(false);
+        }
+    }
+    
+    private void flush() {
+        // Requests arriving from here on schedule the next flush
+        flushScheduled.set(false);
+        
+        try (RequestScope scope = RequestScope.open(RequestPriority.BACKGROUND)) {
+            reload();
+        }
+    }
+    
+    private void reload() {
+        List<String> keys = drain(pendingKeys);
+        int batchSize = service.getConfig().getFetchBatchSize();
+        for (int i = 0; i < keys.size(); i += batchSize) {
+            List<String> batch = keys.subList(i, Math.min(i + batchSize, keys.size()));
+            try {
+                service.reloadStories(batch);
+            } catch (JiraStoryReaderService.JiraApiException | RuntimeException e) {
+                logFailure(batch.size() + " stories", e);
+            }
+        }
+        
+        for (String jql : drain(pendingSearches)) {
+            try {
+                service.reloadSearch(jql);
+            } catch (JiraStoryReaderService.JiraApiException | RuntimeException e) {
+                logFailure("search '" + jql + "'", e);
+            }
+        }
+    }
+    
+    private void logFailure(String what, Exception e) {
+        if (failureLog.shouldLog()) {
+            logger.warn("Background refresh of {} failed: {} ({} similar failures suppressed)",
+                    what, e.getMessage(), failureLog.takeSuppressed());
+        } else {
+            logger.debug("Background refresh of {} failed: {}", what, e.getMessage());
+        }
+    }
+    
+    private static List<String> drain(Set<String> pending) {
+        List<String> drained = new ArrayList<>(pending.size());
+        Iterator<String> it = pending.iterator();
+        while (it.hasNext()) {
+            drained.add(it.next());
+            it.remove();
+        }
+        return drained;
+    }
+    
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,142 @@
+package com.adyanta.jira.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Side store for large, rarely read story text such as descriptions and acceptance criteria.
+ * Each text is kept as UTF-8 bytes in a direct buffer outside the Java heap, deflated
+ * when that makes it smaller, and decoded again only when it is read. The native memory
+ * is freed when the story holding the handle is garbage collected.
+ */
+public class TextStore {
+    
+    /**
+     * Texts must shrink at least this much to be kept compressed
+     */
+    private static final double MIN_COMPRESSION_RATIO = 0.9;
+    
+    private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_SPEED));
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(Inflater::new);
+    
+    private final int minBytes;
+    private final AtomicLong textsStored = new AtomicLong();
+    private final AtomicLong originalBytes = new AtomicLong();
+    private final AtomicLong storedBytes = new AtomicLong();
+    
+    /**
+     * @param minBytes texts with fewer UTF-8 bytes than this stay on the heap
+     */
+    public TextStore(int minBytes) {
+        this.minBytes = minBytes;
+    }
+    
+    /**
+     * Move a text into the store, or return null when it is too small to be worth it
+     */
+    public Supplier<String> store(String text) {
+        if (text == null || text.length() < minBytes / 3) {
+            return null;
+        }
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length < minBytes) {
+            return null;
+        }
+        
+        byte[] compressed = deflate(utf8);
+        boolean useCompressed = compressed != null;
+        byte[] bytes = useCompressed ? compressed : utf8;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes);
+        buffer.flip();
+        
+        textsStored.incrementAndGet();
+        originalBytes.addAndGet(utf8.length);
+        storedBytes.addAndGet(bytes.length);
+        return new StoredText(buffer.asReadOnlyBuffer(), useCompressed ? utf8.length : -1);
+    }
+    
+    /**
+     * Compressed bytes, or null when compression does not pay off
+     */
+    private static byte[] deflate(byte[] utf8) {
+        Deflater deflater = DEFLATER.get();
+        deflater.reset();
+        deflater.setInput(utf8);
+        deflater.finish();
+        int limit = (int) (utf8.length * MIN_COMPRESSION_RATIO);
+        byte[] output = new byte[limit];
+        int length = deflater.deflate(output);
+        if (!deflater.finished()) {
+            return null;
+        }
+        byte[] compressed = new byte[length];
+        System.arraycopy(output, 0, compressed, 0, length);
+        return compressed;
+    }
+    
+    /**
+     * Number of texts moved into the store since it was created
+     */
+    public long getTextsStored() {
+        return textsStored.get();
+    }
+    
+    /**
+     * UTF-8 size of all texts stored since the store was created
+     */
+    public long getOriginalBytes() {
+        return originalBytes.get();
+    }
+    
+    /**
+     * Bytes allocated outside the heap for all texts stored since the store was created
+     */
+    public long getStoredBytes() {
+        return storedBytes.get();
+    }
+    
+    private static final class StoredText implements Supplier<String> {
+        private final ByteBuffer buffer;
+        private final int decompressedLength;
+        
+        private StoredText(ByteBuffer buffer, int decompressedLength) {
+            this.buffer = buffer;
+            this.decompressedLength = decompressedLength;
+        }
+        
+        @Override
+        public String get() {
+            byte[] bytes = new byte[buffer.capacity()];
+            // Duplicate so concurrent readers do not share a position
+            buffer.duplicate().get(bytes);
+            if (decompressedLength < 0) {
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+            
+            Inflater inflater = INFLATER.get();
+            inflater.reset();
+            inflater.setInput(bytes);
+            byte[] utf8 = new byte[decompressedLength];
+            try {
+                int length = inflater.inflate(utf8);
+                if (length != decompressedLength) {
+                    throw new IllegalStateException("Stored text decoded to " + length + " of " + decompressedLength + " bytes");
+                }
+            } catch (DataFormatException e) {
+                throw new IllegalStateException("Stored text is corrupt", e);
+            }
+            return new String(utf8, StandardCharsets.UTF_8);
+        }
+        
+        @Override
+        public String toString() {
+            return "StoredText{" + buffer.capacity() + " bytes" + (decompressedLength >= 0 ? ", deflated" : "") + '}';
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.adyanta.jira.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs one aggregate line per interval with the requests and stories handled
+ * since the previous line, in place of a log line per call.
+ * Nothing is logged for intervals without activity.
+ */
+public class ThroughputReporter implements AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ThroughputReporter.class);
+    
+    private final RequestMetrics metrics;
+    private final StoryCache cache;
+    private final ScheduledExecutorService scheduler;
+    private long lastRequests;
+    private long lastFailures;
+    private long lastStories;
+    private long lastReportNanos;
+    
+    public ThroughputReporter(RequestMetrics metrics, StoryCache cache) {
+        this.metrics = metrics;
+        this.cache = cache;
+        this.lastRequests = metrics.getRequestCount();
+        this.lastFailures = metrics.getFailureCount();
+        this.lastStories = metrics.getStoryCount();
+        this.lastReportNanos = System.nanoTime();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jira-throughput-log");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Start logging every intervalSeconds
+     */
+    public void start(long intervalSeconds) {
+        scheduler.scheduleAtFixedRate(this::logReport, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+    
+    private void logReport() {
+        String report = report();
+        if (report != null) {
+            logger.info(report);
+        }
+    }
+    
+    /**
+     * Build the line for the activity since the previous report, or null when there was none
+     */
+    public synchronized String report() {
+        long now = System.nanoTime();
+        long requests = metrics.getRequestCount();
+        long failures = metrics.getFailureCount();
+        long stories = metrics.getStoryCount();
+        double seconds = (now - lastReportNanos) / 1_000_000_000.0;
+        
+        long newRequests = requests - lastRequests;
+        long newFailures = failures - lastFailures;
+        long newStories = stories - lastStories;
+        lastRequests = requests;
+        lastFailures = failures;
+        lastStories = stories;
+        lastReportNanos = now;
+        
+        if (newRequests == 0 && newStories == 0) {
+            return null;
+        }
+        return String.format("Throughput: %d stories, %d requests (%d failed) in %.0fs, %.1f stories/s, "
+                        + "latency p50=%.1fms p99=%.1fms, %d cached stories",
+                newStories, newRequests, newFailures, seconds, seconds > 0 ? newStories / seconds : 0.0,
+                metrics.getLatencyPercentileMillis(50), metrics.getLatencyPercentileMillis(99), cache.size());
+    }
+    
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,117 @@
+package com.adyanta.jira.snapshot;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a {@link SnapshotBuilder} run: the snapshot file, the number of distinct
+ * stories in it and what each query contributed.
+ */
+public final class SnapshotBuildResult {
+    
+    private final Path file;
+    private final int storiesWritten;
+    private final long elapsedMillis;
+    private final List<QueryStats> queries;
+    
+    SnapshotBuildResult(Path file, int storiesWritten, long elapsedMillis, List<QueryStats> queries) {
+        this.file = file;
+        this.storiesWritten = storiesWritten;
+        this.elapsedMillis = elapsedMillis;
+        this.queries = Collections.unmodifiableList(queries);
+    }
+    
+    public Path getFile() {
+        return file;
+    }
+    
+    /**
+     * Distinct stories in the snapshot
+     */
+    public int getStoriesWritten() {
+        return storiesWritten;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    /**
+     * Statistics per query, in plan order
+     */
+    public List<QueryStats> getQueries() {
+        return queries;
+    }
+    
+    /**
+     * Stories returned by all queries together, including the ones found by more than one query
+     */
+    public long getStoriesFetched() {
+        long fetched = 0;
+        for (QueryStats query : queries) {
+            fetched += query.getStoriesFetched();
+        }
+        return fetched;
+    }
+    
+    @Override
+    public String toString() {
+        return "SnapshotBuildResult{file=" + file + ", stories=" + storiesWritten
+                + ", queries=" + queries.size() + ", elapsedMillis=" + elapsedMillis + '}';
+    }
+    
+    /**
+     * What one query contributed to the snapshot
+     */
+    public static final class QueryStats {
+        
+        private final SnapshotQuery query;
+        private final long storiesFetched;
+        private final long storiesAdded;
+        private final long elapsedMillis;
+        
+        QueryStats(SnapshotQuery query, long storiesFetched, long storiesAdded, long elapsedMillis) {
+            this.query = query;
+            this.storiesFetched = storiesFetched;
+            this.storiesAdded = storiesAdded;
+            this.elapsedMillis = elapsedMillis;
+        }
+        
+        public SnapshotQuery getQuery() {
+            return query;
+        }
+        
+        public long getStoriesFetched() {
+            return storiesFetched;
+        }
+        
+        /**
+         * Stories this query was the first to deliver
+         */
+        public long getStoriesAdded() {
+            return storiesAdded;
+        }
+        
+        /**
+         * Stories another query had already delivered
+         */
+        public long getDuplicates() {
+            return storiesFetched - storiesAdded;
+        }
+        
+        /**
+         * Time from starting the build until the query delivered its last story, or finished
+         * if it found none
+         */
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%s: %d stories, %d duplicates, %d ms",
+                    query, storiesFetched, getDuplicates(), elapsedMillis);
+        }
+    }
+}
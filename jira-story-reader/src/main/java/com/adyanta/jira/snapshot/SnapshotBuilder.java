@@ -0,0 +1,210 @@
+package com.adyanta.jira.snapshot;
+
+import com.adyanta.jira.service.JiraStoryReaderService;
+import com.adyanta.jira.service.JiraStoryReaderService.JiraApiException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds one snapshot from several projects, sprints, boards, saved filters and JQL
+ * queries. The sources are first planned into distinct JQL searches: repeated sources
+ * are dropped, boards are resolved to their saved filter, and sources that end up with
+ * the same query share it. The searches then run concurrently on the service's fetch
+ * pool, so together they stay within the connection, bulkhead and rate limits of the
+ * service, and every story is written to the snapshot once, however many queries find it.
+ * <pre>
+ * SnapshotBuildResult result = new SnapshotBuilder(service)
+ *         .addProjects(Arrays.asList("PROJ", "OPS"))
+ *         .addBoard(12)
+ *         .build(Paths.get("portfolio.snap"));
+ * </pre>
+ */
+public class SnapshotBuilder {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotBuilder.class);
+    
+    private final JiraStoryReaderService service;
+    private final Set<String> projects = new LinkedHashSet<>();
+    private final Set<String> sprints = new LinkedHashSet<>();
+    private final Set<Long> boards = new LinkedHashSet<>();
+    private final Set<Long> filters = new LinkedHashSet<>();
+    private final Set<String> queries = new LinkedHashSet<>();
+    private String issueType = "Story";
+    
+    public SnapshotBuilder(JiraStoryReaderService service) {
+        this.service = service;
+    }
+    
+    public SnapshotBuilder addProject(String projectKey) {
+        projects.add(projectKey.trim().toUpperCase());
+        return this;
+    }
+    
+    public SnapshotBuilder addProjects(Collection<String> projectKeys) {
+        for (String projectKey : projectKeys) {
+            addProject(projectKey);
+        }
+        return this;
+    }
+    
+    /**
+     * Add a sprint by name, or by id when the value is numeric
+     */
+    public SnapshotBuilder addSprint(String sprint) {
+        sprints.add(sprint.trim());
+        return this;
+    }
+    
+    public SnapshotBuilder addBoard(long boardId) {
+        boards.add(boardId);
+        return this;
+    }
+    
+    public SnapshotBuilder addFilter(long filterId) {
+        filters.add(filterId);
+        return this;
+    }
+    
+    /**
+     * Add a JQL query; it is used as given, without the issue type restriction
+     */
+    public SnapshotBuilder addJql(String jql) {
+        queries.add(jql.trim().replaceAll("\\s+", " "));
+        return this;
+    }
+    
+    /**
+     * Issue type that project, sprint, board and filter queries are restricted to;
+     * "Story" by default, null for all issue types
+     */
+    public SnapshotBuilder setIssueType(String issueType) {
+        this.issueType = issueType == null || issueType.trim().isEmpty() ? null : issueType.trim();
+        return this;
+    }
+    
+    /**
+     * Plan the distinct searches for the sources added so far. Boards are looked up
+     * in Jira to find their filter.
+     */
+    public List<SnapshotQuery> plan() throws JiraApiException {
+        Map<String, SnapshotQuery> planned = new LinkedHashMap<>();
+        for (String project : projects) {
+            addQuery(planned, restrict("project = " + quote(project)), "project " + project);
+        }
+        for (String sprint : sprints) {
+            String value = sprint.matches("\\d+") ? sprint : quote(sprint);
+            addQuery(planned, restrict("sprint = " + value), "sprint " + sprint);
+        }
+        for (Long filter : filters) {
+            addQuery(planned, restrict("filter = " + filter), "filter " + filter);
+        }
+        for (Long board : boards) {
+            long filter = service.getBoardFilterId(board);
+            addQuery(planned, restrict("filter = " + filter), "board " + board);
+        }
+        for (String jql : queries) {
+            addQuery(planned, jql, "jql");
+        }
+        return new ArrayList<>(planned.values());
+    }
+    
+    /**
+     * Run the planned searches concurrently and write the stories they find to a snapshot
+     * file. If a search fails, the others are cancelled and no file is written.
+     */
+    public SnapshotBuildResult build(Path output) throws JiraApiException, IOException {
+        List<SnapshotQuery> plan = plan();
+        if (plan.isEmpty()) {
+            throw new IllegalArgumentException("No projects, sprints, boards, filters or queries given");
+        }
+        logger.info("Building snapshot {} from {} queries", output, plan.size());
+        
+        long start = System.nanoTime();
+        SnapshotWriter writer = new SnapshotWriter(output);
+        Set<String> seen = new HashSet<>();
+        long[] fetched = new long[plan.size()];
+        long[] added = new long[plan.size()];
+        long[] lastStory = new long[plan.size()];
+        List<Future<Long>> searches = new ArrayList<>(plan.size());
+        List<SnapshotBuildResult.QueryStats> stats = new ArrayList<>(plan.size());
+        try {
+            for (int i = 0; i < plan.size(); i++) {
+                int index = i;
+                searches.add(service.submitSearch(plan.get(i).getJql(), story -> {
+                    synchronized (writer) {
+                        fetched[index]++;
+                        if (seen.add(story.getKey())) {
+                            writer.accept(story);
+                            added[index]++;
+                        }
+                        lastStory[index] = System.nanoTime();
+                    }
+                }));
+            }
+            for (int i = 0; i < plan.size(); i++) {
+                await(searches.get(i), plan.get(i));
+                synchronized (writer) {
+                    long end = fetched[i] > 0 ? lastStory[i] : System.nanoTime();
+                    stats.add(new SnapshotBuildResult.QueryStats(plan.get(i), fetched[i], added[i],
+                            TimeUnit.NANOSECONDS.toMillis(end - start)));
+                }
+            }
+        } finally {
+            for (Future<Long> search : searches) {
+                search.cancel(true);
+            }
+        }
+        
+        writer.close();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        logger.info("Wrote {} stories to {} in {} ms", writer.getStoriesWritten(), output, elapsedMillis);
+        return new SnapshotBuildResult(output, writer.getStoriesWritten(), elapsedMillis, stats);
+    }
+    
+    private static void await(Future<Long> search, SnapshotQuery query) throws JiraApiException, IOException {
+        try {
+            search.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JiraApiException("Interrupted while building snapshot", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new JiraApiException("Query for " + String.join(", ", query.getSources())
+                    + " failed: " + cause.getMessage(), cause);
+        }
+    }
+    
+    private static void addQuery(Map<String, SnapshotQuery> planned, String jql, String source) {
+        SnapshotQuery query = planned.get(jql);
+        if (query == null) {
+            planned.put(jql, new SnapshotQuery(jql, source));
+        } else {
+            query.addSource(source);
+        }
+    }
+    
+    private String restrict(String jql) {
+        return issueType == null ? jql : jql + " AND issuetype = " + quote(issueType);
+    }
+    
+    private static String quote(String value) {
+        return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+}
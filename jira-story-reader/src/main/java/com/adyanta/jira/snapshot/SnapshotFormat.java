@@ -0,0 +1,92 @@
+package com.adyanta.jira.snapshot;
+
+/**
+ * Layout of a story snapshot file. All numbers are big-endian.
+ *
+ * <pre>
+ * header        HEADER_SIZE bytes, see the HEADER_ positions
+ * records       storyCount fixed-width records of RECORD_SIZE bytes
+ * key index     open-addressing hash table of (key hash, record number + 1) int pairs
+ * lists         per list: int count, then count entries of the list's width in string IDs
+ * string offsets stringCount + 1 ints, relative to the start of the string data
+ * string data   UTF-8 bytes of every distinct string
+ * </pre>
+ *
+ * A record holds a string ID per string field, the story points, and the
+ * position of each list in the list section. String ID {@link #NULL_STRING}
+ * and list position {@link #NULL_LIST} stand for null values.
+ */
+final class SnapshotFormat {
+    
+    static final int MAGIC = 0x4a534e50; // "JSNP"
+    static final int VERSION = 1;
+    
+    static final int HEADER_MAGIC = 0;
+    static final int HEADER_VERSION = 4;
+    static final int HEADER_STORY_COUNT = 8;
+    static final int HEADER_STRING_COUNT = 12;
+    static final int HEADER_INDEX_CAPACITY = 16;
+    static final int HEADER_RECORDS = 20;
+    static final int HEADER_INDEX = 24;
+    static final int HEADER_LISTS = 28;
+    static final int HEADER_STRING_OFFSETS = 32;
+    static final int HEADER_STRING_DATA = 36;
+    static final int HEADER_SIZE = 40;
+    
+    static final int NULL_STRING = -1;
+    static final int NULL_LIST = -1;
+    
+    // String fields, in record order
+    static final int ID = 0;
+    static final int KEY = 1;
+    static final int SELF = 2;
+    static final int SUMMARY = 3;
+    static final int DESCRIPTION = 4;
+    static final int ISSUE_TYPE_ID = 5;
+    static final int ISSUE_TYPE_NAME = 6;
+    static final int STATUS_ID = 7;
+    static final int STATUS_NAME = 8;
+    static final int PRIORITY_ID = 9;
+    static final int PRIORITY_NAME = 10;
+    static final int ASSIGNEE_ACCOUNT_ID = 11;
+    static final int ASSIGNEE_NAME = 12;
+    static final int ASSIGNEE_EMAIL = 13;
+    static final int REPORTER_ACCOUNT_ID = 14;
+    static final int REPORTER_NAME = 15;
+    static final int REPORTER_EMAIL = 16;
+    static final int CREATED = 17;
+    static final int UPDATED = 18;
+    static final int ACCEPTANCE_CRITERIA = 19;
+    static final int EPIC_LINK = 20;
+    static final int PARENT_ID = 21;
+    static final int PARENT_KEY = 22;
+    static final int STRING_FIELD_COUNT = 23;
+    
+    // List fields, in record order
+    static final int SPRINT = 0;
+    static final int LABELS = 1;
+    static final int COMPONENTS = 2;
+    static final int FIX_VERSIONS = 3;
+    static final int ISSUE_LINKS = 4;
+    static final int LIST_FIELD_COUNT = 5;
+    
+    /**
+     * String IDs per list entry, indexed by list field
+     */
+    static final int[] LIST_ENTRY_WIDTH = {1, 1, 2, 2, 6};
+    
+    static final int STORY_POINTS_POSITION = STRING_FIELD_COUNT * 4;
+    static final int LISTS_POSITION = STORY_POINTS_POSITION + 8;
+    static final int RECORD_SIZE = LISTS_POSITION + LIST_FIELD_COUNT * 4;
+    
+    private SnapshotFormat() {
+    }
+    
+    /**
+     * Hash used for the key index; String.hashCode is fixed by the language spec so it is stable across runs
+     */
+    static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+}
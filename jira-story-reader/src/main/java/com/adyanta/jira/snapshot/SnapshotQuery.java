@@ -0,0 +1,43 @@
+package com.adyanta.jira.snapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One JQL search planned by a {@link SnapshotBuilder}, with the projects, sprints,
+ * boards, filters or queries it was planned for. Sources that select the same issues,
+ * such as a board and its saved filter, share one query.
+ */
+public final class SnapshotQuery {
+    
+    private final String jql;
+    private final List<String> sources = new ArrayList<>();
+    
+    SnapshotQuery(String jql, String source) {
+        this.jql = jql;
+        this.sources.add(source);
+    }
+    
+    void addSource(String source) {
+        if (!sources.contains(source)) {
+            sources.add(source);
+        }
+    }
+    
+    public String getJql() {
+        return jql;
+    }
+    
+    /**
+     * Descriptions of what the query was planned for, e.g. "project PROJ" or "board 12"
+     */
+    public List<String> getSources() {
+        return Collections.unmodifiableList(sources);
+    }
+    
+    @Override
+    public String toString() {
+        return String.join(", ", sources) + ": " + jql;
+    }
+}
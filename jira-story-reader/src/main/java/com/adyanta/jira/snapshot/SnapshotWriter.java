@@ -0,0 +1,347 @@
+package com.adyanta.jira.snapshot;
+
+import com.adyanta.jira.model.JiraStory;
+import com.adyanta.jira.service.JiraStoryReaderService;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.adyanta.jira.snapshot.SnapshotFormat.*;
+
+/**
+ * Collects stories and writes them as a binary snapshot that {@link StorySnapshot}
+ * maps into memory. Repeated strings such as status and assignee names are stored
+ * once. The file is written when the writer is closed, replacing any existing file
+ * atomically; a story written twice keeps its last version, and strings and lists only
+ * its earlier versions used are dropped.
+ */
+public class SnapshotWriter implements JiraStoryReaderService.StoryConsumer, AutoCloseable {
+    
+    private final Path file;
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Record> records = new LinkedHashMap<>();
+    private final ByteArrayOutputStream listBytes = new ByteArrayOutputStream();
+    private final DataOutputStream lists = new DataOutputStream(listBytes);
+    private boolean replaced;
+    private boolean closed;
+    
+    public SnapshotWriter(Path file) {
+        this.file = file;
+    }
+    
+    /**
+     * Write a collection of stories to a snapshot file
+     */
+    public static void write(Path file, Collection<JiraStory> stories) throws IOException {
+        try (SnapshotWriter writer = new SnapshotWriter(file)) {
+            for (JiraStory story : stories) {
+                writer.accept(story);
+            }
+        }
+    }
+    
+    @Override
+    public void accept(JiraStory story) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Snapshot writer is closed");
+        }
+        if (story == null || story.getKey() == null) {
+            return;
+        }
+        
+        Record record = new Record();
+        record.strings[ID] = stringId(story.getId());
+        record.strings[KEY] = stringId(story.getKey());
+        record.strings[SELF] = stringId(story.getSelf());
+        
+        JiraStory.Fields fields = story.getFields();
+        if (fields != null) {
+            record.strings[SUMMARY] = stringId(fields.getSummary());
+            record.strings[DESCRIPTION] = stringId(fields.getDescription());
+            if (fields.getIssueType() != null) {
+                record.strings[ISSUE_TYPE_ID] = stringId(fields.getIssueType().getId());
+                record.strings[ISSUE_TYPE_NAME] = stringId(fields.getIssueType().getName());
+            }
+            if (fields.getStatus() != null) {
+                record.strings[STATUS_ID] = stringId(fields.getStatus().getId());
+                record.strings[STATUS_NAME] = stringId(fields.getStatus().getName());
+            }
+            if (fields.getPriority() != null) {
+                record.strings[PRIORITY_ID] = stringId(fields.getPriority().getId());
+                record.strings[PRIORITY_NAME] = stringId(fields.getPriority().getName());
+            }
+            if (fields.getAssignee() != null) {
+                record.strings[ASSIGNEE_ACCOUNT_ID] = stringId(fields.getAssignee().getAccountId());
+                record.strings[ASSIGNEE_NAME] = stringId(fields.getAssignee().getDisplayName());
+                record.strings[ASSIGNEE_EMAIL] = stringId(fields.getAssignee().getEmailAddress());
+            }
+            if (fields.getReporter() != null) {
+                record.strings[REPORTER_ACCOUNT_ID] = stringId(fields.getReporter().getAccountId());
+                record.strings[REPORTER_NAME] = stringId(fields.getReporter().getDisplayName());
+                record.strings[REPORTER_EMAIL] = stringId(fields.getReporter().getEmailAddress());
+            }
+            record.strings[CREATED] = stringId(fields.getCreated());
+            record.strings[UPDATED] = stringId(fields.getUpdated());
+            record.strings[ACCEPTANCE_CRITERIA] = stringId(fields.getFirstAvailableAcceptanceCriteria());
+            record.strings[EPIC_LINK] = stringId(fields.getEpicLink());
+            if (fields.getParent() != null) {
+                record.strings[PARENT_ID] = stringId(fields.getParent().getId());
+                record.strings[PARENT_KEY] = stringId(fields.getParent().getKey());
+            }
+            record.storyPoints = fields.getStoryPoints() != null ? fields.getStoryPoints() : Double.NaN;
+            
+            record.lists[SPRINT] = writeStringList(fields.getSprint());
+            record.lists[LABELS] = writeStringList(fields.getLabels());
+            record.lists[COMPONENTS] = writeComponents(fields.getComponents());
+            record.lists[FIX_VERSIONS] = writeVersions(fields.getFixVersions());
+            record.lists[ISSUE_LINKS] = writeLinks(fields.getIssueLinks());
+        }
+        if (records.put(story.getKey(), record) != null) {
+            replaced = true;
+        }
+    }
+    
+    public int getStoriesWritten() {
+        return records.size();
+    }
+    
+    private int stringId(String value) {
+        if (value == null) {
+            return NULL_STRING;
+        }
+        return stringIds.computeIfAbsent(value, v -> {
+            strings.add(v);
+            return strings.size() - 1;
+        });
+    }
+    
+    private int writeStringList(List<String> values) throws IOException {
+        if (values == null) {
+            return NULL_LIST;
+        }
+        int position = lists.size();
+        lists.writeInt(values.size());
+        for (String value : values) {
+            lists.writeInt(stringId(value));
+        }
+        return position;
+    }
+    
+    private int writeComponents(List<JiraStory.Component> components) throws IOException {
+        if (components == null) {
+            return NULL_LIST;
+        }
+        int position = lists.size();
+        lists.writeInt(components.size());
+        for (JiraStory.Component component : components) {
+            lists.writeInt(component != null ? stringId(component.getId()) : NULL_STRING);
+            lists.writeInt(component != null ? stringId(component.getName()) : NULL_STRING);
+        }
+        return position;
+    }
+    
+    private int writeVersions(List<JiraStory.Version> versions) throws IOException {
+        if (versions == null) {
+            return NULL_LIST;
+        }
+        int position = lists.size();
+        lists.writeInt(versions.size());
+        for (JiraStory.Version version : versions) {
+            lists.writeInt(version != null ? stringId(version.getId()) : NULL_STRING);
+            lists.writeInt(version != null ? stringId(version.getName()) : NULL_STRING);
+        }
+        return position;
+    }
+    
+    private int writeLinks(List<JiraStory.IssueLink> links) throws IOException {
+        if (links == null) {
+            return NULL_LIST;
+        }
+        int position = lists.size();
+        lists.writeInt(links.size());
+        for (JiraStory.IssueLink link : links) {
+            JiraStory.LinkType type = link != null ? link.getType() : null;
+            lists.writeInt(link != null ? stringId(link.getId()) : NULL_STRING);
+            lists.writeInt(type != null ? stringId(type.getName()) : NULL_STRING);
+            lists.writeInt(type != null ? stringId(type.getInward()) : NULL_STRING);
+            lists.writeInt(type != null ? stringId(type.getOutward()) : NULL_STRING);
+            lists.writeInt(link != null && link.getInwardIssue() != null
+                    ? stringId(link.getInwardIssue().getKey()) : NULL_STRING);
+            lists.writeInt(link != null && link.getOutwardIssue() != null
+                    ? stringId(link.getOutwardIssue().getKey()) : NULL_STRING);
+        }
+        return position;
+    }
+    
+    /**
+     * Write the snapshot file
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (replaced) {
+            compact();
+        }
+        
+        byte[][] encoded = new byte[strings.size()][];
+        long stringDataSize = 0;
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = strings.get(i).getBytes(StandardCharsets.UTF_8);
+            stringDataSize += encoded[i].length;
+        }
+        
+        int storyCount = records.size();
+        int indexCapacity = indexCapacity(storyCount);
+        long recordsStart = HEADER_SIZE;
+        long indexStart = recordsStart + (long) storyCount * RECORD_SIZE;
+        long listsStart = indexStart + (long) indexCapacity * 8;
+        long stringOffsetsStart = listsStart + listBytes.size();
+        long stringDataStart = stringOffsetsStart + (encoded.length + 1L) * 4;
+        if (stringDataStart + stringDataSize > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot of " + storyCount + " stories exceeds the 2 GB limit of a single mapping");
+        }
+        
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 65536))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(storyCount);
+                out.writeInt(encoded.length);
+                out.writeInt(indexCapacity);
+                out.writeInt((int) recordsStart);
+                out.writeInt((int) indexStart);
+                out.writeInt((int) listsStart);
+                out.writeInt((int) stringOffsetsStart);
+                out.writeInt((int) stringDataStart);
+                
+                for (Record record : records.values()) {
+                    for (int id : record.strings) {
+                        out.writeInt(id);
+                    }
+                    out.writeDouble(record.storyPoints);
+                    for (int position : record.lists) {
+                        out.writeInt(position);
+                    }
+                }
+                
+                for (int slot : buildIndex(indexCapacity)) {
+                    out.writeInt(slot);
+                }
+                
+                listBytes.writeTo(out);
+                
+                int offset = 0;
+                out.writeInt(offset);
+                for (byte[] bytes : encoded) {
+                    offset += bytes.length;
+                    out.writeInt(offset);
+                }
+                for (byte[] bytes : encoded) {
+                    out.write(bytes);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    /**
+     * Renumber the strings and rewrite the lists the current records refer to,
+     * leaving out what only replaced versions of a story used
+     */
+    private void compact() throws IOException {
+        List<String> oldStrings = new ArrayList<>(strings);
+        ByteBuffer oldLists = ByteBuffer.wrap(listBytes.toByteArray());
+        stringIds.clear();
+        strings.clear();
+        ByteArrayOutputStream compactedBytes = new ByteArrayOutputStream(oldLists.capacity());
+        DataOutputStream compacted = new DataOutputStream(compactedBytes);
+        
+        for (Record record : records.values()) {
+            for (int field = 0; field < STRING_FIELD_COUNT; field++) {
+                record.strings[field] = renumber(oldStrings, record.strings[field]);
+            }
+            for (int field = 0; field < LIST_FIELD_COUNT; field++) {
+                int position = record.lists[field];
+                if (position == NULL_LIST) {
+                    continue;
+                }
+                record.lists[field] = compacted.size();
+                int count = oldLists.getInt(position);
+                compacted.writeInt(count);
+                for (int i = 0; i < count * LIST_ENTRY_WIDTH[field]; i++) {
+                    compacted.writeInt(renumber(oldStrings, oldLists.getInt(position + 4 + i * 4)));
+                }
+            }
+        }
+        listBytes.reset();
+        compactedBytes.writeTo(listBytes);
+    }
+    
+    private int renumber(List<String> oldStrings, int id) {
+        return id == NULL_STRING ? NULL_STRING : stringId(oldStrings.get(id));
+    }
+    
+    private static int indexCapacity(int storyCount) {
+        int capacity = 2;
+        while (capacity < storyCount * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+    
+    /**
+     * Hash table of (key hash, record number + 1) pairs with linear probing; 0 marks an empty slot
+     */
+    private int[] buildIndex(int capacity) {
+        int[] slots = new int[capacity * 2];
+        int mask = capacity - 1;
+        int recordNumber = 0;
+        for (String key : records.keySet()) {
+            int hash = hash(key);
+            int slot = hash & mask;
+            while (slots[slot * 2 + 1] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot * 2] = hash;
+            slots[slot * 2 + 1] = recordNumber + 1;
+            recordNumber++;
+        }
+        return slots;
+    }
+    
+    private static final class Record {
+        private final int[] strings = new int[STRING_FIELD_COUNT];
+        private final int[] lists = new int[LIST_FIELD_COUNT];
+        private double storyPoints = Double.NaN;
+        
+        private Record() {
+            Arrays.fill(strings, NULL_STRING);
+            Arrays.fill(lists, NULL_LIST);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.adyanta.jira.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static com.adyanta.jira.snapshot.SnapshotFormat.*;
+
+/**
+ * Read-only story snapshot mapped into memory from a file written by {@link SnapshotWriter}.
+ * Opening only maps the file and checks its header; stories are accessed through
+ * {@link StoryView}s that decode each field when it is read, so nothing is parsed
+ * or copied onto the heap up front. A snapshot can be shared between threads.
+ * The mapping is released when the snapshot is garbage collected.
+ */
+public final class StorySnapshot implements Iterable<StoryView> {
+    
+    private final Path file;
+    private final ByteBuffer buffer;
+    private final int storyCount;
+    private final int stringCount;
+    private final int indexCapacity;
+    private final int recordsStart;
+    private final int indexStart;
+    private final int listsStart;
+    private final int stringOffsetsStart;
+    private final int stringDataStart;
+    
+    private StorySnapshot(Path file, ByteBuffer buffer) throws IOException {
+        this.file = file;
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(HEADER_MAGIC) != MAGIC) {
+            throw new IOException("Not a story snapshot: " + file);
+        }
+        int version = buffer.getInt(HEADER_VERSION);
+        if (version != VERSION) {
+            throw new IOException("Unsupported story snapshot version " + version + ": " + file);
+        }
+        this.storyCount = buffer.getInt(HEADER_STORY_COUNT);
+        this.stringCount = buffer.getInt(HEADER_STRING_COUNT);
+        this.indexCapacity = buffer.getInt(HEADER_INDEX_CAPACITY);
+        this.recordsStart = buffer.getInt(HEADER_RECORDS);
+        this.indexStart = buffer.getInt(HEADER_INDEX);
+        this.listsStart = buffer.getInt(HEADER_LISTS);
+        this.stringOffsetsStart = buffer.getInt(HEADER_STRING_OFFSETS);
+        this.stringDataStart = buffer.getInt(HEADER_STRING_DATA);
+        // Sections must follow each other in order and fit the file before any of them is read
+        long recordsEnd = recordsStart + (long) storyCount * RECORD_SIZE;
+        long indexEnd = indexStart + (long) indexCapacity * 8;
+        long stringOffsetsEnd = stringOffsetsStart + ((long) stringCount + 1) * 4;
+        if (storyCount < 0 || stringCount < 0 || Integer.bitCount(indexCapacity) != 1 || indexCapacity <= storyCount
+                || recordsStart < HEADER_SIZE || indexStart < recordsEnd || listsStart < indexEnd
+                || stringOffsetsStart < listsStart || stringDataStart < stringOffsetsEnd) {
+            throw new IOException("Corrupt story snapshot header: " + file);
+        }
+        if (stringDataStart > buffer.limit()
+                || stringDataStart + buffer.getInt(stringOffsetsStart + stringCount * 4) != buffer.limit()) {
+            throw new IOException("Truncated story snapshot: " + file);
+        }
+    }
+    
+    /**
+     * Map a snapshot file into memory
+     */
+    public static StorySnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Story snapshot larger than 2 GB: " + file);
+            }
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return new StorySnapshot(file, mapped);
+        }
+    }
+    
+    public Path getFile() {
+        return file;
+    }
+    
+    public int size() {
+        return storyCount;
+    }
+    
+    /**
+     * View of the story with the given key, or null if the snapshot does not contain it
+     */
+    public StoryView get(String key) {
+        int hash = hash(key);
+        int mask = indexCapacity - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int slotPosition = indexStart + slot * 8;
+            int recordNumber = buffer.getInt(slotPosition + 4) - 1;
+            if (recordNumber < 0) {
+                return null;
+            }
+            if (buffer.getInt(slotPosition) == hash) {
+                StoryView view = get(recordNumber);
+                if (key.equals(view.getKey())) {
+                    return view;
+                }
+            }
+        }
+    }
+    
+    /**
+     * View of the story at the given position, in the order the stories were written
+     */
+    public StoryView get(int index) {
+        if (index < 0 || index >= storyCount) {
+            throw new IndexOutOfBoundsException("Story " + index + " of " + storyCount);
+        }
+        return new StoryView(this, recordsStart + index * RECORD_SIZE);
+    }
+    
+    public boolean contains(String key) {
+        return get(key) != null;
+    }
+    
+    @Override
+    public Iterator<StoryView> iterator() {
+        return new Iterator<StoryView>() {
+            private int next;
+            
+            @Override
+            public boolean hasNext() {
+                return next < storyCount;
+            }
+            
+            @Override
+            public StoryView next() {
+                if (next >= storyCount) {
+                    throw new NoSuchElementException();
+                }
+                return get(next++);
+            }
+        };
+    }
+    
+    String stringField(int record, int field) {
+        return string(buffer.getInt(record + field * 4));
+    }
+    
+    Double storyPoints(int record) {
+        double points = buffer.getDouble(record + STORY_POINTS_POSITION);
+        return Double.isNaN(points) ? null : points;
+    }
+    
+    /**
+     * Position of a list in the buffer, or -1 for a null list
+     */
+    int list(int record, int field) {
+        int position = buffer.getInt(record + LISTS_POSITION + field * 4);
+        return position == NULL_LIST ? -1 : listsStart + position;
+    }
+    
+    int listSize(int list) {
+        return buffer.getInt(list);
+    }
+    
+    String listString(int list, int field, int entry, int column) {
+        return string(buffer.getInt(list + 4 + (entry * LIST_ENTRY_WIDTH[field] + column) * 4));
+    }
+    
+    private String string(int id) {
+        if (id == NULL_STRING) {
+            return null;
+        }
+        int start = buffer.getInt(stringOffsetsStart + id * 4);
+        int end = buffer.getInt(stringOffsetsStart + (id + 1) * 4);
+        byte[] bytes = new byte[end - start];
+        // Duplicate so concurrent readers do not share a position
+        ByteBuffer view = buffer.duplicate();
+        view.position(stringDataStart + start);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    @Override
+    public String toString() {
+        return "StorySnapshot{" + file + ", stories=" + storyCount + ", strings=" + stringCount + '}';
+    }
+}
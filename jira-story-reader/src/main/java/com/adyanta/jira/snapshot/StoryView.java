@@ -0,0 +1,293 @@
+package com.adyanta.jira.snapshot;
+
+import com.adyanta.jira.model.JiraStory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.adyanta.jira.snapshot.SnapshotFormat.*;
+
+/**
+ * Lazy view of one story in a {@link StorySnapshot}. The view only holds the
+ * record position; each getter decodes its field from the mapped file when it
+ * is called, so reading the status of every story never touches descriptions.
+ * Use {@link #toJiraStory()} where a full story object is needed.
+ */
+public final class StoryView {
+    
+    private final StorySnapshot snapshot;
+    private final int record;
+    
+    StoryView(StorySnapshot snapshot, int record) {
+        this.snapshot = snapshot;
+        this.record = record;
+    }
+    
+    public String getId() {
+        return snapshot.stringField(record, ID);
+    }
+    
+    public String getKey() {
+        return snapshot.stringField(record, KEY);
+    }
+    
+    public String getSelf() {
+        return snapshot.stringField(record, SELF);
+    }
+    
+    public String getSummary() {
+        return snapshot.stringField(record, SUMMARY);
+    }
+    
+    public String getDescription() {
+        return snapshot.stringField(record, DESCRIPTION);
+    }
+    
+    public String getIssueTypeName() {
+        return snapshot.stringField(record, ISSUE_TYPE_NAME);
+    }
+    
+    public String getStatusId() {
+        return snapshot.stringField(record, STATUS_ID);
+    }
+    
+    public String getStatusName() {
+        return snapshot.stringField(record, STATUS_NAME);
+    }
+    
+    public String getPriorityName() {
+        return snapshot.stringField(record, PRIORITY_NAME);
+    }
+    
+    public String getAssigneeName() {
+        return snapshot.stringField(record, ASSIGNEE_NAME);
+    }
+    
+    public String getAssigneeAccountId() {
+        return snapshot.stringField(record, ASSIGNEE_ACCOUNT_ID);
+    }
+    
+    public String getReporterName() {
+        return snapshot.stringField(record, REPORTER_NAME);
+    }
+    
+    public String getCreated() {
+        return snapshot.stringField(record, CREATED);
+    }
+    
+    public String getUpdated() {
+        return snapshot.stringField(record, UPDATED);
+    }
+    
+    public String getAcceptanceCriteria() {
+        return snapshot.stringField(record, ACCEPTANCE_CRITERIA);
+    }
+    
+    public String getEpicLink() {
+        return snapshot.stringField(record, EPIC_LINK);
+    }
+    
+    /**
+     * Key of the parent issue, falling back to the epic link
+     */
+    public String getParentKey() {
+        String parentKey = snapshot.stringField(record, PARENT_KEY);
+        return parentKey != null ? parentKey : getEpicLink();
+    }
+    
+    public Double getStoryPoints() {
+        return snapshot.storyPoints(record);
+    }
+    
+    public List<String> getSprint() {
+        return listColumn(SPRINT, 0);
+    }
+    
+    public List<String> getLabels() {
+        return listColumn(LABELS, 0);
+    }
+    
+    public List<String> getComponentNames() {
+        return listColumn(COMPONENTS, 1);
+    }
+    
+    public List<String> getFixVersionNames() {
+        return listColumn(FIX_VERSIONS, 1);
+    }
+    
+    /**
+     * Keys of the issues on the other end of each link
+     */
+    public List<String> getLinkedKeys() {
+        int list = snapshot.list(record, ISSUE_LINKS);
+        if (list < 0) {
+            return Collections.emptyList();
+        }
+        int size = snapshot.listSize(list);
+        List<String> keys = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String outward = snapshot.listString(list, ISSUE_LINKS, i, 5);
+            keys.add(outward != null ? outward : snapshot.listString(list, ISSUE_LINKS, i, 4));
+        }
+        return keys;
+    }
+    
+    private List<String> listColumn(int field, int column) {
+        int list = snapshot.list(record, field);
+        if (list < 0) {
+            return Collections.emptyList();
+        }
+        int size = snapshot.listSize(list);
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(snapshot.listString(list, field, i, column));
+        }
+        return values;
+    }
+    
+    private List<String> nullableList(int field) {
+        return snapshot.list(record, field) < 0 ? null : listColumn(field, 0);
+    }
+    
+    /**
+     * Decode every field into a regular story object
+     */
+    public JiraStory toJiraStory() {
+        JiraStory story = new JiraStory();
+        story.setId(getId());
+        story.setKey(getKey());
+        story.setSelf(getSelf());
+        
+        JiraStory.Fields fields = new JiraStory.Fields();
+        fields.setSummary(getSummary());
+        fields.setDescription(getDescription());
+        if (snapshot.stringField(record, ISSUE_TYPE_ID) != null || getIssueTypeName() != null) {
+            JiraStory.IssueType issueType = new JiraStory.IssueType();
+            issueType.setId(snapshot.stringField(record, ISSUE_TYPE_ID));
+            issueType.setName(getIssueTypeName());
+            fields.setIssueType(issueType);
+        }
+        if (getStatusId() != null || getStatusName() != null) {
+            JiraStory.Status status = new JiraStory.Status();
+            status.setId(getStatusId());
+            status.setName(getStatusName());
+            fields.setStatus(status);
+        }
+        if (snapshot.stringField(record, PRIORITY_ID) != null || getPriorityName() != null) {
+            JiraStory.Priority priority = new JiraStory.Priority();
+            priority.setId(snapshot.stringField(record, PRIORITY_ID));
+            priority.setName(getPriorityName());
+            fields.setPriority(priority);
+        }
+        fields.setAssignee(user(ASSIGNEE_ACCOUNT_ID, ASSIGNEE_NAME, ASSIGNEE_EMAIL));
+        fields.setReporter(user(REPORTER_ACCOUNT_ID, REPORTER_NAME, REPORTER_EMAIL));
+        fields.setCreated(getCreated());
+        fields.setUpdated(getUpdated());
+        fields.setAcceptanceCriteria(getAcceptanceCriteria());
+        fields.setEpicLink(getEpicLink());
+        String parentKey = snapshot.stringField(record, PARENT_KEY);
+        String parentId = snapshot.stringField(record, PARENT_ID);
+        if (parentKey != null || parentId != null) {
+            JiraStory.IssueRef parent = new JiraStory.IssueRef();
+            parent.setId(parentId);
+            parent.setKey(parentKey);
+            fields.setParent(parent);
+        }
+        fields.setStoryPoints(getStoryPoints());
+        fields.setSprint(nullableList(SPRINT));
+        fields.setLabels(nullableList(LABELS));
+        fields.setComponents(components());
+        fields.setFixVersions(fixVersions());
+        fields.setIssueLinks(issueLinks());
+        story.setFields(fields);
+        return story;
+    }
+    
+    private JiraStory.User user(int accountIdField, int nameField, int emailField) {
+        String accountId = snapshot.stringField(record, accountIdField);
+        String displayName = snapshot.stringField(record, nameField);
+        String email = snapshot.stringField(record, emailField);
+        if (accountId == null && displayName == null && email == null) {
+            return null;
+        }
+        JiraStory.User user = new JiraStory.User();
+        user.setAccountId(accountId);
+        user.setDisplayName(displayName);
+        user.setEmailAddress(email);
+        return user;
+    }
+    
+    private List<JiraStory.Component> components() {
+        int list = snapshot.list(record, COMPONENTS);
+        if (list < 0) {
+            return null;
+        }
+        int size = snapshot.listSize(list);
+        List<JiraStory.Component> components = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            JiraStory.Component component = new JiraStory.Component();
+            component.setId(snapshot.listString(list, COMPONENTS, i, 0));
+            component.setName(snapshot.listString(list, COMPONENTS, i, 1));
+            components.add(component);
+        }
+        return components;
+    }
+    
+    private List<JiraStory.Version> fixVersions() {
+        int list = snapshot.list(record, FIX_VERSIONS);
+        if (list < 0) {
+            return null;
+        }
+        int size = snapshot.listSize(list);
+        List<JiraStory.Version> versions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            JiraStory.Version version = new JiraStory.Version();
+            version.setId(snapshot.listString(list, FIX_VERSIONS, i, 0));
+            version.setName(snapshot.listString(list, FIX_VERSIONS, i, 1));
+            versions.add(version);
+        }
+        return versions;
+    }
+    
+    private List<JiraStory.IssueLink> issueLinks() {
+        int list = snapshot.list(record, ISSUE_LINKS);
+        if (list < 0) {
+            return null;
+        }
+        int size = snapshot.listSize(list);
+        List<JiraStory.IssueLink> links = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            JiraStory.IssueLink link = new JiraStory.IssueLink();
+            link.setId(snapshot.listString(list, ISSUE_LINKS, i, 0));
+            String typeName = snapshot.listString(list, ISSUE_LINKS, i, 1);
+            String inward = snapshot.listString(list, ISSUE_LINKS, i, 2);
+            String outward = snapshot.listString(list, ISSUE_LINKS, i, 3);
+            if (typeName != null || inward != null || outward != null) {
+                JiraStory.LinkType type = new JiraStory.LinkType();
+                type.setName(typeName);
+                type.setInward(inward);
+                type.setOutward(outward);
+                link.setType(type);
+            }
+            link.setInwardIssue(issueRef(snapshot.listString(list, ISSUE_LINKS, i, 4)));
+            link.setOutwardIssue(issueRef(snapshot.listString(list, ISSUE_LINKS, i, 5)));
+            links.add(link);
+        }
+        return links;
+    }
+    
+    private static JiraStory.IssueRef issueRef(String key) {
+        if (key == null) {
+            return null;
+        }
+        JiraStory.IssueRef ref = new JiraStory.IssueRef();
+        ref.setKey(key);
+        return ref;
+    }
+    
+    @Override
+    public String toString() {
+        return "StoryView{" + getKey() + '}';
+    }
+}
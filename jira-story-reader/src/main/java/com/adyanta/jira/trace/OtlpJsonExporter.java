@@ -0,0 +1,135 @@
+package com.adyanta.jira.trace;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Appends spans to a file in the OTLP JSON encoding, one export request per line,
+ * the same layout the OpenTelemetry Collector's file exporter writes and its
+ * otlpjsonfile receiver reads.
+ */
+public class OtlpJsonExporter implements Closeable {
+    
+    public static final String SERVICE_NAME = "jira-story-reader";
+    public static final String SCOPE_NAME = "com.adyanta.jira";
+    
+    private static final int STATUS_ERROR = 2;
+    
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final OutputStream out;
+    
+    public OtlpJsonExporter(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.out = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+    
+    /**
+     * Write one line holding the given spans
+     *
+     * @param epochOffsetNanos added to span nano times to get Unix epoch nanoseconds
+     */
+    public void export(List<Span> spans, long epochOffsetNanos) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(256 * spans.size());
+        try (JsonGenerator generator = jsonFactory.createGenerator(line, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("resourceSpans");
+            generator.writeStartObject();
+            
+            generator.writeObjectFieldStart("resource");
+            generator.writeArrayFieldStart("attributes");
+            writeAttribute(generator, "service.name", SERVICE_NAME);
+            generator.writeEndArray();
+            generator.writeEndObject();
+            
+            generator.writeArrayFieldStart("scopeSpans");
+            generator.writeStartObject();
+            generator.writeObjectFieldStart("scope");
+            generator.writeStringField("name", SCOPE_NAME);
+            generator.writeEndObject();
+            generator.writeArrayFieldStart("spans");
+            for (Span span : spans) {
+                writeSpan(generator, span, epochOffsetNanos);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeEndArray();
+            
+            generator.writeEndObject();
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        line.write('\n');
+        
+        synchronized (out) {
+            line.writeTo(out);
+            out.flush();
+        }
+    }
+    
+    private static void writeSpan(JsonGenerator generator, Span span, long epochOffsetNanos) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("traceId", span.getTraceId());
+        generator.writeStringField("spanId", span.getSpanId());
+        if (span.getParent() != null) {
+            generator.writeStringField("parentSpanId", span.getParent().getSpanId());
+        }
+        generator.writeStringField("name", span.getName());
+        generator.writeNumberField("kind", span.getKind().getCode());
+        // 64-bit integers are strings in OTLP JSON
+        generator.writeStringField("startTimeUnixNano", Long.toString(span.getStartNanos() + epochOffsetNanos));
+        generator.writeStringField("endTimeUnixNano", Long.toString(span.getEndNanos() + epochOffsetNanos));
+        
+        if (!span.getAttributes().isEmpty()) {
+            generator.writeArrayFieldStart("attributes");
+            for (Map.Entry<String, Object> attribute : span.getAttributes().entrySet()) {
+                writeAttribute(generator, attribute.getKey(), attribute.getValue());
+            }
+            generator.writeEndArray();
+        }
+        if (span.getErrorMessage() != null) {
+            generator.writeObjectFieldStart("status");
+            generator.writeNumberField("code", STATUS_ERROR);
+            generator.writeStringField("message", span.getErrorMessage());
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+    }
+    
+    private static void writeAttribute(JsonGenerator generator, String key, Object value) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("key", key);
+        generator.writeObjectFieldStart("value");
+        if (value instanceof Boolean) {
+            generator.writeBooleanField("boolValue", (Boolean) value);
+        } else if (value instanceof Integer || value instanceof Long) {
+            generator.writeStringField("intValue", value.toString());
+        } else if (value instanceof Number) {
+            generator.writeNumberField("doubleValue", ((Number) value).doubleValue());
+        } else {
+            generator.writeStringField("stringValue", String.valueOf(value));
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        synchronized (out) {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.adyanta.jira.trace;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A timed stage of a traced operation. Spans are started by a {@link Tracer},
+ * become the current span of the starting thread, and are ended by closing them.
+ * When tracing is disabled all spans are the shared no-op {@link #NOOP}.
+ */
+public final class Span implements AutoCloseable {
+    
+    /**
+     * Span kinds as numbered by OpenTelemetry
+     */
+    public enum Kind {
+        INTERNAL(1),
+        CLIENT(3);
+        
+        private final int code;
+        
+        Kind(int code) {
+            this.code = code;
+        }
+        
+        public int getCode() {
+            return code;
+        }
+    }
+    
+    static final Span NOOP = new Span(null, null, null, null, "noop", Kind.INTERNAL, 0);
+    
+    private final Tracer tracer;
+    private final String traceId;
+    private final String spanId;
+    private final Span parent;
+    private final String name;
+    private final Kind kind;
+    private final long startNanos;
+    private final Map<String, Object> attributes;
+    private Span previous;
+    private long endNanos;
+    private String errorMessage;
+    private boolean ended;
+    
+    Span(Tracer tracer, String traceId, String spanId, Span parent, String name, Kind kind, long startNanos) {
+        this.tracer = tracer;
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parent = parent;
+        this.name = name;
+        this.kind = kind;
+        this.startNanos = startNanos;
+        this.attributes = tracer != null ? new LinkedHashMap<>() : Collections.emptyMap();
+    }
+    
+    /**
+     * Attach a string, number or boolean attribute
+     */
+    public Span setAttribute(String key, Object value) {
+        if (tracer != null && value != null) {
+            attributes.put(key, value);
+        }
+        return this;
+    }
+    
+    /**
+     * Mark the span as failed
+     */
+    public Span setError(String message) {
+        if (tracer != null) {
+            this.errorMessage = message != null ? message : "error";
+        }
+        return this;
+    }
+    
+    public boolean isRecording() {
+        return tracer != null;
+    }
+    
+    /**
+     * End the span and make its parent current again; ending twice has no effect
+     */
+    public void end() {
+        if (tracer == null || ended) {
+            return;
+        }
+        ended = true;
+        endNanos = System.nanoTime();
+        tracer.onEnd(this);
+    }
+    
+    @Override
+    public void close() {
+        end();
+    }
+    
+    public String getTraceId() {
+        return traceId;
+    }
+    
+    public String getSpanId() {
+        return spanId;
+    }
+    
+    public Span getParent() {
+        return parent;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public Kind getKind() {
+        return kind;
+    }
+    
+    public long getStartNanos() {
+        return startNanos;
+    }
+    
+    public long getEndNanos() {
+        return endNanos;
+    }
+    
+    public long getDurationNanos() {
+        return endNanos - startNanos;
+    }
+    
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+    
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+    
+    Span getPrevious() {
+        return previous;
+    }
+    
+    void setPrevious(Span previous) {
+        this.previous = previous;
+    }
+}
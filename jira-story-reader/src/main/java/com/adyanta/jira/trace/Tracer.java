@@ -0,0 +1,190 @@
+package com.adyanta.jira.trace;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Records timing spans for service calls and writes them to a local file as
+ * OpenTelemetry (OTLP) JSON. Each thread has a current span; new spans become
+ * its children, and the trace and span IDs of the current span are kept in the
+ * logging MDC under {@link #MDC_TRACE_ID} and {@link #MDC_SPAN_ID}.
+ * Finished spans are written when their trace's root span ends.
+ */
+public class Tracer implements AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(Tracer.class);
+    
+    public static final String MDC_TRACE_ID = "traceId";
+    public static final String MDC_SPAN_ID = "spanId";
+    
+    /**
+     * Finished spans held before they are written even though their root is still open
+     */
+    private static final int FLUSH_THRESHOLD = 1024;
+    
+    private static final Tracer DISABLED = new Tracer(null);
+    
+    private final OtlpJsonExporter exporter;
+    private final ThreadLocal<Span> current = new ThreadLocal<>();
+    private final List<Span> finished = new ArrayList<>();
+    private final long epochOffsetNanos;
+    
+    public Tracer(OtlpJsonExporter exporter) {
+        this.exporter = exporter;
+        this.epochOffsetNanos = System.currentTimeMillis() * 1_000_000L - System.nanoTime();
+    }
+    
+    /**
+     * A tracer that records nothing
+     */
+    public static Tracer disabled() {
+        return DISABLED;
+    }
+    
+    /**
+     * A tracer writing to the given file, or a disabled one when the file is not set or cannot be opened
+     */
+    public static Tracer forFile(String traceFile) {
+        if (traceFile == null || traceFile.trim().isEmpty()) {
+            return DISABLED;
+        }
+        Path file = Paths.get(traceFile.trim());
+        try {
+            return new Tracer(new OtlpJsonExporter(file));
+        } catch (IOException e) {
+            logger.warn("Failed to open trace file {}, tracing disabled: {}", file, e.getMessage());
+            return DISABLED;
+        }
+    }
+    
+    public boolean isEnabled() {
+        return exporter != null;
+    }
+    
+    /**
+     * Start a span as a child of this thread's current span
+     */
+    public Span startSpan(String name) {
+        return startSpan(name, Span.Kind.INTERNAL);
+    }
+    
+    public Span startSpan(String name, Span.Kind kind) {
+        if (exporter == null) {
+            return Span.NOOP;
+        }
+        return start(name, kind, current.get(), System.nanoTime());
+    }
+    
+    /**
+     * This thread's current span, or null
+     */
+    public Span currentSpan() {
+        return current.get();
+    }
+    
+    /**
+     * Carry the current span over to a task run on another thread. The task runs
+     * inside a span with the given name, preceded by a queue span covering the time
+     * between submission and the start of the task.
+     */
+    public <T> Callable<T> wrap(String name, Callable<T> task) {
+        if (exporter == null) {
+            return task;
+        }
+        Span parent = current.get();
+        long submittedNanos = System.nanoTime();
+        return () -> {
+            try (Span span = start(name, Span.Kind.INTERNAL, parent, submittedNanos)) {
+                start("queue", Span.Kind.INTERNAL, span, submittedNanos).end();
+                return task.call();
+            }
+        };
+    }
+    
+    private Span start(String name, Span.Kind kind, Span parent, long startNanos) {
+        String traceId = parent != null ? parent.getTraceId() : randomHex(2);
+        Span span = new Span(this, traceId, randomHex(1), parent, name, kind, startNanos);
+        span.setPrevious(current.get());
+        current.set(span);
+        MDC.put(MDC_TRACE_ID, traceId);
+        MDC.put(MDC_SPAN_ID, span.getSpanId());
+        return span;
+    }
+    
+    void onEnd(Span span) {
+        if (current.get() == span) {
+            Span previous = span.getPrevious();
+            if (previous != null) {
+                current.set(previous);
+                MDC.put(MDC_TRACE_ID, previous.getTraceId());
+                MDC.put(MDC_SPAN_ID, previous.getSpanId());
+            } else {
+                current.remove();
+                MDC.remove(MDC_TRACE_ID);
+                MDC.remove(MDC_SPAN_ID);
+            }
+        }
+        
+        boolean flush;
+        synchronized (finished) {
+            finished.add(span);
+            flush = span.getParent() == null || finished.size() >= FLUSH_THRESHOLD;
+        }
+        if (flush) {
+            flush();
+        }
+    }
+    
+    /**
+     * Write all finished spans
+     */
+    public void flush() {
+        List<Span> batch;
+        synchronized (finished) {
+            if (finished.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(finished);
+            finished.clear();
+        }
+        try {
+            exporter.export(batch, epochOffsetNanos);
+        } catch (IOException e) {
+            logger.warn("Failed to write {} spans: {}", batch.size(), e.getMessage());
+        }
+    }
+    
+    private static String randomHex(int longs) {
+        StringBuilder hex = new StringBuilder(longs * 16);
+        for (int i = 0; i < longs; i++) {
+            String part = Long.toHexString(ThreadLocalRandom.current().nextLong());
+            for (int pad = part.length(); pad < 16; pad++) {
+                hex.append('0');
+            }
+            hex.append(part);
+        }
+        return hex.toString();
+    }
+    
+    @Override
+    public void close() {
+        if (exporter == null) {
+            return;
+        }
+        flush();
+        try {
+            exporter.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close trace file: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.adyanta.jira.trace;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+import org.apache.http.ssl.SSLContexts;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Connection pool that records spans for leasing a connection, connecting and
+ * the TLS handshake. It uses the same socket factories as the default pool.
+ */
+public class TracingConnectionManager extends PoolingHttpClientConnectionManager {
+    
+    private final Supplier<Tracer> tracer;
+    
+    public TracingConnectionManager(Supplier<Tracer> tracer, long timeToLive, TimeUnit unit) {
+        super(RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", new TracingSslSocketFactory(tracer))
+                .build(), null, null, null, timeToLive, unit);
+        this.tracer = tracer;
+    }
+    
+    @Override
+    public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+        ConnectionRequest request = super.requestConnection(route, state);
+        return new ConnectionRequest() {
+            @Override
+            public HttpClientConnection get(long timeout, TimeUnit unit)
+                    throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                try (Span span = tracer.get().startSpan("connection.lease")) {
+                    return request.get(timeout, unit);
+                }
+            }
+            
+            @Override
+            public boolean cancel() {
+                return request.cancel();
+            }
+        };
+    }
+    
+    @Override
+    public void connect(HttpClientConnection managedConn, HttpRoute route, int connectTimeout, HttpContext context)
+            throws IOException {
+        try (Span span = tracer.get().startSpan("connect")) {
+            span.setAttribute("net.peer.name", route.getTargetHost().getHostName());
+            super.connect(managedConn, route, connectTimeout, context);
+        }
+    }
+    
+    /**
+     * Request executor recording the time from sending a request until its
+     * response headers arrive
+     */
+    public static HttpRequestExecutor requestExecutor(Supplier<Tracer> tracer) {
+        return new HttpRequestExecutor() {
+            @Override
+            public HttpResponse execute(HttpRequest request, HttpClientConnection conn, HttpContext context)
+                    throws IOException, HttpException {
+                try (Span span = tracer.get().startSpan("time_to_first_byte")) {
+                    return super.execute(request, conn, context);
+                }
+            }
+        };
+    }
+    
+    /**
+     * The default TLS socket factory with a span around the handshake
+     */
+    private static class TracingSslSocketFactory extends SSLConnectionSocketFactory {
+        private final Supplier<Tracer> tracer;
+        
+        private TracingSslSocketFactory(Supplier<Tracer> tracer) {
+            super(SSLContexts.createDefault(), getDefaultHostnameVerifier());
+            this.tracer = tracer;
+        }
+        
+        @Override
+        public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context) throws IOException {
+            try (Span span = tracer.get().startSpan("tls")) {
+                return super.createLayeredSocket(socket, target, port, context);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.adyanta.jira;
+
+import com.adyanta.jira.criteria.AcceptanceCriteriaParser;
+import com.adyanta.jira.criteria.Criterion;
+import com.adyanta.jira.criteria.ParsedCriteria;
+import com.adyanta.jira.criteria.Scenario;
+import com.adyanta.jira.model.JiraStory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for structured acceptance criteria parsing.
+ */
+public class AcceptanceCriteriaParserTest {
+    
+    @Test
+    void testParsesListsCheckboxesAndSteps() {
+        String text = "h3. Export\n"
+                + "* Users can export stories\n"
+                + "** Including sub-tasks\n"
+                + "- [x] CSV format\n"
+                + "- [ ] Markdown format\n"
+                + "(/) Gzip option\n"
+                + "\n"
+                + "Scenario: Export a sprint\n"
+                + "*Given* a sprint with 3 stories\n"
+                + "And the user is logged in\n"
+                + "When they export it\n"
+                + "Then the file has 3 rows\n"
+                + "But no sub-tasks\n"
+                + "Given an empty sprint\n"
+                + "When they export it\n"
+                + "Then the file is empty\n"
+                + "Notes apply to all formats";
+        
+        ParsedCriteria parsed = AcceptanceCriteriaParser.parse(text);
+        List<Criterion> items = parsed.getItems();
+        
+        assertEquals(Criterion.Type.HEADING, items.get(0).getType());
+        assertEquals("Export", items.get(0).getText());
+        assertEquals(Criterion.Type.BULLET, items.get(1).getType());
+        assertEquals(0, items.get(1).getDepth());
+        assertEquals(1, items.get(2).getDepth());
+        assertEquals(Criterion.Type.CHECKBOX, items.get(3).getType());
+        assertTrue(items.get(3).getChecked());
+        assertFalse(items.get(4).getChecked());
+        assertTrue(items.get(5).getChecked());
+        assertEquals("Gzip option", items.get(5).getText());
+        assertEquals(Criterion.Type.TEXT, items.get(items.size() - 1).getType());
+        
+        List<Scenario> scenarios = parsed.getScenarios();
+        assertEquals(2, scenarios.size());
+        assertEquals("Export a sprint", scenarios.get(0).getName());
+        List<Criterion> steps = scenarios.get(0).getSteps();
+        assertEquals(5, steps.size());
+        assertEquals(Criterion.Keyword.GIVEN, steps.get(0).getKeyword());
+        assertEquals("a sprint with 3 stories", steps.get(0).getText());
+        assertEquals(Criterion.Keyword.GIVEN, steps.get(1).getKeyword(), "And takes the keyword before it");
+        assertEquals(Criterion.Keyword.THEN, steps.get(4).getKeyword());
+        assertNull(scenarios.get(1).getName());
+        assertEquals(3, scenarios.get(1).getSteps().size());
+    }
+    
+    @Test
+    void testMemoizesByKeyAndUpdated() {
+        AcceptanceCriteriaParser parser = new AcceptanceCriteriaParser();
+        JiraStory story = story("PROJ-1", "2024-01-01T10:00:00.000+0000", "* First");
+        
+        ParsedCriteria first = parser.parse(story);
+        assertSame(first, parser.parse(story));
+        
+        story.getFields().setAcceptanceCriteria("* First\n* Second");
+        assertSame(first, parser.parse(story), "text changes are picked up with the next 'updated' timestamp");
+        
+        story.getFields().setUpdated("2024-01-02T10:00:00.000+0000");
+        ParsedCriteria second = parser.parse(story);
+        assertNotSame(first, second);
+        assertEquals(2, second.getItems().size());
+        assertEquals(1, parser.getMemoizedCount());
+    }
+    
+    @Test
+    void testParsesManyStoriesInParallelInOrder() {
+        List<JiraStory> stories = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            stories.add(story("PROJ-" + i, "2024-01-01", "Given story " + i + "\nWhen parsed\nThen it has steps"));
+        }
+        
+        AcceptanceCriteriaParser parser = new AcceptanceCriteriaParser();
+        Map<String, ParsedCriteria> parsed = parser.parseAll(stories);
+        
+        assertEquals(2000, parsed.size());
+        assertEquals("PROJ-0", parsed.keySet().iterator().next());
+        assertEquals("story 1999", parsed.get("PROJ-1999").getScenarios().get(0).getSteps().get(0).getText());
+        assertEquals(2000, parser.getMemoizedCount());
+    }
+    
+    private static JiraStory story(String key, String updated, String criteria) {
+        JiraStory.Fields fields = new JiraStory.Fields();
+        fields.setUpdated(updated);
+        fields.setAcceptanceCriteria(criteria);
+        JiraStory story = new JiraStory();
+        story.setKey(key);
+        story.setFields(fields);
+        return story;
+    }
+}
@@ -0,0 +1,112 @@
+package com.adyanta.jira;
+
+import com.adyanta.jira.cli.BatchCli;
+import com.adyanta.jira.config.JiraConfig;
+import com.adyanta.jira.service.JiraStoryReaderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the headless command line mode.
+ */
+public class BatchCliTest {
+    
+    private static final Pattern KEY_PATTERN = Pattern.compile("[A-Z]+-\\d+");
+    
+    @TempDir
+    Path tempDir;
+    
+    private FakeJiraServer jira;
+    private JiraStoryReaderService service;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        jira = new FakeJiraServer().on("/rest/api/3/search", params -> {
+            // Answer key in (...) queries with one issue per requested key
+            List<String> issues = new ArrayList<>();
+            Matcher matcher = KEY_PATTERN.matcher(params.get("jql"));
+            while (matcher.find()) {
+                issues.add(FakeJiraServer.issue(matcher.group(), "Story " + matcher.group(), "To Do", 2.0));
+            }
+            return FakeJiraServer.searchPage(0, issues.size(), issues);
+        });
+        JiraConfig config = jira.config();
+        config.setFetchBatchSize(2);
+        service = new JiraStoryReaderService(config);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        service.close();
+        jira.close();
+    }
+    
+    private int run(String stdin, String... args) {
+        BatchCli cli = new BatchCli(service, new ByteArrayInputStream(stdin.getBytes(StandardCharsets.UTF_8)),
+                new PrintStream(out, true), new PrintStream(err, true));
+        return cli.run(args);
+    }
+    
+    @Test
+    void testFetchReadsKeysFromStdinInBatches() {
+        int exitCode = run("PROJ-1\nproj-2, PROJ-3 # comment\n\nPROJ-4 PROJ-5\n", "fetch", "--keys-file", "-");
+        
+        assertEquals(BatchCli.EXIT_OK, exitCode);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(5, lines.length);
+        assertEquals("PROJ-1 [To Do] (2.0 pts) Story PROJ-1 - Unassigned", lines[0]);
+        assertEquals(3, jira.getRequests().size());
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("fetch: 5 stories"));
+    }
+    
+    @Test
+    void testSyncSkipsUnchangedStories() throws Exception {
+        Path dir = tempDir.resolve("sync");
+        
+        assertEquals(BatchCli.EXIT_OK, run("", "sync", "--output-dir", dir.toString(), "PROJ-1", "PROJ-2"));
+        assertTrue(Files.exists(dir.resolve("PROJ-1.json")));
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("Synced 2 stories, 0 unchanged"));
+        
+        err.reset();
+        assertEquals(BatchCli.EXIT_OK, run("", "sync", "--output-dir", dir.toString(), "PROJ-1", "PROJ-2"));
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("Synced 0 stories, 2 unchanged"));
+    }
+    
+    @Test
+    void testAggregateReadsSnapshot() {
+        Path snapshot = tempDir.resolve("stories.snap");
+        
+        assertEquals(BatchCli.EXIT_OK, run("", "snapshot", "--output", snapshot.toString(), "PROJ-1", "PROJ-2", "PROJ-3"));
+        assertTrue(Files.exists(snapshot));
+        int requests = jira.getRequests().size();
+        
+        out.reset();
+        assertEquals(BatchCli.EXIT_OK, run("", "aggregate", "--snapshot", snapshot.toString()));
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("To Do"));
+        assertEquals(requests, jira.getRequests().size(), "aggregating a snapshot makes no requests");
+    }
+    
+    @Test
+    void testUsageErrors() {
+        assertEquals(BatchCli.EXIT_USAGE, run("", "bogus"));
+        assertEquals(BatchCli.EXIT_USAGE, run("", "fetch"));
+        assertEquals(BatchCli.EXIT_USAGE, run("", "search"));
+    }
+}
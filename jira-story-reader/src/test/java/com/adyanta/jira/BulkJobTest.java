@@ -0,0 +1,154 @@
+package com.adyanta.jira;
+
+import com.adyanta.jira.config.JiraConfig;
+import com.adyanta.jira.export.ExportColumn;
+import com.adyanta.jira.export.ExportFormat;
+import com.adyanta.jira.export.ExportOptions;
+import com.adyanta.jira.export.StoryExporter;
+import com.adyanta.jira.job.BulkJob;
+import com.adyanta.jira.job.JobCheckpoint;
+import com.adyanta.jira.service.JiraStoryReaderService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for checkpointed, resumable bulk jobs.
+ */
+public class BulkJobTest {
+    
+    private static final Pattern KEY_PATTERN = Pattern.compile("PROJ-\\d+");
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    void testInterruptedSearchExportResumesFromCheckpoint() throws Exception {
+        AtomicBoolean failed = new AtomicBoolean();
+        try (FakeJiraServer jira = new FakeJiraServer().on("/rest/api/3/search", params -> {
+            int startAt = Integer.parseInt(params.get("startAt"));
+            if (startAt == 6 && failed.compareAndSet(false, true)) {
+                throw new FakeJiraServer.HttpError(503, -1);
+            }
+            List<String> issues = new ArrayList<>();
+            for (int i = startAt; i < Math.min(startAt + 2, 10); i++) {
+                issues.add(FakeJiraServer.issue("PROJ-" + i, "Story " + i, "Done", 1.0));
+            }
+            return FakeJiraServer.searchPage(startAt, 10, issues);
+        })) {
+            JiraConfig config = jira.config();
+            config.setSearchPageSize(2);
+            config.setAdaptivePaging(false);
+            Path checkpoint = tempDir.resolve("export.checkpoint");
+            ExportOptions options = new ExportOptions(tempDir.resolve("stories.csv"), ExportFormat.CSV);
+            options.setColumns(Arrays.asList(ExportColumn.KEY, ExportColumn.STATUS));
+            
+            try (JiraStoryReaderService service = new JiraStoryReaderService(config)) {
+                assertThrows(JiraStoryReaderService.JiraApiException.class, () -> export(service, checkpoint, options));
+                assertTrue(Files.exists(checkpoint));
+                
+                jira.getRequests().clear();
+                assertEquals(4, export(service, checkpoint, options));
+            }
+            
+            assertFalse(Files.exists(checkpoint), "a finished job removes its checkpoint");
+            assertTrue(jira.getRequests().get(0).contains("startAt=4"), "resumes one chunk before the checkpoint");
+            List<String> lines = Files.readAllLines(options.getOutputFile());
+            assertEquals(11, lines.size());
+            assertEquals("key,status", lines.get(0));
+            for (int i = 0; i < 10; i++) {
+                assertEquals("PROJ-" + i + ",Done", lines.get(i + 1));
+            }
+        }
+    }
+    
+    private long export(JiraStoryReaderService service, Path checkpoint, ExportOptions options) throws Exception {
+        try (BulkJob job = BulkJob.open(service, checkpoint, "export project = PROJ")) {
+            options.setResumeOffset(job.getOutputBytes());
+            long exported;
+            try (StoryExporter exporter = new StoryExporter(options)) {
+                exported = job.runSearch("project = PROJ", exporter::write, exporter::checkpoint);
+            }
+            job.complete();
+            return exported;
+        }
+    }
+    
+    @Test
+    void testKeyJobSkipsChunksFinishedBeforeFailure() throws Exception {
+        AtomicBoolean failed = new AtomicBoolean();
+        try (FakeJiraServer jira = new FakeJiraServer().on("/rest/api/3/search", params -> {
+            if (params.get("jql").contains("PROJ-5") && failed.compareAndSet(false, true)) {
+                throw new FakeJiraServer.HttpError(503, -1);
+            }
+            List<String> issues = new ArrayList<>();
+            Matcher matcher = KEY_PATTERN.matcher(params.get("jql"));
+            while (matcher.find()) {
+                issues.add(FakeJiraServer.issue(matcher.group(), "Story " + matcher.group(), "To Do", 1.0));
+            }
+            return FakeJiraServer.searchPage(0, issues.size(), issues);
+        })) {
+            JiraConfig config = jira.config();
+            config.setFetchBatchSize(2);
+            config.setFetchConcurrency(1);
+            List<String> keys = Arrays.asList("PROJ-1", "PROJ-2", "PROJ-3", "PROJ-4", "PROJ-5", "PROJ-6");
+            Path checkpoint = tempDir.resolve("keys.checkpoint");
+            List<String> received = new ArrayList<>();
+            
+            try (JiraStoryReaderService service = new JiraStoryReaderService(config)) {
+                try (BulkJob job = BulkJob.open(service, checkpoint, "keys")) {
+                    assertThrows(JiraStoryReaderService.JiraApiException.class,
+                            () -> job.runKeys(keys, story -> received.add(story.getKey()), () -> -1));
+                }
+                assertEquals(Arrays.asList("PROJ-1", "PROJ-2", "PROJ-3", "PROJ-4"), received);
+                
+                jira.getRequests().clear();
+                try (BulkJob job = BulkJob.open(service, checkpoint, "keys")) {
+                    assertTrue(job.isResumed());
+                    assertEquals(2, job.runKeys(keys, story -> received.add(story.getKey()), () -> -1));
+                    assertEquals(4, job.getSkipped());
+                    job.complete();
+                }
+            }
+            assertEquals(1, jira.getRequests().size());
+            assertEquals(6, received.size());
+        }
+    }
+    
+    @Test
+    void testCheckpointIgnoresTornLineAndRefusesOtherJobs() throws Exception {
+        Path file = tempDir.resolve("job.checkpoint");
+        try (JobCheckpoint checkpoint = JobCheckpoint.open(file, "export A")) {
+            assertFalse(checkpoint.isResumed());
+            checkpoint.record(100, 2048, Arrays.asList("PROJ-1", "PROJ-2"));
+        }
+        Files.write(file, "{\"startAt\":200,\"outputB".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        
+        try (JobCheckpoint checkpoint = JobCheckpoint.open(file, "export A")) {
+            assertTrue(checkpoint.isResumed());
+            assertEquals(100, checkpoint.getStartAt());
+            assertEquals(2048, checkpoint.getOutputBytes());
+            assertTrue(checkpoint.isCompleted("PROJ-2"));
+            checkpoint.record(150, 4096, Collections.singletonList("PROJ-3"));
+        }
+        try (JobCheckpoint checkpoint = JobCheckpoint.open(file, "export A")) {
+            assertEquals(2, checkpoint.getChunks());
+            assertEquals(150, checkpoint.getStartAt());
+        }
+        
+        assertThrows(IllegalArgumentException.class, () -> JobCheckpoint.open(file, "export B"));
+    }
+}
@@ -0,0 +1,127 @@
+package com.adyanta.jira;
+
+import com.adyanta.jira.config.JiraConfig;
+import com.adyanta.jira.model.StatusTransition;
+import com.adyanta.jira.service.ChangelogStore;
+import com.adyanta.jira.service.JiraStoryReaderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for incremental changelog retrieval.
+ */
+public class ChangelogTest {
+    
+    private final List<String> entries = new CopyOnWriteArrayList<>();
+    private FakeJiraServer jira;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        entries.add(entry(100, "2024-01-01T09:00:00.000+0000", "status", "1", "3"));
+        entries.add(entry(101, "2024-01-02T09:00:00.000+0000", "assignee", null, "abc"));
+        entries.add(entry(102, "2024-01-03T09:00:00.000+0000", "status", "3", "10003"));
+        
+        jira = new FakeJiraServer().on("/rest/api/3/issue/", params -> {
+            int startAt = Integer.parseInt(params.get("startAt"));
+            int maxResults = Integer.parseInt(params.get("maxResults"));
+            List<String> page = new ArrayList<>(entries.subList(Math.min(startAt, entries.size()),
+                    Math.min(startAt + maxResults, entries.size())));
+            boolean last = startAt + page.size() >= entries.size();
+            return "{\"startAt\":" + startAt + ",\"maxResults\":" + maxResults + ",\"total\":" + entries.size() +
+                    ",\"isLast\":" + last + ",\"values\":[" + String.join(",", page) + "]}";
+        });
+    }
+    
+    @AfterEach
+    void tearDown() {
+        jira.close();
+    }
+    
+    private static String entry(long id, String created, String field, String from, String to) {
+        return "{\"id\":\"" + id + "\",\"created\":\"" + created + "\",\"items\":[{\"field\":\"" + field +
+                "\",\"fieldId\":\"" + field + "\",\"from\":" + (from != null ? "\"" + from + "\"" : "null") +
+                ",\"to\":\"" + to + "\",\"fromString\":\"x\",\"toString\":\"y\"}]}";
+    }
+    
+    private JiraConfig config(Path storeFile) {
+        JiraConfig config = jira.config();
+        config.setChangelogPageSize(2);
+        config.setChangelogStoreFile(storeFile != null ? storeFile.toString() : null);
+        return config;
+    }
+    
+    @Test
+    void testPagesThroughChangelogAndKeepsStatusChanges() throws Exception {
+        try (JiraStoryReaderService service = new JiraStoryReaderService(config(null))) {
+            List<StatusTransition> transitions = service.getStatusTransitions("PROJ-1");
+            
+            assertEquals(2, transitions.size());
+            assertEquals("1", transitions.get(0).getFromStatusId());
+            assertEquals("3", transitions.get(0).getToStatusId());
+            assertEquals(1704099600000L, transitions.get(0).getTimestampMillis());
+            assertEquals("10003", transitions.get(1).getToStatusId());
+            assertEquals(2, jira.getRequests().size());
+        }
+    }
+    
+    @Test
+    void testOnlyNewEntriesAreRequested() throws Exception {
+        try (JiraStoryReaderService service = new JiraStoryReaderService(config(null))) {
+            service.getStatusTransitions("PROJ-1");
+            entries.add(entry(103, "2024-01-04T09:00:00.000+0000", "status", "10003", "3"));
+            jira.getRequests().clear();
+            
+            List<StatusTransition> transitions = service.getStatusTransitions("PROJ-1");
+            
+            assertEquals(3, transitions.size());
+            assertEquals(1, jira.getRequests().size());
+            assertTrue(jira.getRequests().get(0).contains("startAt=3"));
+        }
+    }
+    
+    @Test
+    void testEntryWithUnreadableTimestampIsSkipped() throws Exception {
+        entries.add(entry(103, "yesterday", "status", "10003", "3"));
+        
+        try (JiraStoryReaderService service = new JiraStoryReaderService(config(null))) {
+            List<StatusTransition> transitions = service.getStatusTransitions("PROJ-1");
+            
+            assertEquals(2, transitions.size());
+            assertEquals("3", transitions.get(0).getToStatusId());
+            assertEquals("10003", transitions.get(1).getToStatusId());
+        }
+    }
+    
+    @Test
+    void testBulkFetchAndPersistedStore(@TempDir Path tempDir) throws Exception {
+        Path storeFile = tempDir.resolve("changelog.bin");
+        try (JiraStoryReaderService service = new JiraStoryReaderService(config(storeFile))) {
+            Map<String, List<StatusTransition>> transitions =
+                    service.getStatusTransitions(Arrays.asList("PROJ-1", "PROJ-2", "PROJ-1"));
+            
+            assertEquals(Arrays.asList("PROJ-1", "PROJ-2"), new ArrayList<>(transitions.keySet()));
+            assertEquals(2, transitions.get("PROJ-2").size());
+        }
+        
+        ChangelogStore store = ChangelogStore.load(storeFile);
+        assertEquals(2, store.size());
+        assertEquals(3, store.getOrCreate("PROJ-1").getEntriesSeen());
+        
+        jira.getRequests().clear();
+        try (JiraStoryReaderService service = new JiraStoryReaderService(config(storeFile))) {
+            assertEquals(2, service.getStatusTransitions("PROJ-2").size());
+            assertTrue(jira.getRequests().get(0).contains("startAt=3"));
+        }
+    }
+}
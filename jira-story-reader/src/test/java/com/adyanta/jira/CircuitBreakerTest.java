@@ -0,0 +1,137 @@
+package com.adyanta.jira;
+
+import com.adyanta.jira.config.JiraConfig;
+import com.adyanta.jira.model.JiraStory;
+import com.adyanta.jira.service.CircuitBreaker;
+import com.adyanta.jira.service.JiraStoryReaderService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the circuit breaker and the fallback to last known stories.
+ */
+public class CircuitBreakerTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    /**
+     * Configuration for a Jira that refuses connections, with a small breaker window
+     */
+    private static JiraConfig unreachableConfig() {
+        JiraConfig config = new JiraConfig("http://127.0.0.1:1", "test@example.com", "password");
+        config.setCircuitWindowSize(4);
+        config.setCircuitMinimumCalls(4);
+        config.setCircuitOpenMillis(60_000);
+        return config;
+    }
+    
+    @Test
+    void testCircuitOpensAndFailsFast() {
+        try (JiraStoryReaderService service = new JiraStoryReaderService(unreachableConfig())) {
+            for (int i = 0; i < 4; i++) {
+                assertThrows(JiraStoryReaderService.JiraUnavailableException.class, () -> service.getStoryByKey("PROJ-1"));
+            }
+            assertEquals(CircuitBreaker.State.OPEN, service.getCircuitBreaker().getState());
+            
+            long requests = service.getMetrics().getRequestCount();
+            JiraStoryReaderService.JiraApiException e = assertThrows(JiraStoryReaderService.JiraUnavailableException.class,
+                    () -> service.getStoryByKey("PROJ-1"));
+            assertTrue(e.getMessage().contains("circuit breaker"));
+            assertEquals(requests, service.getMetrics().getRequestCount());
+        }
+    }
+    
+    @Test
+    void testHalfOpenClosesAfterSuccessfulTrials() throws Exception {
+        JiraConfig config = unreachableConfig();
+        config.setCircuitOpenMillis(20);
+        CircuitBreaker breaker = new CircuitBreaker(config);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onResult(1_000_000, true);
+        }
+        assertFalse(breaker.tryAcquire());
+        
+        Thread.sleep(40);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(breaker.tryAcquire());
+        }
+        assertFalse(breaker.tryAcquire(), "only a few trial calls are allowed while half-open");
+        for (int i = 0; i < 3; i++) {
+            breaker.onResult(1_000_000, false);
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+    
+    @Test
+    void testExpiredCacheEntryIsServedWhileJiraIsDown() throws Exception {
+        FakeJiraServer jira = new FakeJiraServer().on("/rest/api/3/issue/",
+                params -> FakeJiraServer.issue("PROJ-1", "Cached story", "Done", 3.0));
+        JiraConfig config = jira.config();
+        config.setCacheTtlSeconds(0);
+        
+        try (JiraStoryReaderService service = new JiraStoryReaderService(config)) {
+            service.getStoryByKey("PROJ-1");
+            jira.close();
+            
+            JiraStory story = service.getStoryByKey("PROJ-1");
+            assertEquals("Cached story", story.getFields().getSummary());
+            assertThrows(JiraStoryReaderService.JiraUnavailableException.class, () -> service.getStoryByKey("PROJ-2"));
+        } finally {
+            jira.close();
+        }
+    }
+    
+    @Test
+    void testFailedRefreshKeepsCachedCopyUntilStoryIsGone() throws Exception {
+        AtomicInteger status = new AtomicInteger(200);
+        FakeJiraServer jira = new FakeJiraServer().on("/rest/api/3/issue/", params -> {
+            if (status.get() == 503) {
+                throw new FakeJiraServer.HttpError(503, -1);
+            }
+            return status.get() == 200 ? FakeJiraServer.issue("PROJ-1", "Cached story", "Done", 3.0) : null;
+        });
+        JiraConfig config = jira.config();
+        config.setMaxRetries(0);
+        
+        try (JiraStoryReaderService service = new JiraStoryReaderService(config)) {
+            service.getStoryByKey("PROJ-1");
+            
+            status.set(503);
+            assertEquals("Cached story", service.refreshStory("PROJ-1").getFields().getSummary());
+            assertNotNull(service.getStoryCache().getStale("PROJ-1"));
+            
+            status.set(404);
+            assertThrows(JiraStoryReaderService.JiraApiException.class, () -> service.refreshStory("PROJ-1"));
+            assertNull(service.getStoryCache().getStale("PROJ-1"));
+        } finally {
+            jira.close();
+        }
+    }
+    
+    @Test
+    void testFallbackDirectoryIsUsedForMissingStories() throws Exception {
+        Files.write(tempDir.resolve("PROJ-7.json"),
+                FakeJiraServer.issue("PROJ-7", "Synced story", "In Progress", 5.0).getBytes(StandardCharsets.UTF_8));
+        JiraConfig config = unreachableConfig();
+        config.setFallbackDir(tempDir.toString());
+        
+        try (JiraStoryReaderService service = new JiraStoryReaderService(config)) {
+            assertEquals("Synced story", service.getStoryByKey("PROJ-7").getFields().getSummary());
+            
+            List<JiraStory> stories = service.getStoriesByKeys(Arrays.asList("PROJ-7", "PROJ-8"));
+            assertEquals(1, stories.size());
+            assertEquals("PROJ-7", stories.get(0).getKey());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.adyanta.jira;
+
+import com.adyanta.jira.config.ConfigWatcher;
+import com.adyanta.jira.config.JiraConfig;
+import com.adyanta.jira.service.JiraStoryReaderService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for live configuration changes.
+ */
+public class ConfigReloadTest {
+    
+    private static final String BASE = "jira.url=https://example.atlassian.net\n" +
+            "jira.username=test@example.com\n" +
+            "jira.password=password\n";
+    
+    @Test
+    void testWatcherReportsEditedFile(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("jira-config.properties");
+        Files.write(file, (BASE + "jira.read.timeout=60000\n").getBytes(StandardCharsets.UTF_8));
+        BlockingQueue<JiraConfig> changes = new LinkedBlockingQueue<>();
+        
+        try (ConfigWatcher watcher = new ConfigWatcher(file).onChange(changes::add)) {
+            watcher.start();
+            
+            // An invalid edit is skipped, the following valid one is delivered
+            Files.write(file, (BASE + "jira.search.page.size=0\n").getBytes(StandardCharsets.UTF_8));
+            Thread.sleep(500);
+            Files.write(file, (BASE + "jira.read.timeout=5000\n").getBytes(StandardCharsets.UTF_8));
+            
+            JiraConfig changed = changes.poll(10, TimeUnit.SECONDS);
+            assertNotNull(changed);
+            assertEquals(5000, changed.getReadTimeout());
+        }
+    }
+    
+    @Test
+    void testApplyConfigResizesCacheWithoutRestart() throws Exception {
+        try (FakeJiraServer jira = new FakeJiraServer()
+                .on("/rest/api/3/search", params -> FakeJiraServer.searchPage(0, 3, Arrays.asList(
+                        FakeJiraServer.issue("PROJ-1", "One", "Done", 1.0),
+                        FakeJiraServer.issue("PROJ-2", "Two", "Done", 1.0),
+                        FakeJiraServer.issue("PROJ-3", "Three", "Done", 1.0))));
+             JiraStoryReaderService service = new JiraStoryReaderService(jira.config())) {
+            service.searchStories("project = PROJ");
+            assertEquals(3, service.getStoryCache().size());
+            
+            JiraConfig updated = jira.config();
+            updated.setCacheMaxEntries(2);
+            updated.setFetchConcurrency(8);
+            updated.setRateLimitPerSecond(50);
+            updated.setReadTimeout(1000);
+            service.applyConfig(updated);
+            
+            assertEquals(2, service.getStoryCache().size());
+            assertNotNull(service.getStoryCache().get("PROJ-3"));
+            assertEquals(3, service.searchStories("project = PROJ").size());
+            
+            JiraConfig invalid = jira.config();
+            invalid.setFetchConcurrency(0);
+            assertThrows(IllegalArgumentException.class, () -> service.applyConfig(invalid));
+        }
+    }
+}
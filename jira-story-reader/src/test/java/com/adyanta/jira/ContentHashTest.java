@@ -0,0 +1,94 @@
+package com.adyanta.jira;
+
+import com.adyanta.jira.export.ExportFormat;
+import com.adyanta.jira.export.ExportOptions;
+import com.adyanta.jira.export.StoryExporter;
+import com.adyanta.jira.model.ContentHash;
+import com.adyanta.jira.model.JiraStory;
+import com.adyanta.jira.service.StoryCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for content hash change detection.
+ */
+public class ContentHashTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    void testIgnoresFormattingAndUnrelatedFields() {
+        JiraStory original = story("PROJ-1", "Export stories", "As a user\nI want CSV", "In Progress", 5.0);
+        JiraStory reformatted = story("PROJ-1", "  Export   stories ", "As a user\r\n\n  I want CSV\n", "In Progress", 5.0);
+        reformatted.getFields().setUpdated("2024-02-01T10:00:00.000+0000");
+        
+        assertEquals(ContentHash.of(original), ContentHash.of(reformatted));
+        assertEquals(16, ContentHash.of(original).length());
+    }
+    
+    @Test
+    void testDetectsContentChanges() {
+        String hash = ContentHash.of(story("PROJ-1", "Export stories", "As a user", "In Progress", 5.0));
+        
+        assertNotEquals(hash, ContentHash.of(story("PROJ-1", "Export stories!", "As a user", "In Progress", 5.0)));
+        assertNotEquals(hash, ContentHash.of(story("PROJ-1", "Export stories", "As a user", "Done", 5.0)));
+        assertNotEquals(hash, ContentHash.of(story("PROJ-1", "Export stories", "As a user", "In Progress", 8.0)));
+        assertNotEquals(hash, ContentHash.of(story("PROJ-1", "Export stories", "As a user", "In Progress", null)));
+        assertNotEquals(ContentHash.of(story("PROJ-1", "ab", "c", null, null)),
+                ContentHash.of(story("PROJ-1", "a", "bc", null, null)), "field boundaries are part of the hash");
+    }
+    
+    @Test
+    void testCachePutReportsOnlyRealChanges() {
+        StoryCache cache = new StoryCache(100, 0);
+        
+        assertFalse(cache.put(story("PROJ-1", "Export stories", "As a user", "To Do", 3.0)), "first copy is not a change");
+        assertFalse(cache.put(story("PROJ-1", "Export  stories", "As a user ", "To Do", 3.0)));
+        assertTrue(cache.put(story("PROJ-1", "Export stories", "As a user", "Done", 3.0)));
+    }
+    
+    @Test
+    void testExportSkipsStoriesUnchangedSinceLastRun() throws Exception {
+        ExportOptions options = new ExportOptions(tempDir.resolve("stories.ndjson"), ExportFormat.NDJSON);
+        options.setHashIndexFile(tempDir.resolve("hashes.properties"));
+        
+        try (StoryExporter exporter = new StoryExporter(options)) {
+            exporter.write(story("PROJ-1", "First", null, "To Do", 1.0));
+            exporter.write(story("PROJ-2", "Second", null, "To Do", 2.0));
+        }
+        assertTrue(Files.exists(options.getHashIndexFile()));
+        
+        try (StoryExporter exporter = new StoryExporter(options)) {
+            exporter.write(story("PROJ-1", "First", null, "To Do", 1.0));
+            exporter.write(story("PROJ-2", "Second", null, "Done", 2.0));
+            exporter.write(story("PROJ-3", "Third", null, "To Do", 3.0));
+            assertEquals(2, exporter.getStoriesWritten());
+            assertEquals(1, exporter.getStoriesUnchanged());
+        }
+        String exported = Files.readString(options.getOutputFile());
+        assertFalse(exported.contains("PROJ-1"));
+        assertTrue(exported.contains("PROJ-2"));
+    }
+    
+    private static JiraStory story(String key, String summary, String description, String statusName, Double points) {
+        JiraStory.Fields fields = new JiraStory.Fields();
+        fields.setSummary(summary);
+        fields.setDescription(description);
+        fields.setStoryPoints(points);
+        if (statusName != null) {
+            JiraStory.Status status = new JiraStory.Status();
+            status.setName(statusName);
+            fields.setStatus(status);
+        }
+        JiraStory story = new JiraStory();
+        story.setKey(key);
+        story.setFields(fields);
+        return story;
+    }
+}
@@ -0,0 +1,166 @@
+package com.adyanta.jira;
+
+import com.adyanta.jira.config.JiraConfig;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal local stand-in for the Jira REST API used by tests.
+ * Handlers receive the decoded query parameters and return a JSON body.
+ */
+public class FakeJiraServer implements AutoCloseable {
+    
+    private final HttpServer server;
+    private static final Pattern KEY_IN = Pattern.compile("key in \\(([^)]*)\\)");
+    
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private volatile Predicate<String> issueExists;
+    
+    public FakeJiraServer() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.server.start();
+    }
+    
+    /**
+     * Serve a JSON body for every request under the given path prefix
+     */
+    public FakeJiraServer on(String pathPrefix, Function<Map<String, String>, String> handler) {
+        server.createContext(pathPrefix, exchange -> respond(exchange, handler));
+        return this;
+    }
+    
+    /**
+     * Reject key in (...) searches naming an issue the predicate does not know with 400,
+     * as Jira does unless the search is sent with validateQuery=warn
+     */
+    public FakeJiraServer validateKeys(Predicate<String> issueExists) {
+        this.issueExists = issueExists;
+        return this;
+    }
+    
+    private void respond(HttpExchange exchange, Function<Map<String, String>, String> handler) throws IOException {
+        requests.add(exchange.getRequestURI().toString());
+        Map<String, String> params = new HashMap<>();
+        params.put("path", exchange.getRequestURI().getPath());
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0) {
+                    params.put(pair.substring(0, eq), URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        
+        String body;
+        int status;
+        String unknownKey = findUnknownKey(params);
+        try {
+            if (unknownKey != null) {
+                throw new HttpError(400, -1, "{\"errorMessages\":[\"An issue with key '" + unknownKey +
+                        "' does not exist for field 'key'.\"],\"errors\":{}}");
+            }
+            body = handler.apply(params);
+            status = body != null ? 200 : 404;
+        } catch (HttpError e) {
+            body = e.body;
+            status = e.status;
+            if (e.retryAfterSeconds >= 0) {
+                exchange.getResponseHeaders().set("Retry-After", String.valueOf(e.retryAfterSeconds));
+            }
+        }
+        byte[] bytes = (body != null ? body : "{}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+    
+    private String findUnknownKey(Map<String, String> params) {
+        Predicate<String> known = issueExists;
+        String jql = params.get("jql");
+        if (known == null || jql == null || "warn".equals(params.get("validateQuery"))) {
+            return null;
+        }
+        Matcher matcher = KEY_IN.matcher(jql);
+        while (matcher.find()) {
+            for (String key : matcher.group(1).split(",\\s*")) {
+                if (!known.test(key.trim())) {
+                    return key.trim();
+                }
+            }
+        }
+        return null;
+    }
+    
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+    
+    public JiraConfig config() {
+        return new JiraConfig(getUrl(), "test@example.com", "password");
+    }
+    
+    public List<String> getRequests() {
+        return requests;
+    }
+    
+    /**
+     * Build a minimal issue JSON object
+     */
+    public static String issue(String key, String summary, String status, Double storyPoints) {
+        return "{\"id\":\"" + key.hashCode() + "\",\"key\":\"" + key + "\",\"fields\":{" +
+                "\"summary\":\"" + summary + "\"," +
+                "\"status\":{\"id\":\"" + status.hashCode() + "\",\"name\":\"" + status + "\"}," +
+                "\"updated\":\"2024-01-05T12:30:00.000+0000\"," +
+                "\"customfield_10021\":" + storyPoints + "}}";
+    }
+    
+    /**
+     * Build a search response page from issue JSON objects
+     */
+    public static String searchPage(int startAt, int total, List<String> issues) {
+        return "{\"startAt\":" + startAt + ",\"maxResults\":" + issues.size() + ",\"total\":" + total +
+                ",\"issues\":[" + String.join(",", issues) + "]}";
+    }
+    
+    /**
+     * Thrown by a handler to answer with an error status instead of a body
+     */
+    public static class HttpError extends RuntimeException {
+        private final int status;
+        private final int retryAfterSeconds;
+        private final String body;
+        
+        public HttpError(int status, int retryAfterSeconds) {
+            this(status, retryAfterSeconds, null);
+        }
+        
+        public HttpError(int status, int retryAfterSeconds, String body) {
+            super("HTTP " + status);
+            this.status = status;
+            this.retryAfterSeconds = retryAfterSeconds;
+            this.body = body;
+        }
+    }
+    
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,135 @@
+package com.adyanta.jira;
+
+import com.adyanta.jira.config.JiraConfig;
+import com.adyanta.jira.model.SiteStory;
+import com.adyanta.jira.service.FederatedStoryService;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for querying several Jira sites at once.
+ */
+public class FederatedStoryServiceTest {
+    
+    private FakeJiraServer emea;
+    private FakeJiraServer apac;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        emea = new FakeJiraServer().on("/rest/api/3/search", params -> FakeJiraServer.searchPage(0, 1,
+                Collections.singletonList(FakeJiraServer.issue("PROJ-1", "EMEA story", "Done", 1.0))));
+        apac = new FakeJiraServer().on("/rest/api/3/search", params -> FakeJiraServer.searchPage(0, 1,
+                Collections.singletonList(FakeJiraServer.issue("PROJ-1", "APAC story", "To Do", 2.0))));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        emea.close();
+        apac.close();
+    }
+    
+    private Map<String, JiraConfig> profiles() {
+        Map<String, JiraConfig> profiles = new LinkedHashMap<>();
+        profiles.put("emea", emea.config());
+        profiles.put("apac", apac.config());
+        return profiles;
+    }
+    
+    /**
+     * A site hosting only the given key, rejecting searches for others the way Jira does
+     */
+    private static FakeJiraServer siteWith(String key) throws Exception {
+        return new FakeJiraServer()
+                .validateKeys(key::equals)
+                .on("/rest/api/3/search", params -> params.get("jql").contains(key)
+                        ? FakeJiraServer.searchPage(0, 1, Collections.singletonList(FakeJiraServer.issue(key, key, "Done", 1.0)))
+                        : FakeJiraServer.searchPage(0, 0, Collections.emptyList()));
+    }
+    
+    @Test
+    void testSearchMergesSitesWithQualifiedKeys() {
+        try (FederatedStoryService federation = new FederatedStoryService(profiles())) {
+            FederatedStoryService.FederatedResult result = federation.searchStories("project = PROJ");
+            
+            List<String> keys = result.getStories().stream().map(SiteStory::getQualifiedKey).collect(Collectors.toList());
+            assertEquals(Arrays.asList("emea:PROJ-1", "apac:PROJ-1"), keys);
+            assertEquals("APAC story", result.getStories().get(1).getStory().getFields().getSummary());
+            assertTrue(result.isComplete());
+        }
+    }
+    
+    @Test
+    void testQualifiedKeysAreRoutedToTheirSite() throws Exception {
+        try (FederatedStoryService federation = new FederatedStoryService(profiles())) {
+            FederatedStoryService.FederatedResult result = federation.getStoriesByKeys(Arrays.asList("apac:PROJ-1"));
+            
+            assertEquals(1, result.getStories().size());
+            assertEquals("apac", result.getStories().get(0).getSite());
+            assertTrue(emea.getRequests().isEmpty());
+            assertThrows(IllegalArgumentException.class, () -> federation.getStoriesByKeys(Arrays.asList("us:PROJ-1")));
+        }
+    }
+    
+    @Test
+    void testFailingSiteIsReportedWithoutLosingOthers() {
+        Map<String, JiraConfig> profiles = profiles();
+        profiles.put("down", new JiraConfig("http://127.0.0.1:1", "test@example.com", "password"));
+        
+        try (FederatedStoryService federation = new FederatedStoryService(profiles)) {
+            FederatedStoryService.FederatedResult result = federation.searchStories("project = PROJ");
+            
+            assertEquals(2, result.getStories().size());
+            assertFalse(result.isComplete());
+            assertTrue(result.getFailures().containsKey("down"));
+        }
+    }
+    
+    @Test
+    void testUnqualifiedKeysFoundOnOneSiteLeaveOthersComplete() throws Exception {
+        try (FakeJiraServer emeaOnly = siteWith("PROJ-1");
+             FakeJiraServer apacOnly = siteWith("PROJ-2")) {
+            Map<String, JiraConfig> profiles = new LinkedHashMap<>();
+            profiles.put("emea", emeaOnly.config());
+            profiles.put("apac", apacOnly.config());
+            
+            try (FederatedStoryService federation = new FederatedStoryService(profiles)) {
+                FederatedStoryService.FederatedResult result = federation.getStoriesByKeys(Arrays.asList("PROJ-1", "PROJ-2"));
+                
+                List<String> keys = result.getStories().stream().map(SiteStory::getQualifiedKey).collect(Collectors.toList());
+                assertEquals(Arrays.asList("emea:PROJ-1", "apac:PROJ-2"), keys);
+                assertTrue(result.isComplete());
+            }
+        }
+    }
+    
+    @Test
+    void testProfilesInheritSharedSettings() {
+        BaseConfiguration config = new BaseConfiguration();
+        config.setProperty("jira.username", "shared@example.com");
+        config.setProperty("jira.password", "secret");
+        config.setProperty("jira.rate.limit.per.second", "5");
+        config.setProperty("jira.sites", "emea, apac");
+        config.setProperty("jira.sites.emea.url", "https://emea.example.com");
+        config.setProperty("jira.sites.apac.url", "https://apac.example.com");
+        config.setProperty("jira.sites.apac.rate.limit.per.second", "2");
+        
+        Map<String, JiraConfig> profiles = JiraConfig.loadProfiles(config);
+        
+        assertEquals(Arrays.asList("emea", "apac"), Arrays.asList(profiles.keySet().toArray()));
+        assertEquals("https://emea.example.com", profiles.get("emea").getJiraUrl());
+        assertEquals("shared@example.com", profiles.get("apac").getUsername());
+        assertEquals(5.0, profiles.get("emea").getRateLimitPerSecond());
+        assertEquals(2.0, profiles.get("apac").getRateLimitPerSecond());
+    }
+}
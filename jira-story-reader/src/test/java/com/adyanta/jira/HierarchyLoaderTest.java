@@ -0,0 +1,129 @@
+package com.adyanta.jira;
+
+import com.adyanta.jira.hierarchy.HierarchyLoader;
+import com.adyanta.jira.hierarchy.StoryGraph;
+import com.adyanta.jira.service.JiraStoryReaderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for breadth-first hierarchy loading.
+ */
+public class HierarchyLoaderTest {
+    
+    private static final Pattern KEY_LIST = Pattern.compile("(parent|key) in \\((.*)\\)");
+    
+    private final Map<String, String> parents = new LinkedHashMap<>();
+    private final Map<String, String> issues = new LinkedHashMap<>();
+    private FakeJiraServer jira;
+    private JiraStoryReaderService service;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        add("EPIC-1", null, null);
+        add("PROJ-1", "EPIC-1", "PROJ-9");
+        add("PROJ-2", "EPIC-1", null);
+        add("PROJ-3", "PROJ-1", null);
+        add("PROJ-9", null, null);
+        
+        jira = new FakeJiraServer()
+                .on("/rest/api/3/issue/", params -> issues.get(params.get("path").substring("/rest/api/3/issue/".length())))
+                .validateKeys(issues::containsKey)
+                .on("/rest/api/3/search", params -> {
+                    List<String> found = new ArrayList<>();
+                    Matcher matcher = KEY_LIST.matcher(params.get("jql"));
+                    if (matcher.matches()) {
+                        List<String> keys = Arrays.asList(matcher.group(2).split(",\\s*"));
+                        boolean byParent = matcher.group(1).equals("parent");
+                        for (Map.Entry<String, String> issue : issues.entrySet()) {
+                            String match = byParent ? parents.get(issue.getKey()) : issue.getKey();
+                            if (keys.contains(match)) {
+                                found.add(issue.getValue());
+                            }
+                        }
+                    } else if (params.get("jql").startsWith("sprint = ")) {
+                        found.add(issues.get("PROJ-1"));
+                        found.add(issues.get("PROJ-2"));
+                    }
+                    return FakeJiraServer.searchPage(0, found.size(), found);
+                });
+        service = new JiraStoryReaderService(jira.config());
+    }
+    
+    @AfterEach
+    void tearDown() {
+        service.close();
+        jira.close();
+    }
+    
+    private void add(String key, String parent, String linkedTo) {
+        parents.put(key, parent);
+        String fields = "\"summary\":\"" + key + "\",\"status\":{\"id\":\"1\",\"name\":\"To Do\"}";
+        if (parent != null) {
+            fields += ",\"parent\":{\"id\":\"1\",\"key\":\"" + parent + "\"}";
+        }
+        if (linkedTo != null) {
+            fields += ",\"issuelinks\":[{\"id\":\"7\",\"type\":{\"name\":\"Blocks\",\"inward\":\"is blocked by\"," +
+                    "\"outward\":\"blocks\"},\"outwardIssue\":{\"id\":\"9\",\"key\":\"" + linkedTo + "\"}}]";
+        }
+        issues.put(key, "{\"id\":\"" + key.hashCode() + "\",\"key\":\"" + key + "\",\"fields\":{" + fields + "}}");
+    }
+    
+    @Test
+    void testLoadFromEpic() throws Exception {
+        StoryGraph graph = new HierarchyLoader(service, 50).loadFromEpic("EPIC-1");
+        
+        assertEquals(5, graph.size());
+        assertEquals(Arrays.asList("PROJ-1", "PROJ-2"), graph.getChildren("EPIC-1"));
+        assertEquals("PROJ-1", graph.getParent("PROJ-3"));
+        assertEquals(Arrays.asList("PROJ-9"), graph.getLinked("PROJ-1"));
+        assertEquals(Arrays.asList("PROJ-1"), graph.getLinked("PROJ-9"));
+        assertEquals(Arrays.asList("PROJ-1", "PROJ-2", "PROJ-3"), graph.getDescendants("EPIC-1"));
+        assertEquals(0, graph.getDepth("EPIC-1"));
+        assertEquals(2, graph.getDepth("PROJ-3"));
+        assertEquals(Arrays.asList("EPIC-1", "PROJ-9"), graph.getRoots());
+    }
+    
+    @Test
+    void testLoadFromSprintExpandsParents() throws Exception {
+        StoryGraph graph = new HierarchyLoader(service, 1).setFollowLinks(false).setMaxDepth(1).loadFromSprint("Sprint 7");
+        
+        assertTrue(graph.contains("EPIC-1"));
+        assertTrue(graph.contains("PROJ-3"));
+        assertFalse(graph.contains("PROJ-9"));
+        assertEquals(1, graph.getDepth("EPIC-1"));
+        
+        long parentQueries = jira.getRequests().stream().filter(uri -> uri.contains("parent+in")).count();
+        assertEquals(2, parentQueries);
+    }
+    
+    @Test
+    void testLinkToUnknownIssueDoesNotAbortLoad() throws Exception {
+        // PROJ-1 still links to PROJ-9, which is now deleted or hidden from this user
+        issues.remove("PROJ-9");
+        
+        StoryGraph graph = new HierarchyLoader(service, 50).loadFromEpic("EPIC-1");
+        
+        assertEquals(4, graph.size());
+        assertFalse(graph.contains("PROJ-9"));
+        assertEquals(Arrays.asList("PROJ-1", "PROJ-2", "PROJ-3"), graph.getDescendants("EPIC-1"));
+    }
+    
+    @Test
+    void testMaxIssuesBoundsGraph() throws Exception {
+        StoryGraph graph = new HierarchyLoader(service, 50).setMaxIssues(3).loadFromEpic("EPIC-1");
+        
+        assertEquals(3, graph.size());
+    }
+}
@@ -0,0 +1,86 @@
+package com.adyanta.jira;
+
+import com.adyanta.jira.model.ImmutableJiraStory;
+import com.adyanta.jira.model.JiraStory;
+import com.adyanta.jira.service.JiraJson;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the shared Jackson configuration and the immutable story model.
+ */
+public class JiraJsonTest {
+    
+    private final JiraJson json = new JiraJson(false);
+    
+    private InputStream sampleIssue() {
+        return getClass().getResourceAsStream("/sample-issue.json");
+    }
+    
+    @Test
+    void testReadMutableStory() throws Exception {
+        JiraStory story = json.getStoryReader().readValue(sampleIssue());
+        
+        assertEquals("PROJ-123", story.getKey());
+        assertEquals("In Progress", story.getFields().getStatus().getName());
+        assertEquals(5.0, story.getFields().getStoryPoints());
+        assertTrue(story.getFields().getFirstAvailableAcceptanceCriteria().startsWith("Given a sprint"));
+    }
+    
+    @Test
+    void testReadImmutableStory() throws Exception {
+        ImmutableJiraStory story = json.getImmutableStoryReader().readValue(sampleIssue());
+        
+        assertEquals("PROJ-123", story.getKey());
+        assertEquals("Alex Doe", story.getFields().getAssignee().getDisplayName());
+        assertEquals(2, story.getFields().getComponents().size());
+        assertTrue(story.getFields().getAcceptanceCriteria().startsWith("Given a sprint"));
+        assertThrows(UnsupportedOperationException.class, () -> story.getFields().getLabels().add("x"));
+    }
+    
+    @Test
+    void testBlackbirdReaderMatchesDefault() throws Exception {
+        JiraJson blackbird = new JiraJson(true);
+        ImmutableJiraStory story = blackbird.getImmutableStoryReader().readValue(sampleIssue());
+        
+        assertEquals("PROJ-123", story.getKey());
+        assertEquals("1.2.0", story.getFields().getFixVersions().get(0).getName());
+    }
+    
+    @Test
+    void testCopyFromMutableStory() throws Exception {
+        JiraStory story = json.getStoryReader().readValue(sampleIssue());
+        ImmutableJiraStory copy = ImmutableJiraStory.from(story);
+        
+        assertEquals(story.getKey(), copy.getKey());
+        assertEquals(story.getFields().getFirstAvailableAcceptanceCriteria(), copy.getFields().getAcceptanceCriteria());
+        assertEquals("Sprint 7", copy.getFields().getSprint().get(0));
+    }
+    
+    @Test
+    void testWriteStoryUsesFieldNames() throws Exception {
+        JiraStory story = json.getStoryReader().readValue(sampleIssue());
+        String written = json.getObjectMapper().writeValueAsString(story);
+        
+        assertTrue(written.contains("\"customfield_10021\":5.0"));
+        assertFalse(written.contains("firstAvailableAcceptanceCriteria"));
+    }
+    
+    @Test
+    void testImmutableStoryRoundTrips() throws Exception {
+        ImmutableJiraStory story = json.getImmutableStoryReader().readValue(sampleIssue());
+        String written = json.getObjectMapper().writeValueAsString(story);
+        ImmutableJiraStory read = json.getImmutableStoryReader().readValue(written);
+        
+        assertTrue(written.contains("\"customfield_10021\":5.0"));
+        assertEquals("PROJ-123", read.getKey());
+        assertEquals("In Progress", read.getFields().getStatus().getName());
+        assertEquals("Alex Doe", read.getFields().getAssignee().getDisplayName());
+        assertEquals(story.getFields().getAcceptanceCriteria(), read.getFields().getAcceptanceCriteria());
+        assertEquals("1.2.0", read.getFields().getFixVersions().get(0).getName());
+        assertEquals(story.getFields().getLabels(), read.getFields().getLabels());
+    }
+}
@@ -0,0 +1,104 @@
+package com.adyanta.jira;
+
+import com.adyanta.jira.config.JiraConfig;
+import com.adyanta.jira.model.ImmutableJiraStory;
+import com.adyanta.jira.model.JiraStory;
+import com.adyanta.jira.service.JiraStoryReaderService;
+import com.adyanta.jira.service.PagingController;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for adaptive search page size and concurrency.
+ */
+public class PagingControllerTest {
+    
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(5);
+    
+    @Test
+    void testGrowsAdditivelyAndBacksOffMultiplicatively() {
+        PagingController paging = new PagingController(true, 40, 1000, 8, 1000, 8 * 1024 * 1024);
+        assertEquals(40, paging.getPageSize());
+        assertEquals(1, paging.getConcurrency());
+        
+        paging.onPage(40, 40, 40, 40_000, FAST);
+        assertEquals(50, paging.getPageSize());
+        assertEquals(2, paging.getConcurrency());
+        paging.onPage(50, 50, 50, 50_000, FAST);
+        paging.onPage(50, 50, 50, 50_000, FAST);
+        assertEquals(70, paging.getPageSize());
+        assertEquals(3, paging.getConcurrency(), "one more fetch per full round of fast pages");
+        
+        paging.onPage(70, 70, 70, 70_000, SLOW);
+        assertEquals(52, paging.getPageSize());
+        paging.onThrottled();
+        assertEquals(1, paging.getConcurrency());
+        assertEquals(52, paging.getPageSize(), "throttling is about request rate, not page size");
+        paging.onFailure();
+        assertEquals(26, paging.getPageSize());
+    }
+    
+    @Test
+    void testPageSizeStaysWithinServerCapAndByteLimit() {
+        PagingController capped = new PagingController(true, 80, 1000, 4, 1000, 8 * 1024 * 1024);
+        capped.onPage(80, 50, 50, 50_000, FAST);
+        assertEquals(50, capped.getPageSize());
+        
+        PagingController large = new PagingController(true, 80, 1000, 4, 1000, 1024 * 1024);
+        large.onPage(80, 80, 80, 80 * 100_000L, FAST);
+        assertEquals(10, large.getPageSize());
+        
+        PagingController fixed = new PagingController(false, 80, 1000, 4, 1000, 1024 * 1024);
+        fixed.onPage(80, 80, 80, 80_000, FAST);
+        assertEquals(80, fixed.getPageSize());
+        assertEquals(1, fixed.getConcurrency());
+    }
+    
+    @Test
+    void testStreamsCappedPagesInOrderAndRetriesThrottledPage() throws Exception {
+        AtomicBoolean throttled = new AtomicBoolean();
+        try (FakeJiraServer jira = new FakeJiraServer().on("/rest/api/3/search", params -> {
+            int startAt = Integer.parseInt(params.get("startAt"));
+            // Jira caps maxResults; this site at 40
+            int maxResults = Math.min(40, Integer.parseInt(params.get("maxResults")));
+            if (startAt >= 100 && throttled.compareAndSet(false, true)) {
+                throw new FakeJiraServer.HttpError(429, 0);
+            }
+            List<String> issues = new ArrayList<>();
+            for (int i = startAt; i < Math.min(startAt + maxResults, 250); i++) {
+                issues.add(FakeJiraServer.issue("PROJ-" + i, "Story " + i, "To Do", 1.0));
+            }
+            return "{\"startAt\":" + startAt + ",\"maxResults\":" + maxResults + ",\"total\":250,\"issues\":["
+                    + String.join(",", issues) + "]}";
+        })) {
+            JiraConfig config = jira.config();
+            config.setSearchPageSize(30);
+            try (JiraStoryReaderService service = new JiraStoryReaderService(config)) {
+                List<String> keys = new ArrayList<>();
+                long streamed = service.streamStories("project = PROJ", story -> keys.add(story.getKey()));
+                
+                assertEquals(250, streamed);
+                for (int i = 0; i < 250; i++) {
+                    assertEquals("PROJ-" + i, keys.get(i));
+                }
+                PagingController paging = service.getPagingController();
+                assertEquals(1, paging.getThrottledCount());
+                assertTrue(paging.getPageSize() <= 40, paging.toString());
+                
+                // Plain searches page through the whole result too
+                List<JiraStory> all = service.searchStories("project = PROJ");
+                assertEquals(250, all.size());
+                List<ImmutableJiraStory> immutable = service.searchImmutableStories("project = PROJ");
+                assertEquals(250, immutable.size());
+                assertEquals("PROJ-249", immutable.get(249).getKey());
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.adyanta.jira;
+
+import com.adyanta.jira.service.JiraStoryReaderService;
+import com.adyanta.jira.service.RequestPriority;
+import com.adyanta.jira.service.RequestScheduler;
+import com.adyanta.jira.service.RequestScope;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for prioritized, weighted sharing of Jira connections.
+ */
+public class RequestSchedulerTest {
+    
+    @Test
+    void testQueuedRequestsShareSlotsByWeight() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(1, 0, 8, 2, 1);
+        scheduler.acquire();
+        
+        List<RequestPriority> order = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            threads.add(requester(scheduler, RequestPriority.BULK, order));
+            threads.add(requester(scheduler, RequestPriority.INTERACTIVE, order));
+        }
+        awaitCondition(() -> scheduler.getQueued(RequestPriority.BULK) == 20
+                && scheduler.getQueued(RequestPriority.INTERACTIVE) == 20);
+        scheduler.release();
+        for (Thread thread : threads) {
+            thread.join(5000);
+        }
+        
+        assertEquals(40, order.size());
+        long bulkInFirst18 = order.subList(0, 18).stream().filter(p -> p == RequestPriority.BULK).count();
+        assertTrue(bulkInFirst18 >= 1 && bulkInFirst18 <= 3, "order " + order);
+        assertEquals(0, scheduler.getInFlight());
+        assertEquals(20, scheduler.getGranted(RequestPriority.BULK));
+    }
+    
+    @Test
+    void testReservedSlotKeepsInteractiveRequestsMoving() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(2, 1, 8, 2, 1);
+        try (RequestScope bulk = RequestScope.open(RequestPriority.BULK)) {
+            scheduler.acquire();
+        }
+        Thread queuedBulk = requester(scheduler, RequestPriority.BULK, new ArrayList<>());
+        awaitCondition(() -> scheduler.getQueued(RequestPriority.BULK) == 1);
+        
+        // Outside any scope requests are interactive and may use the reserved slot
+        CompletableFuture<Void> interactive = CompletableFuture.runAsync(() -> {
+            try {
+                scheduler.acquire();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        interactive.get(5, TimeUnit.SECONDS);
+        assertEquals(1, scheduler.getQueued(RequestPriority.BULK));
+        
+        scheduler.release();
+        scheduler.release();
+        queuedBulk.join(5000);
+        assertEquals(2, scheduler.getGranted(RequestPriority.BULK));
+    }
+    
+    @Test
+    void testCancelledScopeDropsQueuedAndNewRequests() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(1, 0, 8, 2, 1);
+        scheduler.acquire();
+        
+        RequestScope[] scope = new RequestScope[1];
+        CompletableFuture<Void> queued = CompletableFuture.runAsync(() -> {
+            try (RequestScope bulk = RequestScope.open(RequestPriority.BULK)) {
+                scope[0] = bulk;
+                scheduler.acquire();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        awaitCondition(() -> scheduler.getQueued(RequestPriority.BULK) == 1);
+        scope[0].cancel();
+        
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+        assertTrue(failure.getCause() instanceof CancellationException);
+        assertEquals(0, scheduler.getQueued(RequestPriority.BULK));
+        assertEquals(1, scheduler.getInFlight());
+    }
+    
+    @Test
+    void testServiceRejectsRequestsOfCancelledScope() throws Exception {
+        try (FakeJiraServer jira = new FakeJiraServer().on("/rest/api/3/issue/", params ->
+                FakeJiraServer.issue("PROJ-1", "Story", "To Do", 1.0));
+             JiraStoryReaderService service = new JiraStoryReaderService(jira.config());
+             RequestScope scope = RequestScope.open(RequestPriority.BULK)) {
+            scope.cancel();
+            
+            JiraStoryReaderService.JiraApiException e = assertThrows(JiraStoryReaderService.JiraApiException.class,
+                    () -> service.getStoryByKey("PROJ-1"));
+            assertEquals("Request cancelled", e.getMessage());
+            assertTrue(jira.getRequests().isEmpty());
+        }
+    }
+    
+    private static Thread requester(RequestScheduler scheduler, RequestPriority priority, List<RequestPriority> order) {
+        Thread thread = new Thread(() -> {
+            try (RequestScope scope = RequestScope.open(priority)) {
+                scheduler.acquire();
+                order.add(priority);
+                scheduler.release();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+        return thread;
+    }
+    
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.adyanta.jira;
+
+import com.adyanta.jira.model.JiraStory;
+import com.adyanta.jira.service.JiraStoryReaderService;
+import com.adyanta.jira.service.ResponseBufferPool;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for reading response bodies into pooled arrays.
+ */
+public class ResponseBufferPoolTest {
+    
+    @Test
+    void testReadsBodiesOfKnownAndUnknownLength() throws Exception {
+        ResponseBufferPool pool = new ResponseBufferPool(16 * 1024 * 1024);
+        Random random = new Random(42);
+        for (int size : new int[] {0, 1, 16 * 1024, 16 * 1024 + 1, 300 * 1024, 3 * 1024 * 1024}) {
+            byte[] data = new byte[size];
+            random.nextBytes(data);
+            
+            try (ResponseBufferPool.Body body = pool.read(new ByteArrayInputStream(data), size)) {
+                assertEquals(size, body.length());
+                assertArrayEquals(data, Arrays.copyOf(body.bytes(), body.length()));
+            }
+            try (ResponseBufferPool.Body body = pool.read(trickle(data), -1)) {
+                assertEquals(size, body.length(), "chunked body of " + size + " bytes");
+                assertArrayEquals(data, Arrays.copyOf(body.bytes(), body.length()));
+            }
+        }
+    }
+    
+    @Test
+    void testReusesReleasedArraysWithinBudget() throws Exception {
+        ResponseBufferPool pool = new ResponseBufferPool(4 * 64 * 1024);
+        byte[] data = new byte[10 * 1024];
+        
+        ResponseBufferPool.Body first = pool.read(new ByteArrayInputStream(data), data.length);
+        byte[] array = first.bytes();
+        first.close();
+        assertThrows(IllegalStateException.class, first::bytes);
+        first.close();
+        
+        try (ResponseBufferPool.Body second = pool.read(new ByteArrayInputStream(data), data.length)) {
+            assertSame(array, second.bytes());
+        }
+        assertEquals(1, pool.getReused());
+        assertEquals(1, pool.getAllocated());
+        
+        // A quarter of the budget per class: one 64 KB array, no 256 KB array
+        try (ResponseBufferPool.Body large = pool.read(new ByteArrayInputStream(new byte[200 * 1024]), -1)) {
+            assertEquals(200 * 1024, large.length());
+        }
+        assertEquals(16 * 1024 + 64 * 1024, pool.getPooledBytes());
+    }
+    
+    @Test
+    void testServiceReadsStoriesThroughThePool() throws Exception {
+        try (FakeJiraServer jira = new FakeJiraServer().on("/rest/api/3/issue/", params -> {
+            String key = params.get("path").substring("/rest/api/3/issue/".length());
+            return FakeJiraServer.issue(key, "Story " + key, "Open", 3.0);
+        })) {
+            try (JiraStoryReaderService service = new JiraStoryReaderService(jira.config())) {
+                for (int i = 1; i <= 3; i++) {
+                    JiraStory story = service.getStoryByKey("PROJ-" + i);
+                    assertEquals("Story PROJ-" + i, story.getFields().getSummary());
+                }
+                assertEquals(1, service.getBufferPool().getAllocated());
+                assertEquals(2, service.getBufferPool().getReused());
+            }
+        }
+    }
+    
+    /**
+     * A stream that returns at most 1000 bytes per read, like a chunked response
+     */
+    private static InputStream trickle(byte[] data) {
+        return new FilterInputStream(new ByteArrayInputStream(data)) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return super.read(b, off, Math.min(len, 1000));
+            }
+        };
+    }
+}
@@ -0,0 +1,108 @@
+package com.adyanta.jira;
+
+import com.adyanta.jira.config.JiraConfig;
+import com.adyanta.jira.service.JiraStoryReaderService;
+import com.adyanta.jira.snapshot.SnapshotBuildResult;
+import com.adyanta.jira.snapshot.SnapshotBuilder;
+import com.adyanta.jira.snapshot.SnapshotQuery;
+import com.adyanta.jira.snapshot.StorySnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for building one snapshot from several projects, sprints, boards and filters.
+ */
+public class SnapshotBuilderTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    void testPlansDistinctQueriesAndDeduplicatesStories() throws Exception {
+        Map<String, List<String>> results = new HashMap<>();
+        results.put("project = \"PROJ\" AND issuetype = \"Story\"", Arrays.asList("PROJ-1", "PROJ-2", "PROJ-3"));
+        results.put("project = \"OPS\" AND issuetype = \"Story\"", Arrays.asList("OPS-1", "OPS-2"));
+        results.put("sprint = \"Sprint 7\" AND issuetype = \"Story\"", Arrays.asList("PROJ-2", "OPS-1"));
+        results.put("filter = 70 AND issuetype = \"Story\"", Arrays.asList("PROJ-1", "OPS-3"));
+        
+        try (FakeJiraServer jira = new FakeJiraServer()
+                .on("/rest/agile/1.0/board/5/configuration", params -> "{\"id\":5,\"filter\":{\"id\":\"70\"}}")
+                .on("/rest/api/3/search", params -> {
+                    List<String> keys = results.get(params.get("jql"));
+                    if (keys == null) {
+                        throw new FakeJiraServer.HttpError(400, -1);
+                    }
+                    List<String> issues = new ArrayList<>();
+                    for (String key : keys) {
+                        issues.add(FakeJiraServer.issue(key, "Story " + key, "Open", 1.0));
+                    }
+                    return FakeJiraServer.searchPage(0, issues.size(), issues);
+                })) {
+            JiraConfig config = jira.config();
+            config.setFetchConcurrency(4);
+            
+            try (JiraStoryReaderService service = new JiraStoryReaderService(config)) {
+                SnapshotBuilder builder = new SnapshotBuilder(service)
+                        .addProjects(Arrays.asList("PROJ", "ops", "proj"))
+                        .addSprint("Sprint 7")
+                        .addFilter(70)
+                        .addBoard(5);
+                
+                List<SnapshotQuery> plan = builder.plan();
+                assertEquals(4, plan.size(), "repeated projects and a board on a listed filter share queries");
+                assertEquals(Arrays.asList("filter 70", "board 5"), plan.get(3).getSources());
+                
+                Path output = tempDir.resolve("portfolio.snap");
+                SnapshotBuildResult result = builder.build(output);
+                
+                assertEquals(6, result.getStoriesWritten());
+                assertEquals(9, result.getStoriesFetched());
+                long added = 0;
+                long duplicates = 0;
+                for (SnapshotBuildResult.QueryStats query : result.getQueries()) {
+                    added += query.getStoriesAdded();
+                    duplicates += query.getDuplicates();
+                }
+                assertEquals(6, added);
+                assertEquals(3, duplicates);
+                
+                StorySnapshot snapshot = StorySnapshot.open(output);
+                assertEquals(6, snapshot.size());
+                for (String key : Arrays.asList("PROJ-1", "PROJ-2", "PROJ-3", "OPS-1", "OPS-2", "OPS-3")) {
+                    assertTrue(snapshot.contains(key), key);
+                }
+            }
+        }
+    }
+    
+    @Test
+    void testFailedQueryWritesNoSnapshot() throws Exception {
+        try (FakeJiraServer jira = new FakeJiraServer().on("/rest/api/3/search", params -> {
+            if (params.get("jql").contains("BROKEN")) {
+                throw new FakeJiraServer.HttpError(400, -1);
+            }
+            return FakeJiraServer.searchPage(0, 1,
+                    Arrays.asList(FakeJiraServer.issue("PROJ-1", "Story", "Open", 1.0)));
+        })) {
+            try (JiraStoryReaderService service = new JiraStoryReaderService(jira.config())) {
+                Path output = tempDir.resolve("partial.snap");
+                SnapshotBuilder builder = new SnapshotBuilder(service).addProject("PROJ").addProject("BROKEN");
+                
+                JiraStoryReaderService.JiraApiException e = assertThrows(
+                        JiraStoryReaderService.JiraApiException.class, () -> builder.build(output));
+                assertTrue(e.getMessage().contains("project BROKEN"), e.getMessage());
+                assertFalse(Files.exists(output));
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.adyanta.jira;
+
+import com.adyanta.jira.config.JiraConfig;
+import com.adyanta.jira.service.JiraStoryReaderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for serving stale cache entries while they are refreshed in the background.
+ */
+public class StaleWhileRevalidateTest {
+    
+    private final AtomicReference<String> summary = new AtomicReference<>("Original");
+    private final Set<String> deleted = ConcurrentHashMap.newKeySet();
+    private FakeJiraServer jira;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        jira = new FakeJiraServer()
+                .on("/rest/api/3/issue/", params -> {
+                    String key = params.get("path").substring("/rest/api/3/issue/".length());
+                    return deleted.contains(key) ? null : FakeJiraServer.issue(key, summary.get(), "Done", 1.0);
+                })
+                .validateKeys(key -> !deleted.contains(key))
+                .on("/rest/api/3/search", params -> {
+                    List<String> issues = new ArrayList<>();
+                    for (String key : new String[] {"PROJ-1", "PROJ-2"}) {
+                        if (params.get("jql").contains(key) && !deleted.contains(key)) {
+                            issues.add(FakeJiraServer.issue(key, summary.get(), "Done", 1.0));
+                        }
+                    }
+                    return FakeJiraServer.searchPage(0, issues.size(), issues);
+                });
+    }
+    
+    @AfterEach
+    void tearDown() {
+        jira.close();
+    }
+    
+    private JiraConfig config(int ttlSeconds, int staleSeconds) {
+        JiraConfig config = jira.config();
+        config.setCacheTtlSeconds(ttlSeconds);
+        config.setCacheStaleSeconds(staleSeconds);
+        config.setCacheRefreshDelayMillis(100);
+        return config;
+    }
+    
+    private long searchRequests() {
+        return jira.getRequests().stream().filter(r -> r.startsWith("/rest/api/3/search")).count();
+    }
+    
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            Thread.sleep(20);
+        }
+    }
+    
+    @Test
+    void testStaleStoriesAreServedAndRefreshedInOneBatch() throws Exception {
+        try (JiraStoryReaderService service = new JiraStoryReaderService(config(0, 60))) {
+            service.getStoryByKey("PROJ-1");
+            service.getStoryByKey("PROJ-2");
+            summary.set("Updated");
+            
+            assertEquals("Original", service.getStoryByKey("PROJ-1").getFields().getSummary());
+            assertEquals("Original", service.getStoryByKey("PROJ-2").getFields().getSummary());
+            assertEquals(2, jira.getRequests().size(), "stale reads must not wait for Jira");
+            
+            awaitCondition(() -> "Updated".equals(service.getStoryCache().getStale("PROJ-2").getFields().getSummary()));
+            assertEquals(1, searchRequests());
+            assertTrue(jira.getRequests().get(2).contains("PROJ-1") && jira.getRequests().get(2).contains("PROJ-2"));
+        }
+    }
+    
+    @Test
+    void testDeletedStoryDoesNotBlockRefreshOfItsBatch() throws Exception {
+        try (JiraStoryReaderService service = new JiraStoryReaderService(config(0, 60))) {
+            service.getStoryByKey("PROJ-1");
+            service.getStoryByKey("PROJ-2");
+            deleted.add("PROJ-2");
+            summary.set("Updated");
+            
+            service.getStoryByKey("PROJ-1");
+            service.getStoryByKey("PROJ-2");
+            
+            awaitCondition(() -> "Updated".equals(service.getStoryCache().getStale("PROJ-1").getFields().getSummary()));
+            awaitCondition(() -> service.getStoryCache().getStale("PROJ-2") == null);
+        }
+    }
+    
+    @Test
+    void testEntriesPastTheStaleWindowAreFetched() throws Exception {
+        try (JiraStoryReaderService service = new JiraStoryReaderService(config(0, 0))) {
+            service.getStoryByKey("PROJ-1");
+            summary.set("Updated");
+            
+            assertEquals("Updated", service.getStoryByKey("PROJ-1").getFields().getSummary());
+            assertEquals(2, jira.getRequests().size());
+        }
+    }
+    
+    @Test
+    void testPopularStoriesAreRefreshedBeforeExpiry() throws Exception {
+        JiraConfig config = config(2, 60);
+        config.setCacheRefreshAheadHits(2);
+        try (JiraStoryReaderService service = new JiraStoryReaderService(config)) {
+            service.getStoryByKey("PROJ-1");
+            Thread.sleep(1700);
+            service.getStoryByKey("PROJ-1");
+            assertEquals(0, searchRequests());
+            
+            service.getStoryByKey("PROJ-1");
+            awaitCondition(() -> searchRequests() == 1);
+        }
+    }
+    
+    @Test
+    void testRepeatedSearchesAreServedFromCache() throws Exception {
+        try (JiraStoryReaderService service = new JiraStoryReaderService(config(0, 60))) {
+            assertEquals(1, service.searchStories("key = PROJ-1").size());
+            summary.set("Updated");
+            
+            assertEquals("Original", service.searchStories("key = PROJ-1").get(0).getFields().getSummary());
+            awaitCondition(() -> searchRequests() == 2);
+            awaitCondition(() -> {
+                try {
+                    return "Updated".equals(service.searchStories("key = PROJ-1").get(0).getFields().getSummary());
+                } catch (JiraStoryReaderService.JiraApiException e) {
+                    throw new AssertionError(e);
+                }
+            });
+        }
+    }
+}
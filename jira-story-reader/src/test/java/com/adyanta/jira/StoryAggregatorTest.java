@@ -0,0 +1,167 @@
+package com.adyanta.jira;
+
+import com.adyanta.jira.aggregate.AggregationResult;
+import com.adyanta.jira.aggregate.GroupBy;
+import com.adyanta.jira.aggregate.StoryAggregator;
+import com.adyanta.jira.config.JiraConfig;
+import com.adyanta.jira.model.JiraStory;
+import com.adyanta.jira.service.JiraStoryReaderService;
+import com.adyanta.jira.snapshot.SnapshotWriter;
+import com.adyanta.jira.snapshot.StorySnapshot;
+import com.adyanta.jira.snapshot.StoryView;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for story aggregation.
+ */
+public class StoryAggregatorTest {
+    
+    private static JiraStory story(String key, String status, Double points, String... labels) {
+        JiraStory.Status storyStatus = new JiraStory.Status();
+        storyStatus.setName(status);
+        JiraStory.Fields fields = new JiraStory.Fields();
+        fields.setStatus(storyStatus);
+        fields.setStoryPoints(points);
+        fields.setLabels(Arrays.asList(labels));
+        JiraStory story = new JiraStory();
+        story.setKey(key);
+        story.setFields(fields);
+        return story;
+    }
+    
+    @Test
+    void testGroupByStatusWithPercentiles() {
+        List<JiraStory> stories = Arrays.asList(
+                story("PROJ-1", "Done", 1.0),
+                story("PROJ-2", "Done", 3.0),
+                story("PROJ-3", "Done", 8.0),
+                story("PROJ-4", "To Do", 5.0),
+                story("PROJ-5", "To Do", null));
+        
+        AggregationResult result = StoryAggregator.aggregate(stories, GroupBy.STATUS);
+        
+        assertEquals(Arrays.asList("Done", "To Do"), result.getGroups());
+        assertEquals(3, result.getCount("Done"));
+        assertEquals(12.0, result.getStoryPoints("Done"));
+        assertEquals(3.0, result.getStoryPointsPercentile("Done", 50));
+        assertEquals(2, result.getCount("To Do"));
+        assertEquals(1, result.getEstimatedCount("To Do"));
+        assertEquals(5, result.getTotalCount());
+        assertEquals(17.0, result.getTotalStoryPoints());
+        assertEquals(8.0, result.getTotalStoryPointsPercentile(100));
+    }
+    
+    @Test
+    void testLabelsCountTowardsEachGroup() {
+        List<JiraStory> stories = Arrays.asList(
+                story("PROJ-1", "Done", 2.0, "backend", "api"),
+                story("PROJ-2", "Done", 3.0, "backend"),
+                story("PROJ-3", "Done", 1.0));
+        
+        AggregationResult result = StoryAggregator.aggregate(stories, GroupBy.fromName("labels"));
+        
+        assertEquals(2, result.getCount("backend"));
+        assertEquals(5.0, result.getStoryPoints("backend"));
+        assertEquals(1, result.getCount("api"));
+        assertEquals(1, result.getCount(GroupBy.NO_VALUE));
+        assertEquals(3, result.getTotalCount());
+    }
+    
+    @Test
+    void testParallelSnapshotMatchesSequentialStream() throws Exception {
+        String[] statuses = {"To Do", "In Progress", "Done"};
+        List<JiraStory> stories = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            stories.add(story("PROJ-" + i, statuses[i % 3], (double) (i % 13)));
+        }
+        
+        StoryAggregator sequential = new StoryAggregator(GroupBy.STATUS);
+        JiraStoryReaderService.StoryConsumer consumer = sequential;
+        for (JiraStory story : stories) {
+            consumer.accept(story);
+        }
+        AggregationResult expected = sequential.result();
+        AggregationResult parallel = StoryAggregator.aggregate(stories, GroupBy.STATUS);
+        
+        assertEquals(expected.getGroups(), parallel.getGroups());
+        for (String status : statuses) {
+            assertEquals(expected.getCount(status), parallel.getCount(status));
+            assertEquals(expected.getStoryPoints(status), parallel.getStoryPoints(status), 1e-9);
+            assertEquals(expected.getStoryPointsPercentile(status, 90), parallel.getStoryPointsPercentile(status, 90));
+        }
+        assertEquals(20_000, parallel.getTotalCount());
+    }
+    
+    @Test
+    void testLinkedListIsAggregatedLikeArrayList() {
+        List<JiraStory> stories = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            stories.add(story("PROJ-" + i, i % 2 == 0 ? "Done" : "To Do", (double) (i % 5)));
+        }
+        
+        AggregationResult expected = StoryAggregator.aggregate(stories, GroupBy.STATUS);
+        AggregationResult linked = StoryAggregator.aggregate(new LinkedList<>(stories), GroupBy.STATUS);
+        
+        assertEquals(expected.getCount("Done"), linked.getCount("Done"));
+        assertEquals(expected.getStoryPoints("To Do"), linked.getStoryPoints("To Do"));
+        assertEquals(50_000, linked.getTotalCount());
+    }
+    
+    @Test
+    void testSnapshotViewsMatchDecodedStories(@TempDir Path tempDir) throws Exception {
+        List<JiraStory> stories = Arrays.asList(
+                story("PROJ-1", "Done", 2.0, "backend", "api"),
+                story("PROJ-2", "To Do", null, "backend"),
+                story("PROJ-3", "Done", 5.0));
+        Path file = tempDir.resolve("stories.snap");
+        SnapshotWriter.write(file, stories);
+        
+        for (GroupBy groupBy : GroupBy.values()) {
+            StoryAggregator aggregator = new StoryAggregator(groupBy);
+            for (StoryView view : StorySnapshot.open(file)) {
+                aggregator.accept(view);
+            }
+            AggregationResult fromViews = aggregator.result();
+            AggregationResult expected = StoryAggregator.aggregate(stories, groupBy);
+            
+            assertEquals(expected.getGroups(), fromViews.getGroups(), groupBy.getOptionName());
+            for (String group : expected.getGroups()) {
+                assertEquals(expected.getCount(group), fromViews.getCount(group));
+                assertEquals(expected.getStoryPoints(group), fromViews.getStoryPoints(group));
+            }
+        }
+    }
+    
+    @Test
+    void testAggregateSearchOnStreamingPath() throws Exception {
+        try (FakeJiraServer jira = new FakeJiraServer().on("/rest/api/3/search", params -> {
+            int startAt = Integer.parseInt(params.get("startAt"));
+            return startAt == 0
+                    ? FakeJiraServer.searchPage(0, 3, Arrays.asList(
+                            FakeJiraServer.issue("PROJ-1", "One", "Done", 2.0),
+                            FakeJiraServer.issue("PROJ-2", "Two", "Done", 3.0)))
+                    : FakeJiraServer.searchPage(2, 3, Arrays.asList(
+                            FakeJiraServer.issue("PROJ-3", "Three", "To Do", 5.0)));
+        })) {
+            JiraConfig config = jira.config();
+            config.setSearchPageSize(2);
+            try (JiraStoryReaderService service = new JiraStoryReaderService(config)) {
+                AggregationResult result = StoryAggregator.aggregate(service, "sprint = 7", GroupBy.STATUS);
+                
+                assertEquals(5.0, result.getStoryPoints("Done"));
+                assertEquals(1, result.getCount("To Do"));
+                assertEquals(2, jira.getRequests().size());
+                assertTrue(result.toTable().contains("total"));
+            }
+        }
+    }
+}
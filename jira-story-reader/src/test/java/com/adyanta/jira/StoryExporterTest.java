@@ -0,0 +1,130 @@
+package com.adyanta.jira;
+
+import com.adyanta.jira.config.JiraConfig;
+import com.adyanta.jira.export.ExportColumn;
+import com.adyanta.jira.export.ExportFormat;
+import com.adyanta.jira.export.ExportOptions;
+import com.adyanta.jira.export.StoryExporter;
+import com.adyanta.jira.model.JiraStory;
+import com.adyanta.jira.service.JiraStoryReaderService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the streaming story exporter.
+ */
+public class StoryExporterTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    private JiraStory story(String key, String summary, Double storyPoints) {
+        JiraStory story = new JiraStory();
+        story.setKey(key);
+        JiraStory.Fields fields = new JiraStory.Fields();
+        fields.setSummary(summary);
+        fields.setStoryPoints(storyPoints);
+        story.setFields(fields);
+        return story;
+    }
+    
+    private void export(ExportOptions options, JiraStory... stories) throws Exception {
+        try (StoryExporter exporter = new StoryExporter(options)) {
+            for (JiraStory story : stories) {
+                exporter.write(story);
+            }
+            assertEquals(stories.length, exporter.getStoriesWritten());
+        }
+    }
+    
+    @Test
+    void testCsvExportQuotesSpecialCharacters() throws Exception {
+        ExportOptions options = new ExportOptions(tempDir.resolve("stories.csv"), ExportFormat.CSV);
+        options.setColumns(Arrays.asList(ExportColumn.KEY, ExportColumn.SUMMARY, ExportColumn.STORY_POINTS));
+        
+        export(options, story("PROJ-1", "Plain", 3.0), story("PROJ-2", "Says \"hi\", twice", null));
+        
+        List<String> lines = Files.readAllLines(options.getOutputFile());
+        assertEquals("key,summary,storyPoints", lines.get(0));
+        assertEquals("PROJ-1,Plain,3.0", lines.get(1));
+        assertEquals("PROJ-2,\"Says \"\"hi\"\", twice\",", lines.get(2));
+    }
+    
+    @Test
+    void testGzipNdjsonExport() throws Exception {
+        ExportOptions options = new ExportOptions(tempDir.resolve("stories.ndjson.gz"), ExportFormat.NDJSON);
+        options.setColumns(ExportColumn.parseList("key,storyPoints,status"));
+        options.setGzip(true);
+        
+        export(options, story("PROJ-1", "One", 5.0), story("PROJ-2", "Two", null));
+        
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(options.getOutputFile()))) {
+            in.transferTo(content);
+        }
+        String[] lines = content.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("{\"key\":\"PROJ-1\",\"storyPoints\":5.0,\"status\":null}", lines[0]);
+        assertEquals("{\"key\":\"PROJ-2\",\"storyPoints\":null,\"status\":null}", lines[1]);
+    }
+    
+    @Test
+    void testMarkdownExportEscapesPipesAndNewlines() throws Exception {
+        ExportOptions options = new ExportOptions(tempDir.resolve("stories.md"), ExportFormat.MARKDOWN);
+        options.setColumns(Arrays.asList(ExportColumn.KEY, ExportColumn.SUMMARY));
+        
+        export(options, story("PROJ-1", "a|b\nc", null));
+        
+        List<String> lines = Files.readAllLines(options.getOutputFile());
+        assertEquals("| key | summary |", lines.get(0));
+        assertEquals("| --- | --- |", lines.get(1));
+        assertEquals("| PROJ-1 | a\\|b<br>c |", lines.get(2));
+    }
+    
+    @Test
+    void testExportStreamsAllSearchPages() throws Exception {
+        try (FakeJiraServer jira = new FakeJiraServer()) {
+            jira.on("/rest/api/3/search", params -> {
+                int startAt = Integer.parseInt(params.get("startAt"));
+                List<String> issues = new ArrayList<>();
+                for (int i = startAt; i < Math.min(startAt + 2, 5); i++) {
+                    issues.add(FakeJiraServer.issue("PROJ-" + i, "Story " + i, "Done", 1.0));
+                }
+                return FakeJiraServer.searchPage(startAt, 5, issues);
+            });
+            JiraConfig config = jira.config();
+            config.setSearchPageSize(2);
+            JiraStoryReaderService service = new JiraStoryReaderService(config);
+            
+            ExportOptions options = new ExportOptions(tempDir.resolve("all.csv"), ExportFormat.CSV);
+            options.setColumns(Arrays.asList(ExportColumn.KEY, ExportColumn.STATUS));
+            long exported;
+            try (StoryExporter exporter = new StoryExporter(options)) {
+                exported = exporter.export(service, "project = PROJ");
+            }
+            
+            assertEquals(5, exported);
+            assertEquals(3, jira.getRequests().size());
+            List<String> lines = Files.readAllLines(options.getOutputFile());
+            assertEquals(6, lines.size());
+            assertEquals("PROJ-4,Done", lines.get(5));
+        }
+    }
+    
+    @Test
+    void testUnknownColumnIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ExportColumn.parseList("key,bogus"));
+    }
+}
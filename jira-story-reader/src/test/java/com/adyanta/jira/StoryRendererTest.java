@@ -0,0 +1,80 @@
+package com.adyanta.jira;
+
+import com.adyanta.jira.model.JiraStory;
+import com.adyanta.jira.render.RenderMode;
+import com.adyanta.jira.render.StoryRenderer;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the batched story renderer.
+ */
+public class StoryRendererTest {
+    
+    private JiraStory story(String key) {
+        JiraStory story = new JiraStory();
+        story.setKey(key);
+        JiraStory.Fields fields = new JiraStory.Fields();
+        fields.setSummary("Summary \"" + key + "\"");
+        fields.setDescription("  Description  ");
+        fields.setStoryPoints(3.0);
+        fields.setLabels(Arrays.asList("a", "b"));
+        JiraStory.Component component = new JiraStory.Component();
+        component.setName("API");
+        fields.setComponents(Collections.singletonList(component));
+        story.setFields(fields);
+        return story;
+    }
+    
+    private String render(RenderMode mode, JiraStory... stories) {
+        StringWriter out = new StringWriter();
+        new StoryRenderer(out, mode, 64).printAll(Arrays.asList(stories));
+        return out.toString();
+    }
+    
+    @Test
+    void testPlainModeMatchesLegacyLayout() {
+        String separator = "=".repeat(80);
+        String expected = separator + "\n" +
+                "STORY: PROJ-1\n" +
+                separator + "\n" +
+                "Summary: Summary \"PROJ-1\"\n" +
+                "Status: N/A\n" +
+                "Priority: N/A\n" +
+                "Assignee: Unassigned\n" +
+                "Reporter: N/A\n" +
+                "Story Points: 3.0\n" +
+                "\nDescription:\n" + "-".repeat(40) + "\n" +
+                "Description\n" +
+                "\nAcceptance Criteria:\n" + "-".repeat(40) + "\n" +
+                "No acceptance criteria available\n" +
+                "\nLabels: a, b\n" +
+                "Components: API\n" +
+                separator + "\n";
+        
+        assertEquals(expected, render(RenderMode.PLAIN, story("PROJ-1")));
+    }
+    
+    @Test
+    void testCompactModeWritesOneLinePerStory() {
+        String output = render(RenderMode.COMPACT, story("PROJ-1"), story("PROJ-2"), null);
+        
+        String[] lines = output.split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("PROJ-2 [N/A] (3.0 pts) Summary \"PROJ-2\" - Unassigned", lines[1]);
+    }
+    
+    @Test
+    void testJsonModeEscapesStrings() {
+        String output = render(RenderMode.JSON, story("PROJ-1"));
+        
+        assertTrue(output.startsWith("{\"key\":\"PROJ-1\",\"summary\":\"Summary \\\"PROJ-1\\\"\""));
+        assertTrue(output.contains("\"storyPoints\":3.0"));
+        assertTrue(output.endsWith("\"labels\":[\"a\",\"b\"]}\n"));
+    }
+}
@@ -0,0 +1,96 @@
+package com.adyanta.jira;
+
+import com.adyanta.jira.server.StoryServer;
+import com.adyanta.jira.service.JiraStoryReaderService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the local story server.
+ */
+public class StoryServerTest {
+    
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    private FakeJiraServer jira;
+    private JiraStoryReaderService service;
+    private StoryServer server;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        jira = new FakeJiraServer()
+                .on("/rest/api/3/issue/", params -> {
+                    String key = params.get("path").substring("/rest/api/3/issue/".length());
+                    return key.equals("PROJ-404") ? null : FakeJiraServer.issue(key, "Story " + key, "Done", 1.0);
+                })
+                .on("/rest/api/3/search", params -> FakeJiraServer.searchPage(0, 2, Arrays.asList(
+                        FakeJiraServer.issue("PROJ-1", "One", "Done", 1.0),
+                        FakeJiraServer.issue("PROJ-2", "Two", "To Do", 2.0))));
+        service = new JiraStoryReaderService(jira.config());
+        server = new StoryServer(service, 0, 2);
+        server.start();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        server.close();
+        service.close();
+        jira.close();
+    }
+    
+    private HttpResponse<String> get(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + path)).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+    
+    @Test
+    void testStoryIsServedFromWarmCache() throws Exception {
+        HttpResponse<String> first = get("/stories/PROJ-7");
+        HttpResponse<String> second = get("/stories/proj-7");
+        
+        assertEquals(200, first.statusCode());
+        assertEquals(first.body(), second.body());
+        assertEquals("Story PROJ-7", objectMapper.readTree(first.body()).path("fields").path("summary").asText());
+        assertEquals(1, jira.getRequests().size());
+    }
+    
+    @Test
+    void testErrorStatuses() throws Exception {
+        assertEquals(404, get("/stories/PROJ-404").statusCode());
+        assertEquals(400, get("/stories/not-a-key").statusCode());
+        assertEquals(400, get("/search").statusCode());
+    }
+    
+    @Test
+    void testSearchStreamsIssues() throws Exception {
+        HttpResponse<String> response = get("/search?jql=" + URLEncoder.encode("project = PROJ", StandardCharsets.UTF_8));
+        
+        assertEquals(200, response.statusCode());
+        JsonNode body = objectMapper.readTree(response.body());
+        assertEquals(2, body.path("total").asInt());
+        assertEquals("PROJ-2", body.path("issues").get(1).path("key").asText());
+    }
+    
+    @Test
+    void testHealthReportsCacheSize() throws Exception {
+        get("/stories/PROJ-1");
+        
+        JsonNode health = objectMapper.readTree(get("/health").body());
+        assertEquals("UP", health.path("status").asText());
+        assertEquals(1, health.path("cachedStories").asInt());
+    }
+}
@@ -0,0 +1,152 @@
+package com.adyanta.jira;
+
+import com.adyanta.jira.model.JiraStory;
+import com.adyanta.jira.snapshot.SnapshotWriter;
+import com.adyanta.jira.snapshot.StorySnapshot;
+import com.adyanta.jira.snapshot.StoryView;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the memory-mapped story snapshot format.
+ */
+public class StorySnapshotTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    void testRoundTripKeepsAllFields() throws Exception {
+        JiraStory story = story("PROJ-1", "Löschen über die API", "In Progress", 5.0);
+        JiraStory.Fields fields = story.getFields();
+        fields.setDescription("Long description");
+        fields.setAcceptanceCriteriaAlt("Given a user\nWhen they delete\nThen it is gone");
+        fields.setLabels(Arrays.asList("backend", "api"));
+        JiraStory.Component component = new JiraStory.Component();
+        component.setId("10");
+        component.setName("Core");
+        fields.setComponents(Collections.singletonList(component));
+        JiraStory.IssueRef parent = new JiraStory.IssueRef();
+        parent.setKey("PROJ-100");
+        fields.setParent(parent);
+        JiraStory.IssueLink link = new JiraStory.IssueLink();
+        JiraStory.IssueRef outward = new JiraStory.IssueRef();
+        outward.setKey("PROJ-7");
+        link.setOutwardIssue(outward);
+        fields.setIssueLinks(Collections.singletonList(link));
+        
+        Path file = tempDir.resolve("stories.snap");
+        SnapshotWriter.write(file, Arrays.asList(story, story("PROJ-2", "Other", "Done", null)));
+        
+        StorySnapshot snapshot = StorySnapshot.open(file);
+        assertEquals(2, snapshot.size());
+        StoryView view = snapshot.get("PROJ-1");
+        assertNotNull(view);
+        assertEquals("Löschen über die API", view.getSummary());
+        assertEquals("In Progress", view.getStatusName());
+        assertEquals(5.0, view.getStoryPoints());
+        assertEquals(Arrays.asList("backend", "api"), view.getLabels());
+        assertEquals(Collections.singletonList("Core"), view.getComponentNames());
+        assertEquals("PROJ-100", view.getParentKey());
+        assertEquals(Collections.singletonList("PROJ-7"), view.getLinkedKeys());
+        assertTrue(view.getAcceptanceCriteria().startsWith("Given a user"));
+        assertNull(snapshot.get("PROJ-2").getStoryPoints());
+        assertNull(snapshot.get("PROJ-3"));
+        
+        JiraStory copy = view.toJiraStory();
+        assertEquals("PROJ-1", copy.getKey());
+        assertEquals("Long description", copy.getFields().getDescription());
+        assertEquals("Core", copy.getFields().getComponents().get(0).getName());
+        assertEquals("PROJ-7", copy.getFields().getIssueLinks().get(0).getLinkedKey());
+        assertNull(copy.getFields().getFixVersions());
+    }
+    
+    @Test
+    void testIndexFindsEveryKeyAndKeepsWriteOrder() throws Exception {
+        List<JiraStory> stories = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            stories.add(story("PROJ-" + i, "Story " + i, i % 2 == 0 ? "To Do" : "Done", (double) (i % 8)));
+        }
+        Path file = tempDir.resolve("large.snap");
+        SnapshotWriter.write(file, stories);
+        
+        StorySnapshot snapshot = StorySnapshot.open(file);
+        assertEquals(5000, snapshot.size());
+        for (int i = 0; i < 5000; i += 97) {
+            assertEquals("Story " + i, snapshot.get("PROJ-" + i).getSummary());
+        }
+        int index = 0;
+        for (StoryView view : snapshot) {
+            assertEquals("PROJ-" + index++, view.getKey());
+        }
+        
+        // Status names are stored once however many stories share them
+        long size = Files.size(file);
+        assertTrue(size < 5000 * 200, "snapshot size " + size);
+    }
+    
+    @Test
+    void testRejectsOtherFiles() throws Exception {
+        Path file = tempDir.resolve("not-a-snapshot.snap");
+        Files.write(file, "{\"key\":\"PROJ-1\"}".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> StorySnapshot.open(file));
+    }
+    
+    @Test
+    void testRejectsHeaderPointingOutsideTheFile() throws Exception {
+        Path file = tempDir.resolve("corrupt.snap");
+        SnapshotWriter.write(file, Collections.singletonList(story("PROJ-1", "Story", "Done", 1.0)));
+        byte[] bytes = Files.readAllBytes(file);
+        // String offsets section start, far past the end of the file
+        ByteBuffer.wrap(bytes).putInt(32, 1 << 30);
+        Files.write(file, bytes);
+        
+        assertThrows(IOException.class, () -> StorySnapshot.open(file));
+    }
+    
+    @Test
+    void testStoryWrittenTwiceLeavesNothingOfItsEarlierVersion() throws Exception {
+        JiraStory first = story("PROJ-1", "A summary only the first version had", "To Do", 1.0);
+        first.getFields().setLabels(Arrays.asList("obsolete", "backend"));
+        JiraStory second = story("PROJ-1", "Current", "Done", 2.0);
+        second.getFields().setLabels(Collections.singletonList("backend"));
+        JiraStory other = story("PROJ-2", "Other", "Done", 3.0);
+        other.getFields().setLabels(Collections.singletonList("frontend"));
+        
+        Path rewritten = tempDir.resolve("rewritten.snap");
+        SnapshotWriter.write(rewritten, Arrays.asList(first, other, second));
+        Path latest = tempDir.resolve("latest.snap");
+        SnapshotWriter.write(latest, Arrays.asList(second, other));
+        
+        StorySnapshot snapshot = StorySnapshot.open(rewritten);
+        assertEquals("Current", snapshot.get("PROJ-1").getSummary());
+        assertEquals(Collections.singletonList("backend"), snapshot.get("PROJ-1").getLabels());
+        assertEquals(Collections.singletonList("frontend"), snapshot.get("PROJ-2").getLabels());
+        assertEquals(Files.size(latest), Files.size(rewritten));
+    }
+    
+    private static JiraStory story(String key, String summary, String statusName, Double points) {
+        JiraStory.Status status = new JiraStory.Status();
+        status.setName(statusName);
+        JiraStory.Fields fields = new JiraStory.Fields();
+        fields.setSummary(summary);
+        fields.setStatus(status);
+        fields.setStoryPoints(points);
+        JiraStory story = new JiraStory();
+        story.setKey(key);
+        story.setFields(fields);
+        return story;
+    }
+}
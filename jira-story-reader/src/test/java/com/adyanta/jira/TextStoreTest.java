@@ -0,0 +1,90 @@
+package com.adyanta.jira;
+
+import com.adyanta.jira.model.JiraStory;
+import com.adyanta.jira.service.JiraJson;
+import com.adyanta.jira.service.StoryCache;
+import com.adyanta.jira.service.TextStore;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for keeping story text outside the heap.
+ */
+public class TextStoreTest {
+    
+    @Test
+    void testStoresLargeTextAndDecodesItOnRead() {
+        TextStore store = new TextStore(64);
+        assertNull(store.store("short"), "small text stays on the heap");
+        
+        String repetitive = repeat("Als Benutzer möchte ich Stories exportieren. ", 50);
+        Supplier<String> compressed = store.store(repetitive);
+        assertNotNull(compressed);
+        assertEquals(repetitive, compressed.get());
+        assertTrue(store.getStoredBytes() < store.getOriginalBytes() / 4,
+                store.getStoredBytes() + " of " + store.getOriginalBytes());
+        
+        // Text that does not compress is kept as plain UTF-8
+        StringBuilder random = new StringBuilder();
+        Random rnd = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            random.append((char) ('!' + rnd.nextInt(90)));
+        }
+        Supplier<String> plain = store.store(random.toString());
+        assertEquals(random.toString(), plain.get());
+        assertEquals(2, store.getTextsStored());
+    }
+    
+    @Test
+    void testCachedStoriesKeepTextReadableAndSerializable() throws Exception {
+        String description = repeat("Long description line. ", 40);
+        String criteria = repeat("Given a story When it is cached Then its text moves off the heap. ", 10);
+        JiraStory.Fields fields = new JiraStory.Fields();
+        fields.setSummary("Summary");
+        fields.setDescription(description);
+        fields.setAcceptanceCriteriaAlt(criteria);
+        JiraStory story = new JiraStory();
+        story.setKey("PROJ-1");
+        story.setFields(fields);
+        
+        StoryCache cache = new StoryCache(10, 60);
+        TextStore store = new TextStore(128);
+        cache.setTextStore(store);
+        cache.put(story);
+        
+        assertEquals(2, store.getTextsStored());
+        JiraStory cached = cache.get("PROJ-1");
+        assertNotSame(story, cached);
+        assertEquals(description, cached.getFields().getDescription());
+        assertEquals(criteria, cached.getFields().getFirstAvailableAcceptanceCriteria());
+        assertNull(cached.getFields().getAcceptanceCriteriaAlt());
+        // The story handed to the cache keeps its text
+        assertEquals(criteria, story.getFields().getAcceptanceCriteriaAlt());
+        
+        // Written with the service's mapper, which binds annotated members only
+        JiraJson jiraJson = new JiraJson(false);
+        byte[] written = jiraJson.getObjectMapper().writeValueAsBytes(cached);
+        JsonNode json = jiraJson.getObjectMapper().readTree(written);
+        assertEquals(description, json.path("fields").path("description").asText());
+        assertEquals(criteria, json.path("fields").path("customfield_10014").asText());
+        JiraStory read = jiraJson.getStoryReader().readValue(written);
+        assertEquals(description, read.getFields().getDescription());
+        assertEquals(criteria, read.getFields().getFirstAvailableAcceptanceCriteria());
+        
+        cached.getFields().setDescription("Edited");
+        assertEquals("Edited", cached.getFields().getDescription());
+    }
+    
+    private static String repeat(String text, int times) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            builder.append(text);
+        }
+        return builder.toString();
+    }
+}
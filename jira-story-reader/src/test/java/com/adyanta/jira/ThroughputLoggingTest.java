@@ -0,0 +1,48 @@
+package com.adyanta.jira;
+
+import com.adyanta.jira.service.LogSampler;
+import com.adyanta.jira.service.RequestMetrics;
+import com.adyanta.jira.service.StoryCache;
+import com.adyanta.jira.service.ThroughputReporter;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for aggregate throughput log lines and log sampling.
+ */
+public class ThroughputLoggingTest {
+    
+    @Test
+    void testReportCoversActivitySinceThePreviousReport() {
+        RequestMetrics metrics = new RequestMetrics();
+        metrics.recordRequest(5_000_000, true);
+        try (ThroughputReporter reporter = new ThroughputReporter(metrics, new StoryCache(10, 60))) {
+            metrics.recordRequest(10_000_000, true);
+            metrics.recordRequest(20_000_000, false);
+            metrics.recordStories(150);
+            
+            String report = reporter.report();
+            assertNotNull(report);
+            assertTrue(report.contains("150 stories, 2 requests (1 failed)"), report);
+            
+            assertNull(reporter.report(), "idle intervals are not logged");
+        }
+    }
+    
+    @Test
+    void testSamplerLetsOneLineThroughPerInterval() throws Exception {
+        LogSampler sampler = new LogSampler(50, TimeUnit.MILLISECONDS);
+        assertTrue(sampler.shouldLog());
+        assertEquals(0, sampler.takeSuppressed());
+        
+        assertFalse(sampler.shouldLog());
+        assertFalse(sampler.shouldLog());
+        
+        Thread.sleep(80);
+        assertTrue(sampler.shouldLog());
+        assertEquals(2, sampler.takeSuppressed());
+    }
+}
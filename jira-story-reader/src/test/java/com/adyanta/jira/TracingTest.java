@@ -0,0 +1,152 @@
+package com.adyanta.jira;
+
+import com.adyanta.jira.config.JiraConfig;
+import com.adyanta.jira.service.JiraStoryReaderService;
+import com.adyanta.jira.trace.Span;
+import com.adyanta.jira.trace.Tracer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.MDC;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for timing spans and their OTLP JSON export.
+ */
+public class TracingTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    private FakeJiraServer jira;
+    private Path traceFile;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        traceFile = tempDir.resolve("traces.jsonl");
+        jira = new FakeJiraServer()
+                .on("/rest/api/3/issue/", params -> FakeJiraServer.issue("PROJ-1", "Traced story", "Done", 2.0))
+                .on("/rest/api/3/search", params -> FakeJiraServer.searchPage(0, 1,
+                        Arrays.asList(FakeJiraServer.issue("PROJ-2", "Batch story", "To Do", 1.0))));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        jira.close();
+    }
+    
+    private JiraConfig config() {
+        JiraConfig config = jira.config();
+        config.setTraceFile(traceFile.toString());
+        return config;
+    }
+    
+    /**
+     * All spans written to the trace file
+     */
+    private List<JsonNode> readSpans() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        List<JsonNode> spans = new ArrayList<>();
+        for (String line : Files.readAllLines(traceFile)) {
+            JsonNode request = mapper.readTree(line);
+            assertEquals("jira-story-reader",
+                    request.at("/resourceSpans/0/resource/attributes/0/value/stringValue").asText());
+            request.at("/resourceSpans/0/scopeSpans/0/spans").forEach(spans::add);
+        }
+        return spans;
+    }
+    
+    @Test
+    void testStoryFetchIsBrokenDownIntoStages() throws Exception {
+        try (JiraStoryReaderService service = new JiraStoryReaderService(config())) {
+            service.getStoryByKey("PROJ-1");
+        }
+        
+        List<JsonNode> spans = readSpans();
+        Map<String, JsonNode> byName = new HashMap<>();
+        Set<String> traceIds = new HashSet<>();
+        for (JsonNode span : spans) {
+            byName.put(span.get("name").asText(), span);
+            traceIds.add(span.get("traceId").asText());
+            assertTrue(span.get("endTimeUnixNano").asLong() >= span.get("startTimeUnixNano").asLong());
+        }
+        assertTrue(byName.keySet().containsAll(Arrays.asList("getStoryByKey", "queue", "HTTP GET",
+                "connection.lease", "connect", "time_to_first_byte", "body.read", "parse")), byName.keySet().toString());
+        assertEquals(1, traceIds.size());
+        
+        JsonNode root = byName.get("getStoryByKey");
+        JsonNode http = byName.get("HTTP GET");
+        assertFalse(root.has("parentSpanId"));
+        assertEquals(root.get("spanId").asText(), http.get("parentSpanId").asText());
+        assertEquals(http.get("spanId").asText(), byName.get("time_to_first_byte").get("parentSpanId").asText());
+        assertEquals(32, root.get("traceId").asText().length());
+        assertEquals(3, http.get("kind").asInt());
+    }
+    
+    @Test
+    void testBatchesOnWorkerThreadsJoinTheCallersTrace() throws Exception {
+        JiraConfig config = config();
+        config.setFetchBatchSize(1);
+        try (JiraStoryReaderService service = new JiraStoryReaderService(config)) {
+            service.getStoriesByKeys(Arrays.asList("PROJ-2", "PROJ-3"));
+        }
+        
+        List<JsonNode> spans = readSpans();
+        String rootSpanId = null;
+        Set<String> traceIds = new HashSet<>();
+        int batches = 0;
+        for (JsonNode span : spans) {
+            traceIds.add(span.get("traceId").asText());
+            if ("getStoriesByKeys".equals(span.get("name").asText())) {
+                rootSpanId = span.get("spanId").asText();
+            }
+        }
+        for (JsonNode span : spans) {
+            if ("batch".equals(span.get("name").asText())) {
+                batches++;
+                assertEquals(rootSpanId, span.get("parentSpanId").asText());
+            }
+        }
+        assertEquals(2, batches);
+        assertEquals(1, traceIds.size());
+    }
+    
+    @Test
+    void testTraceIdsAreKeptInTheMdc() throws Exception {
+        try (Tracer tracer = Tracer.forFile(traceFile.toString())) {
+            try (Span outer = tracer.startSpan("outer")) {
+                assertEquals(outer.getTraceId(), MDC.get(Tracer.MDC_TRACE_ID));
+                try (Span inner = tracer.startSpan("inner")) {
+                    assertEquals(outer.getTraceId(), inner.getTraceId());
+                    assertEquals(inner.getSpanId(), MDC.get(Tracer.MDC_SPAN_ID));
+                }
+                assertEquals(outer.getSpanId(), MDC.get(Tracer.MDC_SPAN_ID));
+            }
+            assertNull(MDC.get(Tracer.MDC_TRACE_ID));
+        }
+        assertEquals(2, readSpans().size());
+    }
+    
+    @Test
+    void testDisabledTracerRecordsNothing() {
+        Tracer tracer = Tracer.disabled();
+        try (Span span = tracer.startSpan("ignored")) {
+            assertFalse(span.isRecording());
+            assertNull(MDC.get(Tracer.MDC_TRACE_ID));
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.adyanta.jira;
+
+import com.adyanta.jira.server.StoryServer;
+import com.adyanta.jira.server.WebhookHandler;
+import com.adyanta.jira.service.JiraStoryReaderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for webhook ingestion, driven by locally posted sample events.
+ */
+public class WebhookHandlerTest {
+    
+    private FakeJiraServer jira;
+    private JiraStoryReaderService service;
+    private WebhookHandler handler;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        jira = new FakeJiraServer()
+                .on("/rest/api/3/issue/", params ->
+                        FakeJiraServer.issue("PROJ-124", "Fetched after create", "To Do", 3.0))
+                .on("/rest/api/3/search", params -> params.get("jql").contains("PROJ-125")
+                        ? FakeJiraServer.searchPage(0, 1, Arrays.asList(
+                                FakeJiraServer.issue("PROJ-125", "Import sprint stories", "To Do", 3.0)))
+                        : FakeJiraServer.searchPage(0, 2, Arrays.asList(
+                                FakeJiraServer.issue("PROJ-123", "Export sprint stories", "In Progress", 5.0),
+                                FakeJiraServer.issue("PROJ-125", "Import sprint stories", "To Do", 3.0))));
+        service = new JiraStoryReaderService(jira.config());
+        handler = new WebhookHandler(service, null);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        service.close();
+        jira.close();
+    }
+    
+    private byte[] sample(String name) throws Exception {
+        try (InputStream in = getClass().getResourceAsStream("/webhooks/" + name)) {
+            return in.readAllBytes();
+        }
+    }
+    
+    @Test
+    void testUpdateWithFieldsIsStoredWithoutFetching() throws Exception {
+        assertEquals(WebhookHandler.Outcome.STORED, handler.handle(sample("issue-updated.json")));
+        
+        assertEquals("Export sprint stories (renamed)", service.getStoryByKey("PROJ-123").getFields().getSummary());
+        assertEquals(8.0, service.getStoryByKey("PROJ-123").getFields().getStoryPoints());
+        assertTrue(jira.getRequests().isEmpty());
+    }
+    
+    @Test
+    void testEventsArrivingOutOfOrderDoNotOverwriteNewerCopy() throws Exception {
+        String update = new String(sample("issue-updated.json"), StandardCharsets.UTF_8);
+        byte[] older = update.replace("2024-01-05T12:30:00.000+0000", "2024-01-05T11:00:00.000+0000")
+                .replace("(renamed)", "(draft)").getBytes(StandardCharsets.UTF_8);
+        byte[] otherZone = update.replace("2024-01-05T12:30:00.000+0000", "2024-01-05T13:00:00.000+0100")
+                .replace("(renamed)", "(final)").getBytes(StandardCharsets.UTF_8);
+        
+        assertEquals(WebhookHandler.Outcome.STORED, handler.handle(sample("issue-updated.json")));
+        assertEquals(WebhookHandler.Outcome.OUTDATED, handler.handle(older));
+        assertEquals(WebhookHandler.Outcome.OUTDATED, handler.handle(sample("issue-updated.json")));
+        // 13:00+0100 is 12:00 UTC, before the cached 12:30
+        assertEquals(WebhookHandler.Outcome.OUTDATED, handler.handle(otherZone));
+        assertEquals("Export sprint stories (renamed)", service.getStoryByKey("PROJ-123").getFields().getSummary());
+        
+        byte[] latest = update.replace("2024-01-05T12:30:00.000+0000", "2024-01-05T12:31:00.000+0000")
+                .replace("(renamed)", "(final)").getBytes(StandardCharsets.UTF_8);
+        assertEquals(WebhookHandler.Outcome.STORED, handler.handle(latest));
+        assertEquals("Export sprint stories (final)", service.getStoryByKey("PROJ-123").getFields().getSummary());
+    }
+    
+    @Test
+    void testPushedChangesReachChangeListeners() throws Exception {
+        List<String> changed = new ArrayList<>();
+        service.onStoryChanged(story -> changed.add(story.getFields().getSummary()));
+        String update = new String(sample("issue-updated.json"), StandardCharsets.UTF_8);
+        
+        handler.handle(sample("issue-updated.json"));
+        assertTrue(changed.isEmpty(), "a story seen for the first time is not a change");
+        handler.handle(update.replace("2024-01-05T12:30:00.000+0000", "2024-01-05T12:45:00.000+0000")
+                .replace("(renamed)", "(final)").getBytes(StandardCharsets.UTF_8));
+        
+        assertEquals(List.of("Export sprint stories (final)"), changed);
+    }
+    
+    @Test
+    void testCreateWithoutFieldsTriggersRefetch() throws Exception {
+        assertEquals(WebhookHandler.Outcome.REFETCHED, handler.handle(sample("issue-created-minimal.json")));
+        
+        assertEquals(1, jira.getRequests().size());
+        assertEquals("Fetched after create", service.getStoryByKey("PROJ-124").getFields().getSummary());
+        assertEquals(1, jira.getRequests().size());
+    }
+    
+    @Test
+    void testDeleteEvictsStory() throws Exception {
+        handler.handle(sample("issue-updated.json"));
+        
+        assertEquals(WebhookHandler.Outcome.EVICTED, handler.handle(sample("issue-deleted.json")));
+        assertEquals(0, service.getStoryCache().size());
+    }
+    
+    @Test
+    void testChangesDropCachedSearches() throws Exception {
+        service.searchStories("project = PROJ");
+        service.searchStories("key = PROJ-125");
+        assertEquals(2, service.getSearchCache().size());
+        
+        handler.handle(sample("issue-deleted.json"));
+        assertEquals(1, service.getSearchCache().size(), "only the result holding the deleted story is dropped");
+        
+        service.searchStories("project = PROJ");
+        assertEquals(3, jira.getRequests().size());
+        String update = new String(sample("issue-updated.json"), StandardCharsets.UTF_8);
+        handler.handle(update.replace("2024-01-05T12:30:00.000+0000", "2024-01-05T12:45:00.000+0000")
+                .getBytes(StandardCharsets.UTF_8));
+        assertEquals(0, service.getSearchCache().size());
+    }
+    
+    @Test
+    void testUnknownEventIsIgnored() throws Exception {
+        byte[] payload = "{\"webhookEvent\":\"comment_created\",\"issue\":{\"key\":\"PROJ-1\"}}".getBytes(StandardCharsets.UTF_8);
+        assertEquals(WebhookHandler.Outcome.IGNORED, handler.handle(payload));
+    }
+    
+    @Test
+    void testPostedEventWithSignature() throws Exception {
+        try (StoryServer server = new StoryServer(service, 0, 1, "s3cret")) {
+            server.start();
+            byte[] payload = sample("issue-updated.json");
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec("s3cret".getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            StringBuilder signature = new StringBuilder("sha256=");
+            for (byte b : mac.doFinal(payload)) {
+                signature.append(String.format("%02x", b));
+            }
+            
+            HttpClient client = HttpClient.newHttpClient();
+            URI uri = URI.create("http://127.0.0.1:" + server.getPort() + "/webhooks/jira");
+            HttpResponse<String> accepted = client.send(HttpRequest.newBuilder(uri)
+                    .header("X-Hub-Signature", signature.toString())
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(payload)).build(), HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> rejected = client.send(HttpRequest.newBuilder(uri)
+                    .header("X-Hub-Signature", "sha256=00")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(payload)).build(), HttpResponse.BodyHandlers.ofString());
+            
+            assertEquals(200, accepted.statusCode());
+            assertTrue(accepted.body().contains("STORED"));
+            assertEquals(401, rejected.statusCode());
+        }
+    }
+    
+    @Test
+    void testServerReachableFromOtherHostsRequiresSecret() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> new StoryServer(service, "0.0.0.0", 0, 1, null));
+        
+        try (StoryServer server = new StoryServer(service, "0.0.0.0", 0, 1, "s3cret")) {
+            assertTrue(server.getPort() > 0);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.adyanta.jira.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A local stand-in for Jira serving a catalog of generated stories PROJ-1 to PROJ-n
+ * on the issue and search endpoints, after a fixed delay that plays the part of
+ * Jira's own response time. Issue JSON is rendered once up front, so the server adds
+ * little allocation of its own to the measurement. Its threads are named "fake-jira-"
+ * so the load test can leave them out of the allocation figures.
+ */
+public class FakeJira implements AutoCloseable {
+    
+    static final String THREAD_PREFIX = "fake-jira-";
+    
+    private static final Pattern KEY_IN = Pattern.compile("(?i)^\\s*key\\s+in\\s*\\(([^)]*)\\)");
+    private static final String[] STATUSES = {"To Do", "In Progress", "In Review", "Done"};
+    private static final String[] LABELS = {"backend", "frontend", "api", "ux", "performance", "security"};
+    
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final byte[][] issues;
+    private final int searchResults;
+    private final long latencyMillis;
+    private final LongAdder requests = new LongAdder();
+    
+    /**
+     * @param port          port to listen on, 0 for any free port
+     * @param storyCount    stories in the catalog
+     * @param searchResults stories a JQL search other than "key in (...)" finds
+     * @param latencyMillis delay before each response is sent
+     * @param threads       requests served at once
+     */
+    public FakeJira(int port, int storyCount, int searchResults, long latencyMillis, int threads) throws IOException {
+        this.issues = new byte[storyCount][];
+        for (int i = 0; i < storyCount; i++) {
+            issues[i] = renderIssue(i + 1).getBytes(StandardCharsets.UTF_8);
+        }
+        this.searchResults = Math.min(searchResults, storyCount);
+        this.latencyMillis = latencyMillis;
+        
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, THREAD_PREFIX + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Headers and body go out as separate writes; without TCP_NODELAY each response
+        // waits for the client's delayed ACK, adding about 40 ms to every call
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 1024);
+        server.createContext("/rest/api/3/issue/", this::handleIssue);
+        server.createContext("/rest/api/3/search", this::handleSearch);
+        server.setExecutor(executor);
+        server.start();
+    }
+    
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+    
+    public int getStoryCount() {
+        return issues.length;
+    }
+    
+    /**
+     * Requests served so far, to compare with the calls made: the difference was answered from cache
+     */
+    public long getRequestCount() {
+        return requests.sum();
+    }
+    
+    private void handleIssue(HttpExchange exchange) throws IOException {
+        String key = exchange.getRequestURI().getPath().substring("/rest/api/3/issue/".length());
+        int index = indexOf(key);
+        pause();
+        if (index < 0) {
+            send(exchange, 404, List.of("{\"errorMessages\":[\"Issue does not exist\"]}".getBytes(StandardCharsets.UTF_8)));
+        } else {
+            send(exchange, 200, List.of(issues[index]));
+        }
+    }
+    
+    private void handleSearch(HttpExchange exchange) throws IOException {
+        Map<String, String> params = parameters(exchange.getRequestURI().getRawQuery());
+        String jql = params.getOrDefault("jql", "");
+        int startAt = Integer.parseInt(params.getOrDefault("startAt", "0"));
+        int maxResults = Integer.parseInt(params.getOrDefault("maxResults", "50"));
+        
+        List<Integer> matches = new ArrayList<>();
+        Matcher keyIn = KEY_IN.matcher(jql);
+        if (keyIn.find()) {
+            for (String key : keyIn.group(1).split("[,\\s]+")) {
+                int index = indexOf(key.replace("\"", ""));
+                if (index >= 0) {
+                    matches.add(index);
+                }
+            }
+        } else {
+            // Each query finds its own window of the catalog
+            int first = Math.floorMod(jql.hashCode(), issues.length);
+            for (int i = 0; i < searchResults; i++) {
+                matches.add((first + i) % issues.length);
+            }
+        }
+        
+        int from = Math.min(startAt, matches.size());
+        int to = Math.min(from + maxResults, matches.size());
+        List<byte[]> parts = new ArrayList<>(2 * (to - from) + 2);
+        parts.add(("{\"startAt\":" + from + ",\"maxResults\":" + maxResults + ",\"total\":" + matches.size()
+                + ",\"issues\":[").getBytes(StandardCharsets.UTF_8));
+        byte[] comma = {','};
+        for (int i = from; i < to; i++) {
+            if (i > from) {
+                parts.add(comma);
+            }
+            parts.add(issues[matches.get(i)]);
+        }
+        parts.add(new byte[] {']', '}'});
+        pause();
+        send(exchange, 200, parts);
+    }
+    
+    private int indexOf(String key) {
+        if (!key.startsWith("PROJ-")) {
+            return -1;
+        }
+        try {
+            int number = Integer.parseInt(key.substring("PROJ-".length()));
+            return number >= 1 && number <= issues.length ? number - 1 : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+    
+    private void pause() {
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    private void send(HttpExchange exchange, int status, List<byte[]> parts) throws IOException {
+        requests.increment();
+        long length = 0;
+        for (byte[] part : parts) {
+            length += part.length;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            for (byte[] part : parts) {
+                out.write(part);
+            }
+        }
+    }
+    
+    private static Map<String, String> parameters(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0) {
+                    params.put(pair.substring(0, eq), URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return params;
+    }
+    
+    /**
+     * A story of typical size: a few hundred characters of description and
+     * acceptance criteria, status, assignee, labels and story points
+     */
+    private static String renderIssue(int number) {
+        String key = "PROJ-" + number;
+        String status = STATUSES[number % STATUSES.length];
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < 3 + number % 5; i++) {
+            description.append("As a user of feature ").append(number).append(" I want step ").append(i)
+                    .append(" to work with larger data sets, so that reports finish in time. ");
+        }
+        String criteria = "Given a sprint with " + number % 40 + " stories\\nWhen the report is exported\\n"
+                + "Then every story appears once\\n* Works for CSV\\n* Works for Markdown";
+        return "{\"id\":\"" + (10000 + number) + "\",\"key\":\"" + key + "\","
+                + "\"self\":\"https://jira.example.com/rest/api/3/issue/" + (10000 + number) + "\","
+                + "\"fields\":{"
+                + "\"summary\":\"Story " + number + ": improve export throughput\","
+                + "\"description\":\"" + description + "\","
+                + "\"customfield_10014\":\"" + criteria + "\","
+                + "\"status\":{\"id\":\"" + (number % STATUSES.length + 1) + "\",\"name\":\"" + status + "\"},"
+                + "\"priority\":{\"id\":\"3\",\"name\":\"Medium\"},"
+                + "\"issuetype\":{\"id\":\"10001\",\"name\":\"Story\"},"
+                + "\"assignee\":{\"accountId\":\"user-" + number % 25 + "\",\"displayName\":\"Developer "
+                + number % 25 + "\",\"emailAddress\":\"dev" + number % 25 + "@example.com\"},"
+                + "\"labels\":[\"" + LABELS[number % LABELS.length] + "\",\"" + LABELS[(number / 6) % LABELS.length] + "\"],"
+                + "\"created\":\"2024-01-02T09:00:00.000+0000\","
+                + "\"updated\":\"2024-03-" + (10 + number % 18) + "T16:45:00.000+0000\","
+                + "\"customfield_10021\":" + (1 + number % 8) + ".0}}";
+    }
+    
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.adyanta.jira.loadtest;
+
+/**
+ * Latency histogram with logarithmic buckets split into 64 linear steps, so
+ * recorded values are kept to within about 1.5% over the full range of a long.
+ * Recording does not allocate; each worker records into its own instance and
+ * the instances are merged when the run is over.
+ */
+public final class LatencyHistogram {
+    
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF = SUB_BUCKETS / 2;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * HALF + SUB_BUCKETS;
+    
+    private final long[] counts = new long[BUCKETS];
+    private long total;
+    private long sum;
+    private long max;
+    
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts[index(value)]++;
+        total++;
+        sum += value;
+        if (value > max) {
+            max = value;
+        }
+    }
+    
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+    
+    public long getCount() {
+        return total;
+    }
+    
+    public double getMeanNanos() {
+        return total == 0 ? 0 : (double) sum / total;
+    }
+    
+    public long getMaxNanos() {
+        return max;
+    }
+    
+    /**
+     * Value at the given percentile, between 0 and 100, in nanoseconds
+     */
+    public long getPercentileNanos(double percentile) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValue(i), max);
+            }
+        }
+        return max;
+    }
+    
+    /**
+     * Values below 128 have a bucket each; above, every power of two is split into 64 buckets
+     */
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        return shift * HALF + (int) (value >>> shift);
+    }
+    
+    static long highestValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / HALF - 1;
+        long step = index - (long) shift * HALF;
+        return ((step + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,137 @@
+package com.adyanta.jira.loadtest;
+
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * What one load test run measured: throughput, latency percentiles per operation,
+ * heap allocation and garbage collection
+ */
+public final class LoadReport {
+    
+    private final long elapsedNanos;
+    private final int concurrency;
+    private final double ratePerSecond;
+    private final long allocatedBytes;
+    private final long gcCount;
+    private final long gcMillis;
+    private final long backendRequests;
+    private final Map<Trace.Operation, LatencyHistogram> latencies = new EnumMap<>(Trace.Operation.class);
+    private final Map<Trace.Operation, Long> errors = new EnumMap<>(Trace.Operation.class);
+    private final Map<Trace.Operation, String> firstErrors = new EnumMap<>(Trace.Operation.class);
+    
+    LoadReport(long elapsedNanos, int concurrency, double ratePerSecond, long allocatedBytes,
+               long gcCount, long gcMillis, long backendRequests) {
+        this.elapsedNanos = elapsedNanos;
+        this.concurrency = concurrency;
+        this.ratePerSecond = ratePerSecond;
+        this.allocatedBytes = allocatedBytes;
+        this.gcCount = gcCount;
+        this.gcMillis = gcMillis;
+        this.backendRequests = backendRequests;
+    }
+    
+    void add(Trace.Operation operation, LatencyHistogram histogram, long errorCount, String firstError) {
+        latencies.computeIfAbsent(operation, o -> new LatencyHistogram()).add(histogram);
+        errors.merge(operation, errorCount, Long::sum);
+        if (firstError != null) {
+            firstErrors.putIfAbsent(operation, firstError);
+        }
+    }
+    
+    public LatencyHistogram getLatencies(Trace.Operation operation) {
+        return latencies.getOrDefault(operation, new LatencyHistogram());
+    }
+    
+    public LatencyHistogram getAllLatencies() {
+        LatencyHistogram all = new LatencyHistogram();
+        for (LatencyHistogram histogram : latencies.values()) {
+            all.add(histogram);
+        }
+        return all;
+    }
+    
+    public long getCallCount() {
+        return getAllLatencies().getCount();
+    }
+    
+    public long getErrorCount() {
+        long total = 0;
+        for (long count : errors.values()) {
+            total += count;
+        }
+        return total;
+    }
+    
+    public double getElapsedSeconds() {
+        return elapsedNanos / 1e9;
+    }
+    
+    /**
+     * Calls completed per second
+     */
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : getCallCount() / getElapsedSeconds();
+    }
+    
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+    
+    public double getAllocationRateBytesPerSecond() {
+        return elapsedNanos == 0 ? 0 : allocatedBytes / getElapsedSeconds();
+    }
+    
+    public long getGcCount() {
+        return gcCount;
+    }
+    
+    public long getGcMillis() {
+        return gcMillis;
+    }
+    
+    /**
+     * Requests that reached Jira; calls beyond these were served from the caches.
+     * -1 when Jira runs in another process and cannot be asked.
+     */
+    public long getBackendRequests() {
+        return backendRequests;
+    }
+    
+    public void print(PrintStream out) {
+        out.printf("Run: %.1f s, %d workers, %s%n", getElapsedSeconds(), concurrency,
+                ratePerSecond > 0 ? String.format("open loop at %.1f calls/s", ratePerSecond) : "closed loop");
+        out.printf("%-18s %9s %7s %9s %9s %9s %9s %9s%n",
+                "operation", "calls", "errors", "mean ms", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (Trace.Operation operation : Trace.Operation.values()) {
+            LatencyHistogram histogram = latencies.get(operation);
+            if (histogram != null && histogram.getCount() > 0) {
+                printRow(out, operation.getMethodName(), histogram, errors.getOrDefault(operation, 0L));
+            }
+        }
+        printRow(out, "all", getAllLatencies(), getErrorCount());
+        if (backendRequests >= 0) {
+            out.printf("Throughput: %.1f calls/s, %d requests to Jira (%.1f per call)%n", getThroughput(),
+                    backendRequests, getCallCount() == 0 ? 0 : (double) backendRequests / getCallCount());
+        } else {
+            out.printf("Throughput: %.1f calls/s%n", getThroughput());
+        }
+        out.printf("Allocation: %.1f MB/s, %.1f KB per call%n", getAllocationRateBytesPerSecond() / (1024 * 1024),
+                getCallCount() == 0 ? 0 : allocatedBytes / 1024.0 / getCallCount());
+        out.printf("GC: %d collections, %d ms (%.2f%% of the run)%n", gcCount, gcMillis,
+                elapsedNanos == 0 ? 0 : gcMillis * 1e6 / elapsedNanos * 100);
+        for (Map.Entry<Trace.Operation, String> error : firstErrors.entrySet()) {
+            out.printf("First %s error: %s%n", error.getKey().getMethodName(), error.getValue());
+        }
+    }
+    
+    private static void printRow(PrintStream out, String name, LatencyHistogram histogram, long errorCount) {
+        out.printf("%-18s %9d %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, histogram.getCount(), errorCount,
+                histogram.getMeanNanos() / 1e6,
+                histogram.getPercentileNanos(50) / 1e6,
+                histogram.getPercentileNanos(99) / 1e6,
+                histogram.getPercentileNanos(99.9) / 1e6,
+                histogram.getMaxNanos() / 1e6);
+    }
+}
@@ -0,0 +1,236 @@
+package com.adyanta.jira.loadtest;
+
+import com.adyanta.jira.service.JiraStoryReaderService;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Replays a trace against the service from a number of worker threads, either as fast
+ * as the workers can go (closed loop) or at a fixed arrival rate (open loop). At a fixed
+ * rate every call has a planned start time and latency is measured from it, so calls
+ * that wait because the workers are all busy count with their waiting time instead of
+ * hiding it.
+ */
+public class LoadRunner {
+    
+    private final JiraStoryReaderService service;
+    private final Trace trace;
+    private final int catalogSize;
+    private final int concurrency;
+    private final double ratePerSecond;
+    private final LongSupplier backendRequests;
+    
+    /**
+     * @param catalogSize     number of stories random trace keys are drawn from
+     * @param ratePerSecond   calls started per second, 0 to run closed loop
+     * @param backendRequests requests that reached Jira so far, for the cache hit figures;
+     *                        null when they cannot be counted
+     */
+    public LoadRunner(JiraStoryReaderService service, Trace trace, int catalogSize, int concurrency,
+                      double ratePerSecond, LongSupplier backendRequests) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("Concurrency must be positive");
+        }
+        if (ratePerSecond < 0) {
+            throw new IllegalArgumentException("Rate cannot be negative");
+        }
+        this.service = service;
+        this.trace = trace;
+        this.catalogSize = catalogSize;
+        this.concurrency = concurrency;
+        this.ratePerSecond = ratePerSecond;
+        this.backendRequests = backendRequests;
+    }
+    
+    /**
+     * Replay the trace for the given time and report what was measured
+     */
+    public LoadReport run(long durationMillis) throws InterruptedException {
+        AtomicLong tickets = new AtomicLong();
+        List<Worker> workers = new ArrayList<>(concurrency);
+        long backendStart = backendRequests != null ? backendRequests.getAsLong() : 0;
+        Map<Long, Long> allocatedStart = allocatedBytes();
+        long[] gcStart = gcTotals();
+        long start = System.nanoTime();
+        long end = start + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+        
+        for (int i = 0; i < concurrency; i++) {
+            Worker worker = new Worker(tickets, start, end);
+            Thread thread = new Thread(worker, "load-worker-" + (i + 1));
+            thread.setDaemon(true);
+            worker.thread = thread;
+            workers.add(worker);
+            thread.start();
+        }
+        for (Worker worker : workers) {
+            worker.thread.join();
+        }
+        
+        long elapsed = System.nanoTime() - start;
+        long[] gcEnd = gcTotals();
+        long allocated = 0;
+        for (Map.Entry<Long, Long> thread : allocatedBytes().entrySet()) {
+            allocated += thread.getValue() - allocatedStart.getOrDefault(thread.getKey(), 0L);
+        }
+        for (Worker worker : workers) {
+            allocated += worker.allocated;
+        }
+        
+        LoadReport report = new LoadReport(elapsed, concurrency, ratePerSecond, allocated,
+                gcEnd[0] - gcStart[0], gcEnd[1] - gcStart[1],
+                backendRequests != null ? backendRequests.getAsLong() - backendStart : -1);
+        for (Worker worker : workers) {
+            for (Trace.Operation operation : Trace.Operation.values()) {
+                report.add(operation, worker.latencies[operation.ordinal()], worker.errors[operation.ordinal()],
+                        worker.firstError[operation.ordinal()]);
+            }
+        }
+        return report;
+    }
+    
+    private final class Worker implements Runnable {
+        
+        private final AtomicLong tickets;
+        private final long start;
+        private final long end;
+        private final LatencyHistogram[] latencies = new LatencyHistogram[Trace.Operation.values().length];
+        private final long[] errors = new long[Trace.Operation.values().length];
+        private final String[] firstError = new String[Trace.Operation.values().length];
+        private Thread thread;
+        private long allocated;
+        
+        private Worker(AtomicLong tickets, long start, long end) {
+            this.tickets = tickets;
+            this.start = start;
+            this.end = end;
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i] = new LatencyHistogram();
+            }
+        }
+        
+        @Override
+        public void run() {
+            // Workers have ended by the time the run is measured, so each one measures itself
+            long allocatedStart = threadAllocatedBytes();
+            try {
+                replay();
+            } finally {
+                allocated = threadAllocatedBytes() - allocatedStart;
+            }
+        }
+        
+        private void replay() {
+            while (true) {
+                long ticket = tickets.getAndIncrement();
+                long planned;
+                if (ratePerSecond > 0) {
+                    planned = start + (long) (ticket * 1_000_000_000.0 / ratePerSecond);
+                    if (planned >= end) {
+                        return;
+                    }
+                    long now;
+                    while ((now = System.nanoTime()) < planned) {
+                        LockSupport.parkNanos(planned - now);
+                    }
+                } else {
+                    planned = System.nanoTime();
+                    if (planned >= end) {
+                        return;
+                    }
+                }
+                
+                Trace.Call call = trace.get(ticket);
+                int operation = call.getOperation().ordinal();
+                try {
+                    execute(call);
+                } catch (Exception e) {
+                    if (errors[operation]++ == 0) {
+                        firstError[operation] = e.getMessage();
+                    }
+                }
+                latencies[operation].record(System.nanoTime() - planned);
+            }
+        }
+    }
+    
+    private void execute(Trace.Call call) throws JiraStoryReaderService.JiraApiException {
+        switch (call.getOperation()) {
+            case GET_STORY_BY_KEY:
+                service.getStoryByKey(call.keys(catalogSize).get(0));
+                break;
+            case SEARCH_STORIES:
+                service.searchStories(call.jql(catalogSize));
+                break;
+            case GET_STORIES_BY_KEYS:
+                service.getStoriesByKeys(call.keys(catalogSize));
+                break;
+            default:
+                throw new IllegalStateException("Unknown operation " + call.getOperation());
+        }
+    }
+    
+    /**
+     * Heap allocated so far per live thread of this JVM, leaving out an in-process fake Jira.
+     * Threads that start and end during a run, other than the workers, are not counted,
+     * so the figure is a lower bound.
+     */
+    static Map<Long, Long> allocatedBytes() {
+        Map<Long, Long> allocated = new HashMap<>();
+        com.sun.management.ThreadMXBean threads = allocationBean();
+        if (threads == null) {
+            return allocated;
+        }
+        long[] ids = threads.getAllThreadIds();
+        ThreadInfo[] infos = threads.getThreadInfo(ids);
+        long[] bytes = threads.getThreadAllocatedBytes(ids);
+        for (int i = 0; i < ids.length; i++) {
+            if (infos[i] != null && bytes[i] > 0 && !infos[i].getThreadName().startsWith(FakeJira.THREAD_PREFIX)) {
+                allocated.put(ids[i], bytes[i]);
+            }
+        }
+        return allocated;
+    }
+    
+    private static long threadAllocatedBytes() {
+        com.sun.management.ThreadMXBean threads = allocationBean();
+        return threads == null ? 0 : Math.max(0, threads.getThreadAllocatedBytes(Thread.currentThread().getId()));
+    }
+    
+    /**
+     * The HotSpot thread bean, when it can report allocation
+     */
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean allocation = (com.sun.management.ThreadMXBean) threads;
+            if (allocation.isThreadAllocatedMemorySupported() && allocation.isThreadAllocatedMemoryEnabled()) {
+                return allocation;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Collections and milliseconds spent in them over all collectors
+     */
+    static long[] gcTotals() {
+        long count = 0;
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collector.getCollectionCount());
+            millis += Math.max(0, collector.getCollectionTime());
+        }
+        return new long[] {count, millis};
+    }
+}
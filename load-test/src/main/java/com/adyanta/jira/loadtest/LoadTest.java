@@ -0,0 +1,153 @@
+package com.adyanta.jira.loadtest;
+
+import com.adyanta.jira.cli.CliArguments;
+import com.adyanta.jira.config.JiraConfig;
+import com.adyanta.jira.service.JiraStoryReaderService;
+import org.apache.commons.configuration2.ex.ConfigurationException;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Paths;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.LongSupplier;
+
+/**
+ * Command line entry point of the load test.
+ * <pre>
+ * run        replay a trace against a fake Jira and print the report
+ * fake-jira  start a fake Jira on its own, for runs that should not share a JVM with it
+ * </pre>
+ * The report goes to stdout, progress to stderr. The JVM flags, heap size and
+ * collector are those of the load test process, so start it the way the service
+ * runs in production, e.g. java -Xmx512m -XX:+UseG1GC -jar jira-story-reader-load-test.jar run
+ */
+public final class LoadTest {
+    
+    static final int EXIT_OK = 0;
+    static final int EXIT_FAILURE = 1;
+    static final int EXIT_USAGE = 2;
+    
+    private final PrintStream out;
+    private final PrintStream err;
+    
+    LoadTest(PrintStream out, PrintStream err) {
+        this.out = out;
+        this.err = err;
+    }
+    
+    public static void main(String[] args) {
+        System.exit(new LoadTest(System.out, System.err).run(args));
+    }
+    
+    int run(String[] args) {
+        try {
+            CliArguments arguments = CliArguments.parse(args);
+            if (arguments.has("help") || "help".equals(arguments.getCommand())) {
+                printUsage();
+                return EXIT_OK;
+            }
+            switch (arguments.getCommand()) {
+                case "run":
+                    replay(arguments);
+                    return EXIT_OK;
+                case "fake-jira":
+                    serve(arguments);
+                    return EXIT_OK;
+                default:
+                    err.println("Unknown command: " + arguments.getCommand());
+                    printUsage();
+                    return EXIT_USAGE;
+            }
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            printUsage();
+            return EXIT_USAGE;
+        } catch (IOException | ConfigurationException | JiraStoryReaderService.JiraApiException e) {
+            err.println("Error: " + e.getMessage());
+            return EXIT_FAILURE;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            err.println("Interrupted");
+            return EXIT_FAILURE;
+        }
+    }
+    
+    private void replay(CliArguments arguments) throws IOException, ConfigurationException,
+            JiraStoryReaderService.JiraApiException, InterruptedException {
+        Trace trace = arguments.has("trace") ? Trace.read(Paths.get(arguments.get("trace"))) : Trace.sample();
+        int concurrency = arguments.getInt("concurrency", 16);
+        double rate = parseDouble("rate", arguments.get("rate", "0"));
+        int warmupSeconds = arguments.getInt("warmup", 10);
+        int durationSeconds = arguments.getInt("duration", 60);
+        int stories = arguments.getInt("stories", 10000);
+        
+        FakeJira fakeJira = null;
+        try {
+            String url = arguments.get("jira-url");
+            LongSupplier backendRequests = null;
+            if (url == null) {
+                fakeJira = startFakeJira(arguments, 0);
+                url = fakeJira.getUrl();
+                backendRequests = fakeJira::getRequestCount;
+            }
+            JiraConfig config = arguments.has("config")
+                    ? JiraConfig.fromFile(Paths.get(arguments.get("config")))
+                    : new JiraConfig(url, "load-test@example.com", "load-test");
+            config.setJiraUrl(url);
+            
+            try (JiraStoryReaderService service = new JiraStoryReaderService(config)) {
+                LoadRunner runner = new LoadRunner(service, trace, stories, concurrency, rate, backendRequests);
+                err.printf("Replaying %d recorded calls against %s%n", trace.size(), url);
+                if (warmupSeconds > 0) {
+                    err.printf("Warming up for %d s%n", warmupSeconds);
+                    runner.run(warmupSeconds * 1000L);
+                }
+                err.printf("Measuring for %d s%n", durationSeconds);
+                LoadReport report = runner.run(durationSeconds * 1000L);
+                report.print(out);
+                out.flush();
+            }
+        } finally {
+            if (fakeJira != null) {
+                fakeJira.close();
+            }
+        }
+    }
+    
+    private void serve(CliArguments arguments) throws IOException, InterruptedException {
+        FakeJira fakeJira = startFakeJira(arguments, arguments.getInt("port", 8089));
+        Runtime.getRuntime().addShutdownHook(new Thread(fakeJira::close));
+        err.printf("Fake Jira with %d stories listening on %s%n", fakeJira.getStoryCount(), fakeJira.getUrl());
+        new CountDownLatch(1).await();
+    }
+    
+    private static FakeJira startFakeJira(CliArguments arguments, int port) throws IOException {
+        return new FakeJira(port,
+                arguments.getInt("stories", 10000),
+                arguments.getInt("search-results", 200),
+                arguments.getInt("latency-ms", 20),
+                arguments.getInt("fake-threads", 64));
+    }
+    
+    private static double parseDouble(String name, String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for --" + name + ": " + value);
+        }
+    }
+    
+    private void printUsage() {
+        err.println("Usage: jira-story-reader-load-test <command> [options]");
+        err.println();
+        err.println("Commands:");
+        err.println("  run [--trace FILE] [--concurrency 16] [--rate CALLS_PER_SECOND] [--warmup 10] [--duration 60]");
+        err.println("      [--config jira-config.properties] [--jira-url URL]");
+        err.println("  fake-jira [--port 8089]");
+        err.println();
+        err.println("Without --rate, each worker starts its next call as soon as the last one returns.");
+        err.println("Without --jira-url, run starts a fake Jira in the same JVM.");
+        err.println("Fake Jira options, for both commands: [--stories 10000] [--search-results 200]");
+        err.println("  [--latency-ms 20] [--fake-threads 64]");
+    }
+}
@@ -0,0 +1,193 @@
+package com.adyanta.jira.loadtest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A recorded mix of service calls, replayed in order and from the start again when
+ * the end is reached. One call per line, '#' starts a comment:
+ * <pre>
+ * getStoryByKey PROJ-17
+ * searchStories project = PROJ AND status = "In Progress"
+ * getStoriesByKeys PROJ-1, PROJ-2, PROJ-3
+ * </pre>
+ * A key written as PROJ-{random} is replaced by a random key of the fake Jira's
+ * catalog each time the call is replayed, so a short trace does not only measure the cache.
+ */
+public final class Trace {
+    
+    public enum Operation {
+        GET_STORY_BY_KEY("getStoryByKey"),
+        SEARCH_STORIES("searchStories"),
+        GET_STORIES_BY_KEYS("getStoriesByKeys");
+        
+        private final String methodName;
+        
+        Operation(String methodName) {
+            this.methodName = methodName;
+        }
+        
+        public String getMethodName() {
+            return methodName;
+        }
+        
+        static Operation fromMethodName(String name) {
+            for (Operation operation : values()) {
+                if (operation.methodName.equalsIgnoreCase(name)) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Unknown operation: " + name
+                    + " (expected getStoryByKey, searchStories or getStoriesByKeys)");
+        }
+    }
+    
+    static final String RANDOM_KEY = "{random}";
+    
+    private final List<Call> calls;
+    
+    private Trace(List<Call> calls) {
+        this.calls = Collections.unmodifiableList(calls);
+    }
+    
+    public static Trace read(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return read(reader);
+        }
+    }
+    
+    /**
+     * The sample trace shipped with the load test
+     */
+    public static Trace sample() throws IOException {
+        try (InputStream in = Trace.class.getResourceAsStream("/sample.trace")) {
+            if (in == null) {
+                throw new IOException("sample.trace not found on the class path");
+            }
+            return read(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+    }
+    
+    public static Trace read(Reader source) throws IOException {
+        BufferedReader reader = new BufferedReader(source);
+        List<Call> calls = new ArrayList<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            int comment = line.indexOf('#');
+            String text = (comment >= 0 ? line.substring(0, comment) : line).trim();
+            if (text.isEmpty()) {
+                continue;
+            }
+            int space = text.indexOf(' ');
+            if (space < 0) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": missing argument: " + text);
+            }
+            Operation operation = Operation.fromMethodName(text.substring(0, space));
+            String argument = text.substring(space + 1).trim();
+            calls.add(new Call(operation, argument));
+        }
+        if (calls.isEmpty()) {
+            throw new IllegalArgumentException("Trace contains no calls");
+        }
+        return new Trace(calls);
+    }
+    
+    public List<Call> getCalls() {
+        return calls;
+    }
+    
+    public int size() {
+        return calls.size();
+    }
+    
+    public Call get(long position) {
+        return calls.get((int) (position % calls.size()));
+    }
+    
+    /**
+     * One recorded call: a story key, a JQL query or a list of story keys
+     */
+    public static final class Call {
+        
+        private final Operation operation;
+        private final String argument;
+        private final List<String> keys;
+        private final boolean randomKeys;
+        
+        Call(Operation operation, String argument) {
+            this.operation = operation;
+            this.argument = argument;
+            List<String> parsed = new ArrayList<>();
+            if (operation != Operation.SEARCH_STORIES) {
+                for (String key : argument.split("[,\\s]+")) {
+                    if (!key.isEmpty()) {
+                        parsed.add(key.toUpperCase(Locale.ROOT).replace(RANDOM_KEY.toUpperCase(Locale.ROOT), RANDOM_KEY));
+                    }
+                }
+            }
+            this.keys = Collections.unmodifiableList(parsed);
+            this.randomKeys = argument.contains(RANDOM_KEY);
+        }
+        
+        public Operation getOperation() {
+            return operation;
+        }
+        
+        /**
+         * The JQL query of a search, or the keys as written
+         */
+        public String getArgument() {
+            return argument;
+        }
+        
+        /**
+         * Keys to fetch, with random placeholders filled in from a catalog of the given size
+         */
+        public List<String> keys(int catalogSize) {
+            if (!randomKeys) {
+                return keys;
+            }
+            List<String> resolved = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                resolved.add(resolve(key, catalogSize));
+            }
+            return resolved;
+        }
+        
+        /**
+         * The JQL query, with random placeholders filled in
+         */
+        public String jql(int catalogSize) {
+            return randomKeys ? resolve(argument, catalogSize) : argument;
+        }
+        
+        private static String resolve(String text, int catalogSize) {
+            StringBuilder resolved = new StringBuilder(text.length());
+            int from = 0;
+            int at;
+            while ((at = text.indexOf(RANDOM_KEY, from)) >= 0) {
+                resolved.append(text, from, at).append(1 + ThreadLocalRandom.current().nextInt(catalogSize));
+                from = at + RANDOM_KEY.length();
+            }
+            return resolved.append(text, from, text.length()).toString();
+        }
+        
+        @Override
+        public String toString() {
+            return operation.getMethodName() + " " + argument;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.adyanta.jira;
+
+import com.adyanta.jira.config.JiraConfig;
+import com.adyanta.jira.loadtest.FakeJira;
+import com.adyanta.jira.loadtest.LatencyHistogram;
+import com.adyanta.jira.loadtest.LoadReport;
+import com.adyanta.jira.loadtest.LoadRunner;
+import com.adyanta.jira.loadtest.Trace;
+import com.adyanta.jira.service.JiraStoryReaderService;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the load test harness.
+ */
+public class LoadRunnerTest {
+    
+    @Test
+    void testHistogramPercentilesAreWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 100_000; micros++) {
+            histogram.record(micros * 1000);
+        }
+        
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(50_000_000, histogram.getPercentileNanos(50), 50_000_000 * 0.016);
+        assertEquals(99_000_000, histogram.getPercentileNanos(99), 99_000_000 * 0.016);
+        assertEquals(99_900_000, histogram.getPercentileNanos(99.9), 99_900_000 * 0.016);
+        assertEquals(100_000_000, histogram.getPercentileNanos(100));
+        assertEquals(50_000_500, histogram.getMeanNanos(), 1);
+    }
+    
+    @Test
+    void testParsesTraceWithRandomKeys() throws Exception {
+        Trace trace = Trace.read(new StringReader("# mix\n"
+                + "getStoryByKey proj-{random}\n"
+                + "searchStories project = PROJ   # sprint board\n"
+                + "getStoriesByKeys PROJ-1, PROJ-2 PROJ-3\n"));
+        
+        assertEquals(3, trace.size());
+        assertEquals(Trace.Operation.SEARCH_STORIES, trace.get(4).getOperation());
+        assertEquals("project = PROJ", trace.get(1).jql(10));
+        assertEquals(List.of("PROJ-1", "PROJ-2", "PROJ-3"), trace.get(2).keys(10));
+        String key = trace.get(0).keys(5).get(0);
+        assertTrue(key.matches("PROJ-[1-5]"), key);
+        
+        assertThrows(IllegalArgumentException.class, () -> Trace.read(new StringReader("deleteStory PROJ-1")));
+    }
+    
+    @Test
+    void testReplaysTraceAgainstFakeJira() throws Exception {
+        try (FakeJira jira = new FakeJira(0, 500, 20, 0, 8)) {
+            JiraConfig config = new JiraConfig(jira.getUrl(), "load-test@example.com", "load-test");
+            try (JiraStoryReaderService service = new JiraStoryReaderService(config)) {
+                LoadRunner runner = new LoadRunner(service, Trace.sample(), jira.getStoryCount(), 4, 200,
+                        jira::getRequestCount);
+                LoadReport report = runner.run(500);
+                
+                assertEquals(0, report.getErrorCount());
+                assertTrue(report.getCallCount() >= 90 && report.getCallCount() <= 100, "calls: " + report.getCallCount());
+                assertTrue(report.getLatencies(Trace.Operation.GET_STORY_BY_KEY).getCount() > 0);
+                assertTrue(report.getLatencies(Trace.Operation.SEARCH_STORIES).getCount() > 0);
+                assertTrue(report.getLatencies(Trace.Operation.GET_STORIES_BY_KEYS).getCount() > 0);
+                assertTrue(report.getBackendRequests() > 0);
+                assertTrue(report.getAllocatedBytes() > 0);
+            }
+        }
+    }
+}
@@ -46,4 +46,4 @@ echo ""
 # Run the application
 echo "Starting the application..."
 echo "=========================="
-mvn exec:java -Dexec.mainClass="com.adyanta.jira.JiraStoryReaderApplication"
+mvn -pl jira-story-reader exec:java